@@ -17,6 +17,8 @@
 package com.github.nosan.embedded.cassandra.api;
 
 import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
@@ -47,6 +49,38 @@ public interface Cassandra {
 	 */
 	void stop() throws CassandraException, CassandraInterruptedException;
 
+	/**
+	 * Starts the {@code Cassandra} asynchronously. Calling this method on an already started {@code Cassandra} has no
+	 * effect. The returned stage is completed exceptionally if the {@code Cassandra} cannot be started.
+	 * <p>
+	 * Default implementation invokes {@link #start()} in a new daemon thread.
+	 *
+	 * @return a stage that is completed with this {@code Cassandra} when it has started
+	 * @since 3.1.0
+	 */
+	default CompletionStage<Cassandra> startAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			start();
+			return this;
+		}, new ThreadPerTaskExecutor(getName() + "-start"));
+	}
+
+	/**
+	 * Stops the {@code Cassandra} asynchronously. Calling this method on an already stopped {@code Cassandra} has no
+	 * effect. The returned stage is completed exceptionally if the {@code Cassandra} cannot be stopped.
+	 * <p>
+	 * Default implementation invokes {@link #stop()} in a new daemon thread.
+	 *
+	 * @return a stage that is completed with this {@code Cassandra} when it has stopped
+	 * @since 3.1.0
+	 */
+	default CompletionStage<Cassandra> stopAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			stop();
+			return this;
+		}, new ThreadPerTaskExecutor(getName() + "-stop"));
+	}
+
 	/**
 	 * Returns the name of this {@code Cassandra} instance.
 	 *
@@ -100,5 +134,16 @@ public interface Cassandra {
 		return -1;
 	}
 
+	/**
+	 * Returns the time spent on each phase of the last successful start of this {@link Cassandra}.
+	 *
+	 * @return the startup report (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	default StartupReport getStartupReport() {
+		return null;
+	}
+
 }
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api;
+
+import java.util.List;
+
+/**
+ * A {@link Cassandra} that consists of several {@link Cassandra} nodes forming a single ring. {@link #getAddress()}
+ * and ports of this {@code Cassandra} are the seed node's ones.
+ *
+ * @author Dmytro Nosan
+ * @see CassandraFactory
+ * @since 3.1.0
+ */
+public interface CassandraCluster extends Cassandra {
+
+	/**
+	 * Returns the nodes of this cluster. The first node is a seed node.
+	 *
+	 * @return the nodes
+	 */
+	List<Cassandra> getNodes();
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Time spent on each phase of a {@link Cassandra} start, in the order the phases were run. Phase durations are
+ * measured with a monotonic clock ({@link System#nanoTime()}).
+ *
+ * @author Dmytro Nosan
+ * @see Cassandra#getStartupReport()
+ * @since 3.1.0
+ */
+public final class StartupReport {
+
+	private final Map<String, Duration> phases;
+
+	/**
+	 * Creates a {@link StartupReport}.
+	 *
+	 * @param phases the phases and their durations, in order
+	 */
+	public StartupReport(Map<String, Duration> phases) {
+		Objects.requireNonNull(phases, "'phases' must not be null");
+		this.phases = Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+	}
+
+	/**
+	 * Returns the phases and their durations, in order.
+	 *
+	 * @return the phases
+	 */
+	public Map<String, Duration> getPhases() {
+		return this.phases;
+	}
+
+	/**
+	 * Returns the duration of the given phase.
+	 *
+	 * @param phase the name of the phase
+	 * @return the duration (or null if none)
+	 */
+	@Nullable
+	public Duration getDuration(String phase) {
+		Objects.requireNonNull(phase, "'phase' must not be null");
+		return this.phases.get(phase);
+	}
+
+	/**
+	 * Returns the sum of all phases.
+	 *
+	 * @return the total duration
+	 */
+	public Duration getTotal() {
+		return this.phases.values().stream().reduce(Duration.ZERO, Duration::plus);
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+		return this.phases.equals(((StartupReport) other).phases);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.phases.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(", ");
+		this.phases.forEach((phase, duration) -> joiner.add(phase + "=" + duration.toMillis() + "ms"));
+		joiner.add("total=" + getTotal().toMillis() + "ms");
+		return joiner.toString();
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} that runs each task in a new daemon thread.
+ *
+ * @author Dmytro Nosan
+ */
+final class ThreadPerTaskExecutor implements Executor {
+
+	private final String name;
+
+	ThreadPerTaskExecutor(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		Thread thread = new Thread(command, this.name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+}
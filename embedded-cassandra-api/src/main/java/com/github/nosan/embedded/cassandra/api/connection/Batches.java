@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+
+/**
+ * Groups statements by partition key and executes the groups concurrently while the statements are being read.
+ *
+ * @param <S> the statement type
+ * @author Dmytro Nosan
+ */
+final class Batches<S> {
+
+	/**
+	 * Maximum number of statements in a single batch.
+	 */
+	static final int MAX_BATCH_SIZE = 50;
+
+	/**
+	 * Maximum number of batches in flight.
+	 */
+	static final int MAX_IN_FLIGHT = 32;
+
+	/**
+	 * Maximum number of partially filled batches held in memory.
+	 */
+	static final int MAX_PENDING = 1024;
+
+	private final Map<Object, List<S>> pending = new LinkedHashMap<>();
+
+	private final Semaphore permits = new Semaphore(MAX_IN_FLIGHT);
+
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	private final Function<? super List<S>, ? extends CompletionStage<?>> execute;
+
+	private Batches(Function<? super List<S>, ? extends CompletionStage<?>> execute) {
+		this.execute = execute;
+	}
+
+	/**
+	 * Groups the given statements by partition key, keeping their order, and executes the groups, at most {@link
+	 * #MAX_IN_FLIGHT} at a time. A group is executed as soon as it contains {@link #MAX_BATCH_SIZE} statements, or
+	 * when it is the oldest one and there are more than {@link #MAX_PENDING} groups, so only a bounded number of
+	 * statements is held in memory. Statements without a partition key are executed on their own. Waits for the
+	 * completion of all groups.
+	 *
+	 * @param statements the statements
+	 * @param partitionKey the function that returns a partition key of a statement, or {@code null}
+	 * @param execute the function that executes a group asynchronously
+	 * @param <S> the statement type
+	 * @throws CassandraInterruptedException if the execution has been interrupted
+	 */
+	static <S> void execute(Iterable<? extends S> statements, Function<? super S, ?> partitionKey,
+			Function<? super List<S>, ? extends CompletionStage<?>> execute) {
+		new Batches<S>(execute).run(statements, partitionKey);
+	}
+
+	private void run(Iterable<? extends S> statements, Function<? super S, ?> partitionKey) {
+		try {
+			for (S statement : statements) {
+				Object key = partitionKey.apply(statement);
+				if (key == null) {
+					submit(Collections.singletonList(statement));
+					continue;
+				}
+				List<S> batch = this.pending.computeIfAbsent(key, k -> new ArrayList<>());
+				batch.add(statement);
+				if (batch.size() == MAX_BATCH_SIZE) {
+					this.pending.remove(key);
+					submit(batch);
+				}
+				else if (this.pending.size() > MAX_PENDING) {
+					Iterator<List<S>> eldest = this.pending.values().iterator();
+					List<S> next = eldest.next();
+					eldest.remove();
+					submit(next);
+				}
+			}
+			for (List<S> batch : this.pending.values()) {
+				submit(batch);
+			}
+		}
+		finally {
+			this.pending.clear();
+			acquire(MAX_IN_FLIGHT);
+			this.permits.release(MAX_IN_FLIGHT);
+		}
+		rethrow(this.failure.get());
+	}
+
+	private void submit(List<S> batch) {
+		acquire(1);
+		CompletionStage<?> result;
+		try {
+			rethrow(this.failure.get());
+			result = this.execute.apply(batch);
+		}
+		catch (RuntimeException | Error ex) {
+			this.permits.release();
+			throw ex;
+		}
+		result.whenComplete((r, ex) -> {
+			if (ex != null) {
+				this.failure.compareAndSet(null, ex);
+			}
+			this.permits.release();
+		});
+	}
+
+	private void acquire(int count) {
+		try {
+			this.permits.acquire(count);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CassandraInterruptedException("Batch execution interrupted", ex);
+		}
+	}
+
+	private static void rethrow(@Nullable Throwable ex) {
+		Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause != null) {
+			throw new IllegalStateException(cause);
+		}
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 
 /**
@@ -45,6 +48,93 @@ public interface CassandraConnection extends AutoCloseable {
 	 */
 	Object execute(String query, Object... values);
 
+	/**
+	 * Executes a CQL query asynchronously. By default, the query is executed synchronously and a completed stage is
+	 * returned.
+	 *
+	 * @param query the CQL query to execute
+	 * @return a stage that completes with the result of the query
+	 * @since 3.1.0
+	 */
+	default CompletionStage<?> executeAsync(String query) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		try {
+			future.complete(execute(query));
+		}
+		catch (RuntimeException ex) {
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	/**
+	 * Executes the provided CQL query using the provided values asynchronously. By default, the query is executed
+	 * synchronously and a completed stage is returned.
+	 *
+	 * @param query the CQL query to execute
+	 * @param values values required for the execution of {@code query}
+	 * @return a stage that completes with the result of the query
+	 * @since 3.1.0
+	 */
+	default CompletionStage<?> executeAsync(String query, Object... values) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		try {
+			future.complete(execute(query, values));
+		}
+		catch (RuntimeException ex) {
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	/**
+	 * Executes the provided CQL query once for each of the provided values and waits for completion. Implementations
+	 * group statements with the same partition key into {@code UNLOGGED} batches and execute the batches
+	 * concurrently while the values are being read, so only a bounded number of statements is held in memory.
+	 * Statements of a batch share a write timestamp. By default, statements are executed one by one.
+	 *
+	 * @param query the CQL query to execute (e.g. {@code INSERT})
+	 * @param values values required for each execution of {@code query}
+	 * @since 3.1.0
+	 */
+	default void executeBatch(String query, Iterable<Object[]> values) {
+		for (Object[] value : values) {
+			execute(query, value);
+		}
+	}
+
+	/**
+	 * Checks whether all nodes agree on the schema version. By default, returns {@code true}.
+	 *
+	 * @return {@code true} if the schema is in agreement
+	 * @since 3.1.0
+	 */
+	default boolean checkSchemaAgreement() {
+		return true;
+	}
+
+	/**
+	 * Drops all keyspaces except the system ones.
+	 *
+	 * @throws UnsupportedOperationException if the connection does not support this operation
+	 * @since 3.1.0
+	 */
+	default void dropKeyspaces() {
+		throw new UnsupportedOperationException(getClass() + " does not support dropping keyspaces");
+	}
+
+	/**
+	 * Truncates all tables except the system ones. Tables are discovered from the schema tables and truncated
+	 * concurrently, the schema itself is left untouched. Truncation is much faster if {@code auto_snapshot} is
+	 * disabled.
+	 *
+	 * @throws UnsupportedOperationException if the connection does not support this operation
+	 * @since 3.1.0
+	 */
+	default void truncateTables() {
+		throw new UnsupportedOperationException(getClass() + " does not support truncating tables");
+	}
+
 	/**
 	 * Returns the underlying native connection.
 	 *
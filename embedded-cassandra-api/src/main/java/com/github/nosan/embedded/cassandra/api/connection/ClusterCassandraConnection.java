@@ -16,11 +16,28 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.StreamSupport;
 
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
 
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 
@@ -36,13 +53,29 @@ public final class ClusterCassandraConnection implements CassandraConnection {
 
 	private final Session session;
 
+	private final PreparedStatementCache<PreparedStatement> preparedStatements;
+
 	/**
 	 * Creates a {@link ClusterCassandraConnection} with the specified {@link Cluster}.
 	 *
 	 * @param cluster a cluster
 	 */
 	public ClusterCassandraConnection(Cluster cluster) {
+		this(cluster, 0);
+	}
+
+	/**
+	 * Creates a {@link ClusterCassandraConnection} with the specified {@link Cluster} and the size of the {@link
+	 * #getPreparedStatementCache() prepared statement cache}.
+	 *
+	 * @param cluster a cluster
+	 * @param preparedStatementCacheSize the maximum number of cached prepared statements ({@code 0} disables the
+	 * cache)
+	 * @since 3.1.0
+	 */
+	public ClusterCassandraConnection(Cluster cluster, int preparedStatementCacheSize) {
 		this.cluster = Objects.requireNonNull(cluster, "'cluster' must not be null");
+		this.preparedStatements = new PreparedStatementCache<>(preparedStatementCacheSize);
 		this.session = this.cluster.connect();
 	}
 
@@ -56,7 +89,83 @@ public final class ClusterCassandraConnection implements CassandraConnection {
 	public ResultSet execute(String query, Object... values) {
 		Objects.requireNonNull(query, "'query' must not be null");
 		Objects.requireNonNull(values, "'values' must not be null");
-		return this.session.execute(query, values);
+		if (values.length == 0 || this.preparedStatements.getMaxSize() == 0) {
+			return this.session.execute(query, values);
+		}
+		return this.session.execute(prepare(query).bind(values));
+	}
+
+	@Override
+	public CompletionStage<ResultSet> executeAsync(String query) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		return toCompletionStage(this.session.executeAsync(query));
+	}
+
+	@Override
+	public CompletionStage<ResultSet> executeAsync(String query, Object... values) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		Objects.requireNonNull(values, "'values' must not be null");
+		if (values.length == 0 || this.preparedStatements.getMaxSize() == 0) {
+			return toCompletionStage(this.session.executeAsync(query, values));
+		}
+		return toCompletionStage(this.session.executeAsync(prepare(query).bind(values)));
+	}
+
+	@Override
+	public void executeBatch(String query, Iterable<Object[]> values) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		Objects.requireNonNull(values, "'values' must not be null");
+		PreparedStatement prepared = prepare(query);
+		Iterable<BoundStatement> statements = () -> StreamSupport.stream(values.spliterator(), false)
+				.map(prepared::bind).iterator();
+		ProtocolVersion protocolVersion = this.cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
+		CodecRegistry codecRegistry = this.cluster.getConfiguration().getCodecRegistry();
+		Batches.execute(statements, statement -> statement.getRoutingKey(protocolVersion, codecRegistry), batch -> {
+			Statement statement = (batch.size() == 1) ? batch.get(0)
+					: new BatchStatement(BatchStatement.Type.UNLOGGED).addAll(batch);
+			return toCompletionStage(this.session.executeAsync(statement));
+		});
+	}
+
+	@Override
+	public boolean checkSchemaAgreement() {
+		return this.cluster.getMetadata().checkSchemaAgreement();
+	}
+
+	@Override
+	public void dropKeyspaces() {
+		for (KeyspaceMetadata keyspace : this.cluster.getMetadata().getKeyspaces()) {
+			if (!SystemKeyspaces.contains(keyspace.getName())) {
+				this.session.execute("DROP KEYSPACE " + Metadata.quoteIfNecessary(keyspace.getName()));
+			}
+		}
+		this.preparedStatements.clear();
+	}
+
+	@Override
+	public void truncateTables() {
+		List<ResultSetFuture> futures = new ArrayList<>();
+		for (Row row : getTables()) {
+			String keyspace = row.getString("keyspace_name");
+			if (!SystemKeyspaces.contains(keyspace)) {
+				SimpleStatement statement = new SimpleStatement("TRUNCATE " + Metadata.quoteIfNecessary(keyspace)
+						+ "." + Metadata.quoteIfNecessary(row.getString("table_name")));
+				statement.setReadTimeoutMillis(SchemaTables.TRUNCATE_TIMEOUT_MILLIS);
+				futures.add(this.session.executeAsync(statement));
+			}
+		}
+		futures.forEach(ResultSetFuture::getUninterruptibly);
+	}
+
+	/**
+	 * Returns the cache of prepared statements used by {@link #execute(String, Object...)}, {@link
+	 * #executeAsync(String, Object...)} and {@link #executeBatch(String, Iterable)}.
+	 *
+	 * @return the prepared statement cache
+	 * @since 3.1.0
+	 */
+	public PreparedStatementCache<PreparedStatement> getPreparedStatementCache() {
+		return this.preparedStatements;
 	}
 
 	@Override
@@ -69,4 +178,33 @@ public final class ClusterCassandraConnection implements CassandraConnection {
 		this.cluster.close();
 	}
 
+	private PreparedStatement prepare(String query) {
+		if (this.preparedStatements.getMaxSize() == 0) {
+			return this.session.prepare(query);
+		}
+		return this.preparedStatements.get(this.session.getLoggedKeyspace(), query, this.session::prepare);
+	}
+
+	private ResultSet getTables() {
+		try {
+			return this.session.execute(SchemaTables.TABLES_QUERY);
+		}
+		catch (InvalidQueryException ex) {
+			return this.session.execute(SchemaTables.LEGACY_TABLES_QUERY);
+		}
+	}
+
+	private static CompletionStage<ResultSet> toCompletionStage(ResultSetFuture future) {
+		CompletableFuture<ResultSet> result = new CompletableFuture<>();
+		future.addListener(() -> {
+			try {
+				result.complete(future.getUninterruptibly());
+			}
+			catch (Throwable ex) {
+				result.completeExceptionally(ex);
+			}
+		}, Runnable::run);
+		return result;
+	}
+
 }
@@ -72,6 +72,9 @@ public final class ClusterCassandraConnectionBuilder implements CassandraConnect
 	@Nullable
 	private Boolean sslEnabled;
 
+	@Nullable
+	private Integer preparedStatementCacheSize;
+
 	/**
 	 * Sets the username to use to login to Cassandra hosts.
 	 *
@@ -171,6 +174,19 @@ public final class ClusterCassandraConnectionBuilder implements CassandraConnect
 		return this;
 	}
 
+	/**
+	 * Sets the maximum number of prepared statements cached by the created connection. {@code 0} disables the cache.
+	 *
+	 * @param preparedStatementCacheSize the prepared statement cache size
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public ClusterCassandraConnectionBuilder withPreparedStatementCacheSize(
+			@Nullable Integer preparedStatementCacheSize) {
+		this.preparedStatementCacheSize = preparedStatementCacheSize;
+		return this;
+	}
+
 	/**
 	 * Add Additional codecs for custom type mappings.
 	 *
@@ -225,6 +241,7 @@ public final class ClusterCassandraConnectionBuilder implements CassandraConnect
 		Optional.ofNullable(this.metricsEnabled).ifPresent(factory::setMetricsEnabled);
 		Optional.ofNullable(this.jmxEnabled).ifPresent(factory::setJmxEnabled);
 		Optional.ofNullable(this.sslEnabled).ifPresent(factory::setSslEnabled);
+		Optional.ofNullable(this.preparedStatementCacheSize).ifPresent(factory::setPreparedStatementCacheSize);
 		return factory.create(cassandra);
 	}
 
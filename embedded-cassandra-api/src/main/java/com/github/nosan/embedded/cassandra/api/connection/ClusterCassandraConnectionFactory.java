@@ -17,6 +17,7 @@
 package com.github.nosan.embedded.cassandra.api.connection;
 
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.security.KeyStore;
 import java.security.SecureRandom;
 import java.util.ArrayList;
@@ -79,6 +80,8 @@ public final class ClusterCassandraConnectionFactory implements CassandraConnect
 
 	private boolean sslEnabled;
 
+	private int preparedStatementCacheSize;
+
 	/**
 	 * Whether metrics collection for the created cluster.
 	 *
@@ -274,21 +277,46 @@ public final class ClusterCassandraConnectionFactory implements CassandraConnect
 		this.sslEnabled = sslEnabled;
 	}
 
+	/**
+	 * The maximum number of prepared statements cached by {@link ClusterCassandraConnection#execute(String,
+	 * Object...)}.
+	 *
+	 * @return the prepared statement cache size
+	 * @since 3.1.0
+	 */
+	public int getPreparedStatementCacheSize() {
+		return this.preparedStatementCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of prepared statements cached by {@link ClusterCassandraConnection#execute(String,
+	 * Object...)}. Defaults to {@code 0}, which disables the cache and executes such queries as simple statements. A
+	 * positive size prepares every distinct query once and executes it as a bound statement instead.
+	 *
+	 * @param preparedStatementCacheSize the prepared statement cache size
+	 * @since 3.1.0
+	 */
+	public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+		if (preparedStatementCacheSize < 0) {
+			throw new IllegalArgumentException("'preparedStatementCacheSize' must not be negative");
+		}
+		this.preparedStatementCacheSize = preparedStatementCacheSize;
+	}
+
 	@Override
 	public ClusterCassandraConnection create(Cassandra cassandra) {
 		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
 		Cluster cluster = createCluster(cassandra);
-		return new ClusterCassandraConnection(cluster);
+		return new ClusterCassandraConnection(cluster, getPreparedStatementCacheSize());
 	}
 
 	private Cluster createCluster(Cassandra cassandra) {
 		SocketOptions socketOptions = new SocketOptions();
 		socketOptions.setConnectTimeoutMillis(30000);
 		socketOptions.setReadTimeoutMillis(30000);
-		int port = cassandra.getPort();
-		int sslPort = cassandra.getSslPort();
-		Cluster.Builder builder = Cluster.builder().addContactPoints(cassandra.getAddress())
-				.withPort(isSslEnabled() && sslPort != -1 ? sslPort : port)
+		List<InetSocketAddress> contactPoints = ContactPoints.get(cassandra, isSslEnabled());
+		Cluster.Builder builder = Cluster.builder().addContactPointsWithPorts(contactPoints)
+				.withPort(contactPoints.get(0).getPort())
 				.withSocketOptions(socketOptions);
 		if (!isMetricsEnabled()) {
 			builder.withoutMetrics();
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCluster;
+
+/**
+ * Utility class to resolve the contact points of {@link Cassandra}.
+ *
+ * @author Dmytro Nosan
+ */
+final class ContactPoints {
+
+	private ContactPoints() {
+	}
+
+	/**
+	 * Resolves the contact points of the given {@link Cassandra}. If {@code Cassandra} is a {@link CassandraCluster}
+	 * then every node is used as a contact point.
+	 *
+	 * @param cassandra the cassandra
+	 * @param sslEnabled whether SSL port should be used (if any)
+	 * @return the contact points
+	 */
+	static List<InetSocketAddress> get(Cassandra cassandra, boolean sslEnabled) {
+		List<Cassandra> nodes = (cassandra instanceof CassandraCluster) ? ((CassandraCluster) cassandra).getNodes()
+				: Collections.singletonList(cassandra);
+		List<InetSocketAddress> contactPoints = new ArrayList<>(nodes.size());
+		for (Cassandra node : nodes) {
+			int sslPort = node.getSslPort();
+			contactPoints.add(new InetSocketAddress(node.getAddress(),
+					(sslEnabled && sslPort != -1) ? sslPort : node.getPort()));
+		}
+		return contactPoints;
+	}
+
+}
@@ -16,11 +16,26 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.StreamSupport;
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
 
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 
@@ -34,13 +49,29 @@ public final class CqlSessionCassandraConnection implements CassandraConnection
 
 	private final CqlSession session;
 
+	private final PreparedStatementCache<PreparedStatement> preparedStatements;
+
 	/**
 	 * Creates a {@link ClusterCassandraConnection} with the specified {@link CqlSession}.
 	 *
 	 * @param session a session
 	 */
 	public CqlSessionCassandraConnection(CqlSession session) {
+		this(session, 0);
+	}
+
+	/**
+	 * Creates a {@link CqlSessionCassandraConnection} with the specified {@link CqlSession} and the size of the {@link
+	 * #getPreparedStatementCache() prepared statement cache}.
+	 *
+	 * @param session a session
+	 * @param preparedStatementCacheSize the maximum number of cached prepared statements ({@code 0} disables the
+	 * cache)
+	 * @since 3.1.0
+	 */
+	public CqlSessionCassandraConnection(CqlSession session, int preparedStatementCacheSize) {
 		this.session = Objects.requireNonNull(session, "'session' must not be null");
+		this.preparedStatements = new PreparedStatementCache<>(preparedStatementCacheSize);
 	}
 
 	@Override
@@ -53,7 +84,96 @@ public final class CqlSessionCassandraConnection implements CassandraConnection
 	public ResultSet execute(String query, Object... values) {
 		Objects.requireNonNull(query, "'query' must not be null");
 		Objects.requireNonNull(values, "'values' must not be null");
-		return this.session.execute(SimpleStatement.newInstance(query, values));
+		if (values.length == 0 || this.preparedStatements.getMaxSize() == 0) {
+			return this.session.execute(SimpleStatement.newInstance(query, values));
+		}
+		return this.session.execute(prepare(query).bind(values));
+	}
+
+	@Override
+	public CompletionStage<AsyncResultSet> executeAsync(String query) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		return this.session.executeAsync(query);
+	}
+
+	@Override
+	public CompletionStage<AsyncResultSet> executeAsync(String query, Object... values) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		Objects.requireNonNull(values, "'values' must not be null");
+		if (values.length == 0 || this.preparedStatements.getMaxSize() == 0) {
+			return this.session.executeAsync(SimpleStatement.newInstance(query, values));
+		}
+		return this.session.executeAsync(prepare(query).bind(values));
+	}
+
+	@Override
+	public void executeBatch(String query, Iterable<Object[]> values) {
+		Objects.requireNonNull(query, "'query' must not be null");
+		Objects.requireNonNull(values, "'values' must not be null");
+		PreparedStatement prepared = prepare(query);
+		Iterable<BoundStatement> statements = () -> StreamSupport.stream(values.spliterator(), false)
+				.map(prepared::bind).iterator();
+		Batches.execute(statements, BoundStatement::getRoutingKey, batch -> {
+			if (batch.size() == 1) {
+				return this.session.executeAsync(batch.get(0));
+			}
+			BatchStatementBuilder builder = BatchStatement.builder(DefaultBatchType.UNLOGGED);
+			batch.forEach(builder::addStatement);
+			return this.session.executeAsync(builder.build());
+		});
+	}
+
+	@Override
+	public boolean checkSchemaAgreement() {
+		return this.session.checkSchemaAgreement();
+	}
+
+	@Override
+	public void dropKeyspaces() {
+		for (CqlIdentifier keyspace : this.session.refreshSchema().getKeyspaces().keySet()) {
+			if (!SystemKeyspaces.contains(keyspace.asInternal())) {
+				this.session.execute("DROP KEYSPACE " + keyspace.asCql(true));
+			}
+		}
+		this.preparedStatements.clear();
+	}
+
+	@Override
+	public void truncateTables() {
+		List<CompletionStage<AsyncResultSet>> futures = new ArrayList<>();
+		for (Row row : getTables()) {
+			String keyspace = row.getString("keyspace_name");
+			if (!SystemKeyspaces.contains(keyspace)) {
+				SimpleStatement statement = SimpleStatement.newInstance(
+						"TRUNCATE " + CqlIdentifier.fromInternal(keyspace).asCql(true) + "."
+								+ CqlIdentifier.fromInternal(row.getString("table_name")).asCql(true))
+						.setTimeout(Duration.ofMillis(SchemaTables.TRUNCATE_TIMEOUT_MILLIS));
+				futures.add(this.session.executeAsync(statement));
+			}
+		}
+		for (CompletionStage<AsyncResultSet> future : futures) {
+			try {
+				future.toCompletableFuture().join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * Returns the cache of prepared statements used by {@link #execute(String, Object...)}, {@link
+	 * #executeAsync(String, Object...)} and {@link #executeBatch(String, Iterable)}.
+	 *
+	 * @return the prepared statement cache
+	 * @since 3.1.0
+	 */
+	public PreparedStatementCache<PreparedStatement> getPreparedStatementCache() {
+		return this.preparedStatements;
 	}
 
 	@Override
@@ -66,4 +186,21 @@ public final class CqlSessionCassandraConnection implements CassandraConnection
 		this.session.close();
 	}
 
+	private PreparedStatement prepare(String query) {
+		if (this.preparedStatements.getMaxSize() == 0) {
+			return this.session.prepare(query);
+		}
+		String keyspace = this.session.getKeyspace().map(CqlIdentifier::asInternal).orElse(null);
+		return this.preparedStatements.get(keyspace, query, this.session::prepare);
+	}
+
+	private ResultSet getTables() {
+		try {
+			return this.session.execute(SchemaTables.TABLES_QUERY);
+		}
+		catch (InvalidQueryException ex) {
+			return this.session.execute(SchemaTables.LEGACY_TABLES_QUERY);
+		}
+	}
+
 }
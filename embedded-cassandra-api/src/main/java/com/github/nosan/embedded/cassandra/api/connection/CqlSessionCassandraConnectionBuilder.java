@@ -76,6 +76,9 @@ public final class CqlSessionCassandraConnectionBuilder implements CassandraConn
 	@Nullable
 	private Boolean sslEnabled;
 
+	@Nullable
+	private Integer preparedStatementCacheSize;
+
 	/**
 	 * Sets the username to use to login to Cassandra hosts.
 	 *
@@ -175,6 +178,19 @@ public final class CqlSessionCassandraConnectionBuilder implements CassandraConn
 		return this;
 	}
 
+	/**
+	 * Sets the maximum number of prepared statements cached by the created connection. {@code 0} disables the cache.
+	 *
+	 * @param preparedStatementCacheSize the prepared statement cache size
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public CqlSessionCassandraConnectionBuilder withPreparedStatementCacheSize(
+			@Nullable Integer preparedStatementCacheSize) {
+		this.preparedStatementCacheSize = preparedStatementCacheSize;
+		return this;
+	}
+
 	/**
 	 * Add Additional codecs for custom type mappings.
 	 *
@@ -245,6 +261,7 @@ public final class CqlSessionCassandraConnectionBuilder implements CassandraConn
 		Optional.ofNullable(this.keystore).ifPresent(factory::setKeystore);
 		Optional.ofNullable(this.keystorePassword).ifPresent(factory::setKeystorePassword);
 		Optional.ofNullable(this.sslEnabled).ifPresent(factory::setSslEnabled);
+		Optional.ofNullable(this.preparedStatementCacheSize).ifPresent(factory::setPreparedStatementCacheSize);
 		return factory.create(cassandra);
 	}
 
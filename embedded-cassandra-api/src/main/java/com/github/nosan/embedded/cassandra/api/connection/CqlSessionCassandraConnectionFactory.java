@@ -82,6 +82,8 @@ public final class CqlSessionCassandraConnectionFactory implements CassandraConn
 
 	private boolean sslEnabled;
 
+	private int preparedStatementCacheSize;
+
 	/**
 	 * Additional codecs for custom type mappings.
 	 *
@@ -278,11 +280,37 @@ public final class CqlSessionCassandraConnectionFactory implements CassandraConn
 		this.sslEnabled = sslEnabled;
 	}
 
+	/**
+	 * The maximum number of prepared statements cached by {@link CqlSessionCassandraConnection#execute(String,
+	 * Object...)}.
+	 *
+	 * @return the prepared statement cache size
+	 * @since 3.1.0
+	 */
+	public int getPreparedStatementCacheSize() {
+		return this.preparedStatementCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of prepared statements cached by {@link CqlSessionCassandraConnection#execute(String,
+	 * Object...)}. Defaults to {@code 0}, which disables the cache and executes such queries as simple statements. A
+	 * positive size prepares every distinct query once and executes it as a bound statement instead.
+	 *
+	 * @param preparedStatementCacheSize the prepared statement cache size
+	 * @since 3.1.0
+	 */
+	public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+		if (preparedStatementCacheSize < 0) {
+			throw new IllegalArgumentException("'preparedStatementCacheSize' must not be negative");
+		}
+		this.preparedStatementCacheSize = preparedStatementCacheSize;
+	}
+
 	@Override
 	public CqlSessionCassandraConnection create(Cassandra cassandra) {
 		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
 		CqlSession session = createSession(cassandra);
-		return new CqlSessionCassandraConnection(session);
+		return new CqlSessionCassandraConnection(session, getPreparedStatementCacheSize());
 	}
 
 	private CqlSession createSession(Cassandra cassandra) {
@@ -323,11 +351,8 @@ public final class CqlSessionCassandraConnectionFactory implements CassandraConn
 		List<Consumer<? super ProgrammaticDriverConfigLoaderBuilder>> driverConfigLoaderBuilderCustomizers =
 				getDriverConfigLoaderBuilderCustomizers();
 		driverConfigLoaderBuilderCustomizers.forEach(customizer -> customizer.accept(driverBuilder));
-		int port = cassandra.getPort();
-		int sslPort = cassandra.getSslPort();
-		InetSocketAddress contactPoint = new InetSocketAddress(cassandra.getAddress(),
-				(isSslEnabled() && sslPort != -1) ? sslPort : port);
-		CqlSessionBuilder sessionBuilder = CqlSession.builder().addContactPoint(contactPoint)
+		List<InetSocketAddress> contactPoints = ContactPoints.get(cassandra, isSslEnabled());
+		CqlSessionBuilder sessionBuilder = CqlSession.builder().addContactPoints(contactPoints)
 				.withConfigLoader(driverBuilder.build());
 		String localDataCenter = getLocalDataCenter();
 		if (localDataCenter != null) {
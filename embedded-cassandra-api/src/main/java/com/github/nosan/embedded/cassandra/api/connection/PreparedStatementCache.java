@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Bounded cache of prepared statements used by {@link CassandraConnection#execute(String, Object...)},
+ * {@link CassandraConnection#executeAsync(String, Object...)} and
+ * {@link CassandraConnection#executeBatch(String, Iterable)}. Statements are keyed by the query and the keyspace of
+ * the session. If {@link #getMaxSize() max size} is exceeded, the least recently used statement is evicted.
+ *
+ * @param <T> the prepared statement type
+ * @author Dmytro Nosan
+ * @see ClusterCassandraConnection#getPreparedStatementCache()
+ * @see CqlSessionCassandraConnection#getPreparedStatementCache()
+ * @since 3.1.0
+ */
+public final class PreparedStatementCache<T> {
+
+	private final int maxSize;
+
+	private final Map<Key, T> statements;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	PreparedStatementCache(int maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException("'maxSize' must not be negative");
+		}
+		this.maxSize = maxSize;
+		this.statements = new LinkedHashMap<Key, T>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+				return size() > maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Returns the maximum number of cached statements. {@code 0} means the cache is disabled.
+	 *
+	 * @return the max size
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Returns the number of cached statements.
+	 *
+	 * @return the size
+	 */
+	public synchronized int getSize() {
+		return this.statements.size();
+	}
+
+	/**
+	 * Returns the number of lookups which returned a cached statement.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups which prepared a statement.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Returns the ratio of lookups which returned a cached statement, or {@code 0} if there were no lookups.
+	 *
+	 * @return the hit rate (between {@code 0} and {@code 1})
+	 */
+	public double getHitRate() {
+		long hits = this.hits.get();
+		long total = hits + this.misses.get();
+		return (total > 0) ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Removes all cached statements. Hit and miss counts are kept.
+	 */
+	public synchronized void clear() {
+		this.statements.clear();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", PreparedStatementCache.class.getSimpleName() + "[", "]")
+				.add("size=" + getSize())
+				.add("maxSize=" + this.maxSize)
+				.add("hits=" + this.hits)
+				.add("misses=" + this.misses)
+				.toString();
+	}
+
+	/**
+	 * Returns the cached statement of the given query, the query is prepared on a miss.
+	 *
+	 * @param keyspace the keyspace of the session
+	 * @param query the query
+	 * @param prepare the function that prepares the query
+	 * @return the prepared statement
+	 */
+	T get(@Nullable String keyspace, String query, Function<? super String, ? extends T> prepare) {
+		Key key = new Key(keyspace, query);
+		T statement;
+		synchronized (this) {
+			statement = this.statements.get(key);
+		}
+		if (statement != null) {
+			this.hits.incrementAndGet();
+			return statement;
+		}
+		this.misses.incrementAndGet();
+		statement = prepare.apply(query);
+		synchronized (this) {
+			this.statements.put(key, statement);
+		}
+		return statement;
+	}
+
+	private static final class Key {
+
+		@Nullable
+		private final String keyspace;
+
+		private final String query;
+
+		Key(@Nullable String keyspace, String query) {
+			this.keyspace = keyspace;
+			this.query = query;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other == null || getClass() != other.getClass()) {
+				return false;
+			}
+			Key that = (Key) other;
+			return Objects.equals(this.keyspace, that.keyspace) && this.query.equals(that.query);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Objects.hashCode(this.keyspace) + this.query.hashCode();
+		}
+
+	}
+
+}
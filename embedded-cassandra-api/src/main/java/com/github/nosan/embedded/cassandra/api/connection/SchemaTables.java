@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+/**
+ * Queries to discover tables from {@code Cassandra} schema tables.
+ *
+ * @author Dmytro Nosan
+ */
+final class SchemaTables {
+
+	/**
+	 * Selects keyspace and table names of all tables ({@code Cassandra 3.0} and later).
+	 */
+	static final String TABLES_QUERY = "SELECT keyspace_name, table_name FROM system_schema.tables";
+
+	/**
+	 * Selects keyspace and table names of all tables (before {@code Cassandra 3.0}).
+	 */
+	static final String LEGACY_TABLES_QUERY = "SELECT keyspace_name, columnfamily_name AS table_name "
+			+ "FROM system.schema_columnfamilies";
+
+	/**
+	 * Timeout of a single {@code TRUNCATE} request, mirrors {@code truncate_request_timeout_in_ms}.
+	 */
+	static final int TRUNCATE_TIMEOUT_MILLIS = 60000;
+
+	private SchemaTables() {
+	}
+
+}
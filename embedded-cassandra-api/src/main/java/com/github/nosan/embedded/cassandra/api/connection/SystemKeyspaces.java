@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Names of the keyspaces which are managed by {@code Cassandra} itself.
+ *
+ * @author Dmytro Nosan
+ */
+final class SystemKeyspaces {
+
+	private static final Set<String> KEYSPACES = Collections.unmodifiableSet(new LinkedHashSet<>(
+			Arrays.asList("system", "system_auth", "system_distributed", "system_schema", "system_traces",
+					"system_views", "system_virtual_schema")));
+
+	private SystemKeyspaces() {
+	}
+
+	/**
+	 * Whether the given keyspace is a system keyspace.
+	 *
+	 * @param keyspace the keyspace name
+	 * @return {@code true} if the keyspace is managed by {@code Cassandra}
+	 */
+	static boolean contains(String keyspace) {
+		return KEYSPACES.contains(keyspace);
+	}
+
+}
@@ -16,8 +16,15 @@
 
 package com.github.nosan.embedded.cassandra.api.cql;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
@@ -31,7 +38,28 @@ public abstract class AbstractCqlScript implements CqlScript {
 
 	@Override
 	public final List<String> getStatements() {
-		return Collections.unmodifiableList(new Parser(getScript()).getStatements());
+		try (Stream<String> statements = streamStatements()) {
+			return Collections.unmodifiableList(statements.collect(Collectors.toList()));
+		}
+	}
+
+	@Override
+	public Stream<String> streamStatements() {
+		Reader reader;
+		try {
+			reader = openReader();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(String.format("Cannot open a stream for '%s'", this), ex);
+		}
+		return new Parser(reader).stream().onClose(() -> {
+			try {
+				reader.close();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
 	}
 
 	/**
@@ -42,4 +70,16 @@ public abstract class AbstractCqlScript implements CqlScript {
 	@Nullable
 	protected abstract String getScript();
 
+	/**
+	 * Opens a {@link Reader} for the {@code CQL} script. By default, reads the {@link #getScript() script}. Subclasses
+	 * may override this method to parse the script without loading it in memory.
+	 *
+	 * @return the reader of the script
+	 * @throws IOException if the reader cannot be opened
+	 * @since 3.1.0
+	 */
+	protected Reader openReader() throws IOException {
+		return new StringReader(Objects.toString(getScript(), ""));
+	}
+
 }
@@ -163,6 +163,21 @@ public interface CqlDataSet extends CqlScript {
 		getScripts().forEach(callback);
 	}
 
+	/**
+	 * Opens every {@link CqlScript} and parses its first statement, so that a missing or unreadable script fails
+	 * before the statements are executed, e.g. before {@code Cassandra} is started.
+	 *
+	 * @throws RuntimeException if a script cannot be read
+	 * @since 3.1.0
+	 */
+	default void checkScripts() {
+		for (CqlScript script : getScripts()) {
+			try (Stream<String> statements = script.streamStatements()) {
+				statements.findFirst();
+			}
+		}
+	}
+
 	/**
 	 * Returns {@code CQL} statements.
 	 *
@@ -170,9 +185,21 @@ public interface CqlDataSet extends CqlScript {
 	 */
 	@Override
 	default List<String> getStatements() {
-		List<String> statements = new ArrayList<>();
-		getScripts().forEach(script -> statements.addAll(script.getStatements()));
-		return Collections.unmodifiableList(statements);
+		try (Stream<String> statements = streamStatements()) {
+			return Collections.unmodifiableList(statements.collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Returns a sequential {@code Stream} of {@code CQL} statements of all {@link CqlScript}(s). Each script is parsed
+	 * lazily, only when the stream reaches it.
+	 *
+	 * @return a stream of {@code CQL} statements
+	 * @since 3.1.0
+	 */
+	@Override
+	default Stream<String> streamStatements() {
+		return getScripts().stream().flatMap(CqlScript::streamStatements);
 	}
 
 	/**
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Summary of a {@link CqlScriptExecutor#execute(CqlScript) CqlScript execution}.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class CqlExecutionReport {
+
+	private final long statements;
+
+	private final long asyncStatements;
+
+	private final Duration duration;
+
+	/**
+	 * Creates a new {@link CqlExecutionReport}.
+	 *
+	 * @param statements the number of executed statements
+	 * @param asyncStatements the number of statements executed asynchronously
+	 * @param duration the execution time
+	 */
+	public CqlExecutionReport(long statements, long asyncStatements, Duration duration) {
+		this.statements = statements;
+		this.asyncStatements = asyncStatements;
+		this.duration = Objects.requireNonNull(duration, "'duration' must not be null");
+	}
+
+	/**
+	 * Returns the number of executed statements.
+	 *
+	 * @return the number of statements
+	 */
+	public long getStatements() {
+		return this.statements;
+	}
+
+	/**
+	 * Returns the number of statements executed asynchronously (data manipulation statements).
+	 *
+	 * @return the number of asynchronous statements
+	 */
+	public long getAsyncStatements() {
+		return this.asyncStatements;
+	}
+
+	/**
+	 * Returns the execution time.
+	 *
+	 * @return the duration
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Returns the number of executed statements per second.
+	 *
+	 * @return the throughput
+	 */
+	public double getStatementsPerSecond() {
+		long nanos = this.duration.toNanos();
+		return (nanos > 0) ? this.statements * 1_000_000_000.0 / nanos : 0;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+		CqlExecutionReport that = (CqlExecutionReport) other;
+		return this.statements == that.statements && this.asyncStatements == that.asyncStatements
+				&& this.duration.equals(that.duration);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.statements, this.asyncStatements, this.duration);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ")
+				.add("statements=" + this.statements)
+				.add("async=" + this.asyncStatements)
+				.add("duration=" + this.duration.toMillis() + "ms")
+				.add(String.format("rate=%.1f statements/sec", getStatementsPerSecond()))
+				.toString();
+	}
+
+}
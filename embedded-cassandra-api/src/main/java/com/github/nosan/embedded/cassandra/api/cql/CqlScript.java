@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
@@ -99,7 +100,20 @@ public interface CqlScript {
 	 */
 	default void forEachStatement(Consumer<? super String> callback) {
 		Objects.requireNonNull(callback, "'callback' must not be null");
-		getStatements().forEach(callback);
+		try (Stream<String> statements = streamStatements()) {
+			statements.forEach(callback);
+		}
+	}
+
+	/**
+	 * Returns a sequential {@code Stream} of {@code CQL} statements. Implementations may parse statements lazily, in
+	 * which case the stream holds the underlying script open and should be closed once consumed.
+	 *
+	 * @return a stream of {@code CQL} statements
+	 * @since 3.1.0
+	 */
+	default Stream<String> streamStatements() {
+		return getStatements().stream();
 	}
 
 	/**
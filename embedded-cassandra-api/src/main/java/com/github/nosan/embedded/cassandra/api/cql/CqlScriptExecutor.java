@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+
+/**
+ * Executes {@link CqlScript CqlScripts} (e.g. {@link CqlDataSet}) using a {@link CassandraConnection}. Statements are
+ * classified as follows:
+ * <ul>
+ *     <li>{@code INSERT}, {@code UPDATE}, {@code DELETE} and {@code BATCH} statements are executed
+ *     {@link CassandraConnection#executeAsync(String) asynchronously}, at most {@link #setMaxInFlight(int) max in
+ *     flight} at a time. Drivers assign client-side timestamps in the execution order, so the last write wins as if
+ *     statements were executed one by one.</li>
+ *     <li>Any other statement is a barrier: it is executed synchronously after all pending statements have completed.
+ *     Conditional ({@code IF}) data manipulation statements, as well as {@code UPDATE}, {@code DELETE} and
+ *     {@code BATCH} statements containing a {@code [} (e.g. list appends, prepends and element updates), are barriers
+ *     too, because their outcome does not depend on client-side timestamps. Schema statements ({@code CREATE},
+ *     {@code ALTER} and {@code DROP}) also wait for {@link CassandraConnection#checkSchemaAgreement() schema
+ *     agreement}.</li>
+ * </ul>
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class CqlScriptExecutor {
+
+	private final CassandraConnection connection;
+
+	private int maxInFlight = 32;
+
+	private Duration schemaAgreementTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * Constructs a new {@link CqlScriptExecutor} with the specified {@link CassandraConnection}.
+	 *
+	 * @param connection the connection
+	 */
+	public CqlScriptExecutor(CassandraConnection connection) {
+		this.connection = Objects.requireNonNull(connection, "'connection' must not be null");
+	}
+
+	/**
+	 * Returns the maximum number of asynchronous statements in flight. Defaults to {@code 32}.
+	 *
+	 * @return the max in flight
+	 */
+	public int getMaxInFlight() {
+		return this.maxInFlight;
+	}
+
+	/**
+	 * Sets the maximum number of asynchronous statements in flight. {@code 1} executes statements one by one.
+	 *
+	 * @param maxInFlight the max in flight (must be positive)
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("'maxInFlight' must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Returns how long to wait for schema agreement after a schema statement. Defaults to {@code 10} seconds.
+	 *
+	 * @return the schema agreement timeout
+	 */
+	public Duration getSchemaAgreementTimeout() {
+		return this.schemaAgreementTimeout;
+	}
+
+	/**
+	 * Sets how long to wait for schema agreement after a schema statement.
+	 *
+	 * @param schemaAgreementTimeout the schema agreement timeout
+	 */
+	public void setSchemaAgreementTimeout(Duration schemaAgreementTimeout) {
+		this.schemaAgreementTimeout = Objects.requireNonNull(schemaAgreementTimeout,
+				"'schemaAgreementTimeout' must not be null");
+	}
+
+	/**
+	 * Executes the statements of the given script.
+	 *
+	 * @param script the script
+	 * @return the execution report
+	 * @throws CassandraInterruptedException if the execution has been interrupted
+	 */
+	public CqlExecutionReport execute(CqlScript script) throws CassandraInterruptedException {
+		Objects.requireNonNull(script, "'script' must not be null");
+		long start = System.nanoTime();
+		long statements = 0;
+		long asyncStatements = 0;
+		int maxInFlight = this.maxInFlight;
+		Semaphore permits = new Semaphore(maxInFlight);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		try (Stream<String> stream = script.streamStatements()) {
+			Iterator<String> iterator = stream.iterator();
+			while (iterator.hasNext()) {
+				String statement = iterator.next();
+				Type type = Type.of(statement);
+				if (type == Type.ASYNC) {
+					acquire(permits, 1);
+					CompletionStage<?> result;
+					try {
+						rethrow(failure.get());
+						result = this.connection.executeAsync(statement);
+					}
+					catch (RuntimeException | Error ex) {
+						permits.release();
+						throw ex;
+					}
+					result.whenComplete((r, ex) -> {
+						if (ex != null) {
+							failure.compareAndSet(null, ex);
+						}
+						permits.release();
+					});
+					asyncStatements++;
+				}
+				else {
+					await(permits, maxInFlight);
+					rethrow(failure.get());
+					this.connection.execute(statement);
+					if (type == Type.SCHEMA) {
+						awaitSchemaAgreement();
+					}
+				}
+				statements++;
+			}
+		}
+		finally {
+			await(permits, maxInFlight);
+		}
+		rethrow(failure.get());
+		return new CqlExecutionReport(statements, asyncStatements, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private void awaitSchemaAgreement() {
+		long deadline = System.nanoTime() + this.schemaAgreementTimeout.toNanos();
+		while (!this.connection.checkSchemaAgreement()) {
+			if (System.nanoTime() - deadline >= 0) {
+				throw new IllegalStateException(
+						"Schema agreement has not been reached in " + this.schemaAgreementTimeout.toMillis() + "ms");
+			}
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new CassandraInterruptedException("Schema agreement interrupted", ex);
+			}
+		}
+	}
+
+	private static void await(Semaphore permits, int maxInFlight) {
+		acquire(permits, maxInFlight);
+		permits.release(maxInFlight);
+	}
+
+	private static void acquire(Semaphore permits, int count) {
+		try {
+			permits.acquire(count);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CassandraInterruptedException("CQL script execution interrupted", ex);
+		}
+	}
+
+	private static void rethrow(@Nullable Throwable ex) {
+		Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause != null) {
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private enum Type {
+		ASYNC,
+		SCHEMA,
+		OTHER;
+
+		static Type of(String statement) {
+			String text = statement.trim().toUpperCase(Locale.ENGLISH);
+			if (text.startsWith("INSERT") || text.startsWith("UPDATE") || text.startsWith("DELETE")
+					|| text.startsWith("BEGIN")) {
+				if (text.contains(" IF ") || (!text.startsWith("INSERT") && text.indexOf('[') != -1)) {
+					return OTHER;
+				}
+				return ASYNC;
+			}
+			if (text.startsWith("CREATE") || text.startsWith("ALTER") || text.startsWith("DROP")) {
+				return SCHEMA;
+			}
+			return OTHER;
+		}
+
+	}
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+/**
+ * Process-wide cache of parsed {@code CQL} statements of {@link CqlScript#ofResource(Charset, Resource) resource}
+ * scripts. Entries are keyed by the URL of a resource, the charset and the version of the content: the last modified
+ * time and the size of a file, the {@code CRC} of a jar entry, or, if neither is available, the {@code SHA-256}
+ * checksum of the content. If {@link #setMaxSize(long) max size} is exceeded, least recently used entries are evicted.
+ * Scripts which are larger than max size are never cached and are parsed lazily.
+ *
+ * @author Dmytro Nosan
+ * @see CqlScript#ofResource(Charset, Resource)
+ * @since 3.1.0
+ */
+public final class CqlStatementCache {
+
+	private static final CqlStatementCache INSTANCE = new CqlStatementCache();
+
+	private static final long DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+	private final Map<Key, List<String>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private long maxSize = DEFAULT_MAX_SIZE;
+
+	private long size;
+
+	CqlStatementCache() {
+	}
+
+	/**
+	 * Returns the process-wide {@link CqlStatementCache}.
+	 *
+	 * @return the cache
+	 */
+	public static CqlStatementCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the number of lookups which returned cached statements.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups which parsed a script.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Returns the size of all entries (total length of cached statements).
+	 *
+	 * @return the size
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the maximum size of all entries (total length of cached statements). Defaults to {@code 8M}.
+	 *
+	 * @return the max size
+	 */
+	public synchronized long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Sets the maximum size of all entries (total length of cached statements). If exceeded, least recently used
+	 * entries are evicted. {@code 0} disables the cache.
+	 *
+	 * @param maxSize the max size (must not be negative)
+	 */
+	public synchronized void setMaxSize(long maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException("'maxSize' must not be negative");
+		}
+		this.maxSize = maxSize;
+		evict();
+	}
+
+	/**
+	 * Removes all entries. Hit and miss counts are kept.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.size = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return new StringJoiner(", ", CqlStatementCache.class.getSimpleName() + "[", "]")
+				.add("entries=" + this.entries.size())
+				.add("size=" + this.size)
+				.add("maxSize=" + this.maxSize)
+				.add("hits=" + this.hits)
+				.add("misses=" + this.misses)
+				.toString();
+	}
+
+	/**
+	 * Returns the statements of the given resource, the resource is parsed and cached on a miss.
+	 *
+	 * @param resource the resource
+	 * @param charset the charset
+	 * @return the statements, or {@code null} if the resource cannot be cached
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	List<String> getStatements(Resource resource, Charset charset) throws IOException {
+		long maxSize = getMaxSize();
+		if (maxSize == 0) {
+			return null;
+		}
+		URL url;
+		try {
+			url = resource.toURL();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		byte[] content = null;
+		Version version = getVersion(url);
+		if (version == null) {
+			content = resource.getBytes();
+			version = new Version(sha256(content), content.length);
+		}
+		if (version.length > maxSize) {
+			return null;
+		}
+		Key key = new Key(url.toString(), charset, version.value);
+		List<String> statements = get(key);
+		if (statements != null) {
+			this.hits.incrementAndGet();
+			return statements;
+		}
+		this.misses.incrementAndGet();
+		InputStream is = (content != null) ? new ByteArrayInputStream(content) : resource.getInputStream();
+		try (Reader reader = new InputStreamReader(is, charset)) {
+			statements = Collections.unmodifiableList(new Parser(reader).getStatements());
+		}
+		put(key, statements);
+		return statements;
+	}
+
+	@Nullable
+	private synchronized List<String> get(Key key) {
+		return this.entries.get(key);
+	}
+
+	private synchronized void put(Key key, List<String> statements) {
+		long size = 0;
+		for (String statement : statements) {
+			size += statement.length();
+		}
+		List<String> previous = this.entries.put(key, statements);
+		if (previous != null) {
+			for (String statement : previous) {
+				size -= statement.length();
+			}
+		}
+		this.size += size;
+		evict();
+	}
+
+	private void evict() {
+		Iterator<List<String>> iterator = this.entries.values().iterator();
+		while (this.size > this.maxSize && iterator.hasNext()) {
+			for (String statement : iterator.next()) {
+				this.size -= statement.length();
+			}
+			iterator.remove();
+		}
+	}
+
+	@Nullable
+	private static Version getVersion(URL url) throws IOException {
+		if ("file".equals(url.getProtocol())) {
+			try {
+				Path path = Paths.get(url.toURI());
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				return new Version(attributes.lastModifiedTime().toMillis() + ":" + attributes.size(),
+						attributes.size());
+			}
+			catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException ex) {
+				return null;
+			}
+		}
+		URLConnection connection = url.openConnection();
+		if (connection instanceof JarURLConnection) {
+			JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+			if (entry != null && entry.getCrc() != -1 && entry.getSize() != -1) {
+				return new Version(entry.getCrc() + ":" + entry.getSize(), entry.getSize());
+			}
+		}
+		return null;
+	}
+
+	private static String sha256(byte[] content) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest(content)) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private static final class Version {
+
+		private final String value;
+
+		private final long length;
+
+		Version(String value, long length) {
+			this.value = value;
+			this.length = length;
+		}
+
+	}
+
+	private static final class Key {
+
+		private final String url;
+
+		private final Charset charset;
+
+		private final String version;
+
+		Key(String url, Charset charset, String version) {
+			this.url = url;
+			this.charset = charset;
+			this.version = version;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other == null || getClass() != other.getClass()) {
+				return false;
+			}
+			Key that = (Key) other;
+			return this.url.equals(that.url) && this.charset.equals(that.charset)
+					&& this.version.equals(that.version);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = this.url.hashCode();
+			result = 31 * result + this.charset.hashCode();
+			result = 31 * result + this.version.hashCode();
+			return result;
+		}
+
+	}
+
+}
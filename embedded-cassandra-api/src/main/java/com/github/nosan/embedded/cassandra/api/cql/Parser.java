@@ -16,121 +16,187 @@
 
 package com.github.nosan.embedded.cassandra.api.cql;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
-import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
- * This class parses CQL script into the statements.
+ * This class parses CQL script into the statements. Statements are read lazily from the underlying {@link Reader}, so
+ * only the current statement is kept in memory.
  *
  * @author Dmytro Nosan
  */
-final class Parser {
+final class Parser implements Iterator<String> {
 
-	private final char[] chars;
+	private static final int EOF = -1;
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[8192];
+
+	private int position;
+
+	private int limit;
+
+	private boolean eof;
+
+	@Nullable
+	private String next;
 
 	Parser(@Nullable String script) {
-		this.chars = Objects.toString(script, "").toCharArray();
+		this(new StringReader(Objects.toString(script, "")));
+	}
+
+	Parser(Reader reader) {
+		this.reader = reader;
 	}
 
 	List<String> getStatements() {
 		List<String> statements = new ArrayList<>();
+		forEachRemaining(statements::add);
+		return statements;
+	}
+
+	Stream<String> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.next == null && !this.eof) {
+			this.next = parseNext();
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		String statement = this.next;
+		this.next = null;
+		return statement;
+	}
+
+	@Nullable
+	private String parseNext() {
 		StringBuilder statement = new StringBuilder();
 		Context context = Context.NONE;
-		for (int i = 0; i < this.chars.length; i++) {
-			char c = this.chars[i];
+		boolean space = false;
+		int c;
+		while ((c = read()) != EOF) {
 			if (context == Context.NONE) {
-				if (c == '/' && next(i, '/')) {
+				if (c == '/' && skip('/')) {
 					context = Context.COMMENT;
-					i++;
 				}
-				else if (c == '-' && next(i, '-')) {
+				else if (c == '-' && skip('-')) {
 					context = Context.COMMENT;
-					i++;
 				}
-				else if (c == '/' && next(i, '*')) {
+				else if (c == '/' && skip('*')) {
 					context = Context.MULTI_COMMENT;
-					i++;
 				}
 				else if (c == '\n' || c == '\r' || c == '\t' || c == ' ') {
-					while (next(i, '\n')) {
-						i++;
-					}
-					while (next(i, '\r')) {
-						i++;
-					}
-					while (next(i, '\t')) {
-						i++;
-					}
-					while (next(i, ' ')) {
-						i++;
-					}
-					if (statement.length() > 0 && i != this.chars.length - 1) {
-						statement.append(' ');
-					}
+					space = statement.length() > 0;
+				}
+				else if (c == ';') {
+					return statement.toString();
 				}
 				else {
+					if (space) {
+						statement.append(' ');
+						space = false;
+					}
+					statement.append((char) c);
 					if (c == '"') {
-						statement.append(c);
 						context = Context.DOUBLE_QUOTE;
 					}
 					else if (c == '\'') {
-						statement.append(c);
 						context = Context.QUOTE;
 					}
-					else if (c == '$' && next(i, '$')) {
-						statement.append(c).append('$');
-						i++;
+					else if (c == '$' && skip('$')) {
+						statement.append('$');
 						context = Context.DOUBLE_DOLLAR;
 					}
-					else if (c == ';') {
-						statements.add(statement.toString());
-						statement.delete(0, statement.length());
-					}
-					else {
-						statement.append(c);
-					}
 				}
 			}
-			else if (context == Context.MULTI_COMMENT && c == '*' && next(i, '/')) {
-				context = Context.NONE;
-				i++;
-			}
-			else if (context == Context.COMMENT && c == '\n') {
-				context = Context.NONE;
-			}
-			else if (context == Context.QUOTE) {
-				statement.append(c);
-				if (c == '\'') {
+			else if (context == Context.MULTI_COMMENT) {
+				if (c == '*' && skip('/')) {
 					context = Context.NONE;
+					space = statement.length() > 0;
 				}
 			}
-			else if (context == Context.DOUBLE_QUOTE) {
-				statement.append(c);
-				if (c == '"') {
+			else if (context == Context.COMMENT) {
+				if (c == '\n') {
 					context = Context.NONE;
+					space = statement.length() > 0;
 				}
 			}
-			else if (context == Context.DOUBLE_DOLLAR) {
-				statement.append(c);
-				if (c == '$' && next(i, '$')) {
+			else {
+				statement.append((char) c);
+				if (context == Context.QUOTE && c == '\'') {
+					context = Context.NONE;
+				}
+				else if (context == Context.DOUBLE_QUOTE && c == '"') {
+					context = Context.NONE;
+				}
+				else if (context == Context.DOUBLE_DOLLAR && c == '$' && skip('$')) {
 					statement.append('$');
 					context = Context.NONE;
-					i++;
 				}
 			}
 		}
-		if (StringUtils.hasText(statement)) {
-			statements.add(statement.toString());
+		this.eof = true;
+		return (statement.length() > 0) ? statement.toString() : null;
+	}
+
+	private int read() {
+		if (this.position == this.limit && !fill()) {
+			return EOF;
 		}
-		return statements;
+		return this.buffer[this.position++];
 	}
 
-	private boolean next(int index, char expected) {
-		return index + 1 < this.chars.length && this.chars[index + 1] == expected;
+	private boolean skip(char expected) {
+		if (this.position == this.limit && !fill()) {
+			return false;
+		}
+		if (this.buffer[this.position] == expected) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean fill() {
+		try {
+			int read = this.reader.read(this.buffer);
+			while (read == 0) {
+				read = this.reader.read(this.buffer);
+			}
+			if (read == EOF) {
+				return false;
+			}
+			this.position = 0;
+			this.limit = read;
+			return true;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Cannot read a CQL script", ex);
+		}
 	}
 
 	private enum Context {
@@ -17,9 +17,13 @@
 package com.github.nosan.embedded.cassandra.api.cql;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
@@ -78,6 +82,18 @@ final class ResourceCqlScript extends AbstractCqlScript {
 		return result;
 	}
 
+	@Override
+	public Stream<String> streamStatements() {
+		List<String> statements;
+		try {
+			statements = CqlStatementCache.getInstance().getStatements(this.resource, this.charset);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(String.format("Cannot open a stream for '%s'", this.resource), ex);
+		}
+		return (statements != null) ? statements.stream() : super.streamStatements();
+	}
+
 	@Override
 	protected String getScript() {
 		try {
@@ -88,4 +104,9 @@ final class ResourceCqlScript extends AbstractCqlScript {
 		}
 	}
 
+	@Override
+	protected Reader openReader() throws IOException {
+		return new InputStreamReader(this.resource.getInputStream(), this.charset);
+	}
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Cassandra}.
+ *
+ * @author Dmytro Nosan
+ */
+class CassandraTests {
+
+	@Test
+	void startAsync() {
+		TestCassandra cassandra = new TestCassandra(null);
+		CompletableFuture<Cassandra> future = cassandra.startAsync().toCompletableFuture();
+		assertThat(future.join()).isSameAs(cassandra);
+		assertThat(cassandra.thread.get().getName()).isEqualTo("test-start");
+		assertThat(cassandra.thread.get().isDaemon()).isTrue();
+	}
+
+	@Test
+	void stopAsync() {
+		TestCassandra cassandra = new TestCassandra(null);
+		CompletableFuture<Cassandra> future = cassandra.stopAsync().toCompletableFuture();
+		assertThat(future.join()).isSameAs(cassandra);
+		assertThat(cassandra.thread.get().getName()).isEqualTo("test-stop");
+	}
+
+	@Test
+	void startAsyncFailed() {
+		CassandraException ex = new CassandraException("Failed");
+		TestCassandra cassandra = new TestCassandra(ex);
+		CompletableFuture<Cassandra> future = cassandra.startAsync().toCompletableFuture();
+		assertThatThrownBy(future::join).isInstanceOf(CompletionException.class).hasCause(ex);
+	}
+
+	private static final class TestCassandra implements Cassandra {
+
+		private final AtomicReference<Thread> thread = new AtomicReference<>();
+
+		private final RuntimeException ex;
+
+		TestCassandra(RuntimeException ex) {
+			this.ex = ex;
+		}
+
+		@Override
+		public void start() {
+			this.thread.set(Thread.currentThread());
+			if (this.ex != null) {
+				throw this.ex;
+			}
+		}
+
+		@Override
+		public void stop() {
+			this.thread.set(Thread.currentThread());
+		}
+
+		@Override
+		public String getName() {
+			return "test";
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("3.11.6");
+		}
+
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupReport}.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupReportTests {
+
+	@Test
+	void report() {
+		Map<String, Duration> phases = new LinkedHashMap<>();
+		phases.put("initialize", Duration.ofMillis(150));
+		phases.put("spawn", Duration.ofMillis(20));
+		phases.put("readiness", Duration.ofSeconds(3));
+		StartupReport report = new StartupReport(phases);
+		phases.clear();
+		assertThat(report.getPhases()).containsKeys("initialize", "spawn", "readiness");
+		assertThat(report.getDuration("spawn")).isEqualTo(Duration.ofMillis(20));
+		assertThat(report.getDuration("distribution")).isNull();
+		assertThat(report.getTotal()).isEqualTo(Duration.ofMillis(3170));
+		assertThat(report).hasToString("initialize=150ms, spawn=20ms, readiness=3000ms, total=3170ms");
+	}
+
+	@Test
+	void emptyReport() {
+		StartupReport report = new StartupReport(new LinkedHashMap<>());
+		assertThat(report.getTotal()).isEqualTo(Duration.ZERO);
+		assertThat(report).hasToString("total=0ms");
+	}
+
+}
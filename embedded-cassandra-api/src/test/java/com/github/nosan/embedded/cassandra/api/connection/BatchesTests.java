@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Batches}.
+ *
+ * @author Dmytro Nosan
+ */
+class BatchesTests {
+
+	private final List<List<String>> executed = new ArrayList<>();
+
+	@Test
+	void groupByPartitionKey() {
+		execute(Arrays.asList("a:1", "b:1", "a:2", "-:1", "b:2", "a:3"));
+		assertThat(this.executed).containsExactly(Arrays.asList("-:1"), Arrays.asList("a:1", "a:2", "a:3"),
+				Arrays.asList("b:1", "b:2"));
+	}
+
+	@Test
+	void splitLargePartitions() {
+		execute(IntStream.range(0, Batches.MAX_BATCH_SIZE + 1).mapToObj(i -> "a:" + i).collect(Collectors.toList()));
+		assertThat(this.executed).hasSize(2);
+		assertThat(this.executed.get(0)).hasSize(Batches.MAX_BATCH_SIZE).startsWith("a:0");
+		assertThat(this.executed.get(1)).containsExactly("a:" + Batches.MAX_BATCH_SIZE);
+	}
+
+	@Test
+	void limitPendingBatches() {
+		AtomicInteger read = new AtomicInteger();
+		List<Integer> readBeforeFirstBatch = new ArrayList<>();
+		Iterable<String> statements = () -> IntStream.range(0, Batches.MAX_PENDING * 2)
+				.peek(i -> read.incrementAndGet()).mapToObj(i -> i + ":1").iterator();
+		Batches.execute(statements, BatchesTests::partitionKey, batch -> {
+			if (this.executed.isEmpty()) {
+				readBeforeFirstBatch.add(read.get());
+			}
+			this.executed.add(batch);
+			return CompletableFuture.completedFuture(null);
+		});
+		assertThat(readBeforeFirstBatch).containsExactly(Batches.MAX_PENDING + 1);
+		assertThat(this.executed).hasSize(Batches.MAX_PENDING * 2).startsWith(Arrays.asList("0:1"));
+	}
+
+	@Test
+	void executeFailure() {
+		assertThatThrownBy(() -> Batches.execute(Arrays.asList("a", "b", "c"), statement -> null, batch -> {
+			this.executed.add(batch);
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			future.completeExceptionally(new IllegalStateException(batch.get(0)));
+			return future;
+		})).isInstanceOf(IllegalStateException.class).hasMessage("a");
+		assertThat(this.executed).containsExactly(Arrays.asList("a"));
+	}
+
+	@Test
+	@Timeout(10)
+	void executeSynchronousFailure() {
+		assertThatThrownBy(() -> Batches.execute(Arrays.asList("a", "b", "c"), statement -> null, batch -> {
+			throw new IllegalStateException(batch.get(0));
+		})).isInstanceOf(IllegalStateException.class).hasMessage("a");
+	}
+
+	private void execute(List<String> statements) {
+		Batches.execute(statements, BatchesTests::partitionKey, batch -> {
+			this.executed.add(batch);
+			return CompletableFuture.completedFuture(null);
+		});
+	}
+
+	private static String partitionKey(String statement) {
+		String key = statement.substring(0, statement.indexOf(':'));
+		return ("-".equals(key)) ? null : key;
+	}
+
+}
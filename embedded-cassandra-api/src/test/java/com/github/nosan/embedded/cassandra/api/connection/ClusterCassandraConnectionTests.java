@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClusterCassandraConnection}.
+ *
+ * @author Dmytro Nosan
+ */
+class ClusterCassandraConnectionTests {
+
+	private final List<String> queries = new ArrayList<>();
+
+	private final List<SimpleStatement> statements = new ArrayList<>();
+
+	@Test
+	void truncateTables() {
+		ClusterCassandraConnection connection = new ClusterCassandraConnection(new TestCluster(
+				createSession(false, row("system", "peers"), row("test", "users"), row("system_auth", "roles"),
+						row("Test", "Users"), row("test", "my\"table"))));
+		connection.truncateTables();
+		assertThat(this.queries).containsExactly(SchemaTables.TABLES_QUERY);
+		assertThat(this.statements).extracting(SimpleStatement::getQueryString).containsExactly(
+				"TRUNCATE test.users", "TRUNCATE \"Test\".\"Users\"", "TRUNCATE test.\"my\"\"table\"");
+		assertThat(this.statements).extracting(SimpleStatement::getReadTimeoutMillis)
+				.containsOnly(SchemaTables.TRUNCATE_TIMEOUT_MILLIS);
+	}
+
+	@Test
+	void truncateTablesLegacySchema() {
+		ClusterCassandraConnection connection = new ClusterCassandraConnection(new TestCluster(
+				createSession(true, row("system", "peers"), row("test", "users"))));
+		connection.truncateTables();
+		assertThat(this.queries).containsExactly(SchemaTables.TABLES_QUERY, SchemaTables.LEGACY_TABLES_QUERY);
+		assertThat(this.statements).extracting(SimpleStatement::getQueryString).containsExactly("TRUNCATE test.users");
+	}
+
+	private Session createSession(boolean legacy, Row... rows) {
+		return proxy(Session.class, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "execute":
+					String query = (String) args[0];
+					this.queries.add(query);
+					if (legacy && query.equals(SchemaTables.TABLES_QUERY)) {
+						throw new InvalidQueryException("unconfigured table tables");
+					}
+					return proxy(ResultSet.class, (rs, rsMethod, rsArgs) -> Arrays.asList(rows).iterator());
+				case "executeAsync":
+					this.statements.add((SimpleStatement) args[0]);
+					return proxy(ResultSetFuture.class, (future, futureMethod, futureArgs) -> null);
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static Row row(String keyspace, String table) {
+		Map<String, String> columns = new LinkedHashMap<>();
+		columns.put("keyspace_name", keyspace);
+		columns.put("table_name", table);
+		return proxy(Row.class, (proxy, method, args) -> columns.get(args[0]));
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+	}
+
+	private static final class TestCluster extends Cluster {
+
+		private final Session session;
+
+		TestCluster(Session session) {
+			super(Cluster.builder().addContactPoint("127.0.0.1"));
+			this.session = session;
+		}
+
+		@Override
+		public Session connect() {
+			return this.session;
+		}
+
+	}
+
+}
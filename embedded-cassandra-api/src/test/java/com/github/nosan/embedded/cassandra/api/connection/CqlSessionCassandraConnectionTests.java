@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CqlSessionCassandraConnection}.
+ *
+ * @author Dmytro Nosan
+ */
+class CqlSessionCassandraConnectionTests {
+
+	private final List<String> queries = new ArrayList<>();
+
+	private final List<SimpleStatement> statements = new ArrayList<>();
+
+	@Test
+	void truncateTables() {
+		CqlSessionCassandraConnection connection = new CqlSessionCassandraConnection(
+				createSession(false, row("system", "peers"), row("test", "users"), row("system_auth", "roles"),
+						row("Test", "Users"), row("test", "my\"table")));
+		connection.truncateTables();
+		assertThat(this.queries).containsExactly(SchemaTables.TABLES_QUERY);
+		assertThat(this.statements).extracting(SimpleStatement::getQuery).containsExactly(
+				"TRUNCATE test.users", "TRUNCATE \"Test\".\"Users\"", "TRUNCATE test.\"my\"\"table\"");
+		assertThat(this.statements).extracting(SimpleStatement::getTimeout)
+				.containsOnly(Duration.ofMillis(SchemaTables.TRUNCATE_TIMEOUT_MILLIS));
+	}
+
+	@Test
+	void truncateTablesLegacySchema() {
+		CqlSessionCassandraConnection connection = new CqlSessionCassandraConnection(
+				createSession(true, row("system", "peers"), row("test", "users")));
+		connection.truncateTables();
+		assertThat(this.queries).containsExactly(SchemaTables.TABLES_QUERY, SchemaTables.LEGACY_TABLES_QUERY);
+		assertThat(this.statements).extracting(SimpleStatement::getQuery).containsExactly("TRUNCATE test.users");
+	}
+
+	private CqlSession createSession(boolean legacy, Row... rows) {
+		return proxy(CqlSession.class, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "execute":
+					String query = (String) args[0];
+					this.queries.add(query);
+					if (legacy && query.equals(SchemaTables.TABLES_QUERY)) {
+						throw new InvalidQueryException(null, "unconfigured table tables");
+					}
+					return proxy(ResultSet.class, (rs, rsMethod, rsArgs) -> Arrays.asList(rows).iterator());
+				case "executeAsync":
+					this.statements.add((SimpleStatement) args[0]);
+					return CompletableFuture.completedFuture(null);
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static Row row(String keyspace, String table) {
+		Map<String, String> columns = new LinkedHashMap<>();
+		columns.put("keyspace_name", keyspace);
+		columns.put("table_name", table);
+		return proxy(Row.class, (proxy, method, args) -> columns.get(args[0]));
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+	}
+
+}
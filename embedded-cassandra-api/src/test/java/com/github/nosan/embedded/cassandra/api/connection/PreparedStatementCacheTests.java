@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link PreparedStatementCache}.
+ *
+ * @author Dmytro Nosan
+ */
+class PreparedStatementCacheTests {
+
+	private final AtomicInteger prepared = new AtomicInteger();
+
+	@Test
+	void cacheStatement() {
+		PreparedStatementCache<String> cache = new PreparedStatementCache<>(10);
+		assertThat(cache.getHitRate()).isZero();
+		assertThat(cache.get("test", "SELECT * FROM roles WHERE id = ?", this::prepare))
+				.isEqualTo("SELECT * FROM roles WHERE id = ?#1");
+		assertThat(cache.get("test", "SELECT * FROM roles WHERE id = ?", this::prepare))
+				.isEqualTo("SELECT * FROM roles WHERE id = ?#1");
+		assertThat(cache.getSize()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitRate()).isEqualTo(0.5);
+	}
+
+	@Test
+	void keyspaceIsPartOfKey() {
+		PreparedStatementCache<String> cache = new PreparedStatementCache<>(10);
+		cache.get("test", "SELECT * FROM roles", this::prepare);
+		cache.get("other", "SELECT * FROM roles", this::prepare);
+		cache.get(null, "SELECT * FROM roles", this::prepare);
+		assertThat(cache.getSize()).isEqualTo(3);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+		assertThat(cache.get(null, "SELECT * FROM roles", this::prepare)).isEqualTo("SELECT * FROM roles#3");
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() {
+		PreparedStatementCache<String> cache = new PreparedStatementCache<>(2);
+		cache.get(null, "q1", this::prepare);
+		cache.get(null, "q2", this::prepare);
+		cache.get(null, "q1", this::prepare);
+		cache.get(null, "q3", this::prepare);
+		assertThat(cache.getSize()).isEqualTo(2);
+		assertThat(cache.get(null, "q1", this::prepare)).isEqualTo("q1#1");
+		assertThat(cache.get(null, "q2", this::prepare)).isEqualTo("q2#4");
+	}
+
+	@Test
+	void clear() {
+		PreparedStatementCache<String> cache = new PreparedStatementCache<>(2);
+		cache.get(null, "q1", this::prepare);
+		cache.clear();
+		assertThat(cache.getSize()).isZero();
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.get(null, "q1", this::prepare)).isEqualTo("q1#2");
+		assertThat(cache.toString()).contains("size=1", "maxSize=2", "hits=0", "misses=2");
+	}
+
+	@Test
+	void negativeMaxSize() {
+		assertThatThrownBy(() -> new PreparedStatementCache<>(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private String prepare(String query) {
+		return query + "#" + this.prepared.incrementAndGet();
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package com.github.nosan.embedded.cassandra.api.cql;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link CqlDataSet}.
@@ -76,6 +78,14 @@ class CqlDataSetTests {
 		assertThat(d1.getScripts()).hasSize(2);
 	}
 
+	@Test
+	void checkScripts() {
+		CqlDataSet.ofClasspaths("schema.cql").checkScripts();
+		CqlDataSet dataSet = CqlDataSet.ofScripts(CqlDataSet.ofClasspaths("schema.cql"),
+				CqlScript.ofClasspath("missing.cql"));
+		assertThatThrownBy(dataSet::checkScripts).isInstanceOf(UncheckedIOException.class);
+	}
+
 	@Test
 	void ofEmpty() {
 		assertThat(CqlDataSet.empty().getScripts()).isEmpty();
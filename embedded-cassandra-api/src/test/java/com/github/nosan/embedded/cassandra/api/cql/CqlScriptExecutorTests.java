@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CqlScriptExecutor}.
+ *
+ * @author Dmytro Nosan
+ */
+class CqlScriptExecutorTests {
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	private final TestCassandraConnection connection = new TestCassandraConnection();
+
+	private final CqlScriptExecutor scriptExecutor = new CqlScriptExecutor(this.connection);
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void executeDataManipulationAsynchronously() {
+		CqlExecutionReport report = this.scriptExecutor.execute(CqlScript.ofString(
+				"CREATE KEYSPACE test;CREATE TABLE test.roles (id int PRIMARY KEY);"
+						+ "INSERT INTO test.roles (id) VALUES (1);UPDATE test.roles SET name = 'a' WHERE id = 1;"
+						+ "delete FROM test.roles WHERE id = 1;BEGIN BATCH INSERT INTO test.roles (id) VALUES (2) "
+						+ "APPLY BATCH;SELECT * FROM test.roles;INSERT INTO test.roles (id) VALUES (3) IF NOT EXISTS"));
+		assertThat(report.getStatements()).isEqualTo(8);
+		assertThat(report.getAsyncStatements()).isEqualTo(4);
+		assertThat(this.connection.async).hasSize(4);
+		assertThat(this.connection.sync).containsExactly("CREATE KEYSPACE test",
+				"CREATE TABLE test.roles (id int PRIMARY KEY)", "SELECT * FROM test.roles",
+				"INSERT INTO test.roles (id) VALUES (3) IF NOT EXISTS");
+		assertThat(this.connection.schemaAgreements).hasValue(2);
+	}
+
+	@Test
+	void waitForPendingStatementsBeforeBarrier() {
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			script.append("INSERT INTO test.roles (id) VALUES (").append(i).append(");");
+		}
+		script.append("DROP TABLE test.roles;");
+		for (int i = 0; i < 100; i++) {
+			script.append("INSERT INTO test.roles (id) VALUES (").append(i).append(");");
+		}
+		this.scriptExecutor.setMaxInFlight(8);
+		CqlExecutionReport report = this.scriptExecutor.execute(CqlScript.ofString(script.toString()));
+		assertThat(report.getStatements()).isEqualTo(201);
+		assertThat(this.connection.completedBeforeBarrier).containsExactly(100);
+		assertThat(this.connection.completed).hasValue(200);
+		assertThat(this.connection.maxInFlight).hasValueBetween(1, 8);
+	}
+
+	@Test
+	void rethrowAsynchronousFailure() {
+		this.connection.failure = new IllegalStateException("Invalid query");
+		assertThatThrownBy(() -> this.scriptExecutor.execute(
+				CqlScript.ofString("INSERT INTO test.roles (id) VALUES (1);CREATE TABLE test.users (id int)")))
+				.isInstanceOf(IllegalStateException.class).hasMessage("Invalid query");
+		assertThat(this.connection.sync).isEmpty();
+	}
+
+	@Test
+	@Timeout(10)
+	void rethrowFirstAsynchronousFailure() {
+		this.connection.failure = new IllegalStateException("Invalid query");
+		this.scriptExecutor.setMaxInFlight(1);
+		assertThatThrownBy(() -> this.scriptExecutor.execute(
+				CqlScript.ofString("INSERT INTO test.roles (id) VALUES (1);INSERT INTO test.roles (id) VALUES (2)")))
+				.isInstanceOf(IllegalStateException.class).hasMessage("Invalid query");
+		assertThat(this.connection.async).containsExactly("INSERT INTO test.roles (id) VALUES (1)");
+	}
+
+	@Test
+	@Timeout(10)
+	void rethrowSynchronousFailure() {
+		this.connection.executeAsyncFailure = new IllegalStateException("No host available");
+		this.scriptExecutor.setMaxInFlight(1);
+		assertThatThrownBy(() -> this.scriptExecutor.execute(
+				CqlScript.ofString("INSERT INTO test.roles (id) VALUES (1);INSERT INTO test.roles (id) VALUES (2)")))
+				.isInstanceOf(IllegalStateException.class).hasMessage("No host available");
+	}
+
+	@Test
+	void executeListUpdatesSynchronously() {
+		CqlExecutionReport report = this.scriptExecutor.execute(CqlScript.ofString(
+				"INSERT INTO test.roles (id, tags) VALUES (1, ['a']);UPDATE test.roles SET tags = tags + ['b'] "
+						+ "WHERE id = 1;UPDATE test.roles SET tags = ['c'] + tags WHERE id = 1;"
+						+ "DELETE tags[0] FROM test.roles WHERE id = 1"));
+		assertThat(report.getAsyncStatements()).isEqualTo(1);
+		assertThat(this.connection.sync).containsExactly("UPDATE test.roles SET tags = tags + ['b'] WHERE id = 1",
+				"UPDATE test.roles SET tags = ['c'] + tags WHERE id = 1",
+				"DELETE tags[0] FROM test.roles WHERE id = 1");
+	}
+
+	@Test
+	void failOnSchemaDisagreement() {
+		this.connection.schemaAgreement = false;
+		this.scriptExecutor.setSchemaAgreementTimeout(Duration.ofMillis(200));
+		assertThatThrownBy(() -> this.scriptExecutor.execute(CqlScript.ofString("CREATE KEYSPACE test")))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Schema agreement has not been reached in 200ms");
+	}
+
+	@Test
+	void reportToString() {
+		CqlExecutionReport report = new CqlExecutionReport(10, 8, Duration.ofMillis(500));
+		assertThat(report.getStatementsPerSecond()).isEqualTo(20.0);
+		assertThat(report).hasToString("statements=10, async=8, duration=500ms, rate=20.0 statements/sec");
+	}
+
+	private final class TestCassandraConnection implements CassandraConnection {
+
+		private final List<String> sync = new ArrayList<>();
+
+		private final List<String> async = new ArrayList<>();
+
+		private final List<Integer> completedBeforeBarrier = new ArrayList<>();
+
+		private final AtomicInteger completed = new AtomicInteger();
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+
+		private final AtomicInteger schemaAgreements = new AtomicInteger();
+
+		private volatile boolean schemaAgreement = true;
+
+		private volatile RuntimeException failure;
+
+		private volatile RuntimeException executeAsyncFailure;
+
+		@Override
+		public Object execute(String query) {
+			if (query.startsWith("DROP")) {
+				this.completedBeforeBarrier.add(this.completed.get());
+			}
+			this.sync.add(query);
+			return query;
+		}
+
+		@Override
+		public Object execute(String query, Object... values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public CompletionStage<?> executeAsync(String query) {
+			if (this.executeAsyncFailure != null) {
+				throw this.executeAsyncFailure;
+			}
+			this.async.add(query);
+			this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			CqlScriptExecutorTests.this.executor.schedule(() -> {
+				this.inFlight.decrementAndGet();
+				this.completed.incrementAndGet();
+				if (this.failure != null) {
+					future.completeExceptionally(this.failure);
+				}
+				else {
+					future.complete(query);
+				}
+			}, 1, TimeUnit.MILLISECONDS);
+			return future;
+		}
+
+		@Override
+		public boolean checkSchemaAgreement() {
+			this.schemaAgreements.incrementAndGet();
+			return this.schemaAgreement;
+		}
+
+		@Override
+		public Object getConnection() {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
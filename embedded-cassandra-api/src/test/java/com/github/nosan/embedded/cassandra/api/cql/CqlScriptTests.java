@@ -18,6 +18,8 @@ package com.github.nosan.embedded.cassandra.api.cql;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
@@ -54,6 +56,15 @@ class CqlScriptTests {
 				"CREATE TABLE test.roles ( id text PRIMARY KEY )");
 	}
 
+	@Test
+	void streamStatements() {
+		try (Stream<String> statements = CqlScript.ofClasspath("schema.cql").streamStatements()) {
+			assertThat(statements.collect(Collectors.toList())).containsExactly(
+					"CREATE KEYSPACE test WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }",
+					"CREATE TABLE test.roles ( id text PRIMARY KEY )");
+		}
+	}
+
 	@Test
 	void forEachStatements() {
 		List<String> statements = new ArrayList<>();
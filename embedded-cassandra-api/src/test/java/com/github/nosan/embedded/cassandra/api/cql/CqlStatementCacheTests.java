@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CqlStatementCache}.
+ *
+ * @author Dmytro Nosan
+ */
+class CqlStatementCacheTests {
+
+	private final CqlStatementCache cache = new CqlStatementCache();
+
+	@Test
+	void cacheFile(@TempDir Path temporaryFolder) throws IOException {
+		Path file = Files.write(temporaryFolder.resolve("schema.cql"),
+				"CREATE KEYSPACE test;CREATE TABLE test.roles (id text PRIMARY KEY);".getBytes(StandardCharsets.UTF_8));
+		Resource resource = new FileSystemResource(file);
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8))
+				.containsExactly("CREATE KEYSPACE test", "CREATE TABLE test.roles (id text PRIMARY KEY)");
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).hasSize(2);
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getSize()).isEqualTo(65);
+		assertThat(this.cache.getStatements(resource, StandardCharsets.ISO_8859_1)).hasSize(2);
+		assertThat(this.cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	void reparseModifiedFile(@TempDir Path temporaryFolder) throws IOException {
+		Path file = Files.write(temporaryFolder.resolve("schema.cql"),
+				"CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8));
+		Resource resource = new FileSystemResource(file);
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).containsExactly("CREATE KEYSPACE test");
+		Files.write(file, "CREATE KEYSPACE test;DROP KEYSPACE test;".getBytes(StandardCharsets.UTF_8));
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8))
+				.containsExactly("CREATE KEYSPACE test", "DROP KEYSPACE test");
+		assertThat(this.cache.getMissCount()).isEqualTo(2);
+		assertThat(this.cache.getHitCount()).isZero();
+	}
+
+	@Test
+	void cacheJarEntry(@TempDir Path temporaryFolder) throws IOException {
+		Path jar = temporaryFolder.resolve("schema.jar");
+		try (JarOutputStream os = new JarOutputStream(Files.newOutputStream(jar))) {
+			os.putNextEntry(new JarEntry("schema.cql"));
+			os.write("CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8));
+			os.closeEntry();
+		}
+		Resource resource = new UrlResource(new URL("jar:" + jar.toUri() + "!/schema.cql"));
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).containsExactly("CREATE KEYSPACE test");
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).containsExactly("CREATE KEYSPACE test");
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cacheByContent() throws IOException {
+		byte[] content = "CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8);
+		Resource resource = new UrlResource(new URL(null, "test:schema.cql", new URLStreamHandler() {
+
+			@Override
+			protected URLConnection openConnection(URL url) {
+				return new URLConnection(url) {
+
+					@Override
+					public void connect() {
+					}
+
+					@Override
+					public InputStream getInputStream() {
+						return new ByteArrayInputStream(content);
+					}
+
+				};
+			}
+
+		}));
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).containsExactly("CREATE KEYSPACE test");
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).containsExactly("CREATE KEYSPACE test");
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void evictLeastRecentlyUsed(@TempDir Path temporaryFolder) throws IOException {
+		Resource first = new FileSystemResource(Files.write(temporaryFolder.resolve("first.cql"),
+				"CREATE KEYSPACE first;".getBytes(StandardCharsets.UTF_8)));
+		Resource second = new FileSystemResource(Files.write(temporaryFolder.resolve("second.cql"),
+				"CREATE KEYSPACE second;".getBytes(StandardCharsets.UTF_8)));
+		this.cache.setMaxSize(30);
+		this.cache.getStatements(first, StandardCharsets.UTF_8);
+		this.cache.getStatements(second, StandardCharsets.UTF_8);
+		assertThat(this.cache.getSize()).isEqualTo(22);
+		this.cache.getStatements(first, StandardCharsets.UTF_8);
+		assertThat(this.cache.getMissCount()).isEqualTo(3);
+		this.cache.getStatements(first, StandardCharsets.UTF_8);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void notCacheLargeScripts(@TempDir Path temporaryFolder) throws IOException {
+		Resource resource = new FileSystemResource(Files.write(temporaryFolder.resolve("schema.cql"),
+				"CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8)));
+		this.cache.setMaxSize(10);
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).isNull();
+		this.cache.setMaxSize(0);
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).isNull();
+		assertThat(this.cache.getMissCount()).isZero();
+	}
+
+	@Test
+	void notCacheResourceWithoutUrl() throws IOException {
+		Resource resource = new Resource() {
+
+			@Override
+			public String getFileName() {
+				return "schema.cql";
+			}
+
+			@Override
+			public boolean exists() {
+				return true;
+			}
+
+			@Override
+			public URL toURL() throws IOException {
+				throw new IOException("No URL");
+			}
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream("CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8));
+			}
+
+		};
+		assertThat(this.cache.getStatements(resource, StandardCharsets.UTF_8)).isNull();
+		assertThat(CqlScript.ofResource(resource).getStatements()).containsExactly("CREATE KEYSPACE test");
+	}
+
+	@Test
+	void clear(@TempDir Path temporaryFolder) throws IOException {
+		Resource resource = new FileSystemResource(Files.write(temporaryFolder.resolve("schema.cql"),
+				"CREATE KEYSPACE test;".getBytes(StandardCharsets.UTF_8)));
+		this.cache.getStatements(resource, StandardCharsets.UTF_8);
+		this.cache.clear();
+		assertThat(this.cache.getSize()).isZero();
+		this.cache.getStatements(resource, StandardCharsets.UTF_8);
+		assertThat(this.cache.getMissCount()).isEqualTo(2);
+		assertThat(this.cache).hasToString("CqlStatementCache[entries=1, size=20, maxSize=8388608, hits=0, misses=2]");
+	}
+
+}
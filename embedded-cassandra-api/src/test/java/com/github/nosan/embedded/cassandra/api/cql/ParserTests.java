@@ -16,11 +16,18 @@
 
 package com.github.nosan.embedded.cassandra.api.cql;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link Parser}.
@@ -155,8 +162,64 @@ class ParserTests {
 		assertThat(statements).isEmpty();
 	}
 
+	@Test
+	void shouldCollapseWhitespacesAndComments() {
+		List<String> statements = parse("USE \n\t KEYSPACE /* keyspace */ test ;\nDROP--comment\nKEYSPACE test");
+		assertThat(statements).containsExactly("USE KEYSPACE test", "DROP KEYSPACE test");
+	}
+
+	@Test
+	void shouldParseStatementsLazily() {
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			script.append("INSERT INTO test.roles (id) VALUES ('").append(i).append("');\n");
+		}
+		CountingReader reader = new CountingReader(new StringReader(script.toString()));
+		Iterator<String> statements = new Parser(reader);
+		assertThat(statements.next()).isEqualTo("INSERT INTO test.roles (id) VALUES ('0')");
+		assertThat(reader.count).isLessThan(script.length());
+		statements.forEachRemaining(statement -> {
+		});
+		assertThat(reader.count).isEqualTo(script.length());
+		assertThat(statements.hasNext()).isFalse();
+		assertThatThrownBy(statements::next).isInstanceOf(NoSuchElementException.class);
+	}
+
+	@Test
+	void shouldStreamStatements() {
+		List<String> statements = new Parser(new StringReader("USE KEYSPACE test; DROP KEYSPACE test")).stream()
+				.collect(Collectors.toList());
+		assertThat(statements).containsExactly("USE KEYSPACE test", "DROP KEYSPACE test");
+	}
+
 	private static List<String> parse(String script) {
 		return new Parser(script).getStatements();
 	}
 
+	private static final class CountingReader extends Reader {
+
+		private final Reader reader;
+
+		private int count;
+
+		CountingReader(Reader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = this.reader.read(buffer, offset, length);
+			if (read > 0) {
+				this.count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.reader.close();
+		}
+
+	}
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.artifact.Artifact;
+
+/**
+ * End-to-end benchmarks that start and stop {@link Cassandra}, with and without the {@link
+ * EmbeddedCassandraFactory#setFastTestProfile(boolean) fast test profile}. Versions that do not support the current
+ * JVM should be excluded with {@code -p version=...}.
+ *
+ * @author Dmytro Nosan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EmbeddedCassandraBenchmarks {
+
+	@Param({"2.2.16", "3.0.20", "3.11.6", "4.0-alpha4"})
+	public String version;
+
+	@Param({"false", "true"})
+	public boolean fastTestProfile;
+
+	private EmbeddedCassandraFactory cassandraFactory;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Artifact artifact = Artifact.ofVersion(this.version);
+		// resolve the distribution once, so that only start and stop are measured
+		artifact.getDistribution();
+		EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+		cassandraFactory.setArtifact(artifact);
+		cassandraFactory.setRegisterShutdownHook(false);
+		cassandraFactory.setFastTestProfile(this.fastTestProfile);
+		this.cassandraFactory = cassandraFactory;
+	}
+
+	@Benchmark
+	public Cassandra startAndStop() {
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		try {
+			return cassandra;
+		}
+		finally {
+			cassandra.stop();
+		}
+	}
+
+}
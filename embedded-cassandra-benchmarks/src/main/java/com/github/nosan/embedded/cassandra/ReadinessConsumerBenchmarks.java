@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * Benchmarks for the readiness consumers that match every line of Cassandra's output.
+ *
+ * @author Dmytro Nosan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadinessConsumerBenchmarks {
+
+	private static final String ORDINARY_LINE = "INFO  [main] 2020-04-25 12:00:00,000 ColumnFamilyStore.java:411 - "
+			+ "Initializing system_schema.tables";
+
+	private static final String NATIVE_TRANSPORT_LINE = "INFO  [main] 2020-04-25 12:00:10,000 Server.java:159 - "
+			+ "Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)...";
+
+	private static final String RPC_TRANSPORT_LINE = "INFO  [main] 2020-04-25 12:00:10,000 ThriftServer.java:116 - "
+			+ "Binding thrift service to localhost/127.0.0.1:9160";
+
+	private NativeTransportReadinessConsumer nativeTransport;
+
+	private RpcTransportReadinessConsumer rpcTransport;
+
+	@Setup
+	public void setUp() {
+		Version version = Version.of("3.11.6");
+		this.nativeTransport = new NativeTransportReadinessConsumer(version);
+		this.rpcTransport = new RpcTransportReadinessConsumer(version);
+	}
+
+	@Benchmark
+	public boolean nativeTransportOrdinaryLine() {
+		this.nativeTransport.accept(ORDINARY_LINE);
+		return this.nativeTransport.isReady();
+	}
+
+	@Benchmark
+	public boolean nativeTransportStartedLine() {
+		this.nativeTransport.accept(NATIVE_TRANSPORT_LINE);
+		return this.nativeTransport.isReady();
+	}
+
+	@Benchmark
+	public boolean rpcTransportOrdinaryLine() {
+		this.rpcTransport.accept(ORDINARY_LINE);
+		return this.rpcTransport.isReady();
+	}
+
+	@Benchmark
+	public boolean rpcTransportStartedLine() {
+		this.rpcTransport.accept(RPC_TRANSPORT_LINE);
+		return this.rpcTransport.isReady();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.cql;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link Parser} on large scripts.
+ *
+ * @author Dmytro Nosan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmarks {
+
+	@Param({"1000", "100000"})
+	public int statements;
+
+	private String script;
+
+	@Setup
+	public void setUp() {
+		StringBuilder script = new StringBuilder();
+		script.append("CREATE KEYSPACE test WITH replication = {'class': 'SimpleStrategy', "
+				+ "'replication_factor': 1};\n");
+		script.append("/* users of the test keyspace */\n");
+		script.append("CREATE TABLE test.users (id int PRIMARY KEY, name text, email text);\n");
+		for (int i = 0; i < this.statements; i++) {
+			script.append("-- user ").append(i).append('\n');
+			script.append("INSERT INTO test.users (id, name, email) VALUES (").append(i).append(", 'user ")
+					.append(i).append("; \"quoted\"', 'user").append(i).append("@example.com'); // inline\n");
+		}
+		this.script = script.toString();
+	}
+
+	@Benchmark
+	public List<String> getStatements() {
+		return new Parser(this.script).getStatements();
+	}
+
+	@Benchmark
+	public void streamStatements(Blackhole blackhole) {
+		new Parser(new StringReader(this.script)).forEachRemaining(blackhole::consume);
+	}
+
+}
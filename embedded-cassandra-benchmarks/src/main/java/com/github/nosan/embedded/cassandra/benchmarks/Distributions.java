@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+import com.github.nosan.embedded.cassandra.artifact.Artifact;
+
+/**
+ * Real Cassandra distributions that are used as benchmark input. Distributions are resolved through {@link
+ * Artifact#ofVersion(String)}, therefore they are downloaded only once.
+ *
+ * @author Dmytro Nosan
+ */
+public final class Distributions {
+
+	private Distributions() {
+	}
+
+	/**
+	 * Returns the directory of the given Cassandra version.
+	 *
+	 * @param version the version
+	 * @return the distribution directory
+	 * @throws IOException if the distribution cannot be resolved
+	 */
+	public static Path getDirectory(String version) throws IOException {
+		return Artifact.ofVersion(version).getDistribution().getDirectory();
+	}
+
+	/**
+	 * Returns a {@code tar.gz} archive of the given Cassandra version. The archive is created from the distribution
+	 * directory on the first call and reused afterwards.
+	 *
+	 * @param version the version
+	 * @return the archive file
+	 * @throws IOException if the archive cannot be created
+	 */
+	public static Path getArchive(String version) throws IOException {
+		Path archive = Paths.get(System.getProperty("java.io.tmpdir"), "embedded-cassandra-benchmarks",
+				"apache-cassandra-" + version + "-bin.tar.gz");
+		if (Files.isRegularFile(archive)) {
+			return archive;
+		}
+		Path directory = getDirectory(version);
+		Files.createDirectories(archive.getParent());
+		Path tempFile = Files.createTempFile(archive.getParent(), "", ".tar.gz");
+		try (OutputStream os = Files.newOutputStream(tempFile);
+				TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(os))) {
+			tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+			String root = "apache-cassandra-" + version + "/";
+			for (Path path : walk(directory)) {
+				String name = root + directory.relativize(path).toString().replace('\\', '/');
+				TarArchiveEntry entry = new TarArchiveEntry(path.toFile(), Files.isDirectory(path) ? name + "/" : name);
+				tar.putArchiveEntry(entry);
+				if (Files.isRegularFile(path)) {
+					Files.copy(path, tar);
+				}
+				tar.closeArchiveEntry();
+			}
+		}
+		Files.move(tempFile, archive, StandardCopyOption.REPLACE_EXISTING);
+		return archive;
+	}
+
+	private static Iterable<Path> walk(Path directory) throws IOException {
+		try (Stream<Path> stream = Files.walk(directory)) {
+			return stream.filter(path -> !path.equals(directory)).sorted().collect(Collectors.toList());
+		}
+	}
+
+}
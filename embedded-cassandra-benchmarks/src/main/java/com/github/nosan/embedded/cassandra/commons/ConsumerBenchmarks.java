@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link CacheConsumer} and {@link CompositeConsumer} under a load of Cassandra's log lines.
+ *
+ * @author Dmytro Nosan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumerBenchmarks {
+
+	private static final String LINE = "INFO  [main] 2020-04-25 12:00:00,000 ColumnFamilyStore.java:411 - "
+			+ "Initializing system.local";
+
+	@Param({"1", "4"})
+	public int consumers;
+
+	private CacheConsumer<String> cacheConsumer;
+
+	private CompositeConsumer<String> compositeConsumer;
+
+	private volatile String last;
+
+	@Setup
+	public void setUp() {
+		this.cacheConsumer = new CacheConsumer<>(30);
+		this.compositeConsumer = new CompositeConsumer<>();
+		this.compositeConsumer.add(this.cacheConsumer);
+		for (int i = 1; i < this.consumers; i++) {
+			this.compositeConsumer.add(line -> this.last = line);
+		}
+	}
+
+	@Benchmark
+	public void cacheConsumer() {
+		this.cacheConsumer.accept(LINE);
+	}
+
+	@Benchmark
+	public void compositeConsumer() {
+		this.compositeConsumer.accept(LINE);
+	}
+
+	@Benchmark
+	@Threads(2)
+	public void compositeConsumerContended() {
+		this.compositeConsumer.accept(LINE);
+	}
+
+}
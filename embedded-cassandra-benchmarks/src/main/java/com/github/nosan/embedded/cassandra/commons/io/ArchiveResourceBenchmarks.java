@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nosan.embedded.cassandra.benchmarks.Distributions;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Benchmarks for {@link ArchiveResource#extract(Path)} on a real distribution archive.
+ *
+ * @author Dmytro Nosan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ArchiveResourceBenchmarks {
+
+	@Param("3.11.6")
+	public String version;
+
+	@Param({"1", "4"})
+	public int threads;
+
+	private ArchiveResource archive;
+
+	private Path destination;
+
+	@Setup(Level.Trial)
+	public void setUpArchive() throws IOException {
+		this.archive = new ArchiveResource(new FileSystemResource(Distributions.getArchive(this.version)));
+	}
+
+	@Setup(Level.Iteration)
+	public void setUpDestination() throws IOException {
+		this.destination = Files.createTempDirectory("archive-benchmarks-");
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteDestination() throws IOException {
+		FileUtils.delete(this.destination);
+	}
+
+	@Benchmark
+	public ArchiveResource.ExtractStatistics extract() throws IOException {
+		return this.archive.extract(this.destination, this.threads);
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nosan.embedded.cassandra.benchmarks.Distributions;
+
+/**
+ * Benchmarks for {@link FileUtils} on a real Cassandra tree.
+ *
+ * @author Dmytro Nosan
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FileUtilsBenchmarks {
+
+	@Benchmark
+	public void copy(CopyState state) throws IOException {
+		FileUtils.copy(state.directory, state.destination, null);
+	}
+
+	@Benchmark
+	public void link(CopyState state) throws IOException {
+		FileUtils.link(state.directory, state.destination, null);
+	}
+
+	@Benchmark
+	public boolean delete(DeleteState state) throws IOException {
+		return FileUtils.delete(state.tree);
+	}
+
+	/**
+	 * The source tree and an empty destination.
+	 */
+	@State(Scope.Benchmark)
+	public static class CopyState {
+
+		@Param("3.11.6")
+		public String version;
+
+		Path directory;
+
+		Path destination;
+
+		@Setup(Level.Trial)
+		public void setUpDirectory() throws IOException {
+			this.directory = Distributions.getDirectory(this.version);
+		}
+
+		@Setup(Level.Iteration)
+		public void setUpDestination() throws IOException {
+			this.destination = Files.createTempDirectory("file-utils-benchmarks-");
+		}
+
+		@TearDown(Level.Iteration)
+		public void deleteDestination() throws IOException {
+			FileUtils.delete(this.destination);
+		}
+
+	}
+
+	/**
+	 * A fresh copy of the source tree.
+	 */
+	@State(Scope.Benchmark)
+	public static class DeleteState {
+
+		@Param("3.11.6")
+		public String version;
+
+		Path tree;
+
+		@Setup(Level.Iteration)
+		public void setUpTree() throws IOException {
+			this.tree = Files.createTempDirectory("file-utils-benchmarks-");
+			FileUtils.copy(Distributions.getDirectory(this.version), this.tree, null);
+		}
+
+		@TearDown(Level.Iteration)
+		public void deleteTree() throws IOException {
+			FileUtils.delete(this.tree);
+		}
+
+	}
+
+}
@@ -16,20 +16,37 @@
 
 package com.github.nosan.embedded.cassandra.commons.io;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -100,6 +117,58 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Extracts this {@code Resource} into the given destination directory using the given number of threads. The
+	 * calling thread decompresses the archive and hands the content of every file to one of the writer threads.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param threads the number of writer threads (if less than {@code 2} then the archive is extracted by the calling
+	 * thread only)
+	 * @return the extraction statistics
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.1.0
+	 */
+	public ExtractStatistics extract(Path destination, int threads) throws IOException {
+		Objects.requireNonNull(destination, "'destination' must not be null");
+		long start = System.nanoTime();
+		AtomicLong files = new AtomicLong();
+		AtomicLong bytes = new AtomicLong();
+		if (threads < 2) {
+			forEach((entry, stream) -> {
+				Path file = destination.resolve(entry.getName());
+				if (entry.isDirectory()) {
+					Files.createDirectories(file);
+				}
+				else {
+					createParentDirectories(file);
+					bytes.addAndGet(Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING));
+					files.incrementAndGet();
+				}
+			});
+		}
+		else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new ExtractThreadFactory());
+			try {
+				ParallelExtractor extractor = new ParallelExtractor(executor, files, bytes);
+				forEach((entry, stream) -> {
+					Path file = destination.resolve(entry.getName());
+					if (entry.isDirectory()) {
+						Files.createDirectories(file);
+					}
+					else {
+						createParentDirectories(file);
+						extractor.submit(file, entry.getSize(), stream);
+					}
+				});
+				extractor.await();
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		return new ExtractStatistics(files.get(), bytes.get(), Duration.ofNanos(System.nanoTime() - start), threads);
+	}
+
 	/**
 	 * Returns the underlying resource.
 	 *
@@ -197,6 +266,13 @@ public class ArchiveResource implements Resource {
 		return ArchiveStreams.create(resource);
 	}
 
+	private static void createParentDirectories(Path file) throws IOException {
+		Path directory = file.getParent();
+		if (directory != null && !Files.exists(directory)) {
+			Files.createDirectories(directory);
+		}
+	}
+
 	/**
 	 * Callback that accepts {@link ArchiveEntry} and {@link ArchiveInputStream}.
 	 */
@@ -231,6 +307,258 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Statistics of the {@link #extract(Path, int) extraction}.
+	 *
+	 * @since 3.1.0
+	 */
+	public static final class ExtractStatistics {
+
+		private static final double MB = 1024 * 1024;
+
+		private final long files;
+
+		private final long bytes;
+
+		private final Duration duration;
+
+		private final int threads;
+
+		ExtractStatistics(long files, long bytes, Duration duration, int threads) {
+			this.files = files;
+			this.bytes = bytes;
+			this.duration = duration;
+			this.threads = threads;
+		}
+
+		/**
+		 * Returns the number of extracted files.
+		 *
+		 * @return the number of files
+		 */
+		public long getFiles() {
+			return this.files;
+		}
+
+		/**
+		 * Returns the number of written (uncompressed) bytes.
+		 *
+		 * @return the number of bytes
+		 */
+		public long getBytes() {
+			return this.bytes;
+		}
+
+		/**
+		 * Returns the time taken by the extraction.
+		 *
+		 * @return the duration
+		 */
+		public Duration getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * Returns the number of writer threads.
+		 *
+		 * @return the number of threads
+		 */
+		public int getThreads() {
+			return this.threads;
+		}
+
+		/**
+		 * Returns the throughput in megabytes (uncompressed) per second.
+		 *
+		 * @return the throughput
+		 */
+		public double getThroughput() {
+			long nanos = Math.max(1, this.duration.toNanos());
+			return (this.bytes / MB) / (nanos / 1_000_000_000.0);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ENGLISH, "%d files (%.1f MB) in %d ms, %.1f MB/s, %d thread(s)", this.files,
+					this.bytes / MB, this.duration.toMillis(), getThroughput(), Math.max(1, this.threads));
+		}
+
+	}
+
+	/**
+	 * Reads the content of every file by the calling thread and writes it by the executor. The number of bytes which
+	 * are read but not yet written is bounded, hence files of unknown or exceeding size are written by the calling
+	 * thread. Every file is preallocated to its final size before it is written.
+	 */
+	private static final class ParallelExtractor {
+
+		private static final int MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+		private final Semaphore pendingBytes = new Semaphore(MAX_PENDING_BYTES);
+
+		private final List<Future<?>> futures = new ArrayList<>();
+
+		private final ExecutorService executor;
+
+		private final AtomicLong files;
+
+		private final AtomicLong bytes;
+
+		ParallelExtractor(ExecutorService executor, AtomicLong files, AtomicLong bytes) {
+			this.executor = executor;
+			this.files = files;
+			this.bytes = bytes;
+		}
+
+		void submit(Path file, long size, InputStream stream) throws IOException {
+			if (size < 0 || size > MAX_PENDING_BYTES) {
+				this.bytes.addAndGet(copy(stream, file, size));
+				this.files.incrementAndGet();
+				checkFailures();
+				return;
+			}
+			int permits = (int) size;
+			acquire(permits);
+			byte[] content;
+			try {
+				content = read(stream, permits);
+			}
+			catch (IOException ex) {
+				this.pendingBytes.release(permits);
+				throw ex;
+			}
+			this.futures.add(this.executor.submit(() -> {
+				try {
+					write(file, content);
+					this.files.incrementAndGet();
+					this.bytes.addAndGet(content.length);
+				}
+				finally {
+					this.pendingBytes.release(permits);
+				}
+				return null;
+			}));
+			checkFailures();
+		}
+
+		void await() throws IOException {
+			for (Future<?> future : this.futures) {
+				get(future);
+			}
+		}
+
+		private void checkFailures() throws IOException {
+			for (Iterator<Future<?>> iterator = this.futures.iterator(); iterator.hasNext(); ) {
+				Future<?> future = iterator.next();
+				if (!future.isDone()) {
+					continue;
+				}
+				get(future);
+				iterator.remove();
+			}
+		}
+
+		private void acquire(int permits) throws IOException {
+			try {
+				this.pendingBytes.acquire(permits);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Extraction has been interrupted");
+			}
+		}
+
+		private static void get(Future<?> future) throws IOException {
+			try {
+				future.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Extraction has been interrupted");
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+
+		private static byte[] read(InputStream stream, int size) throws IOException {
+			byte[] content = new byte[size];
+			int offset = 0;
+			while (offset < content.length) {
+				int read = stream.read(content, offset, content.length - offset);
+				if (read == -1) {
+					throw new EOFException("Unexpected end of an archive entry");
+				}
+				offset += read;
+			}
+			return content;
+		}
+
+		private static void write(Path file, byte[] content) throws IOException {
+			try (FileChannel channel = open(file, content.length)) {
+				write(channel, ByteBuffer.wrap(content), 0);
+			}
+		}
+
+		private static long copy(InputStream stream, Path file, long size) throws IOException {
+			try (FileChannel channel = open(file, size)) {
+				byte[] buffer = new byte[8192];
+				long position = 0;
+				int read;
+				while ((read = stream.read(buffer)) != -1) {
+					position = write(channel, ByteBuffer.wrap(buffer, 0, read), position);
+				}
+				if (size >= 0 && position != size) {
+					throw new EOFException("Unexpected end of an archive entry");
+				}
+				return position;
+			}
+		}
+
+		private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+			long offset = position;
+			while (buffer.hasRemaining()) {
+				offset += channel.write(buffer, offset);
+			}
+			return offset;
+		}
+
+		private static FileChannel open(Path file, long size) throws IOException {
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+			try {
+				// a file of unknown size is truncated and grows while it is written
+				randomAccessFile.setLength(Math.max(size, 0));
+				return randomAccessFile.getChannel();
+			}
+			catch (IOException ex) {
+				randomAccessFile.close();
+				throw ex;
+			}
+		}
+
+	}
+
+	private static final class ExtractThreadFactory implements ThreadFactory {
+
+		private static final AtomicLong POOL = new AtomicLong();
+
+		private final AtomicLong number = new AtomicLong();
+
+		private final long pool = POOL.incrementAndGet();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "archive-extract-" + this.pool + "-" + this.number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 	private static final class ArchiveStreams {
 
 		private static final Map<String, ArchiveInputStreamFactory> STREAMS;
@@ -18,6 +18,7 @@ package com.github.nosan.embedded.cassandra.commons.util;
 
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -26,6 +27,7 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiPredicate;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
@@ -130,4 +132,54 @@ public final class FileUtils {
 
 	}
 
+	/**
+	 * Recursively link the contents of the {@code src} file/directory to the {@code dest} file/directory. Directories
+	 * are created, whereas files are hard-linked to the source ones. If the underlying file system does not support
+	 * hard links (e.g. {@code src} and {@code dest} are located on the different file stores), the files are copied
+	 * instead.
+	 *
+	 * @param src the source path
+	 * @param dest the destination path
+	 * @param matcher the function used to decide whether a path should be linked or not
+	 * @throws IOException in the case of I/O errors
+	 * @see Files#createLink(Path, Path)
+	 * @since 3.1.0
+	 */
+	public static void link(Path src, Path dest,
+			@Nullable BiPredicate<? super Path, ? super BasicFileAttributes> matcher) throws IOException {
+		Objects.requireNonNull(src, "'src' must not be null");
+		Objects.requireNonNull(dest, "'dest' must not be null");
+		AtomicBoolean linkSupported = new AtomicBoolean(true);
+		Files.walkFileTree(src, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) throws IOException {
+				if (matcher == null || matcher.test(directory, attrs)) {
+					Files.createDirectories(dest.resolve(src.relativize(directory)));
+					return FileVisitResult.CONTINUE;
+				}
+				return FileVisitResult.SKIP_SUBTREE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (matcher == null || matcher.test(file, attrs)) {
+					Path target = dest.resolve(src.relativize(file));
+					if (linkSupported.get()) {
+						try {
+							Files.deleteIfExists(target);
+							Files.createLink(target, file);
+							return FileVisitResult.CONTINUE;
+						}
+						catch (UnsupportedOperationException | FileSystemException ex) {
+							linkSupported.set(false);
+						}
+					}
+					Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
 }
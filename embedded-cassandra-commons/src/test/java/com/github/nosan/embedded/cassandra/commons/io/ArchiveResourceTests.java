@@ -18,15 +18,21 @@ package com.github.nosan.embedded.cassandra.commons.io;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link ArchiveResource}.
@@ -93,4 +99,51 @@ class ArchiveResourceTests {
 		assertThat(destination.resolve("test/text.txt")).isRegularFile();
 	}
 
+	@Test
+	void extractParallel(@TempDir Path destination) throws IOException {
+		ArchiveResource.ExtractStatistics statistics = this.resource.extract(destination, 4);
+		assertThat(destination.resolve("test")).isDirectory();
+		assertThat(destination.resolve("test/text.txt")).isRegularFile().hasContent("Text File");
+		assertThat(statistics.getFiles()).isEqualTo(1);
+		assertThat(statistics.getBytes()).isEqualTo(10);
+		assertThat(statistics.getThreads()).isEqualTo(4);
+		assertThat(statistics.getThroughput()).isPositive();
+		assertThat(statistics.toString()).contains("1 files");
+	}
+
+	@Test
+	void extractSingleThread(@TempDir Path destination) throws IOException {
+		ArchiveResource.ExtractStatistics statistics = this.resource.extract(destination, 1);
+		assertThat(destination.resolve("test/text.txt")).isRegularFile().hasContent("Text File");
+		assertThat(statistics.getFiles()).isEqualTo(1);
+		assertThat(statistics.getBytes()).isEqualTo(10);
+	}
+
+	@Test
+	void extractParallelUnknownSize(@TempDir Path temporaryFolder) throws IOException {
+		// a streamed zip archive has data descriptors, hence the sizes are unknown while reading
+		Path archive = temporaryFolder.resolve("test.zip");
+		try (OutputStream os = Files.newOutputStream(archive);
+				ZipArchiveOutputStream zip = new ZipArchiveOutputStream(os)) {
+			for (String name : new String[]{"first.txt", "second.txt"}) {
+				zip.putArchiveEntry(new ZipArchiveEntry("test/" + name));
+				zip.write(name.getBytes(StandardCharsets.UTF_8));
+				zip.closeArchiveEntry();
+			}
+		}
+		Path destination = Files.createDirectory(temporaryFolder.resolve("destination"));
+		ArchiveResource.ExtractStatistics statistics = new ArchiveResource(new FileSystemResource(archive))
+				.extract(destination, 4);
+		assertThat(destination.resolve("test/first.txt")).hasContent("first.txt");
+		assertThat(destination.resolve("test/second.txt")).hasContent("second.txt");
+		assertThat(statistics.getFiles()).isEqualTo(2);
+		assertThat(statistics.getBytes()).isEqualTo(19);
+	}
+
+	@Test
+	void extractParallelWriteFailure(@TempDir Path destination) throws IOException {
+		Files.createDirectories(destination.resolve("test/text.txt"));
+		assertThatThrownBy(() -> this.resource.extract(destination, 4)).isInstanceOf(IOException.class);
+	}
+
 }
@@ -17,6 +17,7 @@
 package com.github.nosan.embedded.cassandra.commons.util;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -142,6 +143,55 @@ class FileUtilsTests {
 		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).doesNotExist();
 	}
 
+	@Test
+	void linkDir() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+		Files.write(file, "text".getBytes(StandardCharsets.UTF_8));
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.link(src, dest, (path, attrs) -> true);
+
+		Path target = dest.resolve(folder.getFileName()).resolve(file.getFileName());
+		assertThat(target).exists().hasContent("text");
+		assertThat(Files.isSameFile(target, file)).isTrue();
+		FileUtils.delete(dest);
+		assertThat(file).exists().hasContent("text");
+	}
+
+	@Test
+	void linkReplaceExisting() throws IOException {
+		Path src = newFolder();
+		Path file = newFile(src);
+		Files.write(file, "new".getBytes(StandardCharsets.UTF_8));
+
+		Path dest = newFolder();
+		Path existing = dest.resolve(file.getFileName());
+		Files.write(existing, "old".getBytes(StandardCharsets.UTF_8));
+
+		FileUtils.link(src, dest, null);
+
+		assertThat(existing).hasContent("new");
+	}
+
+	@Test
+	void shouldNotLinkNestedFiles() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.link(src, dest, (path, attrs) -> false);
+
+		assertThat(dest).doesNotExist();
+		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).doesNotExist();
+	}
+
 	private Path newFile() throws IOException {
 		return newFile(this.temporaryFolder);
 	}
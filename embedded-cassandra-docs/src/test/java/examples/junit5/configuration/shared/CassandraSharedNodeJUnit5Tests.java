@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package examples.junit5.configuration.shared;
+// tag::source[]
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.junit5.test.CassandraExtension;
+
+class CassandraSharedNodeJUnit5Tests {
+
+	@RegisterExtension
+	static final CassandraExtension CASSANDRA_EXTENSION = new CassandraExtension().withSharedNode("tests");
+
+	@Test
+	void test() {
+		String keyspace = CASSANDRA_EXTENSION.getNamespace() + "_test";
+		CassandraConnection cassandraConnection = CASSANDRA_EXTENSION.getCassandraConnection();
+		cassandraConnection.execute("CREATE KEYSPACE " + keyspace
+				+ " WITH replication = {'class':'SimpleStrategy', 'replication_factor':1}");
+	}
+
+}
+
+// end::source[]
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package examples.testng.configuration.truncate;
+// tag::source[]
+
+import org.testng.annotations.Test;
+
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.testng.AbstractCassandraTests;
+
+public class CassandraTruncateTablesTestNGTests extends AbstractCassandraTests {
+
+	public CassandraTruncateTablesTestNGTests() {
+		setCqlDataSet(CqlDataSet.ofClasspaths("schema.cql"));
+		setTruncateTables(true);
+	}
+
+	@Test
+	public void test() {
+		CassandraConnection cassandraConnection = getCassandraConnection();
+	}
+
+}
+
+// end::source[]
@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.nosan.embedded.cassandra.EmbeddedCassandraFactory;
+import com.github.nosan.embedded.cassandra.SharedCassandraFactory;
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
@@ -40,6 +41,8 @@ import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.api.cql.CqlExecutionReport;
+import com.github.nosan.embedded.cassandra.api.cql.CqlScriptExecutor;
 
 /**
  * JUnit4 {@link TestRule} that allows the Cassandra to be {@link Cassandra#start() started} and {@link Cassandra#stop()
@@ -67,9 +70,13 @@ import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
  *     - embedded.cassandra.port
  *     - embedded.cassandra.ssl-port
  *     - embedded.cassandra.rpc-port
+ *     - embedded.cassandra.namespace (only if the node is shared)
  * </pre>
  * <p>
  * Use {@link #withExposeProperties}  to disable properties exposing.
+ * <p>
+ * Use {@link #truncateTables()} to clean all tables before each test, e.g. from a {@code Before} method, while keeping
+ * the schema in place. Truncation is much faster if {@code auto_snapshot} is disabled.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -86,6 +93,12 @@ public final class CassandraRule extends ExternalResource {
 
 	private boolean exposeProperties;
 
+	@Nullable
+	private String sharedNode;
+
+	@Nullable
+	private volatile String namespace;
+
 	@Nullable
 	private volatile Cassandra cassandra;
 
@@ -145,6 +158,24 @@ public final class CassandraRule extends ExternalResource {
 		return this;
 	}
 
+	/**
+	 * Sets the name of a node which is shared with other JVMs running on the same machine, e.g. forked test runners.
+	 * The first JVM starts the node, other JVMs attach to it and the last one stops it. Every JVM gets its own
+	 * {@link #getNamespace() keyspace namespace}. Defaults to {@code null} (not shared).
+	 * <p>
+	 * A shared node cannot be used with a {@link #withCqlDataSet(CqlDataSet) CqlDataSet}, because the same statements
+	 * would be executed by every JVM. Keyspaces should be created with the {@link #getNamespace() namespace} prefix.
+	 *
+	 * @param sharedNode the name of the shared node, or {@code null} if the node should not be shared
+	 * @return this instance
+	 * @see SharedCassandraFactory
+	 * @since 3.1.0
+	 */
+	public CassandraRule withSharedNode(@Nullable String sharedNode) {
+		this.sharedNode = sharedNode;
+		return this;
+	}
+
 	/**
 	 * Sets if {@link CassandraRule} should add {@link Cassandra}'s properties such as {@code embedded.cassandra.port}
 	 * to System Properties after start.
@@ -168,7 +199,7 @@ public final class CassandraRule extends ExternalResource {
 			synchronized (this) {
 				cassandra = this.cassandra;
 				if (cassandra == null) {
-					cassandra = this.cassandraFactory.create();
+					cassandra = createCassandraFactory().create();
 					this.cassandra = cassandra;
 				}
 			}
@@ -209,14 +240,52 @@ public final class CassandraRule extends ExternalResource {
 		return connectionType.cast(cassandraConnection.getConnection());
 	}
 
+	/**
+	 * Returns the keyspace namespace of the current JVM if the node is {@link #withSharedNode(String) shared}. The
+	 * namespace is a valid keyspace name and should be used as a keyspace prefix to isolate keyspaces from other JVMs.
+	 *
+	 * @return the namespace (or null if the node is not shared)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public String getNamespace() {
+		getCassandra();
+		return this.namespace;
+	}
+
+	/**
+	 * Truncates all non-system tables. Should be called before each test, e.g. from a {@code Before} method, to start
+	 * the test with empty tables without re-creating the schema.
+	 * <p>
+	 * Tables cannot be truncated on a {@link #withSharedNode(String) shared node}, because the tables of other JVMs
+	 * would be truncated too.
+	 *
+	 * @throws IllegalStateException if the node is shared
+	 * @see CassandraConnection#truncateTables()
+	 * @since 3.1.0
+	 */
+	public void truncateTables() {
+		if (this.sharedNode != null) {
+			throw new IllegalStateException("Tables cannot be truncated on a shared node '" + this.sharedNode
+					+ "', because the tables of every JVM that shares the node are truncated");
+		}
+		getCassandraConnection().truncateTables();
+	}
+
 	@Override
 	protected synchronized void before() {
-		List<String> statements = this.dataSet.getStatements();
+		if (this.sharedNode != null && !this.dataSet.getScripts().isEmpty()) {
+			throw new IllegalStateException("CqlDataSet cannot be used with a shared node '" + this.sharedNode
+					+ "', because it is executed by every JVM that shares the node. Create keyspaces prefixed with"
+					+ " getNamespace() instead");
+		}
+		this.dataSet.checkScripts();
 		Cassandra cassandra = getCassandra();
 		cassandra.start();
-		if (!statements.isEmpty()) {
+		if (!this.dataSet.getScripts().isEmpty()) {
 			CassandraConnection cassandraConnection = getCassandraConnection();
-			statements.forEach(cassandraConnection::execute);
+			CqlExecutionReport report = new CqlScriptExecutor(cassandraConnection).execute(this.dataSet);
+			log.info("CQL statements have been executed: {}", report);
 		}
 		if (this.exposeProperties) {
 			Map<String, Object> properties = new LinkedHashMap<>();
@@ -237,6 +306,10 @@ public final class CassandraRule extends ExternalResource {
 				properties.put("embedded.cassandra.rpc-port", Objects.toString(rpcPort));
 			}
 			properties.put("embedded.cassandra.version", Objects.toString(cassandra.getVersion()));
+			String namespace = this.namespace;
+			if (namespace != null) {
+				properties.put("embedded.cassandra.namespace", namespace);
+			}
 			System.getProperties().putAll(properties);
 		}
 	}
@@ -262,17 +335,40 @@ public final class CassandraRule extends ExternalResource {
 			System.clearProperty("embedded.cassandra.ssl-port");
 			System.clearProperty("embedded.cassandra.rpc-port");
 			System.clearProperty("embedded.cassandra.version");
+			System.clearProperty("embedded.cassandra.namespace");
+		}
+	}
+
+	private CassandraFactory createCassandraFactory() {
+		String sharedNode = this.sharedNode;
+		if (sharedNode == null) {
+			return this.cassandraFactory;
 		}
+		CassandraFactory cassandraFactory = this.cassandraFactory;
+		if (cassandraFactory instanceof DefaultCassandraFactory) {
+			cassandraFactory = new DefaultCassandraFactory((DefaultCassandraFactory) cassandraFactory, false);
+		}
+		SharedCassandraFactory sharedCassandraFactory = new SharedCassandraFactory(cassandraFactory, sharedNode);
+		this.namespace = sharedCassandraFactory.getNamespace();
+		return sharedCassandraFactory;
 	}
 
 	private static final class DefaultCassandraFactory implements CassandraFactory {
 
 		private final List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers;
 
+		private final boolean registerShutdownHook;
+
 		@SafeVarargs
 		DefaultCassandraFactory(CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>... customizers) {
 			Objects.requireNonNull(customizers, "'customizers' must not be null");
 			this.customizers = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(customizers)));
+			this.registerShutdownHook = true;
+		}
+
+		DefaultCassandraFactory(DefaultCassandraFactory cassandraFactory, boolean registerShutdownHook) {
+			this.customizers = cassandraFactory.customizers;
+			this.registerShutdownHook = registerShutdownHook;
 		}
 
 		@Override
@@ -282,6 +378,7 @@ public final class CassandraRule extends ExternalResource {
 			cassandraFactory.setRpcPort(0);
 			cassandraFactory.setJmxLocalPort(0);
 			cassandraFactory.setStoragePort(0);
+			cassandraFactory.setRegisterShutdownHook(this.registerShutdownHook);
 			this.customizers.forEach(customizer -> customizer.customize(cassandraFactory));
 			return cassandraFactory.create();
 		}
@@ -16,14 +16,18 @@
 
 package com.github.nosan.embedded.cassandra.junit4.test;
 
+import java.io.UncheckedIOException;
+
 import org.junit.ClassRule;
 import org.junit.Test;
 
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.mock.MockCassandra;
 import com.github.nosan.embedded.cassandra.mock.MockCassandraFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link CassandraRule} with a custom {@link CassandraFactory}.
@@ -41,4 +45,15 @@ public class CassandraRuleCustomFactoryTests {
 		assertThat(rule.getCassandra()).isEqualTo(MockCassandra.INSTANCE);
 	}
 
+	@Test
+	public void missingScriptFailsBeforeStart() {
+		CassandraRule cassandraRule = new CassandraRule()
+				.withCassandraFactory(() -> {
+					throw new IllegalStateException("Cassandra must not be created");
+				})
+				.withCqlDataSet(CqlDataSet.ofClasspaths("missing.cql"));
+		assertThatThrownBy(cassandraRule::before).isInstanceOf(UncheckedIOException.class)
+				.hasMessageContaining("missing.cql");
+	}
+
 }
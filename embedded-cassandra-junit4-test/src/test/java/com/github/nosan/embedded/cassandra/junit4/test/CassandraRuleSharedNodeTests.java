@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.junit4.test;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.mock.MockCassandraFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CassandraRule} with a shared node.
+ *
+ * @author Dmytro Nosan
+ */
+public class CassandraRuleSharedNodeTests {
+
+	@ClassRule
+	public static final CassandraRule rule = new CassandraRule()
+			.withCassandraFactory(new MockCassandraFactory()).withSharedNode("junit4-shared-node-tests");
+
+	@Test
+	public void testSharedNode() {
+		assertThat(rule.getCassandra().getName()).isEqualTo("junit4-shared-node-tests");
+		assertThat(rule.getNamespace()).matches("fork_\\d+");
+		assertThat(System.getProperty("embedded.cassandra.namespace")).isEqualTo(rule.getNamespace());
+	}
+
+	@Test
+	public void cqlDataSetIsNotAllowed() {
+		CassandraRule cassandraRule = new CassandraRule().withCassandraFactory(new MockCassandraFactory())
+				.withSharedNode("junit4-shared-node-data-set-tests")
+				.withCqlDataSet(CqlDataSet.ofStrings("CREATE KEYSPACE test WITH replication = "
+						+ "{'class':'SimpleStrategy', 'replication_factor':1}"));
+		assertThatIllegalStateException().isThrownBy(() -> cassandraRule.before())
+				.withMessageContaining("CqlDataSet cannot be used with a shared node");
+	}
+
+	@Test
+	public void truncateTablesIsNotAllowed() {
+		assertThatIllegalStateException().isThrownBy(rule::truncateTables)
+				.withMessageContaining("Tables cannot be truncated on a shared node");
+	}
+
+}
@@ -27,12 +27,14 @@ import java.util.Objects;
 
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.nosan.embedded.cassandra.EmbeddedCassandraFactory;
+import com.github.nosan.embedded.cassandra.SharedCassandraFactory;
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
@@ -42,6 +44,8 @@ import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.api.cql.CqlExecutionReport;
+import com.github.nosan.embedded.cassandra.api.cql.CqlScriptExecutor;
 
 /**
  * JUnit5 {@link RegisterExtension Extension} that allows the Cassandra to be {@link Cassandra#start() started} and
@@ -69,6 +73,7 @@ import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
  *     - embedded.cassandra.port
  *     - embedded.cassandra.ssl-port
  *     - embedded.cassandra.rpc-port
+ *     - embedded.cassandra.namespace (only if the node is shared)
  * </pre>
  * <p>
  * Use {@link #withExposeProperties}  to disable properties exposing.
@@ -76,7 +81,7 @@ import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
  * @author Dmytro Nosan
  * @since 3.0.0
  */
-public final class CassandraExtension implements BeforeAllCallback, AfterAllCallback {
+public final class CassandraExtension implements BeforeAllCallback, BeforeEachCallback, AfterAllCallback {
 
 	private static final Logger log = LoggerFactory.getLogger(CassandraExtension.class);
 
@@ -88,6 +93,14 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 
 	private boolean exposeProperties;
 
+	private boolean truncateTables;
+
+	@Nullable
+	private String sharedNode;
+
+	@Nullable
+	private volatile String namespace;
+
 	@Nullable
 	private volatile Cassandra cassandra;
 
@@ -97,7 +110,8 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 	/**
 	 * Constructs a new {@link CassandraExtension} with a default {@link CassandraFactory} with the specified {@link
 	 * CassandraFactoryCustomizer}(s). The default factory is {@link EmbeddedCassandraFactory} which is configured to
-	 * use random ports.
+	 * use random ports and with {@code auto_snapshot} disabled if {@link #withTruncateTables(boolean) tables are
+	 * truncated}.
 	 *
 	 * @param customizers Any instances of this type will get a callback with the {@link EmbeddedCassandraFactory}
 	 * before the {@link Cassandra} itself is started
@@ -159,6 +173,41 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 		return this;
 	}
 
+	/**
+	 * Sets if all non-system tables should be {@link CassandraConnection#truncateTables() truncated} before each test.
+	 * The schema created by the {@link #withCqlDataSet(CqlDataSet) CqlDataSet} is left in place, so every test starts
+	 * with empty tables. Defaults to {@code false}.
+	 * <p>
+	 * Tables cannot be truncated on a {@link #withSharedNode(String) shared node}, because the tables of other JVMs
+	 * would be truncated too.
+	 *
+	 * @param truncateTables if the tables should be truncated before each test
+	 * @return this instance
+	 * @since 3.1.0
+	 */
+	public CassandraExtension withTruncateTables(boolean truncateTables) {
+		this.truncateTables = truncateTables;
+		return this;
+	}
+
+	/**
+	 * Sets the name of a node which is shared with other JVMs running on the same machine, e.g. forked test runners.
+	 * The first JVM starts the node, other JVMs attach to it and the last one stops it. Every JVM gets its own
+	 * {@link #getNamespace() keyspace namespace}. Defaults to {@code null} (not shared).
+	 * <p>
+	 * A shared node cannot be used with a {@link #withCqlDataSet(CqlDataSet) CqlDataSet}, because the same statements
+	 * would be executed by every JVM. Keyspaces should be created with the {@link #getNamespace() namespace} prefix.
+	 *
+	 * @param sharedNode the name of the shared node, or {@code null} if the node should not be shared
+	 * @return this instance
+	 * @see SharedCassandraFactory
+	 * @since 3.1.0
+	 */
+	public CassandraExtension withSharedNode(@Nullable String sharedNode) {
+		this.sharedNode = sharedNode;
+		return this;
+	}
+
 	/**
 	 * Returns the {@link Cassandra} instance.
 	 *
@@ -170,7 +219,7 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 			synchronized (this) {
 				cassandra = this.cassandra;
 				if (cassandra == null) {
-					cassandra = this.cassandraFactory.create();
+					cassandra = createCassandraFactory().create();
 					this.cassandra = cassandra;
 				}
 			}
@@ -211,14 +260,37 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 		return connectionType.cast(cassandraConnection.getConnection());
 	}
 
+	/**
+	 * Returns the keyspace namespace of the current JVM if the node is {@link #withSharedNode(String) shared}. The
+	 * namespace is a valid keyspace name and should be used as a keyspace prefix to isolate keyspaces from other JVMs.
+	 *
+	 * @return the namespace (or null if the node is not shared)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public String getNamespace() {
+		getCassandra();
+		return this.namespace;
+	}
+
 	@Override
 	public synchronized void beforeAll(ExtensionContext context) {
-		List<String> statements = this.dataSet.getStatements();
+		if (this.sharedNode != null && !this.dataSet.getScripts().isEmpty()) {
+			throw new IllegalStateException("CqlDataSet cannot be used with a shared node '" + this.sharedNode
+					+ "', because it is executed by every JVM that shares the node. Create keyspaces prefixed with"
+					+ " getNamespace() instead");
+		}
+		if (this.sharedNode != null && this.truncateTables) {
+			throw new IllegalStateException("Tables cannot be truncated on a shared node '" + this.sharedNode
+					+ "', because the tables of every JVM that shares the node are truncated");
+		}
+		this.dataSet.checkScripts();
 		Cassandra cassandra = getCassandra();
 		cassandra.start();
-		if (!statements.isEmpty()) {
+		if (!this.dataSet.getScripts().isEmpty()) {
 			CassandraConnection cassandraConnection = getCassandraConnection();
-			statements.forEach(cassandraConnection::execute);
+			CqlExecutionReport report = new CqlScriptExecutor(cassandraConnection).execute(this.dataSet);
+			log.info("CQL statements have been executed: {}", report);
 		}
 		if (this.exposeProperties) {
 			Map<String, Object> properties = new LinkedHashMap<>();
@@ -239,10 +311,21 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 				properties.put("embedded.cassandra.rpc-port", Objects.toString(rpcPort));
 			}
 			properties.put("embedded.cassandra.version", Objects.toString(cassandra.getVersion()));
+			String namespace = this.namespace;
+			if (namespace != null) {
+				properties.put("embedded.cassandra.namespace", namespace);
+			}
 			System.getProperties().putAll(properties);
 		}
 	}
 
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		if (this.truncateTables) {
+			getCassandraConnection().truncateTables();
+		}
+	}
+
 	@Override
 	public synchronized void afterAll(ExtensionContext context) {
 		CassandraConnection connection = this.cassandraConnection;
@@ -264,17 +347,46 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 			System.clearProperty("embedded.cassandra.ssl-port");
 			System.clearProperty("embedded.cassandra.rpc-port");
 			System.clearProperty("embedded.cassandra.version");
+			System.clearProperty("embedded.cassandra.namespace");
+		}
+	}
+
+	private CassandraFactory createCassandraFactory() {
+		String sharedNode = this.sharedNode;
+		CassandraFactory cassandraFactory = this.cassandraFactory;
+		if (cassandraFactory instanceof DefaultCassandraFactory) {
+			cassandraFactory = new DefaultCassandraFactory((DefaultCassandraFactory) cassandraFactory,
+					sharedNode == null, this.truncateTables);
+		}
+		if (sharedNode == null) {
+			return cassandraFactory;
 		}
+		SharedCassandraFactory sharedCassandraFactory = new SharedCassandraFactory(cassandraFactory, sharedNode);
+		this.namespace = sharedCassandraFactory.getNamespace();
+		return sharedCassandraFactory;
 	}
 
 	private static final class DefaultCassandraFactory implements CassandraFactory {
 
 		private final List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers;
 
+		private final boolean registerShutdownHook;
+
+		private final boolean disableAutoSnapshot;
+
 		@SafeVarargs
 		DefaultCassandraFactory(CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>... customizers) {
 			Objects.requireNonNull(customizers, "'customizers' must not be null");
 			this.customizers = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(customizers)));
+			this.registerShutdownHook = true;
+			this.disableAutoSnapshot = false;
+		}
+
+		DefaultCassandraFactory(DefaultCassandraFactory cassandraFactory, boolean registerShutdownHook,
+				boolean disableAutoSnapshot) {
+			this.customizers = cassandraFactory.customizers;
+			this.registerShutdownHook = registerShutdownHook;
+			this.disableAutoSnapshot = disableAutoSnapshot;
 		}
 
 		@Override
@@ -284,6 +396,10 @@ public final class CassandraExtension implements BeforeAllCallback, AfterAllCall
 			cassandraFactory.setRpcPort(0);
 			cassandraFactory.setJmxLocalPort(0);
 			cassandraFactory.setStoragePort(0);
+			if (this.disableAutoSnapshot) {
+				cassandraFactory.getConfigProperties().put("auto_snapshot", false);
+			}
+			cassandraFactory.setRegisterShutdownHook(this.registerShutdownHook);
 			this.customizers.forEach(customizer -> customizer.customize(cassandraFactory));
 			return cassandraFactory.create();
 		}
@@ -16,14 +16,18 @@
 
 package com.github.nosan.embedded.cassandra.junit5.test;
 
+import java.io.UncheckedIOException;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.mock.MockCassandra;
 import com.github.nosan.embedded.cassandra.mock.MockCassandraFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link CassandraExtension} with a custom {@link CassandraFactory}.
@@ -41,4 +45,15 @@ class CassandraExtensionCustomFactoryTests {
 		assertThat(extension.getCassandra()).isEqualTo(MockCassandra.INSTANCE);
 	}
 
+	@Test
+	void missingScriptFailsBeforeStart() {
+		CassandraExtension cassandraExtension = new CassandraExtension()
+				.withCassandraFactory(() -> {
+					throw new IllegalStateException("Cassandra must not be created");
+				})
+				.withCqlDataSet(CqlDataSet.ofClasspaths("missing.cql"));
+		assertThatThrownBy(() -> cassandraExtension.beforeAll(null)).isInstanceOf(UncheckedIOException.class)
+				.hasMessageContaining("missing.cql");
+	}
+
 }
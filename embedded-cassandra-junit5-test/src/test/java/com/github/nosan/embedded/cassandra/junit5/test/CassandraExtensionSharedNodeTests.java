@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.junit5.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.mock.MockCassandraFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CassandraExtension} with a shared node.
+ *
+ * @author Dmytro Nosan
+ */
+class CassandraExtensionSharedNodeTests {
+
+	@RegisterExtension
+	static final CassandraExtension extension = new CassandraExtension()
+			.withCassandraFactory(new MockCassandraFactory()).withSharedNode("junit5-shared-node-tests");
+
+	@Test
+	void testSharedNode() {
+		assertThat(extension.getCassandra().getName()).isEqualTo("junit5-shared-node-tests");
+		assertThat(extension.getNamespace()).matches("fork_\\d+");
+		assertThat(System.getProperty("embedded.cassandra.namespace")).isEqualTo(extension.getNamespace());
+	}
+
+	@Test
+	void cqlDataSetIsNotAllowed() {
+		CassandraExtension cassandraExtension = new CassandraExtension()
+				.withCassandraFactory(new MockCassandraFactory())
+				.withSharedNode("junit5-shared-node-data-set-tests")
+				.withCqlDataSet(CqlDataSet.ofStrings("CREATE KEYSPACE test WITH replication = "
+						+ "{'class':'SimpleStrategy', 'replication_factor':1}"));
+		assertThatIllegalStateException().isThrownBy(() -> cassandraExtension.beforeAll(null))
+				.withMessageContaining("CqlDataSet cannot be used with a shared node");
+	}
+
+	@Test
+	void truncateTablesIsNotAllowed() {
+		CassandraExtension cassandraExtension = new CassandraExtension()
+				.withCassandraFactory(new MockCassandraFactory())
+				.withSharedNode("junit5-shared-node-truncate-tables-tests")
+				.withTruncateTables(true);
+		assertThatIllegalStateException().isThrownBy(() -> cassandraExtension.beforeAll(null))
+				.withMessageContaining("Tables cannot be truncated on a shared node");
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.junit5.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.mock.MockCassandraFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CassandraExtension} with truncated tables.
+ *
+ * @author Dmytro Nosan
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CassandraExtensionTruncateTablesTests {
+
+	@RegisterExtension
+	static final CassandraExtension extension = new CassandraExtension()
+			.withCassandraFactory(new MockCassandraFactory())
+			.withCassandraConnectionFactory(cassandra -> new TestCassandraConnection())
+			.withTruncateTables(true);
+
+	private static final AtomicInteger truncates = new AtomicInteger();
+
+	@Test
+	@Order(1)
+	void truncateTablesBeforeFirstTest() {
+		assertThat(truncates).hasValue(1);
+	}
+
+	@Test
+	@Order(2)
+	void truncateTablesBeforeSecondTest() {
+		assertThat(truncates).hasValue(2);
+	}
+
+	private static final class TestCassandraConnection implements CassandraConnection {
+
+		@Override
+		public Object execute(String query) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object execute(String query, Object... values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void truncateTables() {
+			truncates.incrementAndGet();
+		}
+
+		@Override
+		public Object getConnection() {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
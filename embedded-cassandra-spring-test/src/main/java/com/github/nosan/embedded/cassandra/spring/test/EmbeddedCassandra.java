@@ -98,4 +98,14 @@ public @interface EmbeddedCassandra {
 	 */
 	boolean exposeProperties() default true;
 
+	/**
+	 * Whether all non-system tables should be {@link CassandraConnection#truncateTables() truncated} before each test
+	 * method. The schema created by the {@link #scripts() scripts} is left in place, so every test method starts with
+	 * empty tables.
+	 *
+	 * @return {@code true} if tables should be truncated
+	 * @since 3.1.0
+	 */
+	boolean truncateTables() default false;
+
 }
@@ -30,6 +30,8 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
@@ -56,6 +58,8 @@ import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.api.cql.CqlExecutionReport;
+import com.github.nosan.embedded.cassandra.api.cql.CqlScriptExecutor;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
 import com.github.nosan.embedded.cassandra.commons.io.SpringResource;
 import com.github.nosan.embedded.cassandra.spring.test.EmbeddedCassandra;
@@ -80,7 +84,8 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 		Resource[] resources = getResources(annotation, context);
 		Charset charset = Charset.forName(annotation.encoding());
 		CqlDataSet dataSet = CqlDataSet.ofResources(charset, resources);
-		registerCassandraBeanDefinition(annotation.exposeProperties(), context, registry);
+		dataSet.checkScripts();
+		registerCassandraBeanDefinition(annotation.exposeProperties(), annotation.truncateTables(), context, registry);
 		registerCassandraConnectionBeanDefinition(context, registry);
 		registerCassandraInitializerBeanDefinition(dataSet, context, registry);
 		context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
@@ -122,7 +127,7 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 		return ((BeanDefinitionRegistry) applicationContext.getBeanFactory());
 	}
 
-	private static void registerCassandraBeanDefinition(boolean exposeProperties,
+	private static void registerCassandraBeanDefinition(boolean exposeProperties, boolean truncateTables,
 			ConfigurableApplicationContext context,
 			BeanDefinitionRegistry registry) {
 		GenericBeanDefinition bd = new GenericBeanDefinition();
@@ -130,7 +135,7 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 		bd.setDestroyMethodName("stop");
 		bd.setLazyInit(false);
 		bd.setScope(BeanDefinition.SCOPE_SINGLETON);
-		bd.setInstanceSupplier(new CassandraSupplier(exposeProperties, context));
+		bd.setInstanceSupplier(new CassandraSupplier(exposeProperties, truncateTables, context));
 		registry.registerBeanDefinition(Cassandra.class.getName(), bd);
 	}
 
@@ -195,10 +200,13 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 
 		private final boolean exposeProperties;
 
+		private final boolean truncateTables;
+
 		private final ConfigurableApplicationContext context;
 
-		CassandraSupplier(boolean exposeProperties, ConfigurableApplicationContext context) {
+		CassandraSupplier(boolean exposeProperties, boolean truncateTables, ConfigurableApplicationContext context) {
 			this.exposeProperties = exposeProperties;
+			this.truncateTables = truncateTables;
 			this.context = context;
 		}
 
@@ -236,7 +244,7 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 				return this.context.getBean(CassandraFactory.class).create();
 			}
 			catch (NoSuchBeanDefinitionException ex) {
-				return new DefaultCassandraFactory(getCustomizers(this.context)).create();
+				return new DefaultCassandraFactory(getCustomizers(this.context), this.truncateTables).create();
 			}
 		}
 
@@ -285,8 +293,12 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 
 		private final List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers;
 
-		DefaultCassandraFactory(List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers) {
+		private final boolean disableAutoSnapshot;
+
+		DefaultCassandraFactory(List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers,
+				boolean disableAutoSnapshot) {
 			this.customizers = customizers;
+			this.disableAutoSnapshot = disableAutoSnapshot;
 		}
 
 		@Override
@@ -296,6 +308,9 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 			cassandraFactory.setRpcPort(0);
 			cassandraFactory.setJmxLocalPort(0);
 			cassandraFactory.setStoragePort(0);
+			if (this.disableAutoSnapshot) {
+				cassandraFactory.getConfigProperties().put("auto_snapshot", false);
+			}
 			this.customizers.forEach(customizer -> customizer.customize(cassandraFactory));
 			return cassandraFactory.create();
 		}
@@ -304,6 +319,8 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 
 	private static final class CassandraInitializer implements InitializingBean {
 
+		private static final Logger log = LoggerFactory.getLogger(CassandraInitializer.class);
+
 		private final ConfigurableApplicationContext context;
 
 		private final CqlDataSet dataSet;
@@ -315,11 +332,11 @@ class EmbeddedCassandraContextCustomizer implements ContextCustomizer {
 
 		@Override
 		public void afterPropertiesSet() {
-			List<String> statements = this.dataSet.getStatements();
-			if (!statements.isEmpty()) {
+			if (!this.dataSet.getScripts().isEmpty()) {
 				CassandraConnection cassandraConnection = this.context.getBean(CassandraConnection.class.getName(),
 						CassandraConnection.class);
-				statements.forEach(cassandraConnection::execute);
+				CqlExecutionReport report = new CqlScriptExecutor(cassandraConnection).execute(this.dataSet);
+				log.info("CQL statements have been executed: {}", report);
 			}
 		}
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.spring.test.context;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.spring.test.EmbeddedCassandra;
+
+/**
+ * {@link TestExecutionListener} to support {@link EmbeddedCassandra#truncateTables()}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraTestExecutionListener extends AbstractTestExecutionListener {
+
+	@Override
+	public void beforeTestMethod(TestContext testContext) {
+		EmbeddedCassandra annotation = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(),
+				EmbeddedCassandra.class);
+		if (annotation != null && annotation.truncateTables()) {
+			CassandraConnection cassandraConnection = testContext.getApplicationContext()
+					.getBean(CassandraConnection.class.getName(), CassandraConnection.class);
+			cassandraConnection.truncateTables();
+		}
+	}
+
+}
@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 
 import com.github.nosan.embedded.cassandra.EmbeddedCassandraFactory;
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
@@ -40,6 +41,8 @@ import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.api.cql.CqlExecutionReport;
+import com.github.nosan.embedded.cassandra.api.cql.CqlScriptExecutor;
 
 /**
  * Abstract TestNG {@code class} that allows the Cassandra to be {@link Cassandra#start() started} and {@link
@@ -84,6 +87,8 @@ public abstract class AbstractCassandraTests {
 
 	private boolean exposeProperties;
 
+	private boolean truncateTables;
+
 	@Nullable
 	private volatile Cassandra cassandra;
 
@@ -93,7 +98,8 @@ public abstract class AbstractCassandraTests {
 	/**
 	 * Constructs a new {@link AbstractCassandraTests} with a default {@link CassandraFactory} with the specified {@link
 	 * CassandraFactoryCustomizer}(s). The default factory is {@link EmbeddedCassandraFactory} which is configured to
-	 * use random ports.
+	 * use random ports and with {@code auto_snapshot} disabled if {@link #setTruncateTables(boolean) tables are
+	 * truncated}.
 	 *
 	 * @param customizers Any instances of this type will get a callback with the {@link EmbeddedCassandraFactory}
 	 * before the {@link Cassandra} itself is started
@@ -147,6 +153,18 @@ public abstract class AbstractCassandraTests {
 		this.exposeProperties = exposeProperties;
 	}
 
+	/**
+	 * Sets if all non-system tables should be {@link CassandraConnection#truncateTables() truncated} before each test
+	 * method. The schema created by the {@link #setCqlDataSet(CqlDataSet) CqlDataSet} is left in place, so every test
+	 * method starts with empty tables. Defaults to {@code false}.
+	 *
+	 * @param truncateTables if the tables should be truncated before each test method
+	 * @since 3.1.0
+	 */
+	public final void setTruncateTables(boolean truncateTables) {
+		this.truncateTables = truncateTables;
+	}
+
 	/**
 	 * Returns the {@link Cassandra} instance.
 	 *
@@ -158,7 +176,7 @@ public abstract class AbstractCassandraTests {
 			synchronized (this) {
 				cassandra = this.cassandra;
 				if (cassandra == null) {
-					cassandra = this.cassandraFactory.create();
+					cassandra = createCassandraFactory().create();
 					this.cassandra = cassandra;
 				}
 			}
@@ -204,12 +222,13 @@ public abstract class AbstractCassandraTests {
 	 */
 	@BeforeClass(alwaysRun = true)
 	public final synchronized void startCassandra() {
-		List<String> statements = this.dataSet.getStatements();
+		this.dataSet.checkScripts();
 		Cassandra cassandra = getCassandra();
 		cassandra.start();
-		if (!statements.isEmpty()) {
+		if (!this.dataSet.getScripts().isEmpty()) {
 			CassandraConnection cassandraConnection = getCassandraConnection();
-			statements.forEach(cassandraConnection::execute);
+			CqlExecutionReport report = new CqlScriptExecutor(cassandraConnection).execute(this.dataSet);
+			log.info("CQL statements have been executed: {}", report);
 		}
 		if (this.exposeProperties) {
 			Map<String, Object> properties = new LinkedHashMap<>();
@@ -234,6 +253,18 @@ public abstract class AbstractCassandraTests {
 		}
 	}
 
+	/**
+	 * Truncates all non-system tables if {@link #setTruncateTables(boolean) enabled}.
+	 *
+	 * @since 3.1.0
+	 */
+	@BeforeMethod(alwaysRun = true)
+	public final void truncateTables() {
+		if (this.truncateTables) {
+			getCassandraConnection().truncateTables();
+		}
+	}
+
 	/**
 	 * Stops the Cassandra.
 	 */
@@ -261,14 +292,30 @@ public abstract class AbstractCassandraTests {
 		}
 	}
 
+	private CassandraFactory createCassandraFactory() {
+		CassandraFactory cassandraFactory = this.cassandraFactory;
+		if (cassandraFactory instanceof DefaultCassandraFactory) {
+			return new DefaultCassandraFactory((DefaultCassandraFactory) cassandraFactory, this.truncateTables);
+		}
+		return cassandraFactory;
+	}
+
 	private static final class DefaultCassandraFactory implements CassandraFactory {
 
 		private final List<CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>> customizers;
 
+		private final boolean disableAutoSnapshot;
+
 		@SafeVarargs
 		DefaultCassandraFactory(CassandraFactoryCustomizer<? super EmbeddedCassandraFactory>... customizers) {
 			Objects.requireNonNull(customizers, "'customizers' must not be null");
 			this.customizers = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(customizers)));
+			this.disableAutoSnapshot = false;
+		}
+
+		DefaultCassandraFactory(DefaultCassandraFactory cassandraFactory, boolean disableAutoSnapshot) {
+			this.customizers = cassandraFactory.customizers;
+			this.disableAutoSnapshot = disableAutoSnapshot;
 		}
 
 		@Override
@@ -278,6 +325,9 @@ public abstract class AbstractCassandraTests {
 			cassandraFactory.setRpcPort(0);
 			cassandraFactory.setJmxLocalPort(0);
 			cassandraFactory.setStoragePort(0);
+			if (this.disableAutoSnapshot) {
+				cassandraFactory.getConfigProperties().put("auto_snapshot", false);
+			}
 			this.customizers.forEach(customizer -> customizer.customize(cassandraFactory));
 			return cassandraFactory.create();
 		}
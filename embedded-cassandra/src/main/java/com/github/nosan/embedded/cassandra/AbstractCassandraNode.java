@@ -16,30 +16,25 @@
 
 package com.github.nosan.embedded.cassandra;
 
-import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.ServerSocket;
-import java.net.URL;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.Yaml;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
-import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
-import com.github.nosan.embedded.cassandra.commons.io.Resource;
-import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
 
 /**
  * Abstract {@link CassandraNode} that implements common logic for any subclasses.
@@ -64,11 +59,18 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	private final List<String> jvmOptions;
 
+	@Nullable
+	private volatile Path outputFile;
+
 	@Nullable
 	private volatile Process process;
 
 	private volatile long pid = -1;
 
+	private volatile int jmxLocalPort = -1;
+
+	private volatile Map<String, Duration> startupPhases = Collections.emptyMap();
+
 	AbstractCassandraNode(Path workingDirectory, Map<String, Object> properties, List<String> jvmOptions,
 			Map<String, Object> systemProperties, Map<String, Object> environmentVariables) {
 		this.workingDirectory = workingDirectory;
@@ -80,15 +82,13 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	@Override
 	public final void start() throws IOException, InterruptedException {
+		long start = System.nanoTime();
 		RunProcess runProcess = new RunProcess(this.workingDirectory);
-		Map<String, Object> properties = loadProperties();
-		properties.putAll(this.properties);
-		Map<String, Object> systemProperties = new LinkedHashMap<>(this.systemProperties);
-		configureSystemProperties(systemProperties);
-		configureProperties(properties);
-		Path configFile = Files.createTempFile(this.workingDirectory.resolve("conf"), "", "-cassandra.yaml");
-		dumpProperties(properties, configFile);
-		systemProperties.put("cassandra.config", configFile.toUri().toString());
+		runProcess.setOutputFile(this.outputFile);
+		Map<String, Object> systemProperties = NodeConfiguration.configure(this.workingDirectory, this.properties,
+				this.systemProperties);
+		// cassandra-env.sh and JvmLaunchCommand use 7199 unless the port is set
+		this.jmxLocalPort = NodeConfiguration.getJmxLocalPort(systemProperties, 7199);
 		List<String> jvmOptions = new ArrayList<>(this.jvmOptions);
 		for (Map.Entry<String, Object> entry : systemProperties.entrySet()) {
 			Object value = entry.getValue();
@@ -97,9 +97,14 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		}
 		runProcess.getEnvironment().putAll(this.environmentVariables);
 		runProcess.putEnvironment(JVM_EXTRA_OPTS, String.join(" ", jvmOptions));
-		Process process = doStart(runProcess);
+		Map<String, Duration> startupPhases = new LinkedHashMap<>();
+		startupPhases.put("configure", Duration.ofNanos(System.nanoTime() - start));
+		start = System.nanoTime();
+		Process process = doStart(runProcess, Collections.unmodifiableList(jvmOptions));
 		this.process = process;
 		this.pid = getPid(process);
+		startupPhases.put("spawn", Duration.ofNanos(System.nanoTime() - start));
+		this.startupPhases = Collections.unmodifiableMap(startupPhases);
 	}
 
 	@Override
@@ -120,7 +125,24 @@ abstract class AbstractCassandraNode implements CassandraNode {
 	@Override
 	public final InputStream getInputStream() {
 		Process process = this.process;
-		return process != null ? process.getInputStream() : EMPTY_STREAM;
+		if (process == null) {
+			return EMPTY_STREAM;
+		}
+		Path outputFile = this.outputFile;
+		if (outputFile == null) {
+			return process.getInputStream();
+		}
+		try {
+			return new OutputFileInputStream(Files.newInputStream(outputFile), process);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Output file '" + outputFile + "' cannot be opened", ex);
+		}
+	}
+
+	@Override
+	public final void setOutputFile(@Nullable Path outputFile) {
+		this.outputFile = outputFile;
 	}
 
 	@Override
@@ -129,6 +151,21 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		return process != null && process.isAlive();
 	}
 
+	@Override
+	public final long getPid() {
+		return this.pid;
+	}
+
+	@Override
+	public final Map<String, Duration> getStartupPhases() {
+		return this.startupPhases;
+	}
+
+	@Override
+	public final int getJmxLocalPort() {
+		return this.jmxLocalPort;
+	}
+
 	@Override
 	public final String toString() {
 		return String.format("%s[pid='%s', exitValue='%s']", getClass().getSimpleName(), this.pid, exitValue());
@@ -150,11 +187,12 @@ abstract class AbstractCassandraNode implements CassandraNode {
 	 * Starts {@code Cassandra's} node.
 	 *
 	 * @param runProcess configured process
+	 * @param jvmOptions JVM options and system properties, also exported as {@code JVM_EXTRA_OPTS}
 	 * @return a new {@link Process}
 	 * @throws IOException if the {@code Cassandra's} node cannot be started
 	 * @throws InterruptedException if the {@code Cassandra's} node has been interrupted.
 	 */
-	abstract Process doStart(RunProcess runProcess) throws IOException, InterruptedException;
+	abstract Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException, InterruptedException;
 
 	/**
 	 * Stops {@code Cassandra's} node.
@@ -172,53 +210,51 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		return isAlive() ? "not exited" : String.valueOf(process.exitValue());
 	}
 
-	private Map<String, Object> loadProperties() throws IOException {
-		try (InputStream is = getConfig().getInputStream()) {
-			Yaml yaml = new Yaml();
-			Map<String, Object> properties = yaml.load(is);
-			return (properties != null) ? new LinkedHashMap<>(properties) : new LinkedHashMap<>(0);
-		}
-	}
+	/**
+	 * {@link InputStream} that follows the output file of a running process, like {@code tail -f}.
+	 */
+	private static final class OutputFileInputStream extends InputStream {
 
-	private Resource getConfig() throws IOException {
-		Object url = this.systemProperties.get("cassandra.config");
-		if (url != null) {
-			return new UrlResource(new URL(url.toString()));
-		}
-		return new FileSystemResource(this.workingDirectory.resolve("conf/cassandra.yaml"));
-	}
+		private final InputStream is;
 
-	private void dumpProperties(Map<String, Object> properties, Path file) throws IOException {
-		try (BufferedWriter bw = Files.newBufferedWriter(file)) {
-			Yaml yaml = new Yaml();
-			yaml.dump(properties, bw);
-		}
-	}
+		private final Process process;
 
-	private void configureProperties(Map<String, Object> properties) throws IOException {
-		configurePort(properties, "native_transport_port");
-		configurePort(properties, "native_transport_port_ssl");
-		configurePort(properties, "rpc_port");
-		configurePort(properties, "storage_port");
-		configurePort(properties, "ssl_storage_port");
-	}
+		OutputFileInputStream(InputStream is, Process process) {
+			this.is = is;
+			this.process = process;
+		}
 
-	private void configureSystemProperties(Map<String, Object> systemProperties) throws IOException {
-		configurePort(systemProperties, "cassandra.jmx.remote.port");
-		configurePort(systemProperties, "cassandra.jmx.local.port");
-		configurePort(systemProperties, "cassandra.native_transport_port");
-		configurePort(systemProperties, "cassandra.rpc_port");
-		configurePort(systemProperties, "cassandra.storage_port");
-		configurePort(systemProperties, "cassandra.ssl_storage_port");
-	}
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int n = read(b, 0, 1);
+			return (n != -1) ? (b[0] & 0xFF) : -1;
+		}
 
-	private void configurePort(Map<String, Object> properties, String name) throws IOException {
-		if (!Objects.toString(properties.get(name), "").trim().equals("0")) {
-			return;
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			while (true) {
+				// checked before reading, everything written before the exit is read afterwards
+				boolean alive = this.process.isAlive();
+				int n = this.is.read(b, off, len);
+				if (n != -1 || !alive) {
+					return n;
+				}
+				try {
+					Thread.sleep(100);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Output file reading has been interrupted");
+				}
+			}
 		}
-		try (ServerSocket ss = new ServerSocket(0)) {
-			properties.put(name, ss.getLocalPort());
+
+		@Override
+		public void close() throws IOException {
+			this.is.close();
 		}
+
 	}
 
 }
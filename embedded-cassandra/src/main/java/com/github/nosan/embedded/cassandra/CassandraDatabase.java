@@ -18,6 +18,8 @@ package com.github.nosan.embedded.cassandra;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Map;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
@@ -76,4 +78,11 @@ interface CassandraDatabase {
 	 */
 	int getRpcPort();
 
+	/**
+	 * Returns the time spent on each phase of the last {@link #start()}, in order.
+	 *
+	 * @return the phases
+	 */
+	Map<String, Duration> getStartupPhases();
+
 }
@@ -18,6 +18,12 @@ package com.github.nosan.embedded.cassandra;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
 /**
  * Simple interface that allows the {@code Cassandra's} node to be  {@link #start() started} and {@link #stop()
@@ -57,4 +63,39 @@ interface CassandraNode {
 	 */
 	InputStream getInputStream();
 
+	/**
+	 * Returns the pid of the node.
+	 *
+	 * @return the pid or {@code -1}
+	 */
+	long getPid();
+
+	/**
+	 * Returns the time spent on each phase of the last {@link #start()}, in order.
+	 *
+	 * @return the phases, or an empty map if the node does not report them
+	 */
+	default Map<String, Duration> getStartupPhases() {
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Returns the JMX local port ({@code cassandra.jmx.local.port}) of the last {@link #start()}.
+	 *
+	 * @return the JMX local port, or {@code -1} if JMX is disabled or the port is unknown
+	 */
+	default int getJmxLocalPort() {
+		return -1;
+	}
+
+	/**
+	 * Redirects the output of the next {@link #start()} to the given file instead of a pipe, so that the node does
+	 * not depend on the current JVM reading its output. {@link #getInputStream()} follows the file until the node
+	 * exits. Nodes that do not run in a separate process ignore it.
+	 *
+	 * @param outputFile the output file, or {@code null} to read the output through a pipe
+	 */
+	default void setOutputFile(@Nullable Path outputFile) {
+	}
+
 }
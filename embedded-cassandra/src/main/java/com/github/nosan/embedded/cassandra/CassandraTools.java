@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.commons.CacheConsumer;
+
+/**
+ * Runs Cassandra's tools (e.g. {@code nodetool}) in a separate JVM using the classpath of the working directory.
+ *
+ * @author Dmytro Nosan
+ * @see JvmLaunchCommand#getToolArguments(Path, List, String, List)
+ */
+final class CassandraTools {
+
+	private static final Logger log = LoggerFactory.getLogger(CassandraTools.class);
+
+	private static final String NODETOOL_CLASS = "org.apache.cassandra.tools.NodeTool";
+
+	private CassandraTools() {
+	}
+
+	/**
+	 * Runs {@code nodetool} against the node listening on the given JMX local port.
+	 *
+	 * @param workingDirectory the working directory of the node
+	 * @param command the launch command
+	 * @param jmxLocalPort the JMX local port of the node
+	 * @param arguments the nodetool arguments (e.g. {@code snapshot})
+	 * @throws IOException if an I/O error occurs or nodetool has exited with a non-zero code
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	static void nodetool(Path workingDirectory, JvmLaunchCommand command, int jmxLocalPort, String... arguments)
+			throws IOException, InterruptedException {
+		List<String> nodetoolArguments = new ArrayList<>(Arrays.asList("-h", "127.0.0.1", "-p",
+				Integer.toString(jmxLocalPort)));
+		nodetoolArguments.addAll(Arrays.asList(arguments));
+		run(workingDirectory, command, Collections.emptyList(), NODETOOL_CLASS, nodetoolArguments);
+	}
+
+	/**
+	 * Runs the given main class and waits for it.
+	 *
+	 * @param workingDirectory the working directory of the node
+	 * @param command the launch command
+	 * @param classpath additional classpath entries
+	 * @param mainClass the main class
+	 * @param arguments the program arguments
+	 * @throws IOException if an I/O error occurs or the tool has exited with a non-zero code
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	static void run(Path workingDirectory, JvmLaunchCommand command, List<Path> classpath, String mainClass,
+			List<String> arguments) throws IOException, InterruptedException {
+		List<String> toolArguments = command.getToolArguments(workingDirectory, classpath, mainClass, arguments);
+		CacheConsumer<String> output = new CacheConsumer<>(30);
+		int exit = new RunProcess(workingDirectory, toolArguments.toArray()).run(line -> {
+			log.debug(line);
+			output.accept(line);
+		});
+		if (exit != 0) {
+			throw new IOException(String.format("'%s' has exited with code '%d'. Output:%n%s",
+					String.join(" ", toolArguments), exit, String.join(System.lineSeparator(), output.get())));
+		}
+	}
+
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * AppCDS (Application Class-Data Sharing) archive of the Cassandra's classes for the given distribution and JDK. The
+ * first run generates the archive, the subsequent runs map it ({@code -XX:SharedArchiveFile}) instead of loading and
+ * verifying classes from {@code lib}.
+ * <p>
+ * Since JDK 13 the first run dumps loaded classes into a dynamic archive ({@code -XX:ArchiveClassesAtExit}) when
+ * Cassandra exits. JDK 10-12 (Cassandra 4.0 runs on JDK 11) support static archives only: the first run records the
+ * loaded classes ({@code -XX:DumpLoadedClassList}) and, once Cassandra has exited, a separate JVM dumps them into an
+ * archive ({@code -Xshare:dump}) using the given classpath. JDK 10 additionally requires {@code -XX:+UseAppCDS}.
+ * Earlier JDKs, including JDK 8 (Cassandra 3.x), do not support AppCDS.
+ * <p>
+ * The JVM runs with {@code -Xlog:cds} and its output should be passed to {@link #accept(String)}. With {@code
+ * -Xshare:auto} the JVM silently falls back to loading classes from {@code lib} if the archive is rejected (e.g. the
+ * classpath differs from the one the archive was dumped with), hence such a rejection is recognized from the output,
+ * reported, and the archive is deleted to be generated again by the next run.
+ *
+ * @author Dmytro Nosan
+ */
+final class ClassDataSharing implements Consumer<String> {
+
+	private static final Logger log = LoggerFactory.getLogger(ClassDataSharing.class);
+
+	private static final Pattern JAVA_VERSION = Pattern.compile("^JAVA_VERSION=\"?([^\"]+)\"?\\s*$",
+			Pattern.MULTILINE);
+
+	private static final Pattern CDS_LOG = Pattern.compile("\\[(info|warning|error)\\]\\[cds[^\\]]*\\]\\s*(.*)$");
+
+	private final Path archive;
+
+	private final Path statistics;
+
+	@Nullable
+	private final Path dump;
+
+	private final int javaVersion;
+
+	private final Path java;
+
+	private final List<Path> classpath;
+
+	@Nullable
+	private volatile Duration startupTime;
+
+	@Nullable
+	private volatile String failure;
+
+	private ClassDataSharing(Path archive, @Nullable Path dump, int javaVersion, Path java, List<Path> classpath) {
+		this.archive = archive;
+		this.statistics = archive.resolveSibling(archive.getFileName() + ".properties");
+		this.dump = dump;
+		this.javaVersion = javaVersion;
+		this.java = java;
+		this.classpath = Collections.unmodifiableList(new ArrayList<>(classpath));
+	}
+
+	/**
+	 * Creates a {@link ClassDataSharing} for the given distribution and JDK. The archive is stored in the {@code
+	 * <distribution>-cds} directory next to the distribution.
+	 *
+	 * @param directory the distribution directory
+	 * @param javaHome the JDK which runs Cassandra
+	 * @param classpath the jars a static archive is dumped with, Cassandra's classpath must start with them
+	 * @return the class data sharing, or {@code null} if the JDK does not support AppCDS
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	static ClassDataSharing of(Path directory, Path javaHome, List<Path> classpath) throws IOException {
+		String javaVersion = getJavaVersion(javaHome);
+		int feature = (javaVersion != null) ? getFeature(javaVersion) : -1;
+		if (feature < 10) {
+			log.warn("Class Data Sharing is not supported by '{}' (version '{}'). JDK 10+ is required", javaHome,
+					javaVersion);
+			return null;
+		}
+		Path java = javaHome.resolve(isWindows() ? "bin/java.exe" : "bin/java");
+		Path parent = directory.toAbsolutePath().getParent();
+		if (parent == null) {
+			return null;
+		}
+		Path cdsDirectory = Files.createDirectories(parent.resolve(directory.getFileName() + "-cds"));
+		String key = javaVersion.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Integer.toHexString(
+				javaHome.toAbsolutePath().normalize().toString().hashCode());
+		Path archive = cdsDirectory.resolve(key + ".jsa");
+		if (Files.isRegularFile(archive)) {
+			return new ClassDataSharing(archive, null, feature, java, classpath);
+		}
+		Path dump = cdsDirectory.resolve("." + key + "-" + UUID.randomUUID() + ".jsa");
+		return new ClassDataSharing(archive, dump, feature, java, classpath);
+	}
+
+	/**
+	 * Returns the archive file.
+	 *
+	 * @return the archive
+	 */
+	Path getArchive() {
+		return this.archive;
+	}
+
+	/**
+	 * Whether the archive is being generated by this run.
+	 *
+	 * @return {@code true} if the archive is dumped on exit
+	 */
+	boolean isDumping() {
+		return this.dump != null;
+	}
+
+	/**
+	 * Returns JVM options that either dump or use the archive.
+	 *
+	 * @return the JVM options
+	 */
+	List<String> getJvmOptions() {
+		List<String> options = new ArrayList<>();
+		if (this.javaVersion == 10) {
+			options.add("-XX:+UseAppCDS");
+		}
+		Path dump = this.dump;
+		if (dump == null) {
+			options.add("-Xshare:auto");
+			options.add("-XX:SharedArchiveFile=" + this.archive);
+		}
+		else if (isDynamic()) {
+			options.add("-XX:ArchiveClassesAtExit=" + dump);
+		}
+		else {
+			options.add("-XX:DumpLoadedClassList=" + getClassList(dump));
+		}
+		options.add("-Xlog:cds");
+		return options;
+	}
+
+	/**
+	 * Inspects a line of the JVM output and records the first reason why the archive has been rejected or has not been
+	 * dumped.
+	 *
+	 * @param line the line of the output
+	 */
+	@Override
+	public void accept(String line) {
+		if (this.failure != null) {
+			return;
+		}
+		Matcher matcher = CDS_LOG.matcher(line);
+		if (!matcher.find()) {
+			return;
+		}
+		String level = matcher.group(1);
+		String message = matcher.group(2).trim();
+		if (level.equals("error") || (this.dump == null && (level.equals("warning") || message.startsWith(
+				"UseSharedSpaces:")))) {
+			this.failure = message;
+		}
+	}
+
+	/**
+	 * Whether the JVM has rejected the archive.
+	 *
+	 * @return {@code true} if the archive is used, but the JVM has reported that it cannot be mapped
+	 */
+	boolean isRejected() {
+		return this.dump == null && this.failure != null;
+	}
+
+	/**
+	 * Reports the startup time of Cassandra.
+	 *
+	 * @param startupTime the time taken from the process start until Cassandra is ready for connections
+	 */
+	void started(Duration startupTime) {
+		this.startupTime = startupTime;
+		if (this.dump != null) {
+			log.info("Cassandra has been started in {} ms without a Class Data Sharing archive. "
+					+ "Archive '{}' will be generated on stop", startupTime.toMillis(), this.archive);
+			return;
+		}
+		if (isRejected()) {
+			log.warn("Cassandra has been started in {} ms without Class Data Sharing archive '{}'. "
+					+ "The archive has been rejected: {}", startupTime.toMillis(), this.archive, this.failure);
+			return;
+		}
+		Properties statistics = new Properties();
+		try (InputStream is = Files.newInputStream(this.statistics)) {
+			statistics.load(is);
+		}
+		catch (IOException ex) {
+			// statistics are optional
+		}
+		String baseline = statistics.getProperty("startup-time");
+		if (baseline != null) {
+			log.info("Cassandra has been started in {} ms with Class Data Sharing archive '{}' ({} ms without it)",
+					startupTime.toMillis(), this.archive, baseline);
+		}
+		else {
+			log.info("Cassandra has been started in {} ms with Class Data Sharing archive '{}'",
+					startupTime.toMillis(), this.archive);
+		}
+	}
+
+	/**
+	 * Moves the dumped archive into place, or deletes the rejected one, once Cassandra has been stopped.
+	 */
+	void stopped() {
+		Path dump = this.dump;
+		if (dump == null) {
+			if (isRejected()) {
+				try {
+					Files.deleteIfExists(this.archive);
+					log.info("Class Data Sharing archive '{}' has been deleted and will be generated by the next run",
+							this.archive);
+				}
+				catch (IOException ex) {
+					log.error("Class Data Sharing archive '" + this.archive + "' has not been deleted", ex);
+				}
+			}
+			return;
+		}
+		try {
+			if (!isDynamic()) {
+				dumpStaticArchive(dump);
+			}
+			if (!Files.isRegularFile(dump) || Files.size(dump) == 0) {
+				String failure = this.failure;
+				if (failure != null) {
+					log.warn("Class Data Sharing archive '{}' has not been dumped: {}", this.archive, failure);
+				}
+				else {
+					log.warn("Class Data Sharing archive '{}' has not been dumped", this.archive);
+				}
+				return;
+			}
+			Duration startupTime = this.startupTime;
+			if (startupTime != null) {
+				Properties statistics = new Properties();
+				statistics.setProperty("startup-time", Long.toString(startupTime.toMillis()));
+				try (OutputStream os = Files.newOutputStream(this.statistics)) {
+					statistics.store(os, "Startup time without Class Data Sharing archive");
+				}
+			}
+			if (!Files.exists(this.archive)) {
+				Files.move(dump, this.archive);
+				log.info("Class Data Sharing archive '{}' has been generated", this.archive);
+			}
+		}
+		catch (IOException ex) {
+			log.error("Class Data Sharing archive '" + this.archive + "' has not been generated", ex);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			deleteIfExists(dump);
+			if (!isDynamic()) {
+				deleteIfExists(getClassList(dump));
+			}
+		}
+	}
+
+	private boolean isDynamic() {
+		return this.javaVersion >= 13;
+	}
+
+	private void dumpStaticArchive(Path dump) throws IOException, InterruptedException {
+		Path classList = getClassList(dump);
+		if (!Files.isRegularFile(classList) || Files.size(classList) == 0) {
+			return;
+		}
+		RunProcess runProcess = new RunProcess(null, this.java);
+		if (this.javaVersion == 10) {
+			runProcess.addArguments("-XX:+UseAppCDS");
+		}
+		runProcess.addArguments("-Xshare:dump", "-XX:SharedClassListFile=" + classList,
+				"-XX:SharedArchiveFile=" + dump, "-Xlog:cds");
+		if (!this.classpath.isEmpty()) {
+			runProcess.addArguments("-cp", this.classpath.stream().map(Path::toString)
+					.collect(Collectors.joining(File.pathSeparator)));
+		}
+		List<String> output = new CopyOnWriteArrayList<>();
+		int exit = runProcess.run(line -> {
+			output.add(line);
+			accept(line);
+		});
+		if (exit != 0 && this.failure == null) {
+			this.failure = String.format("'-Xshare:dump' has exited with code %d: %s", exit,
+					String.join(System.lineSeparator(), output));
+		}
+	}
+
+	private static Path getClassList(Path dump) {
+		return dump.resolveSibling(dump.getFileName() + ".classlist");
+	}
+
+	private static void deleteIfExists(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException ex) {
+			log.error("File '" + file + "' has not been deleted", ex);
+		}
+	}
+
+	@Nullable
+	private static String getJavaVersion(Path javaHome) throws IOException {
+		Path release = javaHome.resolve("release");
+		if (!Files.isRegularFile(release)) {
+			return null;
+		}
+		String content = new String(Files.readAllBytes(release), StandardCharsets.UTF_8);
+		Matcher matcher = JAVA_VERSION.matcher(content);
+		return matcher.find() ? matcher.group(1).trim() : null;
+	}
+
+	private static boolean isWindows() {
+		String name = System.getProperty("os.name");
+		return name != null && name.toLowerCase(Locale.ENGLISH).contains("windows");
+	}
+
+	private static int getFeature(String javaVersion) {
+		Matcher matcher = Pattern.compile("^(\\d+)(?:\\.(\\d+))?").matcher(javaVersion);
+		if (!matcher.find()) {
+			return -1;
+		}
+		int feature = Integer.parseInt(matcher.group(1));
+		if (feature == 1 && matcher.group(2) != null) {
+			return Integer.parseInt(matcher.group(2));
+		}
+		return feature;
+	}
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Template of the {@code data} directory of a freshly started Cassandra node. A node that is seeded from the template
+ * finds already initialized system keyspaces and skips first boot initialization.
+ * <p>
+ * A template is captured from a {@code nodetool snapshot} of the running node rather than from its live files: a
+ * snapshot flushes all memtables and hard-links only complete SSTables, so the commit log is not needed and SSTables
+ * which are being written or compacted are never copied.
+ * <p>
+ * The tables describing the node itself and its peers ({@code system.local}, {@code system.peers*}, {@code
+ * system.peer_events*}) are not captured. Otherwise every seeded node would have the same host ID and tokens, and
+ * nodes of a cluster could not join each other.
+ *
+ * @author Dmytro Nosan
+ */
+final class DataTemplate {
+
+	private static final Logger log = LoggerFactory.getLogger(DataTemplate.class);
+
+	/**
+	 * Directories (relative to {@code $CASSANDRA_HOME/data}) that are restored from a template.
+	 */
+	private static final List<String> DIRECTORIES = Collections.unmodifiableList(
+			Arrays.asList("commitlog", "data", "saved_caches"));
+
+	private static final String SNAPSHOT = "embedded-cassandra-template";
+
+	/**
+	 * Files of a snapshot that are not SSTable components.
+	 */
+	private static final List<String> SNAPSHOT_METADATA = Collections.unmodifiableList(
+			Arrays.asList("manifest.json", "schema.cql"));
+
+	/**
+	 * Tables of the {@code system} keyspace that hold the identity (host ID, tokens) of the node and its peers.
+	 */
+	private static final List<String> NODE_TABLES = Collections.unmodifiableList(
+			Arrays.asList("local", "peers", "peers_v2", "peer_events", "peer_events_v2"));
+
+	private final Path directory;
+
+	@Nullable
+	private final Path javaHome;
+
+	DataTemplate(Path directory) {
+		this(directory, null);
+	}
+
+	DataTemplate(Path directory, @Nullable Path javaHome) {
+		this.directory = directory;
+		this.javaHome = javaHome;
+	}
+
+	/**
+	 * Creates a template located in the {@code templateDirectory} and keyed by the version and configuration.
+	 *
+	 * @param templateDirectory the directory of all templates
+	 * @param version the version
+	 * @param resources the configuration files (e.g. cassandra.yaml)
+	 * @param properties the configuration properties
+	 * @param javaHome the Java home used to run {@code nodetool snapshot}
+	 * @return the template
+	 * @throws IOException if an I/O error occurs
+	 */
+	static DataTemplate of(Path templateDirectory, Version version, List<Resource> resources,
+			List<Map<String, Object>> properties, @Nullable Path javaHome) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+		digest.update(SNAPSHOT.getBytes(StandardCharsets.UTF_8));
+		digest.update(version.toString().getBytes(StandardCharsets.UTF_8));
+		for (Resource resource : resources) {
+			try (InputStream is = resource.getInputStream()) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = is.read(buffer)) != -1) {
+					digest.update(buffer, 0, read);
+				}
+			}
+		}
+		for (Map<String, Object> map : properties) {
+			Map<String, String> sorted = new TreeMap<>();
+			map.forEach((name, value) -> sorted.put(Objects.toString(name), Objects.toString(value)));
+			digest.update(sorted.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		StringBuilder hex = new StringBuilder();
+		byte[] hash = digest.digest();
+		for (int i = 0; i < 8; i++) {
+			hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+		}
+		return new DataTemplate(templateDirectory.resolve(version + "-" + hex), javaHome);
+	}
+
+	/**
+	 * Returns the template directory.
+	 *
+	 * @return the directory
+	 */
+	Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Whether the template has been captured.
+	 *
+	 * @return {@code true} if the template exists
+	 */
+	boolean exists() {
+		return Files.isDirectory(this.directory);
+	}
+
+	/**
+	 * Copies the template into the given {@code data} directory.
+	 *
+	 * @param dataDirectory the data directory ({@code $CASSANDRA_HOME/data})
+	 * @return {@code true} if the template has been restored, or {@code false} if it does not exist
+	 * @throws IOException if an I/O error occurs
+	 */
+	boolean restore(Path dataDirectory) throws IOException {
+		if (!exists()) {
+			return false;
+		}
+		for (String name : DIRECTORIES) {
+			Path source = this.directory.resolve(name);
+			if (Files.isDirectory(source)) {
+				FileUtils.copy(source, dataDirectory.resolve(name), null);
+			}
+		}
+		log.info("Data directory '{}' has been seeded from the template '{}'", dataDirectory, this.directory);
+		return true;
+	}
+
+	/**
+	 * Captures the data of the running node into the template, unless the template already exists or is being
+	 * captured by someone else. The node is snapshotted via {@code nodetool} which requires a JMX local port.
+	 *
+	 * @param workingDirectory the working directory of the node
+	 * @param dataDirectory the data directory ({@code $CASSANDRA_HOME/data})
+	 * @param jmxLocalPort the JMX local port of the node
+	 * @return {@code true} if the template has been captured
+	 * @throws IOException if an I/O error occurs
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	boolean capture(Path workingDirectory, Path dataDirectory, int jmxLocalPort)
+			throws IOException, InterruptedException {
+		Path javaHome = this.javaHome;
+		if (javaHome == null || jmxLocalPort <= 0) {
+			log.warn("Data template '{}' cannot be captured. JMX local port of the node is unknown", this.directory);
+			return false;
+		}
+		JvmLaunchCommand command = JvmLaunchCommand.of(workingDirectory, javaHome);
+		return capture(dataDirectory, tag -> CassandraTools.nodetool(workingDirectory, command, jmxLocalPort,
+				"snapshot", "-t", tag));
+	}
+
+	/**
+	 * Takes a snapshot of the given {@code data} directory and captures it into the template, unless the template
+	 * already exists or is being captured by someone else. Only files of the snapshot are captured.
+	 *
+	 * @param dataDirectory the data directory ({@code $CASSANDRA_HOME/data})
+	 * @param snapshot the callback that takes a snapshot with the given tag
+	 * @return {@code true} if the template has been captured
+	 * @throws IOException if an I/O error occurs
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	boolean capture(Path dataDirectory, Snapshot snapshot) throws IOException, InterruptedException {
+		if (exists()) {
+			return false;
+		}
+		Path parent = Objects.requireNonNull(this.directory.getParent());
+		Files.createDirectories(parent);
+		Path lockFile = parent.resolve(this.directory.getFileName() + ".lock");
+		try (FileLock fileLock = FileLock.of(lockFile)) {
+			if (!fileLock.tryLock(1, TimeUnit.SECONDS) || exists()) {
+				return false;
+			}
+			snapshot.take(SNAPSHOT);
+			Path tempDirectory = Files.createTempDirectory(parent, "." + this.directory.getFileName() + "-");
+			try {
+				Path source = dataDirectory.resolve("data");
+				if (Files.isDirectory(source)) {
+					copySnapshot(source, tempDirectory.resolve("data"));
+				}
+				move(tempDirectory, this.directory);
+			}
+			finally {
+				FileUtils.delete(tempDirectory);
+			}
+		}
+		log.info("Snapshot of '{}' has been captured into the template '{}'", dataDirectory, this.directory);
+		return true;
+	}
+
+	/**
+	 * Copies {@code ks/table/snapshots/tag/file} as {@code ks/table/file}, except the {@link #NODE_TABLES}.
+	 */
+	private static void copySnapshot(Path source, Path target) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(source)) {
+			files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		for (Path file : files) {
+			Path relative = source.relativize(file);
+			int count = relative.getNameCount();
+			for (int i = 0; i < count - 2; i++) {
+				if (relative.getName(i).toString().equals("snapshots")
+						&& relative.getName(i + 1).toString().equals(SNAPSHOT)) {
+					Path rest = relative.subpath(i + 2, count);
+					if (rest.getNameCount() == 1 && SNAPSHOT_METADATA.contains(rest.toString())) {
+						break;
+					}
+					Path table = (i > 0) ? relative.subpath(0, i) : null;
+					if (table != null && isNodeTable(table)) {
+						break;
+					}
+					Path destination = (table != null) ? target.resolve(table).resolve(rest) : target.resolve(rest);
+					Files.createDirectories(Objects.requireNonNull(destination.getParent()));
+					Files.copy(file, destination, StandardCopyOption.COPY_ATTRIBUTES);
+					break;
+				}
+			}
+		}
+	}
+
+	private static boolean isNodeTable(Path table) {
+		if (table.getNameCount() != 2 || !table.getName(0).toString().equals("system")) {
+			return false;
+		}
+		// table directories are named as '<table>-<table id>'
+		String name = table.getName(1).toString();
+		int index = name.lastIndexOf('-');
+		return NODE_TABLES.contains((index != -1) ? name.substring(0, index) : name);
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the running node.
+	 */
+	@FunctionalInterface
+	interface Snapshot {
+
+		/**
+		 * Takes a snapshot with the given tag.
+		 *
+		 * @param tag the snapshot tag
+		 * @throws IOException if an I/O error occurs
+		 * @throws InterruptedException if the current thread is interrupted
+		 */
+		void take(String tag) throws IOException, InterruptedException;
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CassandraNode} that starts {@code java} directly, bypassing {@code bin/cassandra} and the scripts it sources.
+ * Like {@link UnixCassandraNode}, the node is stopped by sending {@code SIGINT} to its pid, so that Cassandra's
+ * shutdown hooks run. On Windows the process is destroyed.
+ *
+ * @author Dmytro Nosan
+ * @see JvmLaunchCommand
+ */
+class DirectCassandraNode extends AbstractCassandraNode {
+
+	private final Path workingDirectory;
+
+	private final JvmLaunchCommand command;
+
+	DirectCassandraNode(Path workingDirectory, List<String> jvmOptions, Map<String, Object> systemProperties,
+			Map<String, Object> environmentVariables, Map<String, Object> properties, JvmLaunchCommand command) {
+		super(workingDirectory, properties, jvmOptions, systemProperties, environmentVariables);
+		this.workingDirectory = workingDirectory;
+		this.command = command;
+	}
+
+	@Override
+	Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException {
+		runProcess.getEnvironment().remove("JVM_EXTRA_OPTS");
+		runProcess.putEnvironment("CASSANDRA_HOME", this.workingDirectory);
+		runProcess.putEnvironment("CASSANDRA_CONF", this.workingDirectory.resolve("conf"));
+		runProcess.setArguments(this.command.getArguments(this.workingDirectory, jvmOptions).toArray());
+		return runProcess.start();
+	}
+
+	@Override
+	void doStop(Process process, long pid) throws IOException, InterruptedException {
+		if (pid > 0 && !isWindows() && kill(pid) == 0) {
+			// the JVM dumps a Class Data Sharing archive on exit, which should not be cut off
+			process.waitFor(30, TimeUnit.SECONDS);
+		}
+		else {
+			process.destroy();
+		}
+	}
+
+	private int kill(long pid) throws InterruptedException, IOException {
+		return new RunProcess(this.workingDirectory, "kill", "-SIGINT", pid).run(this.logger::info);
+	}
+
+	private static boolean isWindows() {
+		String name = System.getProperty("os.name");
+		return name != null && name.toLowerCase(Locale.ENGLISH).contains("windows");
+	}
+
+}
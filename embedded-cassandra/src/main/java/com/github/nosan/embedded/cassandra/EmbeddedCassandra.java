@@ -17,7 +17,13 @@
 package com.github.nosan.embedded.cassandra;
 
 import java.net.InetAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +32,7 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraException;
 import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.StartupReport;
 import com.github.nosan.embedded.cassandra.api.Version;
 
 /**
@@ -43,14 +50,25 @@ class EmbeddedCassandra implements Cassandra {
 
 	private final CassandraDatabase database;
 
+	@Nullable
+	private final Executor executor;
+
+	private final Duration distribution;
+
+	@Nullable
+	private volatile StartupReport startupReport;
+
 	private volatile boolean started = false;
 
 	private volatile boolean running = false;
 
-	EmbeddedCassandra(String name, Version version, CassandraDatabase database) {
+	EmbeddedCassandra(String name, Version version, CassandraDatabase database, @Nullable Executor executor,
+			Duration distribution) {
 		this.name = name;
 		this.version = version;
 		this.database = database;
+		this.executor = executor;
+		this.distribution = distribution;
 	}
 
 	@Override
@@ -64,6 +82,9 @@ class EmbeddedCassandra implements Cassandra {
 			doStart();
 			this.running = true;
 			log.info("{} has been started and ready for connections!", toString());
+			StartupReport startupReport = createStartupReport();
+			this.startupReport = startupReport;
+			log.info("{} startup: {}", toString(), startupReport);
 		}
 		catch (CassandraException ex) {
 			try {
@@ -89,6 +110,30 @@ class EmbeddedCassandra implements Cassandra {
 		this.running = false;
 	}
 
+	@Override
+	public CompletionStage<Cassandra> startAsync() {
+		Executor executor = this.executor;
+		if (executor == null) {
+			return Cassandra.super.startAsync();
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			start();
+			return this;
+		}, executor);
+	}
+
+	@Override
+	public CompletionStage<Cassandra> stopAsync() {
+		Executor executor = this.executor;
+		if (executor == null) {
+			return Cassandra.super.stopAsync();
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			stop();
+			return this;
+		}, executor);
+	}
+
 	@Override
 	public String getName() {
 		return this.name;
@@ -132,6 +177,21 @@ class EmbeddedCassandra implements Cassandra {
 		return -1;
 	}
 
+	@Override
+	@Nullable
+	public StartupReport getStartupReport() {
+		return this.startupReport;
+	}
+
+	/**
+	 * Returns the underlying database.
+	 *
+	 * @return the database
+	 */
+	CassandraDatabase getDatabase() {
+		return this.database;
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandra.class.getSimpleName() + "[", "]")
@@ -140,6 +200,15 @@ class EmbeddedCassandra implements Cassandra {
 				.toString();
 	}
 
+	private StartupReport createStartupReport() {
+		Map<String, Duration> phases = new LinkedHashMap<>();
+		phases.put("distribution", this.distribution);
+		phases.putAll(this.database.getStartupPhases());
+		StartupReport startupReport = new StartupReport(phases);
+		StartupPhaseEvent.commit(this.name, startupReport);
+		return startupReport;
+	}
+
 	private void doStart() {
 		try {
 			this.database.start();
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 
@@ -90,6 +91,9 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 	@Nullable
 	private Logger logger;
 
+	@Nullable
+	private Executor executor;
+
 	@Nullable
 	private Duration timeout;
 
@@ -111,6 +115,27 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 	@Nullable
 	private Path workingDirectory;
 
+	@Nullable
+	private Path templateDirectory;
+
+	@Nullable
+	private Boolean classDataSharing;
+
+	@Nullable
+	private Boolean fastTestProfile;
+
+	@Nullable
+	private Boolean inProcess;
+
+	@Nullable
+	private Boolean directLaunch;
+
+	@Nullable
+	private Boolean tmpfs;
+
+	@Nullable
+	private Path tmpfsDirectory;
+
 	@Nullable
 	private Path javaHome;
 
@@ -213,6 +238,86 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets if an AppCDS archive should be generated on the first run and used by the subsequent runs to speed up
+	 * Cassandra's startup. Requires JDK 10+ and a {@link #withDirectLaunch(Boolean) direct launch}.
+	 *
+	 * @param classDataSharing if the class data sharing should be enabled
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withClassDataSharing(@Nullable Boolean classDataSharing) {
+		this.classDataSharing = classDataSharing;
+		return this;
+	}
+
+	/**
+	 * Sets if the test-friendly configuration profile should be applied. Only settings supported by the Cassandra
+	 * version are applied, and explicitly configured properties take precedence over the profile.
+	 *
+	 * @param fastTestProfile if the fast test profile should be applied
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setFastTestProfile(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withFastTestProfile(@Nullable Boolean fastTestProfile) {
+		this.fastTestProfile = fastTestProfile;
+		return this;
+	}
+
+	/**
+	 * Sets if Cassandra should be run inside the current JVM with an isolated class loader instead of a separate
+	 * process.
+	 *
+	 * @param inProcess if Cassandra should be run in-process
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setInProcess(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withInProcess(@Nullable Boolean inProcess) {
+		this.inProcess = inProcess;
+		return this;
+	}
+
+	/**
+	 * Sets if Cassandra's JVM should be started directly instead of via {@code bin/cassandra}.
+	 *
+	 * @param directLaunch if Cassandra's JVM should be started directly
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setDirectLaunch(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withDirectLaunch(@Nullable Boolean directLaunch) {
+		this.directLaunch = directLaunch;
+		return this;
+	}
+
+	/**
+	 * Sets if Cassandra's data should be stored on tmpfs (RAM-backed storage).
+	 *
+	 * @param tmpfs if Cassandra's data should be stored on tmpfs
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setTmpfs(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withTmpfs(@Nullable Boolean tmpfs) {
+		this.tmpfs = tmpfs;
+		return this;
+	}
+
+	/**
+	 * Sets the tmpfs directory.
+	 *
+	 * @param tmpfsDirectory the tmpfs directory
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setTmpfsDirectory(Path)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withTmpfsDirectory(@Nullable Path tmpfsDirectory) {
+		this.tmpfsDirectory = tmpfsDirectory;
+		return this;
+	}
+
 	/**
 	 * Sets if the created {@link Cassandra} should have a shutdown hook registered. Defaults to {@code true} to ensure
 	 * that {@link Cassandra} will be stopped.
@@ -236,6 +341,18 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets the {@link Executor} used by {@link Cassandra#startAsync()} and {@link Cassandra#stopAsync()}.
+	 *
+	 * @param executor the executor
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
 	/**
 	 * Sets Cassandra's startup timeout.
 	 *
@@ -322,6 +439,19 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets the directory of data templates. A freshly started Cassandra is captured into a template, and the
+	 * subsequent starts with the same version and configuration are seeded from that template.
+	 *
+	 * @param templateDirectory the template directory
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withTemplateDirectory(@Nullable Path templateDirectory) {
+		this.templateDirectory = templateDirectory;
+		return this;
+	}
+
 	/**
 	 * Sets the path to java home.
 	 *
@@ -438,9 +568,17 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		Optional.ofNullable(this.rackConfig).ifPresent(cassandraFactory::setRackConfig);
 		Optional.ofNullable(this.topologyConfig).ifPresent(cassandraFactory::setTopologyConfig);
 		Optional.ofNullable(this.logger).ifPresent(cassandraFactory::setLogger);
+		Optional.ofNullable(this.executor).ifPresent(cassandraFactory::setExecutor);
 		Optional.ofNullable(this.timeout).ifPresent(cassandraFactory::setTimeout);
 		Optional.ofNullable(this.name).ifPresent(cassandraFactory::setName);
 		Optional.ofNullable(this.workingDirectory).ifPresent(cassandraFactory::setWorkingDirectory);
+		Optional.ofNullable(this.templateDirectory).ifPresent(cassandraFactory::setTemplateDirectory);
+		Optional.ofNullable(this.classDataSharing).ifPresent(cassandraFactory::setClassDataSharing);
+		Optional.ofNullable(this.fastTestProfile).ifPresent(cassandraFactory::setFastTestProfile);
+		Optional.ofNullable(this.inProcess).ifPresent(cassandraFactory::setInProcess);
+		Optional.ofNullable(this.directLaunch).ifPresent(cassandraFactory::setDirectLaunch);
+		Optional.ofNullable(this.tmpfs).ifPresent(cassandraFactory::setTmpfs);
+		Optional.ofNullable(this.tmpfsDirectory).ifPresent(cassandraFactory::setTmpfsDirectory);
 		Optional.ofNullable(this.javaHome).ifPresent(cassandraFactory::setJavaHome);
 		Optional.ofNullable(this.port).ifPresent(cassandraFactory::setPort);
 		Optional.ofNullable(this.sslPort).ifPresent(cassandraFactory::setSslPort);
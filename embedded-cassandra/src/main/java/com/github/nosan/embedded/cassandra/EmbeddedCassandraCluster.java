@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCluster;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * Embedded {@link CassandraCluster}. The seed node is started first, then all other nodes are started concurrently.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraCluster implements CassandraCluster {
+
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraCluster.class);
+
+	private final String name;
+
+	private final List<Cassandra> nodes;
+
+	private volatile boolean started = false;
+
+	EmbeddedCassandraCluster(String name, List<? extends Cassandra> nodes) {
+		this.name = name;
+		this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.started) {
+			return;
+		}
+		try {
+			this.started = true;
+			log.info("Starts {}", toString());
+			doStart();
+			log.info("{} has been started and ready for connections!", toString());
+		}
+		catch (CassandraException ex) {
+			try {
+				doStop();
+				this.started = false;
+			}
+			catch (CassandraException swallow) {
+				ex.addSuppressed(swallow);
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (!this.started) {
+			return;
+		}
+		log.info("Stops {}", toString());
+		doStop();
+		log.info("{} has been stopped", toString());
+		this.started = false;
+	}
+
+	@Override
+	public List<Cassandra> getNodes() {
+		return this.nodes;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public Version getVersion() {
+		return getSeed().getVersion();
+	}
+
+	@Override
+	@Nullable
+	public InetAddress getAddress() {
+		return getSeed().getAddress();
+	}
+
+	@Override
+	public int getPort() {
+		return getSeed().getPort();
+	}
+
+	@Override
+	public int getSslPort() {
+		return getSeed().getSslPort();
+	}
+
+	@Override
+	public int getRpcPort() {
+		return getSeed().getRpcPort();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", EmbeddedCassandraCluster.class.getSimpleName() + "[", "]")
+				.add("name='" + this.name + "'")
+				.add("nodes=" + this.nodes.size())
+				.toString();
+	}
+
+	private Cassandra getSeed() {
+		return this.nodes.get(0);
+	}
+
+	private void doStart() {
+		getSeed().start();
+		awaitAll(this.nodes.subList(1, this.nodes.size()), Cassandra::startAsync, "start");
+	}
+
+	private void doStop() {
+		awaitAll(this.nodes, Cassandra::stopAsync, "stop");
+	}
+
+	private void awaitAll(List<Cassandra> nodes, Function<Cassandra, CompletionStage<Cassandra>> action,
+			String actionName) {
+		List<CompletableFuture<Cassandra>> futures = new ArrayList<>(nodes.size());
+		for (Cassandra node : nodes) {
+			futures.add(action.apply(node).toCompletableFuture());
+		}
+		CassandraException exception = null;
+		for (CompletableFuture<Cassandra> future : futures) {
+			try {
+				future.get();
+			}
+			catch (InterruptedException ex) {
+				throw new CassandraInterruptedException("Cassandra cluster " + actionName + " interrupted", ex);
+			}
+			catch (ExecutionException ex) {
+				if (exception == null) {
+					exception = new CassandraException("Unable to " + actionName + " " + toString(), ex.getCause());
+				}
+				else {
+					exception.addSuppressed(ex.getCause());
+				}
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+}
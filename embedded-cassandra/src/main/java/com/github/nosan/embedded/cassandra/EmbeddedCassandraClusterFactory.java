@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCluster;
+import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
+import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * {@link CassandraFactory} that creates a {@link CassandraCluster} of several embedded nodes forming a single ring.
+ * Every node is created by a new {@link EmbeddedCassandraFactory} obtained from the given supplier and listens on its
+ * own loopback address ({@code 127.0.0.1}, {@code 127.0.0.2}, ...). The first node is the only seed.
+ * <p>
+ * {@link Cassandra#start()} starts the seed node first and then all other nodes concurrently. Other nodes skip
+ * waiting for gossip to settle ({@code -Dcassandra.skip_wait_for_gossip_to_settle=0}) and do not bootstrap ({@code
+ * auto_bootstrap: false}), as the cluster is empty.
+ * <p>
+ * Nodes share the same native transport, RPC and storage ports, as Cassandra requires it. A port set to {@code 0} is
+ * replaced by the same random port for every node. Unless otherwise configured, every node gets its own random JMX
+ * local port.
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   public static void main(String[] args) {
+ *     EmbeddedCassandraClusterFactory cassandraFactory = new EmbeddedCassandraClusterFactory(
+ *         EmbeddedCassandraFactory::new, 3);
+ *     Cassandra cassandra = cassandraFactory.create();
+ *     cassandra.start();
+ *     try {
+ *       // ...
+ *     }
+ *     finally {
+ *       cassandra.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ * <p><strong>Note!</strong> Loopback addresses other than {@code 127.0.0.1} must be available. E.g. on macOS they
+ * have to be added manually: {@code sudo ifconfig lo0 alias 127.0.0.2 up}.
+ *
+ * @author Dmytro Nosan
+ * @see CassandraCluster
+ * @see EmbeddedCassandraFactory
+ * @since 3.1.0
+ */
+public final class EmbeddedCassandraClusterFactory implements CassandraFactory {
+
+	private static final AtomicLong NUMBER = new AtomicLong();
+
+	private final Supplier<? extends EmbeddedCassandraFactory> nodeFactory;
+
+	private final int size;
+
+	@Nullable
+	private String name;
+
+	/**
+	 * Constructs a new {@link EmbeddedCassandraClusterFactory}.
+	 *
+	 * @param nodeFactory the supplier of a new {@link EmbeddedCassandraFactory} per each node
+	 * @param size the number of nodes
+	 */
+	public EmbeddedCassandraClusterFactory(Supplier<? extends EmbeddedCassandraFactory> nodeFactory, int size) {
+		if (size <= 0 || size > 254) {
+			throw new IllegalArgumentException("'size' must be between 1 and 254");
+		}
+		this.nodeFactory = Objects.requireNonNull(nodeFactory, "'nodeFactory' must not be null");
+		this.size = size;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the size of the cluster
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the name of the cluster ({@code cluster_name}).
+	 *
+	 * @return the name
+	 */
+	@Nullable
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the name of the cluster ({@code cluster_name}). Nodes without a name are named {@code <name>-<number>}.
+	 *
+	 * @param name the name
+	 */
+	public void setName(@Nullable String name) {
+		this.name = name;
+	}
+
+	@Override
+	public CassandraCluster create() throws CassandraCreationException {
+		try {
+			return doCreate();
+		}
+		catch (Exception ex) {
+			throw new CassandraCreationException("Cassandra cluster cannot be created", ex);
+		}
+	}
+
+	private CassandraCluster doCreate() throws Exception {
+		String name = getName();
+		if (!StringUtils.hasText(name)) {
+			name = "cassandra-cluster-" + NUMBER.incrementAndGet();
+		}
+		List<EmbeddedCassandraFactory> factories = new ArrayList<>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			factories.add(Objects.requireNonNull(this.nodeFactory.get(), "'nodeFactory' must not supply null"));
+		}
+		EmbeddedCassandraFactory seedFactory = factories.get(0);
+		Integer port = getPort(seedFactory.getPort());
+		Integer sslPort = getPort(seedFactory.getSslPort());
+		Integer rpcPort = getPort(seedFactory.getRpcPort());
+		Integer storagePort = getPort(seedFactory.getStoragePort());
+		Integer sslStoragePort = getPort(seedFactory.getSslStoragePort());
+		InetAddress seed = getAddress(0);
+		List<Cassandra> nodes = new ArrayList<>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			EmbeddedCassandraFactory factory = factories.get(i);
+			InetAddress address = getAddress(i);
+			if (!StringUtils.hasText(factory.getName())) {
+				factory.setName(name + "-" + (i + 1));
+			}
+			factory.setAddress(address);
+			factory.setPort(port);
+			factory.setSslPort(sslPort);
+			factory.setRpcPort(rpcPort);
+			factory.setStoragePort(storagePort);
+			factory.setSslStoragePort(sslStoragePort);
+			if (factory.getJmxLocalPort() == null) {
+				factory.setJmxLocalPort(0);
+			}
+			Map<String, Object> configProperties = factory.getConfigProperties();
+			configProperties.put("cluster_name", name);
+			configProperties.put("listen_address", address.getHostAddress());
+			configProperties.put("seed_provider", getSeedProvider(seed));
+			if (i > 0) {
+				configProperties.put("auto_bootstrap", false);
+				factory.getSystemProperties().put("cassandra.skip_wait_for_gossip_to_settle", 0);
+			}
+			nodes.add(factory.create());
+		}
+		return new EmbeddedCassandraCluster(name, nodes);
+	}
+
+	private static InetAddress getAddress(int index) throws IOException {
+		return InetAddress.getByAddress(new byte[]{127, 0, 0, (byte) (index + 1)});
+	}
+
+	private static List<Map<String, Object>> getSeedProvider(InetAddress seed) {
+		Map<String, Object> seedProvider = new LinkedHashMap<>();
+		seedProvider.put("class_name", "org.apache.cassandra.locator.SimpleSeedProvider");
+		seedProvider.put("parameters",
+				Collections.singletonList(Collections.singletonMap("seeds", seed.getHostAddress())));
+		return Collections.singletonList(seedProvider);
+	}
+
+	@Nullable
+	private static Integer getPort(@Nullable Integer port) throws IOException {
+		if (port == null || port != 0) {
+			return port;
+		}
+		try (ServerSocket ss = new ServerSocket(0)) {
+			return ss.getLocalPort();
+		}
+	}
+
+}
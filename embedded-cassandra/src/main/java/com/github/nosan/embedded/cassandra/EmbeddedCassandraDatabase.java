@@ -17,6 +17,7 @@
 package com.github.nosan.embedded.cassandra;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -28,13 +29,21 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +66,12 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraDatabase.class);
 
+	/**
+	 * Directories which are never modified by Cassandra, hence they can be linked instead of copied.
+	 */
+	private static final Set<String> IMMUTABLE_DIRECTORIES = Collections.unmodifiableSet(
+			new LinkedHashSet<>(Arrays.asList("bin", "lib")));
+
 	private final String name;
 
 	private final Version version;
@@ -82,6 +97,15 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 	@Nullable
 	private final Resource topologyConfig;
 
+	@Nullable
+	private final DataTemplate template;
+
+	@Nullable
+	private final ClassDataSharing classDataSharing;
+
+	@Nullable
+	private final Path storageDirectory;
+
 	@Nullable
 	private volatile InetAddress address;
 
@@ -91,9 +115,12 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private volatile int rpcPort = -1;
 
+	private volatile Map<String, Duration> startupPhases = Collections.emptyMap();
+
 	EmbeddedCassandraDatabase(String name, Version version, Path directory, Path workingDirectory, boolean daemon,
 			Logger logger, Duration timeout, @Nullable Resource config, @Nullable Resource rackConfig,
-			@Nullable Resource topologyConfig, CassandraNode node) {
+			@Nullable Resource topologyConfig, CassandraNode node, @Nullable DataTemplate template,
+			@Nullable ClassDataSharing classDataSharing, @Nullable Path storageDirectory) {
 		this.name = name;
 		this.version = version;
 		this.directory = directory;
@@ -105,16 +132,36 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		this.rackConfig = rackConfig;
 		this.topologyConfig = topologyConfig;
 		this.node = node;
+		this.template = template;
+		this.classDataSharing = classDataSharing;
+		this.storageDirectory = storageDirectory;
 	}
 
 	@Override
 	public void start() throws InterruptedException, IOException {
+		Map<String, Duration> startupPhases = new LinkedHashMap<>();
+		long start = System.nanoTime();
 		initialize();
+		startupPhases.put("initialize", Duration.ofNanos(System.nanoTime() - start));
+		long nodeStart = System.nanoTime();
+		start = nodeStart;
 		this.node.start();
+		Map<String, Duration> nodePhases = this.node.getStartupPhases();
+		if (nodePhases.isEmpty()) {
+			startupPhases.put("node", Duration.ofNanos(System.nanoTime() - start));
+		}
+		else {
+			startupPhases.putAll(nodePhases);
+		}
 		log.info("{} has been started", toString());
+		start = System.nanoTime();
 		NativeTransportReadinessConsumer nativeTransportReadiness = new NativeTransportReadinessConsumer(this.version);
 		RpcTransportReadinessConsumer rpcTransportReadiness = new RpcTransportReadinessConsumer(this.version);
 		await(nativeTransportReadiness, rpcTransportReadiness);
+		startupPhases.put("readiness", Duration.ofNanos(System.nanoTime() - start));
+		if (this.classDataSharing != null) {
+			this.classDataSharing.started(Duration.ofNanos(System.nanoTime() - nodeStart));
+		}
 		int sslPort = nativeTransportReadiness.getSslPort();
 		int port = nativeTransportReadiness.getPort();
 		this.port = (port != -1) ? port : sslPort;
@@ -122,6 +169,17 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		this.rpcPort = rpcTransportReadiness.getRpcPort();
 		InetAddress address = nativeTransportReadiness.getAddress();
 		this.address = (address != null) ? address : rpcTransportReadiness.getAddress();
+		if (this.template != null && !this.template.exists()) {
+			start = System.nanoTime();
+			try {
+				this.template.capture(this.workingDirectory, getStorageDirectory(), this.node.getJmxLocalPort());
+			}
+			catch (IOException ex) {
+				log.warn("Data template '" + this.template.getDirectory() + "' has not been captured", ex);
+			}
+			startupPhases.put("template", Duration.ofNanos(System.nanoTime() - start));
+		}
+		this.startupPhases = Collections.unmodifiableMap(startupPhases);
 	}
 
 	@Override
@@ -129,6 +187,9 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		if (this.node.isAlive()) {
 			this.node.stop();
 			log.info("{} has been stopped", toString());
+			if (this.classDataSharing != null) {
+				this.classDataSharing.stopped();
+			}
 		}
 		try {
 			FileUtils.delete(this.workingDirectory);
@@ -136,6 +197,14 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		catch (IOException ex) {
 			log.error("Working Directory '" + this.workingDirectory + "' has not been deleted", ex);
 		}
+		if (this.storageDirectory != null) {
+			try {
+				FileUtils.delete(this.storageDirectory);
+			}
+			catch (IOException ex) {
+				log.error("Storage Directory '" + this.storageDirectory + "' has not been deleted", ex);
+			}
+		}
 	}
 
 	@Override
@@ -159,6 +228,57 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		return this.rpcPort;
 	}
 
+	@Override
+	public Map<String, Duration> getStartupPhases() {
+		return this.startupPhases;
+	}
+
+	/**
+	 * Returns the pid of the underlying node.
+	 *
+	 * @return the pid or {@code -1}
+	 */
+	long getPid() {
+		return this.node.getPid();
+	}
+
+	/**
+	 * Redirects the output of the underlying node to the given file.
+	 *
+	 * @param outputFile the output file, or {@code null} to read the output through a pipe
+	 * @see CassandraNode#setOutputFile(Path)
+	 */
+	void setOutputFile(@Nullable Path outputFile) {
+		this.node.setOutputFile(outputFile);
+	}
+
+	/**
+	 * Returns the JMX local port of the underlying node.
+	 *
+	 * @return the JMX local port or {@code -1}
+	 */
+	int getJmxLocalPort() {
+		return this.node.getJmxLocalPort();
+	}
+
+	/**
+	 * Returns the working directory.
+	 *
+	 * @return the working directory
+	 */
+	Path getWorkingDirectory() {
+		return this.workingDirectory;
+	}
+
+	/**
+	 * Returns the root of Cassandra's data, commit log and saved caches directories.
+	 *
+	 * @return the storage directory
+	 */
+	Path getStorageDirectory() {
+		return (this.storageDirectory != null) ? this.storageDirectory : this.workingDirectory.resolve("data");
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandraDatabase.class.getSimpleName() + "[", "]")
@@ -171,10 +291,19 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		FileUtils.copy(this.directory, this.workingDirectory, (path, attributes) -> {
 			if (attributes.isDirectory()) {
 				String name = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
-				return !name.equals("javadoc") && !name.equals("doc");
+				return !name.equals("javadoc") && !name.equals("doc") && !isImmutable(path);
 			}
 			return true;
 		});
+		for (String name : IMMUTABLE_DIRECTORIES) {
+			Path source = this.directory.resolve(name);
+			if (Files.isDirectory(source)) {
+				FileUtils.link(source, this.workingDirectory.resolve(name), null);
+			}
+		}
+		if (this.storageDirectory != null) {
+			Files.createDirectories(this.storageDirectory);
+		}
 		if (this.config != null) {
 			try (InputStream is = this.config.getInputStream()) {
 				Files.copy(is, this.workingDirectory.resolve("conf/cassandra.yaml"),
@@ -193,16 +322,30 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 						StandardCopyOption.REPLACE_EXISTING);
 			}
 		}
+		if (this.template != null) {
+			this.template.restore(getStorageDirectory());
+		}
 	}
 
 	private void await(ReadinessConsumer... readinessConsumers) throws IOException, InterruptedException {
+		CompletableFuture<Void> readiness = new CompletableFuture<>();
 		CompositeConsumer<String> compositeConsumer = new CompositeConsumer<>();
 		CacheConsumer<String> cacheConsumer = new CacheConsumer<>(30);
+		Consumer<String> readinessListener = line -> {
+			if (isReady(readinessConsumers)) {
+				readiness.complete(null);
+			}
+		};
 		compositeConsumer.add(this.logger::info);
 		compositeConsumer.add(cacheConsumer);
+		if (this.classDataSharing != null) {
+			// the archive is dumped on exit, therefore the output is inspected until the end
+			compositeConsumer.add(this.classDataSharing);
+		}
 		for (ReadinessConsumer readinessConsumer : readinessConsumers) {
 			compositeConsumer.add(readinessConsumer);
 		}
+		compositeConsumer.add(readinessListener);
 		Map<String, String> context = MDC.getCopyOfContextMap();
 		Thread thread = new Thread(() -> {
 			Optional.ofNullable(context).ifPresent(MDC::setContextMap);
@@ -220,34 +363,45 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 			catch (IOException ex) {
 				throw new UncheckedIOException("Stream cannot be closed", ex);
 			}
+			finally {
+				readiness.completeExceptionally(new EOFException("End of the stream has been reached"));
+			}
 		});
 		thread.setName(this.name);
 		thread.setDaemon(this.daemon);
 		thread.setUncaughtExceptionHandler((t, ex) -> log.error("Exception in thread " + t, ex));
 		thread.start();
-		long start = System.nanoTime();
-		long rem = this.timeout.toNanos();
-		while (rem > 0 && this.node.isAlive() && !isReady(readinessConsumers)) {
-			Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(rem) + 1, 100));
-			rem = this.timeout.toNanos() - (System.nanoTime() - start);
+		if (isReady(readinessConsumers)) {
+			readiness.complete(null);
 		}
-		if (!this.node.isAlive()) {
-			thread.join(100);
+		try {
+			readiness.get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException ex) {
 			List<String> lines = new ArrayList<>(cacheConsumer.get());
 			Collections.reverse(lines);
 			throw new IOException(String.format("'%s' is not alive. Please see logs for more details%n\t%s", this.node,
 					String.join(String.format("%n\t"), lines)));
 		}
-		if (rem <= 0) {
+		catch (TimeoutException ex) {
 			throw new IllegalStateException(
 					toString() + " couldn't be started within " + this.timeout.toMillis() + "ms");
 		}
+		finally {
+			compositeConsumer.remove(readinessListener);
+		}
 		for (ReadinessConsumer readinessConsumer : readinessConsumers) {
 			compositeConsumer.remove(readinessConsumer);
 		}
 		compositeConsumer.remove(cacheConsumer);
 	}
 
+	private boolean isImmutable(Path path) {
+		Path parent = path.getParent();
+		return parent != null && parent.equals(this.directory)
+				&& IMMUTABLE_DIRECTORIES.contains(path.getFileName().toString());
+	}
+
 	private static boolean isReady(Readiness... readinesses) {
 		for (Readiness readiness : readinesses) {
 			if (!readiness.isReady()) {
@@ -16,18 +16,21 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
@@ -42,6 +45,7 @@ import com.github.nosan.embedded.cassandra.artifact.ArchiveArtifact;
 import com.github.nosan.embedded.cassandra.artifact.Artifact;
 import com.github.nosan.embedded.cassandra.artifact.DefaultArtifact;
 import com.github.nosan.embedded.cassandra.artifact.RemoteArtifact;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
 import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
@@ -93,6 +97,8 @@ import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
  */
 public final class EmbeddedCassandraFactory implements CassandraFactory {
 
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraFactory.class);
+
 	private static final AtomicLong NUMBER = new AtomicLong();
 
 	private final Map<String, Object> environmentVariables = new LinkedHashMap<>();
@@ -109,9 +115,25 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 
 	private boolean registerShutdownHook = true;
 
+	private boolean classDataSharing;
+
+	private boolean fastTestProfile;
+
+	private boolean inProcess;
+
+	private boolean directLaunch;
+
+	private boolean tmpfs;
+
+	@Nullable
+	private Path tmpfsDirectory;
+
 	@Nullable
 	private Logger logger;
 
+	@Nullable
+	private Executor executor;
+
 	@Nullable
 	private Duration timeout;
 
@@ -136,6 +158,9 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 	@Nullable
 	private Path workingDirectory;
 
+	@Nullable
+	private Path templateDirectory;
+
 	@Nullable
 	private Integer port;
 
@@ -189,6 +214,9 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 	/**
 	 * Sets Cassandra's working directory. This directory will be initialized on start and <strong>deleted</strong> on
 	 * stop. Defaults to {@code tmp dir}.
+	 * <p>
+	 * Immutable Cassandra's directories ({@code bin} and {@code lib}) are hard-linked into the working directory when
+	 * the file system supports it, otherwise they are copied.
 	 *
 	 * @param workingDirectory the working directory
 	 */
@@ -196,6 +224,30 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		this.workingDirectory = workingDirectory;
 	}
 
+	/**
+	 * Returns the directory of data templates.
+	 *
+	 * @return the template directory (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Path getTemplateDirectory() {
+		return this.templateDirectory;
+	}
+
+	/**
+	 * Sets the directory of data templates. When set, a {@code nodetool snapshot} of a freshly started Cassandra is
+	 * captured into a template, keyed by the version and the configuration, and the subsequent starts seed the working
+	 * directory from that template, skipping the first boot initialization. Templates are only supported for the
+	 * default data directory layout, and are captured only if the JMX local port of the node is known.
+	 *
+	 * @param templateDirectory the template directory
+	 * @since 3.1.0
+	 */
+	public void setTemplateDirectory(@Nullable Path templateDirectory) {
+		this.templateDirectory = templateDirectory;
+	}
+
 	/**
 	 * Returns an artifact that used to provide a path to Cassandra's directory and version.
 	 *
@@ -258,6 +310,28 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		this.logger = logger;
 	}
 
+	/**
+	 * Returns the {@link Executor} used by {@link Cassandra#startAsync()} and {@link Cassandra#stopAsync()}.
+	 *
+	 * @return the executor (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Sets the {@link Executor} used by {@link Cassandra#startAsync()} and {@link Cassandra#stopAsync()}. Defaults to
+	 * a new thread per each call.
+	 *
+	 * @param executor the executor
+	 * @since 3.1.0
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
 	/**
 	 * Whether the thread which reads Cassandra's output should be a daemon or not.
 	 *
@@ -276,6 +350,150 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		this.daemon = daemon;
 	}
 
+	/**
+	 * Whether a Class Data Sharing archive should be used to speed up Cassandra's startup.
+	 *
+	 * @return {@code true} if the class data sharing is enabled
+	 * @since 3.1.0
+	 */
+	public boolean isClassDataSharing() {
+		return this.classDataSharing;
+	}
+
+	/**
+	 * Sets if an AppCDS archive should be used to speed up Cassandra's startup. The first run of a distribution with a
+	 * given JDK generates the archive when Cassandra is stopped, and stores it next to the distribution. The subsequent
+	 * runs use the archive ({@code -XX:SharedArchiveFile}). JDK 13+ dumps a dynamic archive ({@code
+	 * -XX:ArchiveClassesAtExit}), JDK 10-12 record the loaded classes ({@code -XX:DumpLoadedClassList}) and dump a
+	 * static archive ({@code -Xshare:dump}). Startup times with and without the archive are logged, as well as the
+	 * reason if the JVM rejects the archive. Requires JDK 10+ (JDK 8, which Cassandra 3.x runs on, is not supported)
+	 * and a {@link #setDirectLaunch(boolean) direct launch}, since the archive can only be used with the same classpath
+	 * it has been dumped with, and is ignored otherwise. Defaults to {@code false}.
+	 *
+	 * @param classDataSharing if the class data sharing should be enabled
+	 * @since 3.1.0
+	 */
+	public void setClassDataSharing(boolean classDataSharing) {
+		this.classDataSharing = classDataSharing;
+	}
+
+	/**
+	 * Whether the test-friendly configuration profile should be applied.
+	 *
+	 * @return {@code true} if the fast test profile is enabled
+	 * @since 3.1.0
+	 */
+	public boolean isFastTestProfile() {
+		return this.fastTestProfile;
+	}
+
+	/**
+	 * Sets if the test-friendly configuration profile should be applied. The profile uses a single token, disables
+	 * auto snapshots and hinted handoff, shrinks memtables and the key cache, uses a periodic commit log with a large
+	 * sync period, runs one concurrent compactor and skips waiting for gossip to settle. Only settings supported by the
+	 * Cassandra version are applied, and {@link #getConfigProperties() config properties} and {@link
+	 * #getSystemProperties() system properties} take precedence over the profile. Defaults to {@code false}.
+	 *
+	 * @param fastTestProfile if the fast test profile should be applied
+	 * @since 3.1.0
+	 */
+	public void setFastTestProfile(boolean fastTestProfile) {
+		this.fastTestProfile = fastTestProfile;
+	}
+
+	/**
+	 * Whether Cassandra should be run inside the current JVM.
+	 *
+	 * @return {@code true} if Cassandra should be run in-process
+	 * @since 3.1.0
+	 */
+	public boolean isInProcess() {
+		return this.inProcess;
+	}
+
+	/**
+	 * Sets if Cassandra should be run inside the current JVM instead of a separate process started by {@code
+	 * bin/cassandra}. {@code lib/*.jar} are loaded by an isolated class loader, and the current JVM must be supported
+	 * by the Cassandra version. Cassandra is configured through System Properties, which are restored when Cassandra
+	 * is stopped; JVM options other than {@code -D} and environment variables are ignored. Only one in-process
+	 * Cassandra can run in a JVM at a time. Stopping is best-effort and some of Cassandra's threads may stay alive
+	 * until the JVM exits. Defaults to {@code false}.
+	 *
+	 * @param inProcess if Cassandra should be run in-process
+	 * @since 3.1.0
+	 */
+	public void setInProcess(boolean inProcess) {
+		this.inProcess = inProcess;
+	}
+
+	/**
+	 * Whether Cassandra's JVM should be started directly, bypassing {@code bin/cassandra}.
+	 *
+	 * @return {@code true} if Cassandra's JVM should be started directly
+	 * @since 3.1.0
+	 */
+	public boolean isDirectLaunch() {
+		return this.directLaunch;
+	}
+
+	/**
+	 * Sets if Cassandra's JVM should be started directly instead of via {@code bin/cassandra}, which sources {@code
+	 * cassandra-env.sh} and {@code cassandra.in.sh}. The classpath, the options from {@code jvm*.options} and the main
+	 * class are computed once per distribution and Java home, so the JVM arguments are the same on every start and are
+	 * logged when Cassandra is started. Environment variables that are only read by the scripts (e.g. {@code
+	 * MAX_HEAP_SIZE}) have no effect, use {@link #getJvmOptions()} instead. Defaults to {@code false}.
+	 *
+	 * @param directLaunch if Cassandra's JVM should be started directly
+	 * @since 3.1.0
+	 */
+	public void setDirectLaunch(boolean directLaunch) {
+		this.directLaunch = directLaunch;
+	}
+
+	/**
+	 * Whether Cassandra's data should be stored on tmpfs (RAM-backed storage).
+	 *
+	 * @return {@code true} if Cassandra's data should be stored on tmpfs
+	 * @since 3.1.0
+	 */
+	public boolean isTmpfs() {
+		return this.tmpfs;
+	}
+
+	/**
+	 * Sets if {@code data_file_directories}, {@code commitlog_directory}, {@code hints_directory} and {@code
+	 * saved_caches_directory} should be placed on tmpfs (see {@link #setTmpfsDirectory(Path)}) instead of the working
+	 * directory. If the tmpfs directory is not writable or there is not enough free memory, the working directory is
+	 * used. The data is deleted when Cassandra is stopped. Defaults to {@code false}.
+	 *
+	 * @param tmpfs if Cassandra's data should be stored on tmpfs
+	 * @since 3.1.0
+	 */
+	public void setTmpfs(boolean tmpfs) {
+		this.tmpfs = tmpfs;
+	}
+
+	/**
+	 * Tmpfs directory.
+	 *
+	 * @return the tmpfs directory
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Path getTmpfsDirectory() {
+		return this.tmpfsDirectory;
+	}
+
+	/**
+	 * Sets the tmpfs directory that is used if {@link #isTmpfs()} is enabled. Defaults to {@code /dev/shm}.
+	 *
+	 * @param tmpfsDirectory the tmpfs directory
+	 * @since 3.1.0
+	 */
+	public void setTmpfsDirectory(@Nullable Path tmpfsDirectory) {
+		this.tmpfsDirectory = tmpfsDirectory;
+	}
+
 	/**
 	 * Whether the {@code root} user is able to start Cassandra or not.
 	 *
@@ -580,7 +798,9 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (artifact == null) {
 			artifact = Artifact.ofVersion("3.11.6");
 		}
+		long start = System.nanoTime();
 		Artifact.Distribution distribution = artifact.getDistribution();
+		Duration distributionDuration = Duration.ofNanos(System.nanoTime() - start);
 		Version version = distribution.getVersion();
 		Path workingDirectory = getWorkingDirectory();
 		if (workingDirectory == null) {
@@ -604,27 +824,98 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (timeout == null || timeout.toMillis() <= 0) {
 			timeout = Duration.ofSeconds(90);
 		}
-		CassandraNode node = createNode(version, workingDirectory);
+		ClassDataSharing classDataSharing = isClassDataSharing() ? createClassDataSharing(directory) : null;
+		TmpfsStorage tmpfsStorage = isTmpfs() ? createTmpfsStorage(version) : null;
+		CassandraNode node = createNode(version, directory, workingDirectory, classDataSharing, tmpfsStorage);
+		DataTemplate template = createTemplate(version, directory);
+		Path storageDirectory = (tmpfsStorage != null) ? tmpfsStorage.getDirectory() : null;
 		CassandraDatabase database = new EmbeddedCassandraDatabase(name, version, directory, workingDirectory,
-				isDaemon(), logger, timeout, getConfig(), getRackConfig(), getTopologyConfig(), node);
-		EmbeddedCassandra cassandra = new EmbeddedCassandra(name, version, database);
+				isDaemon(), logger, timeout, getConfig(), getRackConfig(), getTopologyConfig(), node, template,
+				classDataSharing, storageDirectory);
+		EmbeddedCassandra cassandra = new EmbeddedCassandra(name, version, database, getExecutor(),
+				distributionDuration);
 		if (isRegisterShutdownHook()) {
 			Runtime.getRuntime().addShutdownHook(new Thread(cassandra::stop, name + "-sh"));
 		}
 		return cassandra;
 	}
 
-	private CassandraNode createNode(Version version, Path workingDirectory) {
-		Map<String, Object> systemProperties = new LinkedHashMap<>(getSystemProperties());
+	@Nullable
+	private DataTemplate createTemplate(Version version, Path directory) throws IOException {
+		Path templateDirectory = getTemplateDirectory();
+		if (templateDirectory == null) {
+			return null;
+		}
+		List<Resource> resources = new ArrayList<>();
+		Resource config = getConfig();
+		resources.add((config != null) ? config : new FileSystemResource(directory.resolve("conf/cassandra.yaml")));
+		Optional.ofNullable(getRackConfig()).ifPresent(resources::add);
+		Optional.ofNullable(getTopologyConfig()).ifPresent(resources::add);
+		Map<String, Object> configProperties = getEffectiveConfigProperties(version);
+		InetAddress address = getAddress();
+		if (address != null) {
+			configProperties.put("rpc_address", address.getHostAddress());
+		}
+		return DataTemplate.of(templateDirectory, version, resources, Collections.singletonList(configProperties),
+				getJavaHomeOrDefault());
+	}
+
+	@Nullable
+	private TmpfsStorage createTmpfsStorage(Version version) {
+		Path tmpfsDirectory = getTmpfsDirectory();
+		return TmpfsStorage.of((tmpfsDirectory != null) ? tmpfsDirectory : Paths.get("/dev/shm"), version);
+	}
+
+	@Nullable
+	private ClassDataSharing createClassDataSharing(Path directory) throws IOException {
+		if (isInProcess() || !isDirectLaunch()) {
+			log.warn("Class Data Sharing requires a stable classpath and is ignored. Use a direct launch instead");
+			return null;
+		}
+		Path javaHome = getJavaHomeOrDefault();
+		if (javaHome == null) {
+			return null;
+		}
+		return ClassDataSharing.of(directory, javaHome, JvmLaunchCommand.of(directory, javaHome).getClasspath());
+	}
+
+	private Map<String, Object> getEffectiveConfigProperties(Version version) {
+		Map<String, Object> configProperties = new LinkedHashMap<>();
+		if (isFastTestProfile()) {
+			configProperties.putAll(FastTestProfile.getConfigProperties(version));
+		}
+		configProperties.putAll(getConfigProperties());
+		configProperties.keySet().removeIf(Objects::isNull);
+		return configProperties;
+	}
+
+	@Nullable
+	private Path getJavaHomeOrDefault() {
+		return Optional.ofNullable(getJavaHome())
+				.orElseGet(() -> Optional.ofNullable(System.getProperty("java.home")).map(Paths::get).orElse(null));
+	}
+
+	private CassandraNode createNode(Version version, Path directory, Path workingDirectory,
+			@Nullable ClassDataSharing classDataSharing, @Nullable TmpfsStorage tmpfsStorage) throws IOException {
+		Map<String, Object> systemProperties = new LinkedHashMap<>();
+		if (isFastTestProfile()) {
+			systemProperties.putAll(FastTestProfile.getSystemProperties(version));
+		}
+		systemProperties.putAll(getSystemProperties());
 		systemProperties.keySet().removeIf(Objects::isNull);
 		Map<String, Object> environmentVariables = new LinkedHashMap<>(getEnvironmentVariables());
 		environmentVariables.keySet().removeIf(Objects::isNull);
 		List<String> jvmOptions = new ArrayList<>(getJvmOptions());
 		jvmOptions.removeIf(Objects::isNull);
-		LinkedHashMap<String, Object> configProperties = new LinkedHashMap<>(getConfigProperties());
-		configProperties.keySet().removeIf(Objects::isNull);
-		Path javaHome = Optional.ofNullable(getJavaHome())
-				.orElseGet(() -> Optional.ofNullable(System.getProperty("java.home")).map(Paths::get).orElse(null));
+		if (classDataSharing != null) {
+			jvmOptions.addAll(classDataSharing.getJvmOptions());
+		}
+		Map<String, Object> configProperties = new LinkedHashMap<>();
+		if (tmpfsStorage != null) {
+			configProperties.putAll(tmpfsStorage.getConfigProperties());
+		}
+		configProperties.putAll(getEffectiveConfigProperties(version));
+		Path javaHome = getJavaHomeOrDefault();
 		if (javaHome != null) {
 			environmentVariables.put("JAVA_HOME", javaHome);
 		}
@@ -656,6 +947,14 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (jmxLocalPort != null) {
 			systemProperties.put("cassandra.jmx.local.port", jmxLocalPort);
 		}
+		if (isInProcess()) {
+			return new InProcessCassandraNode(version, workingDirectory, jvmOptions, systemProperties,
+					environmentVariables, configProperties);
+		}
+		if (isDirectLaunch() && javaHome != null) {
+			return new DirectCassandraNode(workingDirectory, jvmOptions, systemProperties, environmentVariables,
+					configProperties, JvmLaunchCommand.of(directory, javaHome));
+		}
 		if (isWindows()) {
 			return new WindowsCassandraNode(version, workingDirectory, jvmOptions, systemProperties,
 					environmentVariables, configProperties);
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * Test-friendly Cassandra settings. Only settings supported by the given {@link Version} are emitted, using the
+ * property names of that version.
+ *
+ * @author Dmytro Nosan
+ */
+final class FastTestProfile {
+
+	private static final Version V2_1 = Version.of("2.1");
+
+	private static final Version V4_1 = Version.of("4.1");
+
+	private FastTestProfile() {
+	}
+
+	/**
+	 * Returns {@code cassandra.yaml} properties for the given version.
+	 *
+	 * @param version the version
+	 * @return the config properties
+	 */
+	static Map<String, Object> getConfigProperties(Version version) {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		boolean units = version.compareTo(V4_1) >= 0;
+		properties.put("num_tokens", 1);
+		properties.put("auto_snapshot", false);
+		properties.put("hinted_handoff_enabled", false);
+		if (units) {
+			properties.put("memtable_heap_space", "64MiB");
+			properties.put("key_cache_size", "8MiB");
+		}
+		else if (version.compareTo(V2_1) >= 0) {
+			properties.put("memtable_heap_space_in_mb", 64);
+			properties.put("key_cache_size_in_mb", 8);
+		}
+		else {
+			properties.put("memtable_total_space_in_mb", 64);
+			properties.put("key_cache_size_in_mb", 8);
+		}
+		properties.put("commitlog_sync", "periodic");
+		if (units) {
+			properties.put("commitlog_sync_period", "60000ms");
+		}
+		else {
+			properties.put("commitlog_sync_period_in_ms", 60000);
+		}
+		properties.put("concurrent_compactors", 1);
+		return Collections.unmodifiableMap(properties);
+	}
+
+	/**
+	 * Returns system properties for the given version.
+	 *
+	 * @param version the version
+	 * @return the system properties
+	 */
+	static Map<String, Object> getSystemProperties(Version version) {
+		return Collections.singletonMap("cassandra.skip_wait_for_gossip_to_settle", 0);
+	}
+
+}
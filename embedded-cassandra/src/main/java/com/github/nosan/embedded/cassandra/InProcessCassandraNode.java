@@ -0,0 +1,475 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * {@link CassandraNode} that runs {@code CassandraDaemon} inside the current JVM. Classes are loaded from {@code lib}
+ * by an isolated {@link URLClassLoader}. Cassandra's log is written to {@code logs/system.log}, and an appender
+ * attached to the isolated logback writes the same lines directly to the node's output.
+ * <p>
+ * Cassandra is configured through JVM-wide System Properties and registers its MBeans in the platform {@code
+ * MBeanServer}, therefore only one in-process node can run in a JVM at a time, and starting another one fails until
+ * the running node is stopped. System Properties are set while the node is running and restored when it is stopped.
+ * JVM options other than {@code -D} and environment variables cannot be applied. Cassandra is not designed to be
+ * stopped inside a running JVM, therefore stopping is best-effort: client transports are stopped, the node is drained
+ * and the {@code org.apache.cassandra.*} MBeans are unregistered, but some of Cassandra's threads may stay alive until
+ * the JVM exits.
+ *
+ * @author Dmytro Nosan
+ */
+class InProcessCassandraNode implements CassandraNode {
+
+	private static final Logger log = LoggerFactory.getLogger(InProcessCassandraNode.class);
+
+	private static final String DAEMON_CLASS = "org.apache.cassandra.service.CassandraDaemon";
+
+	private static final String STORAGE_SERVICE_CLASS = "org.apache.cassandra.service.StorageService";
+
+	private static final String LOG_PATTERN = "%-5level [%thread] %date{ISO8601} %F:%L - %msg%n";
+
+	private static final String LOGBACK_CONFIG = "<configuration>\n"
+			+ "  <appender name=\"FILE\" class=\"ch.qos.logback.core.FileAppender\">\n"
+			+ "    <file>${cassandra.logdir}/system.log</file>\n"
+			+ "    <encoder>\n"
+			+ "      <pattern>" + LOG_PATTERN + "</pattern>\n"
+			+ "    </encoder>\n"
+			+ "  </appender>\n"
+			+ "  <root level=\"INFO\">\n"
+			+ "    <appender-ref ref=\"FILE\"/>\n"
+			+ "  </root>\n"
+			+ "</configuration>\n";
+
+	private static final Object MONITOR = new Object();
+
+	@Nullable
+	private static InProcessCassandraNode runningNode;
+
+	private final Version version;
+
+	private final Path workingDirectory;
+
+	private final Map<String, Object> properties;
+
+	private final Map<String, Object> systemProperties;
+
+	@Nullable
+	private volatile URLClassLoader classLoader;
+
+	@Nullable
+	private volatile Thread thread;
+
+	@Nullable
+	private volatile Object daemon;
+
+	@Nullable
+	private volatile LogInputStream inputStream;
+
+	@Nullable
+	private volatile Map<String, String> previousSystemProperties;
+
+	private volatile boolean alive;
+
+	private volatile int jmxLocalPort = -1;
+
+	private volatile Map<String, Duration> startupPhases = Collections.emptyMap();
+
+	InProcessCassandraNode(Version version, Path workingDirectory, List<String> jvmOptions,
+			Map<String, Object> systemProperties, Map<String, Object> environmentVariables,
+			Map<String, Object> properties) {
+		this.version = version;
+		this.workingDirectory = workingDirectory;
+		this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+		Map<String, Object> allSystemProperties = new LinkedHashMap<>();
+		for (String jvmOption : jvmOptions) {
+			if (jvmOption.startsWith("-D")) {
+				String[] nameAndValue = jvmOption.substring(2).split("=", 2);
+				allSystemProperties.put(nameAndValue[0], (nameAndValue.length > 1) ? nameAndValue[1] : "");
+			}
+			else {
+				log.warn("JVM option '{}' cannot be applied to an in-process Cassandra and is ignored", jvmOption);
+			}
+		}
+		allSystemProperties.putAll(systemProperties);
+		this.systemProperties = Collections.unmodifiableMap(allSystemProperties);
+		Map<String, Object> variables = new LinkedHashMap<>(environmentVariables);
+		variables.remove("JAVA_HOME");
+		if (!variables.isEmpty()) {
+			log.warn("Environment variables '{}' cannot be applied to an in-process Cassandra and are ignored",
+					variables.keySet());
+		}
+	}
+
+	@Override
+	public void start() throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		Map<String, Object> systemProperties = NodeConfiguration.configure(this.workingDirectory, this.properties,
+				this.systemProperties);
+		// CassandraDaemon starts a JMX server only if the port is set
+		this.jmxLocalPort = NodeConfiguration.getJmxLocalPort(systemProperties, -1);
+		Path logDirectory = Files.createDirectories(this.workingDirectory.resolve("logs"));
+		Files.deleteIfExists(logDirectory.resolve("system.log"));
+		Path logbackFile = this.workingDirectory.resolve("conf/logback-in-process.xml");
+		Files.write(logbackFile, LOGBACK_CONFIG.getBytes(StandardCharsets.UTF_8));
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("cassandra-foreground", "yes");
+		properties.put("cassandra.storagedir", this.workingDirectory.resolve("data"));
+		properties.put("cassandra.logdir", logDirectory);
+		properties.put("logback.configurationFile", logbackFile.toUri());
+		properties.putAll(systemProperties);
+		Map<String, Duration> startupPhases = new LinkedHashMap<>();
+		startupPhases.put("configure", Duration.ofNanos(System.nanoTime() - start));
+		start = System.nanoTime();
+		URLClassLoader classLoader = new URLClassLoader(getClasspath(),
+				ClassLoader.getSystemClassLoader().getParent());
+		this.classLoader = classLoader;
+		LogInputStream inputStream = new LogInputStream();
+		this.inputStream = inputStream;
+		synchronized (MONITOR) {
+			InProcessCassandraNode node = runningNode;
+			if (node != null && node != this) {
+				classLoader.close();
+				throw new IllegalStateException(String.format("In-process Cassandra '%s' is already running in this"
+						+ " JVM. Only one in-process Cassandra can run at a time", node.workingDirectory));
+			}
+			runningNode = this;
+			this.previousSystemProperties = setSystemProperties(properties);
+		}
+		this.alive = true;
+		Thread thread = new Thread(() -> {
+			try {
+				addAppender(classLoader, inputStream.getOutputStream());
+				Class<?> daemonClass = Class.forName(DAEMON_CLASS, true, classLoader);
+				Object daemon = createDaemon(daemonClass);
+				this.daemon = daemon;
+				daemonClass.getMethod("activate").invoke(daemon);
+			}
+			catch (Throwable ex) {
+				Throwable cause = (ex instanceof InvocationTargetException) ? ex.getCause() : ex;
+				log.error("In-process Cassandra has not been started", cause);
+				this.alive = false;
+				inputStream.close();
+			}
+		}, "cassandra-in-process");
+		thread.setContextClassLoader(classLoader);
+		thread.setDaemon(true);
+		this.thread = thread;
+		thread.start();
+		startupPhases.put("spawn", Duration.ofNanos(System.nanoTime() - start));
+		this.startupPhases = Collections.unmodifiableMap(startupPhases);
+	}
+
+	@Override
+	public void stop() throws IOException, InterruptedException {
+		Object daemon = this.daemon;
+		URLClassLoader classLoader = this.classLoader;
+		Thread thread = this.thread;
+		try {
+			if (thread != null) {
+				thread.join(TimeUnit.SECONDS.toMillis(30));
+			}
+			if (daemon != null && classLoader != null) {
+				ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+				Thread.currentThread().setContextClassLoader(classLoader);
+				try {
+					invoke(daemon, "stop");
+					Class<?> storageServiceClass = Class.forName(STORAGE_SERVICE_CLASS, true, classLoader);
+					invoke(storageServiceClass.getField("instance").get(null), "drain");
+				}
+				catch (ReflectiveOperationException | LinkageError ex) {
+					log.warn("In-process Cassandra has not been stopped properly", ex);
+				}
+				finally {
+					Thread.currentThread().setContextClassLoader(contextClassLoader);
+				}
+			}
+		}
+		finally {
+			this.alive = false;
+			this.daemon = null;
+			this.thread = null;
+			this.classLoader = null;
+			synchronized (MONITOR) {
+				Map<String, String> previousSystemProperties = this.previousSystemProperties;
+				if (previousSystemProperties != null) {
+					restoreSystemProperties(previousSystemProperties);
+				}
+				this.previousSystemProperties = null;
+				if (runningNode == this) {
+					unregisterMBeans();
+					runningNode = null;
+				}
+			}
+			LogInputStream inputStream = this.inputStream;
+			if (inputStream != null) {
+				inputStream.close();
+			}
+			if (classLoader != null) {
+				classLoader.close();
+			}
+		}
+	}
+
+	@Override
+	public boolean isAlive() {
+		return this.alive;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		InputStream inputStream = this.inputStream;
+		return (inputStream != null) ? inputStream : new ByteArrayInputStream(new byte[0]);
+	}
+
+	@Override
+	public Map<String, Duration> getStartupPhases() {
+		return this.startupPhases;
+	}
+
+	@Override
+	public int getJmxLocalPort() {
+		return this.jmxLocalPort;
+	}
+
+	@Override
+	public long getPid() {
+		// the node shares the current JVM and must never be stopped by pid
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[version='%s', alive='%s']", getClass().getSimpleName(), this.version, this.alive);
+	}
+
+	private URL[] getClasspath() throws IOException {
+		List<URL> urls = new ArrayList<>();
+		urls.add(this.workingDirectory.resolve("conf").toUri().toURL());
+		try (Stream<Path> jars = Files.list(this.workingDirectory.resolve("lib"))) {
+			for (Path jar : jars.filter(path -> path.getFileName().toString().toLowerCase(Locale.ENGLISH)
+					.endsWith(".jar")).sorted().collect(Collectors.toList())) {
+				urls.add(jar.toUri().toURL());
+			}
+		}
+		return urls.toArray(new URL[0]);
+	}
+
+	private static void addAppender(ClassLoader classLoader, OutputStream outputStream)
+			throws ReflectiveOperationException {
+		// logback is loaded by the isolated class loader, hence it is only accessible through reflection
+		Object context = Class.forName("org.slf4j.LoggerFactory", true, classLoader).getMethod("getILoggerFactory")
+				.invoke(null);
+		Class<?> contextClass = Class.forName("ch.qos.logback.core.Context", false, classLoader);
+		Object encoder = Class.forName("ch.qos.logback.classic.encoder.PatternLayoutEncoder", true, classLoader)
+				.getConstructor().newInstance();
+		encoder.getClass().getMethod("setContext", contextClass).invoke(encoder, context);
+		encoder.getClass().getMethod("setPattern", String.class).invoke(encoder, LOG_PATTERN);
+		invoke(encoder, "start");
+		Object appender = Class.forName("ch.qos.logback.core.OutputStreamAppender", true, classLoader)
+				.getConstructor().newInstance();
+		appender.getClass().getMethod("setContext", contextClass).invoke(appender, context);
+		appender.getClass().getMethod("setName", String.class).invoke(appender, "IN_PROCESS");
+		appender.getClass().getMethod("setEncoder",
+				Class.forName("ch.qos.logback.core.encoder.Encoder", false, classLoader)).invoke(appender, encoder);
+		appender.getClass().getMethod("setOutputStream", OutputStream.class).invoke(appender, outputStream);
+		invoke(appender, "start");
+		Object root = context.getClass().getMethod("getLogger", String.class).invoke(context, "ROOT");
+		root.getClass().getMethod("addAppender", Class.forName("ch.qos.logback.core.Appender", false, classLoader))
+				.invoke(root, appender);
+	}
+
+	private static Object createDaemon(Class<?> daemonClass) throws ReflectiveOperationException {
+		try {
+			// 'runManaged' daemon throws exceptions instead of calling System.exit
+			Constructor<?> constructor = daemonClass.getConstructor(boolean.class);
+			return constructor.newInstance(true);
+		}
+		catch (NoSuchMethodException ex) {
+			return daemonClass.getConstructor().newInstance();
+		}
+	}
+
+	private static void invoke(Object target, String name) throws ReflectiveOperationException {
+		Method method = target.getClass().getMethod(name);
+		method.invoke(target);
+	}
+
+	private static void unregisterMBeans() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			for (ObjectName name : server.queryNames(new ObjectName("org.apache.cassandra*:*"), null)) {
+				try {
+					server.unregisterMBean(name);
+				}
+				catch (InstanceNotFoundException ex) {
+					// already unregistered
+				}
+				catch (MBeanRegistrationException ex) {
+					log.warn("MBean '" + name + "' has not been unregistered", ex);
+				}
+			}
+		}
+		catch (MalformedObjectNameException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static Map<String, String> setSystemProperties(Map<String, Object> properties) {
+		Map<String, String> previous = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> entry : properties.entrySet()) {
+			String name = entry.getKey();
+			previous.put(name, System.getProperty(name));
+			System.setProperty(name, Objects.toString(entry.getValue(), ""));
+		}
+		return previous;
+	}
+
+	private static void restoreSystemProperties(Map<String, String> properties) {
+		properties.forEach((name, value) -> {
+			if (value != null) {
+				System.setProperty(name, value);
+			}
+			else {
+				System.clearProperty(name);
+			}
+		});
+	}
+
+	/**
+	 * {@link InputStream} of the lines written to its {@link #getOutputStream() OutputStream} by the logback appender.
+	 * Reads block until a line is written or the stream is closed.
+	 */
+	private static final class LogInputStream extends InputStream {
+
+		private static final byte[] EOF = new byte[0];
+
+		private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+		private final OutputStream outputStream = new OutputStream() {
+
+			@Override
+			public void write(int b) {
+				write(new byte[]{(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				if (len > 0 && !LogInputStream.this.closed) {
+					LogInputStream.this.chunks.add(Arrays.copyOfRange(b, off, off + len));
+				}
+			}
+
+		};
+
+		private volatile boolean closed;
+
+		@Nullable
+		private byte[] chunk;
+
+		private int position;
+
+		OutputStream getOutputStream() {
+			return this.outputStream;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+			return (read == -1) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			byte[] chunk = this.chunk;
+			if (chunk == null || this.position == chunk.length) {
+				try {
+					chunk = this.chunks.take();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+				if (chunk == EOF) {
+					// keep the end of the stream for subsequent reads
+					this.chunks.add(EOF);
+					this.chunk = null;
+					return -1;
+				}
+				this.chunk = chunk;
+				this.position = 0;
+			}
+			int read = Math.min(len, chunk.length - this.position);
+			System.arraycopy(chunk, this.position, b, off, read);
+			this.position += read;
+			return read;
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				this.chunks.add(EOF);
+			}
+		}
+
+	}
+
+}
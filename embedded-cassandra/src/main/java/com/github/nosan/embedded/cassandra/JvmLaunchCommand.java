@@ -0,0 +1,350 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * The {@code java} command that starts Cassandra without {@code bin/cassandra}. The classpath, the options from
+ * {@code jvm*.options} and the defaults of {@code cassandra-env.sh} are computed once per distribution and Java home
+ * and then reused.
+ * <p>
+ * Jars are taken from the distribution rather than from the working directory and {@code conf} is the last classpath
+ * entry, so the classpath is the same on every start, as a {@link ClassDataSharing Class Data Sharing} archive
+ * requires.
+ *
+ * @author Dmytro Nosan
+ */
+final class JvmLaunchCommand {
+
+	private static final String MAIN_CLASS = "org.apache.cassandra.service.CassandraDaemon";
+
+	private static final Pattern JAVA_VERSION = Pattern.compile("^JAVA_VERSION=\"?([^\"]+)\"?\\s*$",
+			Pattern.MULTILINE);
+
+	private static final Pattern JVM_OPTIONS_FILE = Pattern.compile("^jvm(\\d+)-(server|clients)\\.options$");
+
+	private static final long MB = 1024 * 1024;
+
+	private static final Map<String, JvmLaunchCommand> CACHE = new ConcurrentHashMap<>();
+
+	private final Path directory;
+
+	private final Path java;
+
+	private final List<String> jvmOptions;
+
+	private final List<String> clientJvmOptions;
+
+	private final List<String> classpath;
+
+	@Nullable
+	private final String jamm;
+
+	private JvmLaunchCommand(Path directory, Path java, List<String> jvmOptions, List<String> clientJvmOptions,
+			List<String> classpath, @Nullable String jamm) {
+		this.directory = directory;
+		this.java = java;
+		this.jamm = jamm;
+		this.jvmOptions = Collections.unmodifiableList(jvmOptions);
+		this.clientJvmOptions = Collections.unmodifiableList(clientJvmOptions);
+		this.classpath = Collections.unmodifiableList(classpath);
+	}
+
+	/**
+	 * Returns the command for the given distribution, computing it on the first call.
+	 *
+	 * @param directory the distribution directory
+	 * @param javaHome the Java home
+	 * @return the command
+	 * @throws IOException if the distribution cannot be read
+	 */
+	static JvmLaunchCommand of(Path directory, Path javaHome) throws IOException {
+		String key = directory.toAbsolutePath().normalize() + File.pathSeparator + javaHome.toAbsolutePath()
+				.normalize();
+		JvmLaunchCommand command = CACHE.get(key);
+		if (command == null) {
+			command = create(directory, javaHome);
+			CACHE.putIfAbsent(key, command);
+		}
+		return command;
+	}
+
+	/**
+	 * Returns the {@code java} arguments that start Cassandra within the given working directory. The given options
+	 * are added after the computed ones, therefore they take precedence.
+	 *
+	 * @param workingDirectory the working directory (a copy of the distribution)
+	 * @param jvmOptions additional JVM options
+	 * @return the arguments
+	 */
+	List<String> getArguments(Path workingDirectory, List<String> jvmOptions) {
+		List<String> arguments = new ArrayList<>();
+		arguments.add(this.java.toString());
+		arguments.addAll(this.jvmOptions);
+		String jamm = this.jamm;
+		if (jamm != null) {
+			arguments.add("-javaagent:" + this.directory.resolve(jamm));
+		}
+		Path compilerCommands = workingDirectory.resolve("conf/hotspot_compiler");
+		if (Files.isRegularFile(compilerCommands)) {
+			arguments.add("-XX:CompileCommandFile=" + compilerCommands);
+		}
+		Path sigar = workingDirectory.resolve("lib/sigar-bin");
+		if (Files.isDirectory(sigar)) {
+			arguments.add("-Djava.library.path=" + sigar);
+		}
+		arguments.add("-Dcassandra.jmx.local.port=7199");
+		arguments.add("-Dcassandra.logdir=" + workingDirectory.resolve("logs"));
+		arguments.add("-Dcassandra.storagedir=" + workingDirectory.resolve("data"));
+		arguments.add("-Dlogback.configurationFile=" + workingDirectory.resolve("conf/logback.xml"));
+		arguments.add("-Dcassandra-foreground=yes");
+		arguments.addAll(jvmOptions);
+		arguments.add("-cp");
+		arguments.add(Stream.concat(this.classpath.stream().map(this.directory::resolve),
+				Stream.of(workingDirectory.resolve("conf"))).map(Path::toString)
+				.collect(Collectors.joining(File.pathSeparator)));
+		arguments.add(MAIN_CLASS);
+		return arguments;
+	}
+
+	/**
+	 * Returns the jars of the distribution in the order they start Cassandra's classpath.
+	 *
+	 * @return the jars
+	 */
+	List<Path> getClasspath() {
+		return this.classpath.stream().map(this.directory::resolve).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the {@code java} arguments that run the given main class (e.g. {@code
+	 * org.apache.cassandra.tools.NodeTool}) within the given working directory, the way {@code bin/nodetool} and the
+	 * other tools do. The options from {@code jvm*-clients.options} are used instead of the server ones.
+	 *
+	 * @param workingDirectory the working directory (a copy of the distribution)
+	 * @param classpath additional classpath entries
+	 * @param mainClass the main class
+	 * @param arguments the program arguments
+	 * @return the arguments
+	 */
+	List<String> getToolArguments(Path workingDirectory, List<Path> classpath, String mainClass,
+			List<String> arguments) {
+		List<String> result = new ArrayList<>();
+		result.add(this.java.toString());
+		result.addAll(this.clientJvmOptions);
+		result.add("-Dcassandra.storagedir=" + workingDirectory.resolve("data"));
+		result.add("-Dlogback.configurationFile=logback-tools.xml");
+		result.add("-cp");
+		List<Path> entries = new ArrayList<>();
+		entries.add(workingDirectory.resolve("conf"));
+		this.classpath.stream().map(workingDirectory::resolve).forEach(entries::add);
+		entries.addAll(classpath);
+		result.add(entries.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator)));
+		result.add(mainClass);
+		result.addAll(arguments);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[java='%s', jvmOptions=%s, classpath=%s]", getClass().getSimpleName(), this.java,
+				this.jvmOptions, this.classpath);
+	}
+
+	private static JvmLaunchCommand create(Path directory, Path javaHome) throws IOException {
+		Path java = javaHome.resolve(isWindows() ? "bin/java.exe" : "bin/java");
+		if (!Files.isRegularFile(java)) {
+			throw new IllegalStateException(String.format("'%s' does not exist", java));
+		}
+		int javaVersion = getJavaVersion(javaHome);
+		List<String> jvmOptions = new ArrayList<>();
+		for (Path file : getJvmOptionsFiles(directory, javaVersion, "server")) {
+			jvmOptions.addAll(readJvmOptions(file));
+		}
+		if (jvmOptions.isEmpty()) {
+			// distributions without jvm.options keep their options in cassandra-env.sh
+			jvmOptions.addAll(Arrays.asList("-ea", "-Xss256k", "-XX:+UseThreadPriorities",
+					"-XX:+HeapDumpOnOutOfMemoryError"));
+		}
+		jvmOptions.add("-Djava.net.preferIPv4Stack=true");
+		jvmOptions.add("-Dcom.sun.management.jmxremote.authenticate=false");
+		addHeapOptions(jvmOptions);
+		List<String> classpath = getClasspath(directory);
+		String jamm = classpath.stream().filter(path -> Paths.get(path).getFileName().toString().startsWith("jamm-"))
+				.findFirst().orElse(null);
+		List<String> clientJvmOptions = new ArrayList<>();
+		for (Path file : getJvmOptionsFiles(directory, javaVersion, "clients")) {
+			clientJvmOptions.addAll(readJvmOptions(file));
+		}
+		return new JvmLaunchCommand(directory.toAbsolutePath().normalize(), java, jvmOptions, clientJvmOptions,
+				classpath, jamm);
+	}
+
+	private static List<Path> getJvmOptionsFiles(Path directory, int javaVersion, String kind) throws IOException {
+		Path conf = directory.resolve("conf");
+		List<Path> files = new ArrayList<>();
+		Path jvmOptions = conf.resolve("jvm.options");
+		if (kind.equals("server") && Files.isRegularFile(jvmOptions)) {
+			files.add(jvmOptions);
+		}
+		Path kindOptions = conf.resolve("jvm-" + kind + ".options");
+		if (Files.isRegularFile(kindOptions)) {
+			files.add(kindOptions);
+			Path versionOptions = null;
+			int bestVersion = -1;
+			try (Stream<Path> stream = Files.list(conf)) {
+				for (Path file : (Iterable<Path>) stream::iterator) {
+					Matcher matcher = JVM_OPTIONS_FILE.matcher(file.getFileName().toString());
+					if (matcher.matches() && matcher.group(2).equals(kind)) {
+						int fileVersion = Integer.parseInt(matcher.group(1));
+						if (fileVersion <= javaVersion && fileVersion > bestVersion) {
+							bestVersion = fileVersion;
+							versionOptions = file;
+						}
+					}
+				}
+			}
+			if (versionOptions != null) {
+				files.add(versionOptions);
+			}
+		}
+		return files;
+	}
+
+	private static List<String> readJvmOptions(Path file) throws IOException {
+		List<String> options = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			String option = line.trim();
+			if (option.startsWith("-")) {
+				// the scripts pass options unquoted, e.g. '--add-exports java.base/...'
+				options.addAll(Arrays.asList(option.split("\\s+")));
+			}
+		}
+		return options;
+	}
+
+	private static void addHeapOptions(List<String> jvmOptions) {
+		boolean maxHeap = jvmOptions.stream().anyMatch(option -> option.startsWith("-Xmx"));
+		boolean minHeap = jvmOptions.stream().anyMatch(option -> option.startsWith("-Xms"));
+		if (maxHeap && minHeap) {
+			return;
+		}
+		// the same calculation as cassandra-env.sh does
+		long memory = getTotalMemory() / MB;
+		long heap = Math.max(Math.min(memory / 2, 1024), Math.min(memory / 4, 8192));
+		if (!minHeap) {
+			jvmOptions.add("-Xms" + heap + "M");
+		}
+		if (!maxHeap) {
+			jvmOptions.add("-Xmx" + heap + "M");
+		}
+		if (jvmOptions.stream().noneMatch(option -> option.startsWith("-Xmn") || option.equals("-XX:+UseG1GC"))) {
+			long newSize = Math.min(100L * Runtime.getRuntime().availableProcessors(), heap / 4);
+			jvmOptions.add("-Xmn" + newSize + "M");
+		}
+	}
+
+	// getTotalMemorySize() replaces the deprecated method since JDK 14, but Java 8 must be supported as well
+	@SuppressWarnings("deprecation")
+	private static long getTotalMemory() {
+		OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+		if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) bean).getTotalPhysicalMemorySize();
+		}
+		return Runtime.getRuntime().maxMemory();
+	}
+
+	private static List<String> getClasspath(Path directory) throws IOException {
+		List<String> classpath = new ArrayList<>(getJars(directory, "lib"));
+		Path jsr223 = directory.resolve("lib/jsr223");
+		if (Files.isDirectory(jsr223)) {
+			try (Stream<Path> stream = Files.list(jsr223)) {
+				for (Path engine : stream.filter(Files::isDirectory).sorted().collect(Collectors.toList())) {
+					classpath.addAll(getJars(directory, directory.relativize(engine).toString()));
+				}
+			}
+		}
+		return classpath;
+	}
+
+	private static List<String> getJars(Path directory, String name) throws IOException {
+		Path lib = directory.resolve(name);
+		if (!Files.isDirectory(lib)) {
+			return Collections.emptyList();
+		}
+		try (Stream<Path> stream = Files.list(lib)) {
+			return stream.filter(JvmLaunchCommand::isJar).map(directory::relativize).map(Path::toString).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static boolean isJar(Path path) {
+		return path.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(".jar");
+	}
+
+	private static int getJavaVersion(Path javaHome) throws IOException {
+		Path release = javaHome.resolve("release");
+		if (Files.isRegularFile(release)) {
+			String content = new String(Files.readAllBytes(release), StandardCharsets.UTF_8);
+			Matcher matcher = JAVA_VERSION.matcher(content);
+			if (matcher.find()) {
+				return getFeature(matcher.group(1).trim());
+			}
+		}
+		return getFeature(Objects.toString(System.getProperty("java.version"), ""));
+	}
+
+	private static int getFeature(String javaVersion) {
+		Matcher matcher = Pattern.compile("^(\\d+)(?:\\.(\\d+))?").matcher(javaVersion);
+		if (!matcher.find()) {
+			return 8;
+		}
+		int feature = Integer.parseInt(matcher.group(1));
+		if (feature == 1 && matcher.group(2) != null) {
+			return Integer.parseInt(matcher.group(2));
+		}
+		return feature;
+	}
+
+	private static boolean isWindows() {
+		String name = System.getProperty("os.name");
+		return name != null && name.toLowerCase(Locale.ENGLISH).contains("windows");
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.yaml.snakeyaml.Yaml;
+
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+
+/**
+ * Prepares the configuration of a {@link CassandraNode}: merges {@code cassandra.yaml} with the properties, allocates
+ * random ports and dumps the result into a new config file.
+ *
+ * @author Dmytro Nosan
+ */
+final class NodeConfiguration {
+
+	private NodeConfiguration() {
+	}
+
+	/**
+	 * Configures the node and returns system properties, including {@code cassandra.config}, that should be passed to
+	 * Cassandra.
+	 *
+	 * @param workingDirectory the working directory
+	 * @param properties the config properties
+	 * @param systemProperties the system properties
+	 * @return the system properties
+	 * @throws IOException if an I/O error occurs
+	 */
+	static Map<String, Object> configure(Path workingDirectory, Map<String, Object> properties,
+			Map<String, Object> systemProperties) throws IOException {
+		Map<String, Object> config = loadProperties(workingDirectory, systemProperties);
+		config.putAll(properties);
+		Map<String, Object> result = new LinkedHashMap<>(systemProperties);
+		configureSystemProperties(result);
+		configureProperties(config);
+		Path configFile = Files.createTempFile(workingDirectory.resolve("conf"), "", "-cassandra.yaml");
+		dumpProperties(config, configFile);
+		result.put("cassandra.config", configFile.toUri().toString());
+		return result;
+	}
+
+	/**
+	 * Returns the JMX local port ({@code cassandra.jmx.local.port}) from the configured system properties.
+	 *
+	 * @param systemProperties the system properties returned by {@link #configure(Path, Map, Map)}
+	 * @param defaultPort the port used if the property is not set
+	 * @return the JMX local port
+	 */
+	static int getJmxLocalPort(Map<String, Object> systemProperties, int defaultPort) {
+		String port = Objects.toString(systemProperties.get("cassandra.jmx.local.port"), "").trim();
+		try {
+			return port.isEmpty() ? defaultPort : Integer.parseInt(port);
+		}
+		catch (NumberFormatException ex) {
+			return defaultPort;
+		}
+	}
+
+	private static Map<String, Object> loadProperties(Path workingDirectory, Map<String, Object> systemProperties)
+			throws IOException {
+		try (InputStream is = getConfig(workingDirectory, systemProperties).getInputStream()) {
+			Yaml yaml = new Yaml();
+			Map<String, Object> properties = yaml.load(is);
+			return (properties != null) ? new LinkedHashMap<>(properties) : new LinkedHashMap<>(0);
+		}
+	}
+
+	private static Resource getConfig(Path workingDirectory, Map<String, Object> systemProperties)
+			throws IOException {
+		Object url = systemProperties.get("cassandra.config");
+		if (url != null) {
+			return new UrlResource(new URL(url.toString()));
+		}
+		return new FileSystemResource(workingDirectory.resolve("conf/cassandra.yaml"));
+	}
+
+	private static void dumpProperties(Map<String, Object> properties, Path file) throws IOException {
+		try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+			Yaml yaml = new Yaml();
+			yaml.dump(properties, bw);
+		}
+	}
+
+	private static void configureProperties(Map<String, Object> properties) throws IOException {
+		configurePort(properties, "native_transport_port");
+		configurePort(properties, "native_transport_port_ssl");
+		configurePort(properties, "rpc_port");
+		configurePort(properties, "storage_port");
+		configurePort(properties, "ssl_storage_port");
+	}
+
+	private static void configureSystemProperties(Map<String, Object> systemProperties) throws IOException {
+		configurePort(systemProperties, "cassandra.jmx.remote.port");
+		configurePort(systemProperties, "cassandra.jmx.local.port");
+		configurePort(systemProperties, "cassandra.native_transport_port");
+		configurePort(systemProperties, "cassandra.rpc_port");
+		configurePort(systemProperties, "cassandra.storage_port");
+		configurePort(systemProperties, "cassandra.ssl_storage_port");
+	}
+
+	private static void configurePort(Map<String, Object> properties, String name) throws IOException {
+		if (!Objects.toString(properties.get(name), "").trim().equals("0")) {
+			return;
+		}
+		try (ServerSocket ss = new ServerSocket(0)) {
+			properties.put(name, ss.getLocalPort());
+		}
+	}
+
+}
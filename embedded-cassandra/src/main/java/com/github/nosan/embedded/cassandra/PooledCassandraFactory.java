@@ -0,0 +1,459 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.StartupReport;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
+
+/**
+ * {@link CassandraFactory} that keeps a pool of already started {@link Cassandra} instances. Instances are created by
+ * the delegate {@link CassandraFactory} and started in the background.
+ * <p>
+ * {@link Cassandra#start()} leases a started instance from the pool and returns as soon as an instance is
+ * available. {@link #create()} does not lease an instance, hence created but never started {@link Cassandra} instances
+ * do not occupy the pool. {@link Cassandra#stop()} does not stop the leased instance, instead all non-system
+ * keyspaces are dropped and the instance is returned back to the pool. Instances are stopped only when the factory
+ * is {@link #close() closed}.
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   static final PooledCassandraFactory CASSANDRA_FACTORY = new PooledCassandraFactory(new EmbeddedCassandraFactory(),
+ *   2);
+ *
+ *   public static void main(String[] args) {
+ *     Cassandra cassandra = CASSANDRA_FACTORY.create();
+ *     cassandra.start();
+ *     try {
+ *       // ...
+ *     }
+ *     finally {
+ *       cassandra.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ * <p>
+ * Instances created by the delegate factory must be able to run simultaneously, e.g. use random ports.
+ *
+ * @author Dmytro Nosan
+ * @see CassandraFactory
+ * @see CassandraConnection#dropKeyspaces()
+ * @since 3.1.0
+ */
+public final class PooledCassandraFactory implements CassandraFactory, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(PooledCassandraFactory.class);
+
+	private static final AtomicLong NUMBER = new AtomicLong();
+
+	private final CassandraFactory cassandraFactory;
+
+	private final int size;
+
+	private final BlockingQueue<CompletableFuture<Cassandra>> pool = new LinkedBlockingQueue<>();
+
+	private final Set<Cassandra> instances = ConcurrentHashMap.newKeySet();
+
+	private final CompletableFuture<Version> version = new CompletableFuture<>();
+
+	private final AtomicInteger starting = new AtomicInteger();
+
+	private final Object monitor = new Object();
+
+	private CassandraConnectionFactory connectionFactory = new DefaultCassandraConnectionFactory();
+
+	@Nullable
+	private ExecutorService executor;
+
+	private boolean closed;
+
+	/**
+	 * Constructs a new {@link PooledCassandraFactory}.
+	 *
+	 * @param cassandraFactory the factory used to create pooled {@link Cassandra} instances
+	 * @param size the number of {@link Cassandra} instances to keep started
+	 */
+	public PooledCassandraFactory(CassandraFactory cassandraFactory, int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("'size' must be positive");
+		}
+		this.cassandraFactory = Objects.requireNonNull(cassandraFactory, "'cassandraFactory' must not be null");
+		this.size = size;
+	}
+
+	/**
+	 * Returns the number of {@link Cassandra} instances to keep started.
+	 *
+	 * @return the size of the pool
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the {@link CassandraConnectionFactory} used to drop keyspaces before an instance is returned to the pool.
+	 *
+	 * @return the connection factory
+	 */
+	public CassandraConnectionFactory getConnectionFactory() {
+		return this.connectionFactory;
+	}
+
+	/**
+	 * Sets the {@link CassandraConnectionFactory} used to drop keyspaces before an instance is returned to the pool.
+	 * Defaults to {@link DefaultCassandraConnectionFactory}.
+	 *
+	 * @param connectionFactory the connection factory
+	 */
+	public void setConnectionFactory(CassandraConnectionFactory connectionFactory) {
+		this.connectionFactory = Objects.requireNonNull(connectionFactory, "'connectionFactory' must not be null");
+	}
+
+	/**
+	 * Creates a {@link Cassandra} which leases an instance from the pool on {@link Cassandra#start()}. {@link
+	 * Cassandra#start()} causes the current thread to wait, until a started instance is available.
+	 *
+	 * @return a pooled {@code Cassandra}
+	 * @throws CassandraCreationException if the factory is closed
+	 */
+	@Override
+	public Cassandra create() throws CassandraCreationException {
+		try {
+			initialize();
+			return new PooledCassandra("pooled-cassandra-" + NUMBER.incrementAndGet());
+		}
+		catch (Exception ex) {
+			throw new CassandraCreationException("Cassandra instance cannot be created", ex);
+		}
+	}
+
+	/**
+	 * Stops all {@link Cassandra} instances including leased ones.
+	 */
+	@Override
+	public void close() {
+		ExecutorService executor;
+		synchronized (this.monitor) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			executor = this.executor;
+		}
+		this.version.completeExceptionally(new IllegalStateException(toString() + " is closed"));
+		if (executor != null) {
+			executor.shutdownNow();
+			try {
+				if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+					log.warn("{} has not been terminated within 1 minute", executor);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.pool.clear();
+		for (Cassandra cassandra : this.instances) {
+			try {
+				cassandra.stop();
+			}
+			catch (Exception ex) {
+				log.error("Cassandra '" + cassandra + "' has not been stopped", ex);
+			}
+		}
+		this.instances.clear();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", PooledCassandraFactory.class.getSimpleName() + "[", "]")
+				.add("cassandraFactory=" + this.cassandraFactory).add("size=" + this.size).toString();
+	}
+
+	private Cassandra lease() {
+		synchronized (this.monitor) {
+			if (this.closed) {
+				throw new IllegalStateException(toString() + " is closed");
+			}
+		}
+		CompletableFuture<Cassandra> future;
+		try {
+			future = this.pool.take();
+		}
+		catch (InterruptedException ex) {
+			throw new CassandraInterruptedException("Cassandra lease interrupted", ex);
+		}
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			submit();
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw ex;
+		}
+	}
+
+	private void release(Cassandra cassandra) {
+		ExecutorService executor;
+		synchronized (this.monitor) {
+			executor = this.executor;
+			if (executor == null || this.closed) {
+				cassandra.stop();
+				return;
+			}
+		}
+		CompletableFuture<Cassandra> future = CompletableFuture.supplyAsync(() -> {
+			try (CassandraConnection connection = this.connectionFactory.create(cassandra)) {
+				connection.dropKeyspaces();
+			}
+			return cassandra;
+		}, executor);
+		future.whenComplete((result, ex) -> {
+			if (ex == null) {
+				this.pool.add(future);
+				return;
+			}
+			this.instances.remove(cassandra);
+			try {
+				cassandra.stop();
+			}
+			catch (Exception swallow) {
+				ex.addSuppressed(swallow);
+			}
+			log.error("Cassandra '" + cassandra + "' cannot be reset and has been replaced with a new one", ex);
+			submit();
+		});
+	}
+
+	private void initialize() {
+		synchronized (this.monitor) {
+			if (this.closed) {
+				throw new IllegalStateException(toString() + " is closed");
+			}
+			if (this.executor != null) {
+				return;
+			}
+			this.executor = Executors.newFixedThreadPool(this.size, new PooledThreadFactory());
+			for (int i = 0; i < this.size; i++) {
+				submit();
+			}
+		}
+	}
+
+	private void submit() {
+		ExecutorService executor;
+		synchronized (this.monitor) {
+			executor = this.executor;
+			if (executor == null || this.closed) {
+				return;
+			}
+		}
+		this.starting.incrementAndGet();
+		CompletableFuture<Cassandra> future = CompletableFuture.supplyAsync(() -> {
+			Cassandra cassandra = this.cassandraFactory.create();
+			this.instances.add(cassandra);
+			try {
+				cassandra.start();
+			}
+			catch (RuntimeException ex) {
+				this.instances.remove(cassandra);
+				throw ex;
+			}
+			return cassandra;
+		}, executor);
+		future.whenComplete((result, ex) -> {
+			int starting = this.starting.decrementAndGet();
+			if (ex == null) {
+				Version version = result.getVersion();
+				if (!this.version.complete(version) && this.version.isCompletedExceptionally() && !isClosed()) {
+					this.version.obtrudeValue(version);
+				}
+			}
+			else if (starting == 0) {
+				// none of the pooled instances has been started
+				this.version.completeExceptionally(ex);
+			}
+			this.pool.add(future);
+		});
+	}
+
+	private boolean isClosed() {
+		synchronized (this.monitor) {
+			return this.closed;
+		}
+	}
+
+	private Version getVersion() {
+		try {
+			return this.version.join();
+		}
+		catch (CompletionException ex) {
+			throw new IllegalStateException("Version cannot be determined, Cassandra instance has not been started",
+					ex.getCause());
+		}
+	}
+
+	private static final class PooledThreadFactory implements ThreadFactory {
+
+		private final AtomicLong number = new AtomicLong();
+
+		private final long pool = NUMBER.incrementAndGet();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "cassandra-pool-" + this.pool + "-" + this.number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/**
+	 * {@link Cassandra} which is leased from the pool.
+	 */
+	private final class PooledCassandra implements Cassandra {
+
+		private final String name;
+
+		@Nullable
+		private volatile Cassandra cassandra;
+
+		private volatile boolean leased = false;
+
+		private volatile boolean started = false;
+
+		PooledCassandra(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public synchronized void start() throws CassandraException {
+			if (this.started) {
+				return;
+			}
+			if (!this.leased) {
+				try {
+					this.cassandra = lease();
+				}
+				catch (CassandraException ex) {
+					throw ex;
+				}
+				catch (Exception ex) {
+					throw new CassandraException("Cassandra instance cannot be leased", ex);
+				}
+				this.leased = true;
+			}
+			this.started = true;
+		}
+
+		@Override
+		public synchronized void stop() throws CassandraException {
+			if (!this.leased) {
+				return;
+			}
+			this.started = false;
+			this.leased = false;
+			Cassandra cassandra = Objects.requireNonNull(this.cassandra);
+			release(cassandra);
+		}
+
+		@Override
+		public String getName() {
+			Cassandra cassandra = this.cassandra;
+			return (cassandra != null) ? cassandra.getName() : this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			Cassandra cassandra = this.cassandra;
+			return (cassandra != null) ? cassandra.getVersion() : PooledCassandraFactory.this.getVersion();
+		}
+
+		@Override
+		@Nullable
+		public InetAddress getAddress() {
+			Cassandra cassandra = this.cassandra;
+			return (this.started && cassandra != null) ? cassandra.getAddress() : null;
+		}
+
+		@Override
+		public int getPort() {
+			Cassandra cassandra = this.cassandra;
+			return (this.started && cassandra != null) ? cassandra.getPort() : -1;
+		}
+
+		@Override
+		public int getSslPort() {
+			Cassandra cassandra = this.cassandra;
+			return (this.started && cassandra != null) ? cassandra.getSslPort() : -1;
+		}
+
+		@Override
+		public int getRpcPort() {
+			Cassandra cassandra = this.cassandra;
+			return (this.started && cassandra != null) ? cassandra.getRpcPort() : -1;
+		}
+
+		@Override
+		@Nullable
+		public StartupReport getStartupReport() {
+			Cassandra cassandra = this.cassandra;
+			return (this.started && cassandra != null) ? cassandra.getStartupReport() : null;
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", PooledCassandra.class.getSimpleName() + "[", "]").add("name=" + this.name)
+					.add("cassandra=" + this.cassandra).toString();
+		}
+
+	}
+
+}
@@ -58,6 +58,9 @@ class RunProcess {
 	@Nullable
 	private Path workingDirectory;
 
+	@Nullable
+	private Path outputFile;
+
 	/**
 	 * Constructs a {@link RunProcess} with the specified arguments.
 	 *
@@ -145,6 +148,25 @@ class RunProcess {
 		this.workingDirectory = workingDirectory;
 	}
 
+	/**
+	 * Returns the file the output is redirected to.
+	 *
+	 * @return the output file (or null if the output is a pipe)
+	 */
+	@Nullable
+	Path getOutputFile() {
+		return this.outputFile;
+	}
+
+	/**
+	 * Sets the file the output is redirected to. The file is truncated when the process starts.
+	 *
+	 * @param outputFile the output file, or {@code null} to read the output through a pipe
+	 */
+	void setOutputFile(@Nullable Path outputFile) {
+		this.outputFile = outputFile;
+	}
+
 	/**
 	 * Starts a new process.
 	 *
@@ -160,6 +182,10 @@ class RunProcess {
 		if (workDir != null) {
 			builder.directory(workDir.toFile());
 		}
+		Path outputFile = this.outputFile;
+		if (outputFile != null) {
+			builder.redirectOutput(outputFile.toFile());
+		}
 		Map<String, String> environment = this.environment.entrySet().stream().filter(
 				entry -> Objects.nonNull(entry.getKey())).collect(
 				Collectors.toMap(Map.Entry::getKey, entry -> Objects.toString(entry.getValue(), "")));
@@ -0,0 +1,575 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Large data set of a single table that is loaded into a running {@link Cassandra} as SSTables instead of {@code
+ * INSERT} statements. SSTables are written offline, in a separate JVM, by {@code CQLSSTableWriter} from the
+ * distribution's {@code lib} and attached to the node with {@code nodetool import} (Cassandra 4.0+) or {@code nodetool
+ * refresh} (Cassandra 3.x). Written SSTables are cached by the hash of the Cassandra version, the schema and the rows,
+ * so repeated runs only copy files. A file or a jar entry resource is identified by its URL, size and last modified
+ * time (or CRC), so its rows are read only if SSTables are not cached yet.
+ * <p>
+ * The table must already exist (e.g. created by a {@link CqlDataSet}) with the same schema, and the JMX port of the
+ * node must be known. Only {@link Cassandra} instances created by {@link EmbeddedCassandraFactory} are supported.
+ * <pre>
+ * SSTableDataSet dataSet = SSTableDataSet.ofCsv(
+ *         "CREATE TABLE test.users (id int PRIMARY KEY, name text)", new ClassPathResource("users.csv"));
+ * dataSet.load(cassandra);
+ * </pre>
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class SSTableDataSet {
+
+	private static final Logger log = LoggerFactory.getLogger(SSTableDataSet.class);
+
+	private static final String IDENTIFIER = "(\"(?:[^\"]|\"\")+\"|\\w+)";
+
+	private static final Pattern CREATE_TABLE = Pattern.compile("^\\s*CREATE\\s+(?:TABLE|COLUMNFAMILY)\\s+"
+			+ "(?:IF\\s+NOT\\s+EXISTS\\s+)?" + IDENTIFIER + "\\s*\\.\\s*" + IDENTIFIER, Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern SSTABLE_FILE = Pattern.compile("^([a-z]+)-(\\d+)-(\\w+)-(.+)$");
+
+	private final String schema;
+
+	private final String tableName;
+
+	private final String keyspace;
+
+	private final String table;
+
+	private final RowsSource rows;
+
+	private Path cacheDirectory = Paths.get(System.getProperty("user.home"), ".embedded-cassandra", "sstables");
+
+	private Path javaHome = Paths.get(System.getProperty("java.home"));
+
+	private SSTableDataSet(String schema, RowsSource rows) {
+		Objects.requireNonNull(schema, "'schema' must not be null");
+		Matcher matcher = CREATE_TABLE.matcher(schema);
+		if (!matcher.find()) {
+			throw new IllegalArgumentException(String.format("'%s' is not a CREATE TABLE statement with a keyspace "
+					+ "qualified table name", schema));
+		}
+		this.schema = schema.trim();
+		this.tableName = matcher.group(1) + "." + matcher.group(2);
+		this.keyspace = toInternal(matcher.group(1));
+		this.table = toInternal(matcher.group(2));
+		this.rows = rows;
+	}
+
+	/**
+	 * Creates a data set from {@code CSV} (RFC 4180, {@code UTF-8}). The first record is a header with column names.
+	 * An empty unquoted field is {@code null}, whereas {@code ""} is an empty string.
+	 *
+	 * @param schema the {@code CREATE TABLE} statement with a keyspace qualified table name
+	 * @param csv the CSV resource
+	 * @return a new data set
+	 */
+	public static SSTableDataSet ofCsv(String schema, Resource csv) {
+		Objects.requireNonNull(csv, "'csv' must not be null");
+		return new SSTableDataSet(schema, new ResourceRowsSource(csv, "csv", SSTableRows::ofCsv));
+	}
+
+	/**
+	 * Creates a data set from {@code JSON} lines ({@code UTF-8}), one object per line. Columns are the keys of the
+	 * first object.
+	 *
+	 * @param schema the {@code CREATE TABLE} statement with a keyspace qualified table name
+	 * @param jsonLines the JSON lines resource
+	 * @return a new data set
+	 */
+	public static SSTableDataSet ofJsonLines(String schema, Resource jsonLines) {
+		Objects.requireNonNull(jsonLines, "'jsonLines' must not be null");
+		return new SSTableDataSet(schema, new ResourceRowsSource(jsonLines, "jsonl", SSTableRows::ofJsonLines));
+	}
+
+	/**
+	 * Creates a data set from Java objects. Values are converted with the codecs of the columns: text values are
+	 * used as is, numbers, {@code UUID}, {@code LocalDate} etc. are converted by {@code toString()}, {@link
+	 * java.util.Date} and {@link java.time.Instant} to milliseconds, {@code byte[]} and {@link java.nio.ByteBuffer} to
+	 * blobs and collections to {@code CQL} collections.
+	 *
+	 * @param schema the {@code CREATE TABLE} statement with a keyspace qualified table name
+	 * @param columns the column names
+	 * @param rows the rows, values are in the order of columns. Rows are iterated on each {@link #load(Cassandra)}
+	 * @return a new data set
+	 */
+	public static SSTableDataSet ofRows(String schema, List<String> columns, Iterable<? extends Object[]> rows) {
+		Objects.requireNonNull(columns, "'columns' must not be null");
+		Objects.requireNonNull(rows, "'rows' must not be null");
+		List<String> names = Collections.unmodifiableList(new ArrayList<>(columns));
+		return new SSTableDataSet(schema, () -> SSTableRows.of(names, rows));
+	}
+
+	/**
+	 * Returns the directory where written SSTables are cached. Defaults to {@code ~/.embedded-cassandra/sstables}.
+	 *
+	 * @return the cache directory
+	 */
+	public Path getCacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+	/**
+	 * Sets the directory where written SSTables are cached.
+	 *
+	 * @param cacheDirectory the cache directory
+	 */
+	public void setCacheDirectory(Path cacheDirectory) {
+		this.cacheDirectory = Objects.requireNonNull(cacheDirectory, "'cacheDirectory' must not be null");
+	}
+
+	/**
+	 * Returns the Java home used to run {@code CQLSSTableWriter} and {@code nodetool}. Defaults to {@code
+	 * java.home}.
+	 *
+	 * @return the Java home
+	 */
+	public Path getJavaHome() {
+		return this.javaHome;
+	}
+
+	/**
+	 * Sets the Java home used to run {@code CQLSSTableWriter} and {@code nodetool}. It should be compatible with the
+	 * Cassandra version, e.g. the same as {@link EmbeddedCassandraFactory#setJavaHome(Path)}.
+	 *
+	 * @param javaHome the Java home
+	 */
+	public void setJavaHome(Path javaHome) {
+		this.javaHome = Objects.requireNonNull(javaHome, "'javaHome' must not be null");
+	}
+
+	/**
+	 * Writes SSTables, unless they are cached, and attaches them to the given Cassandra.
+	 *
+	 * @param cassandra the running Cassandra
+	 * @throws CassandraException if SSTables cannot be written or loaded
+	 * @throws CassandraInterruptedException if the loading has been interrupted
+	 */
+	public void load(Cassandra cassandra) throws CassandraException, CassandraInterruptedException {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)
+				|| !(((EmbeddedCassandra) cassandra).getDatabase() instanceof EmbeddedCassandraDatabase)) {
+			throw new IllegalArgumentException(String.format("'%s' is not supported. Only Cassandra created by '%s' "
+					+ "can load SSTables", cassandra, EmbeddedCassandraFactory.class.getSimpleName()));
+		}
+		EmbeddedCassandraDatabase database = (EmbeddedCassandraDatabase) ((EmbeddedCassandra) cassandra)
+				.getDatabase();
+		Version version = cassandra.getVersion();
+		if (version.getMajor() < 3) {
+			throw new IllegalStateException(String.format(
+					"SSTables cannot be loaded into Cassandra '%s'. Cassandra 3.0+ is required", version));
+		}
+		int jmxLocalPort = database.getJmxLocalPort();
+		if (jmxLocalPort <= 0) {
+			throw new IllegalStateException(
+					String.format("JMX local port of '%s' is unknown, nodetool cannot be used", cassandra));
+		}
+		try {
+			long start = System.nanoTime();
+			Path workingDirectory = database.getWorkingDirectory();
+			JvmLaunchCommand command = JvmLaunchCommand.of(workingDirectory, this.javaHome);
+			Path directory = getSSTables(workingDirectory, command, version);
+			if (version.getMajor() >= 4) {
+				CassandraTools.nodetool(workingDirectory, command, jmxLocalPort, "import", "--copy-data",
+						this.keyspace, this.table, directory.toString());
+			}
+			else {
+				copy(directory, getTableDirectory(database.getStorageDirectory()));
+				CassandraTools.nodetool(workingDirectory, command, jmxLocalPort, "refresh", this.keyspace,
+						this.table);
+			}
+			log.info("SSTables of '{}' have been loaded into {} in {} ms", this.tableName, cassandra,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CassandraInterruptedException("SSTables loading interrupted", ex);
+		}
+		catch (IOException ex) {
+			throw new CassandraException(
+					String.format("SSTables of '%s' cannot be loaded into %s", this.tableName, cassandra), ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[table='%s']", getClass().getSimpleName(), this.tableName);
+	}
+
+	/**
+	 * Returns the directory with SSTables of the table ({@code keyspace/table}), writing them if needed.
+	 */
+	private Path getSSTables(Path workingDirectory, JvmLaunchCommand command, Version version)
+			throws IOException, InterruptedException {
+		Path rowsFile = Files.createTempFile("sstable-rows-", ".bin");
+		try {
+			MessageDigest digest = getDigest();
+			digest.update(version.toString().getBytes(StandardCharsets.UTF_8));
+			digest.update(this.schema.getBytes(StandardCharsets.UTF_8));
+			String identity = this.rows.getIdentity();
+			RowsFile written = null;
+			if (identity != null) {
+				digest.update(identity.getBytes(StandardCharsets.UTF_8));
+			}
+			else {
+				written = writeRows(rowsFile, digest);
+			}
+			Path directory = this.cacheDirectory.resolve(version + "-" + toHex(digest.digest()));
+			Path sstables = directory.resolve(this.keyspace).resolve(this.table);
+			if (Files.isDirectory(directory)) {
+				log.info("SSTables of '{}' are taken from the cache '{}'", this.tableName, directory);
+				return sstables;
+			}
+			Files.createDirectories(this.cacheDirectory);
+			try (FileLock fileLock = FileLock.of(this.cacheDirectory.resolve(directory.getFileName() + ".lock"))) {
+				if (!fileLock.tryLock(10, TimeUnit.MINUTES)) {
+					throw new IllegalStateException("File lock cannot be acquired for '" + directory + "'");
+				}
+				if (Files.isDirectory(directory)) {
+					return sstables;
+				}
+				if (written == null) {
+					written = writeRows(rowsFile, null);
+				}
+				Path tempDirectory = Files.createTempDirectory(this.cacheDirectory,
+						"." + directory.getFileName() + "-");
+				try {
+					Path output = Files.createDirectories(tempDirectory.resolve(this.keyspace).resolve(this.table));
+					Path schemaFile = Files.write(tempDirectory.resolve("schema.cql"),
+							this.schema.getBytes(StandardCharsets.UTF_8));
+					Path insertFile = Files.write(tempDirectory.resolve("insert.cql"),
+							getInsert(written.columns).getBytes(StandardCharsets.UTF_8));
+					long start = System.nanoTime();
+					CassandraTools.run(workingDirectory, command, Collections.singletonList(getCodeSource()),
+							SSTableWriterMain.class.getName(), Arrays.asList(output.toString(), schemaFile.toString(),
+									insertFile.toString(), rowsFile.toString()));
+					log.info("SSTables of '{}' ({} rows) have been written into '{}' in {} ms", this.tableName,
+							written.count, directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+					move(tempDirectory, directory);
+				}
+				finally {
+					FileUtils.delete(tempDirectory);
+				}
+			}
+			return sstables;
+		}
+		finally {
+			Files.deleteIfExists(rowsFile);
+		}
+	}
+
+	/**
+	 * Writes the rows into the given file, updating the digest (if any) with the columns and the rows.
+	 */
+	private RowsFile writeRows(Path rowsFile, @Nullable MessageDigest digest) throws IOException {
+		OutputStream os = new BufferedOutputStream(Files.newOutputStream(rowsFile), 65536);
+		if (digest != null) {
+			os = new DigestOutputStream(os, digest);
+		}
+		try (DataOutputStream dos = new DataOutputStream(os); SSTableRows source = this.rows.open()) {
+			List<String> columns = source.getColumns();
+			if (digest != null) {
+				digest.update(String.join(",", columns).getBytes(StandardCharsets.UTF_8));
+			}
+			long count = 0;
+			List<String> row;
+			while ((row = source.read()) != null) {
+				SSTableWriterMain.writeRow(dos, row);
+				count++;
+			}
+			SSTableWriterMain.writeRow(dos, null);
+			return new RowsFile(columns, count);
+		}
+	}
+
+	private String getInsert(List<String> columns) {
+		if (columns.isEmpty()) {
+			throw new IllegalArgumentException("Columns of '" + this.tableName + "' are not defined");
+		}
+		return String.format("INSERT INTO %s (%s) VALUES (%s)", this.tableName, String.join(", ", columns),
+				columns.stream().map(column -> "?").collect(Collectors.joining(", ")));
+	}
+
+	private Path getTableDirectory(Path storageDirectory) throws IOException {
+		Path keyspaceDirectory = storageDirectory.resolve("data").resolve(this.keyspace);
+		if (Files.isDirectory(keyspaceDirectory)) {
+			try (Stream<Path> stream = Files.list(keyspaceDirectory)) {
+				// a re-created table gets a new directory, the latest one is used
+				Optional<Path> directory = stream.filter(Files::isDirectory)
+						.filter(path -> path.getFileName().toString().startsWith(this.table + "-"))
+						.max(Comparator.comparing(SSTableDataSet::getLastModifiedTime));
+				if (directory.isPresent()) {
+					return directory.get();
+				}
+			}
+		}
+		throw new IllegalStateException(String.format("Directory of '%s' is not found in '%s'. Does the table exist?",
+				this.tableName, keyspaceDirectory));
+	}
+
+	/**
+	 * Copies SSTables into the table directory. SSTables are renamed to generations which are not used yet, so that
+	 * existing files are never overwritten ({@code nodetool refresh} loads all unknown SSTables of the directory).
+	 */
+	static void copy(Path source, Path tableDirectory) throws IOException {
+		long generation = getMaxGeneration(tableDirectory);
+		Map<Long, Long> generations = new TreeMap<>();
+		List<Path> files;
+		try (Stream<Path> stream = Files.list(source)) {
+			files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		for (Path file : files) {
+			Matcher matcher = SSTABLE_FILE.matcher(file.getFileName().toString());
+			if (matcher.matches()) {
+				generations.putIfAbsent(Long.parseLong(matcher.group(2)), 0L);
+			}
+		}
+		for (Map.Entry<Long, Long> entry : generations.entrySet()) {
+			entry.setValue(++generation);
+		}
+		for (Path file : files) {
+			Matcher matcher = SSTABLE_FILE.matcher(file.getFileName().toString());
+			if (matcher.matches()) {
+				long newGeneration = generations.get(Long.parseLong(matcher.group(2)));
+				String name = String.format("%s-%d-%s-%s", matcher.group(1), newGeneration, matcher.group(3),
+						matcher.group(4));
+				Files.copy(file, tableDirectory.resolve(name));
+			}
+		}
+	}
+
+	private static long getMaxGeneration(Path directory) throws IOException {
+		long generation = 0;
+		try (Stream<Path> stream = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) stream::iterator) {
+				Matcher matcher = SSTABLE_FILE.matcher(file.getFileName().toString());
+				if (matcher.matches()) {
+					generation = Math.max(generation, Long.parseLong(matcher.group(2)));
+				}
+			}
+		}
+		return generation;
+	}
+
+	private static long getLastModifiedTime(Path path) {
+		try {
+			return Files.getLastModifiedTime(path).toMillis();
+		}
+		catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	private static Path getCodeSource() {
+		CodeSource codeSource = SSTableWriterMain.class.getProtectionDomain().getCodeSource();
+		if (codeSource == null || codeSource.getLocation() == null) {
+			throw new IllegalStateException("Location of '" + SSTableWriterMain.class.getName() + "' is unknown");
+		}
+		try {
+			return Paths.get(codeSource.getLocation().toURI());
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static SSTableRows open(Resource resource, RowsFactory factory) throws IOException {
+		Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+		try {
+			return factory.create(reader);
+		}
+		catch (IOException | RuntimeException ex) {
+			reader.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the identity of the resource content without reading it: the URL with the size and the last modified
+	 * time of a file, or with the size and the CRC of a jar entry. Returns {@code null} for any other resource.
+	 */
+	@Nullable
+	static String getIdentity(Resource resource) {
+		try {
+			URL url = resource.toURL();
+			if ("file".equals(url.getProtocol())) {
+				BasicFileAttributes attributes = Files.readAttributes(Paths.get(url.toURI()),
+						BasicFileAttributes.class);
+				return url + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+			}
+			URLConnection connection = url.openConnection();
+			if (connection instanceof JarURLConnection) {
+				JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+				if (entry != null && entry.getCrc() != -1 && entry.getSize() != -1) {
+					return url + ":" + entry.getSize() + ":" + entry.getCrc();
+				}
+			}
+			return null;
+		}
+		catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException ex) {
+			return null;
+		}
+	}
+
+	static String toInternal(String identifier) {
+		if (identifier.startsWith("\"") && identifier.endsWith("\"") && identifier.length() > 1) {
+			return identifier.substring(1, identifier.length() - 1).replace("\"\"", "\"");
+		}
+		return identifier.toLowerCase(Locale.ENGLISH);
+	}
+
+	private static MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String toHex(byte[] hash) {
+		StringBuilder hex = new StringBuilder();
+		for (int i = 0; i < 8; i++) {
+			hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target);
+		}
+	}
+
+	private interface RowsSource {
+
+		SSTableRows open() throws IOException;
+
+		@Nullable
+		default String getIdentity() {
+			return null;
+		}
+
+	}
+
+	private interface RowsFactory {
+
+		SSTableRows create(Reader reader) throws IOException;
+
+	}
+
+	private static final class ResourceRowsSource implements RowsSource {
+
+		private final Resource resource;
+
+		private final String format;
+
+		private final RowsFactory factory;
+
+		ResourceRowsSource(Resource resource, String format, RowsFactory factory) {
+			this.resource = resource;
+			this.format = format;
+			this.factory = factory;
+		}
+
+		@Override
+		public SSTableRows open() throws IOException {
+			return SSTableDataSet.open(this.resource, this.factory);
+		}
+
+		@Override
+		@Nullable
+		public String getIdentity() {
+			String identity = SSTableDataSet.getIdentity(this.resource);
+			return (identity != null) ? this.format + ":" + identity : null;
+		}
+
+	}
+
+	private static final class RowsFile {
+
+		private final List<String> columns;
+
+		private final long count;
+
+		RowsFile(List<String> columns, long count) {
+			this.columns = columns;
+			this.count = count;
+		}
+
+	}
+
+}
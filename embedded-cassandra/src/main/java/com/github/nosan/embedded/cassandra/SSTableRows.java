@@ -0,0 +1,366 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.yaml.snakeyaml.Yaml;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Rows of a {@link SSTableDataSet}. Each value is converted to the text understood by {@link SSTableWriterMain}.
+ *
+ * @author Dmytro Nosan
+ */
+final class SSTableRows implements Closeable {
+
+	private final List<String> columns;
+
+	private final RowReader reader;
+
+	@Nullable
+	private final Closeable closeable;
+
+	private SSTableRows(List<String> columns, RowReader reader, @Nullable Closeable closeable) {
+		this.columns = Collections.unmodifiableList(columns);
+		this.reader = reader;
+		this.closeable = closeable;
+	}
+
+	/**
+	 * Creates rows from {@code CSV} (RFC 4180). The first record is a header with column names. An empty unquoted
+	 * field is {@code null}, whereas {@code ""} is an empty string.
+	 *
+	 * @param reader the CSV reader
+	 * @return the rows
+	 * @throws IOException if an I/O error occurs
+	 */
+	static SSTableRows ofCsv(Reader reader) throws IOException {
+		CsvReader csv = new CsvReader(reader);
+		List<String> header = csv.read();
+		if (header == null || header.isEmpty()) {
+			reader.close();
+			throw new IllegalArgumentException("CSV header is missing");
+		}
+		List<String> columns = new ArrayList<>();
+		for (String column : header) {
+			columns.add(Objects.requireNonNull(column, "CSV header must not contain empty columns").trim());
+		}
+		return new SSTableRows(columns, csv::read, reader);
+	}
+
+	/**
+	 * Creates rows from {@code JSON} lines, one object per line. Columns are the keys of the first object.
+	 *
+	 * @param reader the JSON lines reader
+	 * @return the rows
+	 * @throws IOException if an I/O error occurs
+	 */
+	static SSTableRows ofJsonLines(Reader reader) throws IOException {
+		BufferedReader lines = new BufferedReader(reader);
+		// JSON is a subset of YAML
+		Yaml yaml = new Yaml();
+		JsonLinesReader jsonLines = new JsonLinesReader(lines, yaml);
+		Map<String, Object> first = jsonLines.read();
+		if (first == null) {
+			return new SSTableRows(Collections.emptyList(), () -> null, lines);
+		}
+		List<String> columns = new ArrayList<>(first.keySet());
+		RowReader rows = new RowReader() {
+
+			@Nullable
+			private Map<String, Object> next = first;
+
+			@Override
+			@Nullable
+			public List<String> read() throws IOException {
+				Map<String, Object> object = (this.next != null) ? this.next : jsonLines.read();
+				this.next = null;
+				if (object == null) {
+					return null;
+				}
+				for (String key : object.keySet()) {
+					if (!columns.contains(key)) {
+						throw new IllegalArgumentException(String.format("Line '%d' contains unknown column '%s'. "
+										+ "Columns are defined by the first line: %s", jsonLines.getLineNumber(), key,
+								columns));
+					}
+				}
+				List<String> row = new ArrayList<>(columns.size());
+				for (String column : columns) {
+					Object value = object.get(column);
+					row.add((value != null) ? toText(value) : null);
+				}
+				return row;
+			}
+
+		};
+		return new SSTableRows(columns, rows, lines);
+	}
+
+	/**
+	 * Creates rows from Java objects.
+	 *
+	 * @param columns the column names
+	 * @param rows the rows, values are in the order of columns
+	 * @return the rows
+	 * @see #toText(Object)
+	 */
+	static SSTableRows of(List<String> columns, Iterable<? extends Object[]> rows) {
+		Iterator<? extends Object[]> iterator = rows.iterator();
+		return new SSTableRows(new ArrayList<>(columns), () -> {
+			if (!iterator.hasNext()) {
+				return null;
+			}
+			Object[] values = iterator.next();
+			List<String> row = new ArrayList<>(values.length);
+			for (Object value : values) {
+				row.add((value != null) ? toText(value) : null);
+			}
+			return row;
+		}, null);
+	}
+
+	/**
+	 * Converts the given value to text. Text values are used as is, timestamps are converted to milliseconds since
+	 * epoch, blobs to hex literals and collections to {@code CQL} collection literals. Other values are converted by
+	 * {@code toString()}.
+	 *
+	 * @param value the value
+	 * @return the text
+	 */
+	static String toText(Object value) {
+		if (value instanceof Date) {
+			return Long.toString(((Date) value).getTime());
+		}
+		if (value instanceof Instant) {
+			return Long.toString(((Instant) value).toEpochMilli());
+		}
+		if (value instanceof byte[]) {
+			return toHex(ByteBuffer.wrap((byte[]) value));
+		}
+		if (value instanceof ByteBuffer) {
+			return toHex((ByteBuffer) value);
+		}
+		if (value instanceof InetAddress) {
+			return ((InetAddress) value).getHostAddress();
+		}
+		if (value instanceof Map) {
+			StringJoiner joiner = new StringJoiner(", ", "{", "}");
+			((Map<?, ?>) value).forEach((key, element) -> joiner.add(toLiteral(key) + ": " + toLiteral(element)));
+			return joiner.toString();
+		}
+		if (value instanceof Collection) {
+			StringJoiner joiner = (value instanceof Set) ? new StringJoiner(", ", "{", "}")
+					: new StringJoiner(", ", "[", "]");
+			((Collection<?>) value).forEach(element -> joiner.add(toLiteral(element)));
+			return joiner.toString();
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Returns the column names.
+	 *
+	 * @return the columns
+	 */
+	List<String> getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * Reads the next row.
+	 *
+	 * @return the row values, or {@code null} if there are no more rows
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	List<String> read() throws IOException {
+		return this.reader.read();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closeable != null) {
+			this.closeable.close();
+		}
+	}
+
+	private static String toLiteral(@Nullable Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof Number || value instanceof Boolean || value instanceof UUID || value instanceof Date
+				|| value instanceof Instant || value instanceof byte[] || value instanceof ByteBuffer
+				|| value instanceof Map || value instanceof Collection) {
+			return toText(value);
+		}
+		return "'" + toText(value).replace("'", "''") + "'";
+	}
+
+	private static String toHex(ByteBuffer buffer) {
+		ByteBuffer bytes = buffer.duplicate();
+		StringBuilder hex = new StringBuilder(2 + bytes.remaining() * 2).append("0x");
+		while (bytes.hasRemaining()) {
+			byte b = bytes.get();
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private interface RowReader {
+
+		@Nullable
+		List<String> read() throws IOException;
+
+	}
+
+	private static final class JsonLinesReader {
+
+		private final BufferedReader reader;
+
+		private final Yaml yaml;
+
+		private long lineNumber;
+
+		JsonLinesReader(BufferedReader reader, Yaml yaml) {
+			this.reader = reader;
+			this.yaml = yaml;
+		}
+
+		@Nullable
+		Map<String, Object> read() throws IOException {
+			String line;
+			while ((line = this.reader.readLine()) != null) {
+				this.lineNumber++;
+				if (!line.trim().isEmpty()) {
+					Object object = this.yaml.load(line);
+					if (!(object instanceof Map)) {
+						throw new IllegalArgumentException(
+								String.format("Line '%d' is not a JSON object: %s", this.lineNumber, line));
+					}
+					Map<String, Object> result = new LinkedHashMap<>();
+					((Map<?, ?>) object).forEach((key, value) -> result.put(Objects.toString(key), value));
+					return result;
+				}
+			}
+			return null;
+		}
+
+		long getLineNumber() {
+			return this.lineNumber;
+		}
+
+	}
+
+	private static final class CsvReader {
+
+		private final Reader reader;
+
+		private final char[] buffer = new char[8192];
+
+		private int position;
+
+		private int limit;
+
+		CsvReader(Reader reader) {
+			this.reader = reader;
+		}
+
+		@Nullable
+		List<String> read() throws IOException {
+			int c = next();
+			while (c == '\r' || c == '\n') {
+				c = next();
+			}
+			if (c == -1) {
+				return null;
+			}
+			List<String> record = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			while (true) {
+				if (c == '"' && field.length() == 0 && !quoted) {
+					quoted = true;
+					c = readQuoted(field);
+					continue;
+				}
+				if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+					record.add((field.length() == 0 && !quoted) ? null : field.toString());
+					field.setLength(0);
+					quoted = false;
+					if (c != ',') {
+						return record;
+					}
+				}
+				else {
+					field.append((char) c);
+				}
+				c = next();
+			}
+		}
+
+		private int readQuoted(StringBuilder field) throws IOException {
+			while (true) {
+				int c = next();
+				if (c == -1) {
+					throw new IllegalArgumentException("CSV quoted field is not closed");
+				}
+				if (c == '"') {
+					c = next();
+					if (c != '"') {
+						return c;
+					}
+				}
+				field.append((char) c);
+			}
+		}
+
+		private int next() throws IOException {
+			if (this.position == this.limit) {
+				this.limit = this.reader.read(this.buffer);
+				this.position = 0;
+				if (this.limit <= 0) {
+					this.limit = 0;
+					return -1;
+				}
+			}
+			return this.buffer[this.position++];
+		}
+
+	}
+
+}
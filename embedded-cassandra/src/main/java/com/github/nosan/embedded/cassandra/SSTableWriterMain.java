@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Entry point of a separate JVM that writes SSTables with {@code CQLSSTableWriter} from the distribution's {@code lib}.
+ * Only JDK classes are used here, the writer is accessed reflectively, so this class works with any Cassandra
+ * version on the classpath.
+ * <p>
+ * Arguments: {@code <output directory> <schema file> <insert file> <rows file>}. Rows are encoded by {@link
+ * #writeRow(DataOutputStream, List)}. Each value is a {@code CQL} literal with or without quotes (e.g. {@code abc},
+ * {@code 42}, {@code 2020-01-01}, {@code [1, 2]}), and is converted with the codec of the corresponding column.
+ *
+ * @author Dmytro Nosan
+ */
+final class SSTableWriterMain {
+
+	private static final String WRITER_CLASS = "org.apache.cassandra.io.sstable.CQLSSTableWriter";
+
+	private static final int END_OF_ROWS = -1;
+
+	private SSTableWriterMain() {
+	}
+
+	public static void main(String[] args) {
+		// the writer leaves non-daemon threads behind, hence the explicit exit
+		try {
+			write(args);
+			System.exit(0);
+		}
+		catch (Throwable ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private static void write(String[] args) throws Exception {
+		if (args.length != 4) {
+			throw new IllegalArgumentException("Usage: <output directory> <schema file> <insert file> <rows file>");
+		}
+		File directory = new File(args[0]);
+		String schema = new String(Files.readAllBytes(Paths.get(args[1])), StandardCharsets.UTF_8);
+		String insert = new String(Files.readAllBytes(Paths.get(args[2])), StandardCharsets.UTF_8);
+		Class<?> writerClass = Class.forName(WRITER_CLASS);
+		Object builder = writerClass.getMethod("builder").invoke(null);
+		builder.getClass().getMethod("inDirectory", File.class).invoke(builder, directory);
+		builder.getClass().getMethod("forTable", String.class).invoke(builder, schema);
+		builder.getClass().getMethod("using", String.class).invoke(builder, insert);
+		Object writer = builder.getClass().getMethod("build").invoke(builder);
+		Method addRow = writerClass.getMethod("addRow", List.class);
+		long rows = 0;
+		try (DataInputStream is = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(Paths.get(args[3])), 65536))) {
+			Converter converter = new Converter(getCodecs(writerClass, writer));
+			List<String> row;
+			while ((row = readRow(is)) != null) {
+				addRow.invoke(writer, converter.convert(row));
+				rows++;
+			}
+		}
+		catch (InvocationTargetException ex) {
+			throw new IllegalStateException("Row " + (rows + 1) + " cannot be written", ex.getCause());
+		}
+		finally {
+			writerClass.getMethod("close").invoke(writer);
+		}
+		System.out.println(rows + " rows have been written into '" + directory + "'");
+	}
+
+	/**
+	 * Writes a row. A {@code null} row marks the end of rows.
+	 *
+	 * @param os the output stream
+	 * @param row the row values, or {@code null}
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void writeRow(DataOutputStream os, @Nullable List<String> row) throws IOException {
+		if (row == null) {
+			os.writeInt(END_OF_ROWS);
+			return;
+		}
+		os.writeInt(row.size());
+		for (String value : row) {
+			os.writeBoolean(value != null);
+			if (value != null) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				os.writeInt(bytes.length);
+				os.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Reads a row written by {@link #writeRow(DataOutputStream, List)}.
+	 *
+	 * @param is the input stream
+	 * @return the row values, or {@code null} if there are no more rows
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	static List<String> readRow(DataInputStream is) throws IOException {
+		int size = is.readInt();
+		if (size == END_OF_ROWS) {
+			return null;
+		}
+		List<String> row = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			if (is.readBoolean()) {
+				byte[] bytes = new byte[is.readInt()];
+				is.readFully(bytes);
+				row.add(new String(bytes, StandardCharsets.UTF_8));
+			}
+			else {
+				row.add(null);
+			}
+		}
+		return row;
+	}
+
+	private static List<?> getCodecs(Class<?> writerClass, Object writer) {
+		String message = "Column codecs of '" + WRITER_CLASS + "' cannot be read. Values cannot be converted without "
+				+ "them, this Cassandra version is not supported";
+		List<?> codecs;
+		try {
+			// codecs of the bound columns, in the order of the bind markers (Cassandra 3.0+)
+			Field field = writerClass.getDeclaredField("typeCodecs");
+			field.setAccessible(true);
+			codecs = (List<?>) field.get(writer);
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			throw new IllegalStateException(message, ex);
+		}
+		if (codecs == null) {
+			throw new IllegalStateException(message);
+		}
+		return codecs;
+	}
+
+	/**
+	 * Converts text values to Java objects using {@code TypeCodec.parse(String)} of each column. The parse method
+	 * expects a literal, that is, text values must be quoted while numbers must not. Both forms are tried, starting
+	 * with the one that worked last time for the column.
+	 */
+	private static final class Converter {
+
+		private final List<?> codecs;
+
+		private final Method[] parsers;
+
+		private final boolean[] quoted;
+
+		Converter(List<?> codecs) throws NoSuchMethodException {
+			this.codecs = codecs;
+			this.parsers = new Method[codecs.size()];
+			this.quoted = new boolean[codecs.size()];
+			for (int i = 0; i < codecs.size(); i++) {
+				Method parse = codecs.get(i).getClass().getMethod("parse", String.class);
+				parse.setAccessible(true);
+				this.parsers[i] = parse;
+				this.quoted[i] = true;
+			}
+		}
+
+		List<Object> convert(List<String> row) throws ReflectiveOperationException {
+			List<Object> values = new ArrayList<>(row.size());
+			for (int i = 0; i < row.size(); i++) {
+				String value = row.get(i);
+				if (value == null || i >= this.codecs.size()) {
+					values.add(value);
+				}
+				else {
+					values.add(convert(i, value));
+				}
+			}
+			return values;
+		}
+
+		private Object convert(int index, String value) throws ReflectiveOperationException {
+			boolean quoted = this.quoted[index];
+			try {
+				return parse(index, value, quoted);
+			}
+			catch (InvocationTargetException ex) {
+				try {
+					Object result = parse(index, value, !quoted);
+					this.quoted[index] = !quoted;
+					return result;
+				}
+				catch (InvocationTargetException swallow) {
+					ex.addSuppressed(swallow.getCause());
+					throw ex;
+				}
+			}
+		}
+
+		private Object parse(int index, String value, boolean quoted) throws ReflectiveOperationException {
+			String literal = quoted ? "'" + value.replace("'", "''") + "'" : value;
+			return this.parsers[index].invoke(this.codecs.get(index), literal);
+		}
+
+	}
+
+}
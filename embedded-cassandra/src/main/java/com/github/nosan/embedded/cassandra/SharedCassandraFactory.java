@@ -0,0 +1,662 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.FileLockInterruptionException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.StartupReport;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * {@link CassandraFactory} that shares a single {@link Cassandra} node between JVMs running on the same machine, e.g.
+ * forked test runners. The first JVM starts a node created by the delegate {@link CassandraFactory} and records its
+ * address, ports, pid and process start time in a lease file, whereas other JVMs attach to the already running node.
+ * The output of the node is redirected to the {@code output.log} file next to the lease, therefore the node does not
+ * depend on the JVM that has started it.
+ * <p>
+ * Every started {@link Cassandra} holds a reference to the node, and the last one to be {@link Cassandra#stop()
+ * stopped} stops the node, even if the node has been started by another JVM. References held by JVMs that have exited
+ * are released automatically.
+ * <p>
+ * The node is shared with all its keyspaces, hence every JVM should use {@link #getNamespace()} to isolate its own
+ * keyspaces.
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   public static void main(String[] args) {
+ *     EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+ *     cassandraFactory.setRegisterShutdownHook(false);
+ *     SharedCassandraFactory sharedCassandraFactory = new SharedCassandraFactory(cassandraFactory, "tests");
+ *     Cassandra cassandra = sharedCassandraFactory.create();
+ *     cassandra.start();
+ *     try {
+ *       String keyspace = sharedCassandraFactory.getNamespace() + "_test";
+ *       // ...
+ *     }
+ *     finally {
+ *       cassandra.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ * <p>
+ * The delegate {@link CassandraFactory} should not register a shutdown hook (see {@link
+ * EmbeddedCassandraFactory#setRegisterShutdownHook(boolean)}), otherwise the node is stopped as soon as the JVM that
+ * has started it exits. Only nodes created by {@link EmbeddedCassandraFactory} can be stopped by another JVM.
+ *
+ * @author Dmytro Nosan
+ * @see FileLock
+ * @since 3.1.0
+ */
+public final class SharedCassandraFactory implements CassandraFactory {
+
+	private static final Logger log = LoggerFactory.getLogger(SharedCassandraFactory.class);
+
+	private static final String JVM_ID = UUID.randomUUID().toString();
+
+	private static final String NAMESPACE = "fork_" + getProcessId();
+
+	private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+	private static final Map<Path, Cassandra> NODES = new ConcurrentHashMap<>();
+
+	private static final Set<Cassandra> STARTED = ConcurrentHashMap.newKeySet();
+
+	private static final AtomicBoolean SHUTDOWN_HOOK = new AtomicBoolean();
+
+	private static final AtomicLong NUMBER = new AtomicLong();
+
+	private static final String LEASE_FILE = "lease.properties";
+
+	private static final String LOCK_FILE = "lease.lock";
+
+	private static final String HOLDERS_DIRECTORY = "holders";
+
+	private static final String OUTPUT_FILE = "output.log";
+
+	private final CassandraFactory cassandraFactory;
+
+	private final String name;
+
+	private Path directory = Paths.get(System.getProperty("user.home"), ".embedded-cassandra", "shared");
+
+	private Duration timeout = Duration.ofMinutes(5);
+
+	/**
+	 * Constructs a new {@link SharedCassandraFactory}.
+	 *
+	 * @param cassandraFactory the factory used to create the shared {@link Cassandra} node
+	 * @param name the name of the shared node. JVMs that use the same name share the same node.
+	 */
+	public SharedCassandraFactory(CassandraFactory cassandraFactory, String name) {
+		Objects.requireNonNull(name, "'name' must not be null");
+		if (!name.matches("[A-Za-z0-9._-]+")) {
+			throw new IllegalArgumentException("'name' must contain only letters, digits, '.', '_' and '-'");
+		}
+		this.cassandraFactory = Objects.requireNonNull(cassandraFactory, "'cassandraFactory' must not be null");
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name of the shared node.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the directory where leases are stored.
+	 *
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Sets the directory where leases are stored. Defaults to {@code ~/.embedded-cassandra/shared}.
+	 *
+	 * @param directory the directory
+	 */
+	public void setDirectory(Path directory) {
+		this.directory = Objects.requireNonNull(directory, "'directory' must not be null");
+	}
+
+	/**
+	 * Returns how long to wait for a lease, while another JVM is starting or stopping the node.
+	 *
+	 * @return the timeout
+	 */
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Sets how long to wait for a lease, while another JVM is starting or stopping the node. Defaults to 5 minutes.
+	 *
+	 * @param timeout the timeout
+	 */
+	public void setTimeout(Duration timeout) {
+		Objects.requireNonNull(timeout, "'timeout' must not be null");
+		if (timeout.isNegative() || timeout.isZero()) {
+			throw new IllegalArgumentException("'timeout' must be positive");
+		}
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Returns the keyspace namespace of the current JVM, e.g. {@code fork_1234}. The namespace is unique among all JVMs
+	 * that share the node, and it is a valid keyspace name, hence it can be used as a keyspace prefix.
+	 *
+	 * @return the namespace
+	 */
+	public String getNamespace() {
+		return NAMESPACE;
+	}
+
+	/**
+	 * Creates a {@link Cassandra} which holds a reference to the shared node while it is started.
+	 *
+	 * @return a new {@link Cassandra}
+	 */
+	@Override
+	public Cassandra create() {
+		return new SharedCassandra(this.directory.resolve(this.name));
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", SharedCassandraFactory.class.getSimpleName() + "[", "]")
+				.add("cassandraFactory=" + this.cassandraFactory).add("name='" + this.name + "'")
+				.add("directory=" + this.directory).toString();
+	}
+
+	private static String getProcessId() {
+		String name = ManagementFactory.getRuntimeMXBean().getName();
+		int index = name.indexOf('@');
+		String pid = (index != -1) ? name.substring(0, index) : name;
+		return pid.matches("\\d+") ? pid : Long.toString(Math.abs(UUID.randomUUID().getMostSignificantBits()));
+	}
+
+	private static boolean isWindows() {
+		String name = System.getProperty("os.name");
+		if (name == null) {
+			throw new IllegalStateException("System Property 'os.name' is not defined");
+		}
+		return name.toLowerCase(Locale.ENGLISH).contains("windows");
+	}
+
+	private static void registerShutdownHook() {
+		if (SHUTDOWN_HOOK.compareAndSet(false, true)) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				for (Cassandra cassandra : new ArrayList<>(STARTED)) {
+					try {
+						cassandra.stop();
+					}
+					catch (Exception ex) {
+						log.error("Cassandra '" + cassandra + "' has not been released", ex);
+					}
+				}
+			}, "shared-cassandra-sh"));
+		}
+	}
+
+	/**
+	 * {@link Cassandra} which holds a reference to the shared node.
+	 */
+	private final class SharedCassandra implements Cassandra {
+
+		private final Path directory;
+
+		private final Path holderFile;
+
+		private final Object monitor;
+
+		@Nullable
+		private volatile Cassandra cassandra;
+
+		@Nullable
+		private volatile FileLock holder;
+
+		@Nullable
+		private volatile Properties lease;
+
+		@Nullable
+		private volatile StartupReport startupReport;
+
+		SharedCassandra(Path directory) {
+			this.directory = directory;
+			this.holderFile = directory.resolve(HOLDERS_DIRECTORY)
+					.resolve(JVM_ID + "-" + NUMBER.incrementAndGet() + ".lock");
+			this.monitor = MONITORS.computeIfAbsent(directory, path -> new Object());
+		}
+
+		@Override
+		public synchronized void start() throws CassandraException {
+			if (this.lease != null) {
+				return;
+			}
+			try {
+				synchronized (this.monitor) {
+					acquire();
+				}
+			}
+			catch (FileLockInterruptionException | InterruptedException ex) {
+				throw new CassandraInterruptedException("Cassandra lease interrupted", ex);
+			}
+			catch (CassandraException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new CassandraException("Unable to lease " + toString(), ex);
+			}
+			STARTED.add(this);
+			registerShutdownHook();
+		}
+
+		@Override
+		public synchronized void stop() throws CassandraException {
+			if (this.lease == null) {
+				return;
+			}
+			try {
+				synchronized (this.monitor) {
+					release();
+				}
+			}
+			catch (FileLockInterruptionException | InterruptedException ex) {
+				throw new CassandraInterruptedException("Cassandra release interrupted", ex);
+			}
+			catch (CassandraException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				throw new CassandraException("Unable to release " + toString(), ex);
+			}
+			finally {
+				this.lease = null;
+				this.startupReport = null;
+				STARTED.remove(this);
+			}
+		}
+
+		@Override
+		public String getName() {
+			return SharedCassandraFactory.this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			Properties lease = this.lease;
+			if (lease != null) {
+				return Version.of(lease.getProperty("version"));
+			}
+			return getCassandra().getVersion();
+		}
+
+		@Override
+		@Nullable
+		public InetAddress getAddress() {
+			Properties lease = this.lease;
+			return (lease != null) ? getAddress(lease) : null;
+		}
+
+		@Override
+		public int getPort() {
+			return getInt(this.lease, "port");
+		}
+
+		@Override
+		public int getSslPort() {
+			return getInt(this.lease, "ssl-port");
+		}
+
+		@Override
+		public int getRpcPort() {
+			return getInt(this.lease, "rpc-port");
+		}
+
+		@Override
+		@Nullable
+		public StartupReport getStartupReport() {
+			// only the JVM that started the node has measured its startup
+			return (this.lease != null) ? this.startupReport : null;
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", SharedCassandra.class.getSimpleName() + "[", "]")
+					.add("name='" + getName() + "'").add("directory=" + this.directory).toString();
+		}
+
+		private Cassandra getCassandra() {
+			Cassandra cassandra = this.cassandra;
+			if (cassandra == null) {
+				cassandra = SharedCassandraFactory.this.cassandraFactory.create();
+				this.cassandra = cassandra;
+			}
+			return cassandra;
+		}
+
+		private void acquire() throws IOException, InterruptedException {
+			Files.createDirectories(this.directory.resolve(HOLDERS_DIRECTORY));
+			try (FileLock fileLock = FileLock.of(this.directory.resolve(LOCK_FILE))) {
+				lock(fileLock);
+				Properties lease = readLease();
+				if (lease != null && !hasHolders()) {
+					log.warn("Shared Cassandra '{}' has no holders and will be replaced", this.directory);
+					terminate(lease);
+					lease = null;
+				}
+				if (lease == null) {
+					lease = startNode();
+				}
+				else {
+					log.info("Shared Cassandra '{}' is already running (pid='{}'), attaching to it", this.directory,
+							lease.getProperty("pid"));
+				}
+				FileLock holder = FileLock.of(this.holderFile);
+				if (!holder.tryLock(0, TimeUnit.MILLISECONDS)) {
+					holder.close();
+					throw new IllegalStateException("Holder '" + this.holderFile + "' cannot be locked");
+				}
+				this.holder = holder;
+				this.lease = lease;
+			}
+		}
+
+		private void release() throws IOException, InterruptedException {
+			try (FileLock fileLock = FileLock.of(this.directory.resolve(LOCK_FILE))) {
+				lock(fileLock);
+				FileLock holder = this.holder;
+				if (holder != null) {
+					holder.close();
+					this.holder = null;
+				}
+				Files.deleteIfExists(this.holderFile);
+				if (hasHolders()) {
+					log.info("Shared Cassandra '{}' is still in use, leaving it running", this.directory);
+					return;
+				}
+				Properties lease = readLease();
+				if (lease != null) {
+					terminate(lease);
+				}
+			}
+		}
+
+		private void lock(FileLock fileLock) throws IOException {
+			long timeout = SharedCassandraFactory.this.timeout.toMillis();
+			if (!fileLock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException(
+						"Lease '" + this.directory + "' has not been acquired within " + timeout + "ms");
+			}
+		}
+
+		private Properties startNode() throws IOException, InterruptedException {
+			Cassandra cassandra = getCassandra();
+			this.cassandra = null;
+			EmbeddedCassandraDatabase embeddedDatabase = getEmbeddedDatabase(cassandra);
+			if (embeddedDatabase != null) {
+				// a pipe would block the node as soon as the current JVM exits
+				embeddedDatabase.setOutputFile(this.directory.resolve(OUTPUT_FILE));
+			}
+			cassandra.start();
+			this.startupReport = cassandra.getStartupReport();
+			try {
+				Properties lease = new Properties();
+				lease.setProperty("name", cassandra.getName());
+				lease.setProperty("version", cassandra.getVersion().toString());
+				InetAddress address = cassandra.getAddress();
+				if (address != null) {
+					lease.setProperty("address", address.getHostAddress());
+				}
+				lease.setProperty("port", Integer.toString(cassandra.getPort()));
+				lease.setProperty("ssl-port", Integer.toString(cassandra.getSslPort()));
+				lease.setProperty("rpc-port", Integer.toString(cassandra.getRpcPort()));
+				if (embeddedDatabase != null) {
+					long pid = embeddedDatabase.getPid();
+					lease.setProperty("pid", Long.toString(pid));
+					String startTime = (pid > 0) ? getStartTime(pid) : null;
+					if (startTime != null) {
+						lease.setProperty("start-time", startTime);
+					}
+					lease.setProperty("working-directory", embeddedDatabase.getWorkingDirectory().toString());
+				}
+				writeLease(lease);
+				NODES.put(this.directory, cassandra);
+				log.info("Shared Cassandra '{}' has been started (pid='{}')", this.directory,
+						lease.getProperty("pid"));
+				return lease;
+			}
+			catch (IOException | InterruptedException | RuntimeException ex) {
+				try {
+					cassandra.stop();
+				}
+				catch (Exception swallow) {
+					ex.addSuppressed(swallow);
+				}
+				throw ex;
+			}
+		}
+
+		private void terminate(Properties lease) throws IOException, InterruptedException {
+			try {
+				Cassandra cassandra = NODES.remove(this.directory);
+				if (cassandra != null) {
+					cassandra.stop();
+				}
+				else {
+					long pid = getInt(lease, "pid");
+					if (pid > 0) {
+						// the pid could have been reused by another process, which must not be signalled
+						String startTime = lease.getProperty("start-time");
+						if (StringUtils.hasText(startTime) && startTime.equals(getStartTime(pid))) {
+							kill(pid);
+						}
+						else {
+							log.warn("Process '{}' is not the node of Shared Cassandra '{}' and has not been stopped",
+									pid, this.directory);
+						}
+					}
+					String workingDirectory = lease.getProperty("working-directory");
+					if (StringUtils.hasText(workingDirectory)) {
+						try {
+							FileUtils.delete(Paths.get(workingDirectory));
+						}
+						catch (IOException ex) {
+							log.error("Working Directory '" + workingDirectory + "' has not been deleted", ex);
+						}
+					}
+				}
+				log.info("Shared Cassandra '{}' has been stopped", this.directory);
+			}
+			finally {
+				Files.deleteIfExists(this.directory.resolve(LEASE_FILE));
+			}
+		}
+
+		private boolean hasHolders() throws IOException {
+			List<Path> deadHolders = new ArrayList<>();
+			boolean alive = false;
+			try (DirectoryStream<Path> holders = Files.newDirectoryStream(this.directory.resolve(HOLDERS_DIRECTORY))) {
+				for (Path holder : holders) {
+					// holders of the current JVM are never locked twice, the channel close would release them
+					if (holder.getFileName().toString().startsWith(JVM_ID) || isLocked(holder)) {
+						alive = true;
+					}
+					else {
+						deadHolders.add(holder);
+					}
+				}
+			}
+			for (Path holder : deadHolders) {
+				Files.deleteIfExists(holder);
+			}
+			return alive;
+		}
+
+		@Nullable
+		private Properties readLease() throws IOException {
+			Path leaseFile = this.directory.resolve(LEASE_FILE);
+			if (!Files.exists(leaseFile)) {
+				return null;
+			}
+			Properties lease = new Properties();
+			try (InputStream is = Files.newInputStream(leaseFile)) {
+				lease.load(is);
+			}
+			return lease;
+		}
+
+		private void writeLease(Properties lease) throws IOException {
+			Path tempFile = Files.createTempFile(this.directory, LEASE_FILE, "");
+			try {
+				try (OutputStream os = Files.newOutputStream(tempFile)) {
+					lease.store(os, "Shared Cassandra lease");
+				}
+				Path leaseFile = this.directory.resolve(LEASE_FILE);
+				try {
+					Files.move(tempFile, leaseFile, StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile, leaseFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+
+		private boolean isLocked(Path holder) throws IOException {
+			try (FileLock fileLock = FileLock.of(holder)) {
+				return !fileLock.tryLock(0, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		@Nullable
+		private EmbeddedCassandraDatabase getEmbeddedDatabase(Cassandra cassandra) {
+			if (cassandra instanceof EmbeddedCassandra) {
+				CassandraDatabase database = ((EmbeddedCassandra) cassandra).getDatabase();
+				if (database instanceof EmbeddedCassandraDatabase) {
+					return (EmbeddedCassandraDatabase) database;
+				}
+			}
+			return null;
+		}
+
+		@Nullable
+		private String getStartTime(long pid) throws InterruptedException {
+			RunProcess runProcess = isWindows()
+					? new RunProcess("powershell", "-NoProfile", "-Command",
+					"(Get-Process -Id " + pid + ").StartTime.Ticks")
+					: new RunProcess("ps", "-o", "lstart=", "-p", pid);
+			StringBuilder output = new StringBuilder();
+			try {
+				if (runProcess.run(output::append) != 0) {
+					return null;
+				}
+			}
+			catch (IOException ex) {
+				log.warn("Start time of process '" + pid + "' cannot be determined", ex);
+				return null;
+			}
+			String startTime = output.toString().trim();
+			return StringUtils.hasText(startTime) ? startTime : null;
+		}
+
+		private void kill(long pid) throws IOException, InterruptedException {
+			if (isWindows()) {
+				new RunProcess("taskkill", "/F", "/T", "/PID", pid).run(log::info);
+				return;
+			}
+			new RunProcess("kill", "-SIGINT", pid).run(log::info);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (new RunProcess("kill", "-0", pid).run(line -> {
+			}) == 0) {
+				if (System.nanoTime() > deadline) {
+					new RunProcess("kill", "-SIGKILL", pid).run(log::info);
+					return;
+				}
+				Thread.sleep(500);
+			}
+		}
+
+		@Nullable
+		private InetAddress getAddress(Properties lease) {
+			String address = lease.getProperty("address");
+			if (!StringUtils.hasText(address)) {
+				return null;
+			}
+			try {
+				return InetAddress.getByName(address);
+			}
+			catch (UnknownHostException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private int getInt(@Nullable Properties lease, String name) {
+			String value = (lease != null) ? lease.getProperty(name) : null;
+			return StringUtils.hasText(value) ? Integer.parseInt(value.trim()) : -1;
+		}
+
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.StartupReport;
+
+/**
+ * JFR event for a phase of a {@link StartupReport}. The project targets Java 8, which does not have {@code jdk.jfr},
+ * therefore the event is defined at runtime by {@code jdk.jfr.EventFactory} and accessed through reflection. Nothing
+ * is committed if {@code jdk.jfr} is not available.
+ *
+ * @author Dmytro Nosan
+ */
+final class StartupPhaseEvent {
+
+	/**
+	 * The name of the event.
+	 */
+	static final String NAME = "com.github.nosan.embedded.cassandra.StartupPhase";
+
+	private static final Logger log = LoggerFactory.getLogger(StartupPhaseEvent.class);
+
+	@Nullable
+	private static final StartupPhaseEvent INSTANCE = create();
+
+	private final Object factory;
+
+	private final Method newEvent;
+
+	private final Method isEnabled;
+
+	private final Method set;
+
+	private final Method commit;
+
+	private StartupPhaseEvent(Object factory, Class<?> eventClass) throws ReflectiveOperationException {
+		this.factory = factory;
+		this.newEvent = factory.getClass().getMethod("newEvent");
+		this.isEnabled = eventClass.getMethod("isEnabled");
+		this.set = eventClass.getMethod("set", int.class, Object.class);
+		this.commit = eventClass.getMethod("commit");
+	}
+
+	/**
+	 * Commits an event for each phase of the report, if the event is enabled.
+	 *
+	 * @param name the name of the Cassandra
+	 * @param report the report
+	 */
+	static void commit(String name, StartupReport report) {
+		StartupPhaseEvent startupPhaseEvent = INSTANCE;
+		if (startupPhaseEvent == null) {
+			return;
+		}
+		try {
+			for (Map.Entry<String, Duration> entry : report.getPhases().entrySet()) {
+				Object event = startupPhaseEvent.newEvent.invoke(startupPhaseEvent.factory);
+				if (!(boolean) startupPhaseEvent.isEnabled.invoke(event)) {
+					return;
+				}
+				startupPhaseEvent.set.invoke(event, 0, name);
+				startupPhaseEvent.set.invoke(event, 1, entry.getKey());
+				startupPhaseEvent.set.invoke(event, 2, entry.getValue().toNanos());
+				startupPhaseEvent.commit.invoke(event);
+			}
+		}
+		catch (ReflectiveOperationException | LinkageError ex) {
+			log.debug("JFR events cannot be committed", ex);
+		}
+	}
+
+	@Nullable
+	private static StartupPhaseEvent create() {
+		try {
+			ClassLoader classLoader = StartupPhaseEvent.class.getClassLoader();
+			Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", false, classLoader);
+			Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor", false, classLoader);
+			Constructor<?> annotation = annotationElementClass.getConstructor(Class.class, Object.class);
+			Constructor<?> field = valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+			List<Object> annotations = Arrays.asList(
+					annotation.newInstance(getAnnotation("Name", classLoader), NAME),
+					annotation.newInstance(getAnnotation("Label", classLoader), "Cassandra Startup Phase"),
+					annotation.newInstance(getAnnotation("Description", classLoader),
+							"Time spent on a phase of an Embedded Cassandra start"),
+					annotation.newInstance(getAnnotation("Category", classLoader),
+							new String[]{"Embedded Cassandra"}),
+					annotation.newInstance(getAnnotation("StackTrace", classLoader), false));
+			List<Object> fields = Arrays.asList(field.newInstance(String.class, "cassandra", Collections.singletonList(
+					annotation.newInstance(getAnnotation("Label", classLoader), "Cassandra"))),
+					field.newInstance(String.class, "phase", Collections.singletonList(
+							annotation.newInstance(getAnnotation("Label", classLoader), "Phase"))),
+					field.newInstance(long.class, "phaseDuration", Arrays.asList(
+							annotation.newInstance(getAnnotation("Label", classLoader), "Phase Duration"),
+							annotation.newInstance(getAnnotation("Timespan", classLoader), "NANOSECONDS"))));
+			Object factory = Class.forName("jdk.jfr.EventFactory", false, classLoader)
+					.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+			return new StartupPhaseEvent(factory, Class.forName("jdk.jfr.Event", false, classLoader));
+		}
+		catch (ClassNotFoundException ex) {
+			return null;
+		}
+		catch (ReflectiveOperationException | LinkageError ex) {
+			log.debug("JFR event '" + NAME + "' cannot be created", ex);
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> getAnnotation(String name, ClassLoader classLoader)
+			throws ClassNotFoundException {
+		return (Class<? extends Annotation>) Class.forName("jdk.jfr." + name, false, classLoader);
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * RAM-backed (tmpfs) storage for Cassandra's data, commit log, hints and saved caches.
+ *
+ * @author Dmytro Nosan
+ */
+final class TmpfsStorage {
+
+	/**
+	 * The minimum amount of free memory (and free space of the tmpfs) that is required to use the storage.
+	 */
+	static final long MIN_FREE_BYTES = 512L * 1024 * 1024;
+
+	private static final Logger log = LoggerFactory.getLogger(TmpfsStorage.class);
+
+	private static final Pattern MEM_AVAILABLE = Pattern.compile("^MemAvailable:\\s+(\\d+)\\s+kB\\s*$");
+
+	private final Path directory;
+
+	private final Version version;
+
+	private TmpfsStorage(Path directory, Version version) {
+		this.directory = directory;
+		this.version = version;
+	}
+
+	/**
+	 * Creates a new {@link TmpfsStorage} within the given tmpfs directory, if the directory is writable and there
+	 * is enough free memory.
+	 *
+	 * @param tmpfsDirectory the tmpfs directory (e.g. {@code /dev/shm})
+	 * @param version the Cassandra version
+	 * @return the storage, or {@code null} if Cassandra should use the disk instead
+	 */
+	@Nullable
+	static TmpfsStorage of(Path tmpfsDirectory, Version version) {
+		return of(tmpfsDirectory, version, getFreeMemory());
+	}
+
+	@Nullable
+	static TmpfsStorage of(Path tmpfsDirectory, Version version, long freeMemory) {
+		if (!Files.isDirectory(tmpfsDirectory) || !Files.isWritable(tmpfsDirectory)) {
+			log.warn("Tmpfs directory '{}' does not exist or is not writable. Data will be stored on disk",
+					tmpfsDirectory);
+			return null;
+		}
+		long usableSpace;
+		try {
+			usableSpace = Files.getFileStore(tmpfsDirectory).getUsableSpace();
+		}
+		catch (IOException ex) {
+			log.warn("Tmpfs directory '" + tmpfsDirectory + "' cannot be inspected. Data will be stored on disk", ex);
+			return null;
+		}
+		long available = Math.min(usableSpace, freeMemory);
+		if (available < MIN_FREE_BYTES) {
+			log.warn("Only {} MB of memory are available for '{}', at least {} MB are required. Data will be stored"
+					+ " on disk", available / 1024 / 1024, tmpfsDirectory, MIN_FREE_BYTES / 1024 / 1024);
+			return null;
+		}
+		return new TmpfsStorage(tmpfsDirectory.resolve("embedded-cassandra-" + UUID.randomUUID()), version);
+	}
+
+	/**
+	 * Returns the storage directory. It is laid out like {@code cassandra.storagedir} ({@code data}, {@code
+	 * commitlog}, ...).
+	 *
+	 * @return the directory
+	 */
+	Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Returns {@code cassandra.yaml} properties that point Cassandra to this storage.
+	 *
+	 * @return the properties
+	 */
+	Map<String, Object> getConfigProperties() {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("data_file_directories", Collections.singletonList(this.directory.resolve("data").toString()));
+		properties.put("commitlog_directory", this.directory.resolve("commitlog").toString());
+		properties.put("saved_caches_directory", this.directory.resolve("saved_caches").toString());
+		if (this.version.compareTo(Version.of("3.0")) >= 0) {
+			properties.put("hints_directory", this.directory.resolve("hints").toString());
+		}
+		if (this.version.compareTo(Version.of("3.8")) >= 0) {
+			properties.put("cdc_raw_directory", this.directory.resolve("cdc_raw").toString());
+		}
+		return properties;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[directory='%s']", getClass().getSimpleName(), this.directory);
+	}
+
+	private static long getFreeMemory() {
+		// 'MemAvailable' also counts reclaimable page cache, unlike the 'free' memory reported by the JVM. tmpfs is
+		// Linux-only, so if the file cannot be read only the free space of the tmpfs itself is checked
+		Path meminfo = Paths.get("/proc/meminfo");
+		if (Files.isReadable(meminfo)) {
+			try {
+				for (String line : Files.readAllLines(meminfo, StandardCharsets.UTF_8)) {
+					Matcher matcher = MEM_AVAILABLE.matcher(line);
+					if (matcher.matches()) {
+						return Long.parseLong(matcher.group(1)) * 1024;
+					}
+				}
+			}
+			catch (IOException ex) {
+				log.debug("'" + meminfo + "' cannot be read", ex);
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+}
@@ -48,7 +48,7 @@ class UnixCassandraNode extends AbstractCassandraNode {
 	}
 
 	@Override
-	Process doStart(RunProcess runProcess) throws IOException {
+	Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException {
 		Path executableFile = this.workingDirectory.resolve("bin/cassandra");
 		if (!Files.isExecutable(executableFile)) {
 			executableFile.toFile().setExecutable(true);
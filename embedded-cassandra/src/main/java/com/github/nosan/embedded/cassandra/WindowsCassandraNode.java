@@ -51,7 +51,7 @@ class WindowsCassandraNode extends AbstractCassandraNode {
 	}
 
 	@Override
-	Process doStart(RunProcess runProcess) throws IOException {
+	Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException {
 		Path workDir = this.workingDirectory;
 		Version version = this.version;
 		Path pidFile = Files.createTempFile(workDir, "", ".pid");
@@ -52,6 +52,12 @@ public final class ArchiveArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	@Nullable
+	private ArtifactCache cache;
+
+	@Nullable
+	private String checksum;
+
 	/**
 	 * Constructs a new {@link ArchiveArtifact} with the specified archive resource and Cassandra's version.
 	 *
@@ -114,8 +120,61 @@ public final class ArchiveArtifact implements Artifact {
 		this.destination = destination;
 	}
 
+	/**
+	 * Returns the {@link ArtifactCache} used to store an extracted archive file.
+	 *
+	 * @return the cache (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public ArtifactCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Sets the {@link ArtifactCache} used to store an extracted archive file. If set, an archive file is extracted
+	 * into the cache instead of the {@link #setDestination(Path) destination} directory. Falls back to the {@code
+	 * destination} directory if a read-only cache does not have an entry.
+	 *
+	 * @param cache the cache
+	 * @since 3.1.0
+	 */
+	public void setCache(@Nullable ArtifactCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the expected {@code SHA-512} checksum of an archive file.
+	 *
+	 * @return the checksum (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public String getChecksum() {
+		return this.checksum;
+	}
+
+	/**
+	 * Sets the expected {@code SHA-512} checksum of an archive file. An archive file is verified against this
+	 * checksum before extraction. If not set, the checksum is calculated (only if a {@link #setCache(ArtifactCache)
+	 * cache} is used).
+	 *
+	 * @param checksum the checksum (hex)
+	 * @since 3.1.0
+	 */
+	public void setChecksum(@Nullable String checksum) {
+		this.checksum = (checksum != null) ? Checksums.normalize(checksum) : null;
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
+		ArtifactCache cache = this.cache;
+		if (cache != null) {
+			Distribution distribution = getDistribution(cache);
+			if (distribution != null) {
+				return distribution;
+			}
+		}
 		Path destination = getRealDestination();
 
 		Artifact artifact = new DefaultArtifact(this.version, destination);
@@ -130,7 +189,10 @@ public final class ArchiveArtifact implements Artifact {
 				if (!Files.exists(destination.resolve(".extracted"))) {
 					log.info("Extracts '{}' into '{}' directory", this.archiveResource, destination);
 					ArchiveResource archiveResource = createArchiveResource();
-					archiveResource.extract(destination);
+					verify(archiveResource.getResource());
+					ArchiveResource.ExtractStatistics statistics = archiveResource.extract(destination,
+							Runtime.getRuntime().availableProcessors());
+					log.info("'{}' has been extracted: {}", this.archiveResource, statistics);
 					Distribution distribution = artifact.getDistribution();
 					FileUtils.createIfNotExists(destination.resolve(".extracted"));
 					return distribution;
@@ -141,6 +203,35 @@ public final class ArchiveArtifact implements Artifact {
 		return artifact.getDistribution();
 	}
 
+	@Nullable
+	private Distribution getDistribution(ArtifactCache cache) throws IOException {
+		ArchiveResource archiveResource = createArchiveResource();
+		String checksum = this.checksum;
+		if (checksum == null) {
+			checksum = Checksums.sha512(archiveResource.getResource());
+		}
+		Path entry = cache.get(checksum);
+		if (entry == null) {
+			if (cache.isReadOnly()) {
+				log.info("'{}' is not found in the read-only cache '{}'", this.archiveResource, cache.getDirectory());
+				return null;
+			}
+			entry = cache.put(checksum, archiveResource);
+		}
+		return new DefaultArtifact(this.version, entry).getDistribution();
+	}
+
+	private void verify(Resource resource) throws IOException {
+		String checksum = this.checksum;
+		if (checksum != null) {
+			String actual = Checksums.sha512(resource);
+			if (!actual.equals(checksum)) {
+				throw new IOException(String.format("SHA-512 checksum of '%s' is '%s', but expected '%s'", resource,
+						actual, checksum));
+			}
+		}
+	}
+
 	private ArchiveResource createArchiveResource() {
 		if (this.archiveResource instanceof ArchiveResource) {
 			return ((ArchiveResource) this.archiveResource);
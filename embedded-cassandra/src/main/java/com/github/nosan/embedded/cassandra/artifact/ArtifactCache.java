@@ -0,0 +1,549 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Content-addressed cache of extracted archive files. Entries are keyed by the {@code SHA-512} checksum of an archive
+ * file and an archive file is extracted into the cache only if its checksum matches the key. Every entry has
+ * metadata (size, creation and last access time):
+ * <pre>
+ * &lt;directory&gt;/&lt;sha512&gt;/             extracted archive file
+ * &lt;directory&gt;/&lt;sha512&gt;.properties   metadata
+ * </pre>
+ * An archive file is extracted into a temporary directory which is then moved into place, and metadata is written
+ * last, so a partially extracted entry is never visible. If {@link #setMaxSize(long) max size} is exceeded, least
+ * recently used entries are evicted. An entry is read, written and evicted under its own {@code sha512.lock} file
+ * lock, and entries accessed within {@link #setMinIdleTime(Duration) min idle time} are never evicted, so an entry
+ * which has just been returned by {@link #get(String)} is not deleted while it is being copied. The lock file of an
+ * evicted entry is deleted as well. An entry with corrupted metadata is deleted on the next access and is skipped by
+ * {@link #getEntries()}.
+ * <p>
+ * A {@link #setReadOnly(boolean) read-only} cache (e.g. shared between build agents) is only looked up, and is never
+ * modified.
+ *
+ * @author Dmytro Nosan
+ * @see RemoteArtifact#setCache(ArtifactCache)
+ * @see ArchiveArtifact#setCache(ArtifactCache)
+ * @since 3.1.0
+ */
+public final class ArtifactCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ArtifactCache.class);
+
+	private static final String METADATA = ".properties";
+
+	private static final String LOCK = ".lock";
+
+	private final Path directory;
+
+	private long maxSize = Long.MAX_VALUE;
+
+	private Duration minIdleTime = Duration.ofMinutes(10);
+
+	private boolean readOnly;
+
+	/**
+	 * Constructs a new {@link ArtifactCache} located in {@code user.home/.embedded-cassandra/artifact/cache}.
+	 */
+	public ArtifactCache() {
+		this(Optional.ofNullable(System.getProperty("user.home")).map(Paths::get)
+				.orElseThrow(() -> new IllegalStateException("System Property 'user.home' is not defined"))
+				.resolve(".embedded-cassandra/artifact/cache"));
+	}
+
+	/**
+	 * Constructs a new {@link ArtifactCache} located in the given directory.
+	 *
+	 * @param directory the cache directory
+	 */
+	public ArtifactCache(Path directory) {
+		this.directory = Objects.requireNonNull(directory, "'directory' must not be null");
+	}
+
+	/**
+	 * Returns the cache directory.
+	 *
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Returns the maximum size of all entries (in bytes). Defaults to {@link Long#MAX_VALUE}.
+	 *
+	 * @return the max size
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Sets the maximum size of all entries (in bytes). If exceeded, least recently used entries are evicted. The most
+	 * recently used entry is never evicted.
+	 *
+	 * @param maxSize the max size (must be positive)
+	 */
+	public void setMaxSize(long maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("'maxSize' must be positive");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the minimum time since the last access before an entry can be evicted. Defaults to {@code 10 minutes}.
+	 *
+	 * @return the min idle time
+	 */
+	public Duration getMinIdleTime() {
+		return this.minIdleTime;
+	}
+
+	/**
+	 * Sets the minimum time since the last access before an entry can be evicted. An entry is in use (e.g. copied
+	 * into a working directory) for some time after {@link #get(String)}, hence it must not be evicted immediately.
+	 *
+	 * @param minIdleTime the min idle time
+	 */
+	public void setMinIdleTime(Duration minIdleTime) {
+		Objects.requireNonNull(minIdleTime, "'minIdleTime' must not be null");
+		if (minIdleTime.isNegative()) {
+			throw new IllegalArgumentException("'minIdleTime' must not be negative");
+		}
+		this.minIdleTime = minIdleTime;
+	}
+
+	/**
+	 * Whether this cache is read-only. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if this cache is read-only
+	 */
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
+	/**
+	 * Sets whether this cache is read-only. A read-only cache is only looked up, neither entries nor metadata are
+	 * written.
+	 *
+	 * @param readOnly {@code true} if this cache is read-only
+	 */
+	public void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Returns the directory of the entry with the given checksum and updates its last access time.
+	 *
+	 * @param sha512 the {@code SHA-512} checksum of an archive file
+	 * @return the entry directory (or null if none)
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nullable
+	public Path get(String sha512) throws IOException {
+		String key = Checksums.normalize(sha512);
+		if (this.readOnly) {
+			return find(key);
+		}
+		if (!Files.isDirectory(this.directory)) {
+			return null;
+		}
+		try (FileLock fileLock = lock(key, 2, TimeUnit.MINUTES)) {
+			if (fileLock == null) {
+				throw new IllegalStateException(
+						"File lock cannot be acquired for a file '" + this.directory.resolve(key + LOCK) + "'");
+			}
+			return touch(key);
+		}
+	}
+
+	/**
+	 * Extracts the given archive file into this cache (if absent) and returns the directory of the entry.
+	 *
+	 * @param sha512 the expected {@code SHA-512} checksum of an archive file
+	 * @param archive the archive file (Can be {@link ArchiveResource})
+	 * @return the entry directory
+	 * @throws IOException if an I/O error occurs or the checksum of an archive file does not match
+	 */
+	public Path put(String sha512, Resource archive) throws IOException {
+		Objects.requireNonNull(archive, "'archive' must not be null");
+		String key = Checksums.normalize(sha512);
+		if (this.readOnly) {
+			throw new IllegalStateException("Cache '" + this.directory + "' is read-only");
+		}
+		Files.createDirectories(this.directory);
+		try (FileLock fileLock = lock(key, 2, TimeUnit.MINUTES)) {
+			if (fileLock == null) {
+				throw new IllegalStateException(
+						"File lock cannot be acquired for a file '" + this.directory.resolve(key + LOCK) + "'");
+			}
+			Path entry = touch(key);
+			if (entry != null) {
+				return entry;
+			}
+			ArchiveResource archiveResource = (archive instanceof ArchiveResource) ? (ArchiveResource) archive
+					: new ArchiveResource(archive);
+			String checksum = Checksums.sha512(archiveResource.getResource());
+			if (!checksum.equals(key)) {
+				throw new IOException(String.format("SHA-512 checksum of '%s' is '%s', but expected '%s'", archive,
+						checksum, key));
+			}
+			entry = this.directory.resolve(key);
+			FileUtils.delete(entry);
+			Path tempDirectory = Files.createTempDirectory(this.directory, "." + key.substring(0, 16) + "-");
+			try {
+				ArchiveResource.ExtractStatistics statistics = archiveResource.extract(tempDirectory,
+						Runtime.getRuntime().availableProcessors());
+				log.info("'{}' has been extracted into the cache '{}': {}", archive, this.directory, statistics);
+				move(tempDirectory, entry);
+			}
+			finally {
+				FileUtils.delete(tempDirectory);
+			}
+			long now = System.currentTimeMillis();
+			Properties metadata = new Properties();
+			metadata.setProperty("sha512", key);
+			metadata.setProperty("size", String.valueOf(size(entry)));
+			metadata.setProperty("created", String.valueOf(now));
+			metadata.setProperty("last-access", String.valueOf(now));
+			writeMetadata(this.directory.resolve(key + METADATA), metadata);
+		}
+		evict();
+		return this.directory.resolve(key);
+	}
+
+	/**
+	 * Returns all entries of this cache, least recently used first.
+	 *
+	 * @return the entries
+	 * @throws IOException if an I/O error occurs
+	 */
+	public List<Entry> getEntries() throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		if (!Files.isDirectory(this.directory)) {
+			return entries;
+		}
+		try (Stream<Path> stream = Files.list(this.directory)) {
+			for (Path metadataFile : (Iterable<Path>) stream::iterator) {
+				String name = metadataFile.getFileName().toString();
+				if (!name.endsWith(METADATA)) {
+					continue;
+				}
+				Path entry = this.directory.resolve(name.substring(0, name.length() - METADATA.length()));
+				if (!Files.isDirectory(entry)) {
+					continue;
+				}
+				Properties metadata = readMetadata(metadataFile);
+				if (metadata == null) {
+					log.warn("Metadata '{}' is corrupted, the entry is skipped", metadataFile);
+					continue;
+				}
+				entries.add(new Entry(metadata.getProperty("sha512", entry.getFileName().toString()), entry,
+						Long.parseLong(metadata.getProperty("size", "0")),
+						Instant.ofEpochMilli(Long.parseLong(metadata.getProperty("created", "0"))),
+						Instant.ofEpochMilli(Long.parseLong(metadata.getProperty("last-access", "0")))));
+			}
+		}
+		entries.sort(Comparator.comparing(Entry::getLastAccess));
+		return entries;
+	}
+
+	/**
+	 * Evicts least recently used entries until the total size of all entries does not exceed {@link #getMaxSize()
+	 * max size}. Entries which are locked or have been accessed within {@link #getMinIdleTime() min idle time} are
+	 * skipped. Does nothing if this cache is read-only.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void evict() throws IOException {
+		if (this.readOnly || this.maxSize == Long.MAX_VALUE || !Files.isDirectory(this.directory)) {
+			return;
+		}
+		List<Entry> entries = getEntries();
+		long size = entries.stream().mapToLong(Entry::getSize).sum();
+		for (int i = 0; i < entries.size() - 1 && size > this.maxSize; i++) {
+			Entry entry = entries.get(i);
+			if (evict(entry)) {
+				size -= entry.getSize();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", ArtifactCache.class.getSimpleName() + "[", "]")
+				.add("directory=" + this.directory)
+				.add("maxSize=" + this.maxSize)
+				.add("minIdleTime=" + this.minIdleTime)
+				.add("readOnly=" + this.readOnly)
+				.toString();
+	}
+
+	@Nullable
+	private Path find(String key) {
+		Path entry = this.directory.resolve(key);
+		Path metadataFile = this.directory.resolve(key + METADATA);
+		if (!Files.isDirectory(entry) || !Files.isRegularFile(metadataFile)) {
+			return null;
+		}
+		return entry;
+	}
+
+	@Nullable
+	private Path touch(String key) throws IOException {
+		Path entry = find(key);
+		if (entry != null) {
+			Path metadataFile = this.directory.resolve(key + METADATA);
+			Properties metadata = readMetadata(metadataFile);
+			if (metadata == null) {
+				log.warn("Metadata '{}' is corrupted, the entry '{}' is deleted", metadataFile, entry);
+				Files.deleteIfExists(metadataFile);
+				FileUtils.delete(entry);
+				return null;
+			}
+			metadata.setProperty("last-access", String.valueOf(System.currentTimeMillis()));
+			writeMetadata(metadataFile, metadata);
+		}
+		return entry;
+	}
+
+	private boolean evict(Entry entry) throws IOException {
+		String key = entry.getSha512();
+		try (FileLock fileLock = lock(key, 0, TimeUnit.MILLISECONDS)) {
+			if (fileLock == null) {
+				log.debug("'{}' is locked and cannot be evicted from the cache '{}'", entry.getDirectory(),
+						this.directory);
+				return false;
+			}
+			Path metadataFile = this.directory.resolve(key + METADATA);
+			if (!Files.isRegularFile(metadataFile)) {
+				return false;
+			}
+			Properties metadata = readMetadata(metadataFile);
+			long lastAccess = (metadata != null) ? Long.parseLong(metadata.getProperty("last-access", "0")) : 0;
+			if (System.currentTimeMillis() - lastAccess < this.minIdleTime.toMillis()) {
+				log.debug("'{}' has been used recently and cannot be evicted from the cache '{}'",
+						entry.getDirectory(), this.directory);
+				return false;
+			}
+			log.info("Evicts '{}' from the cache '{}'", entry.getDirectory(), this.directory);
+			Files.deleteIfExists(metadataFile);
+			FileUtils.delete(entry.getDirectory());
+			// whoever is waiting for the deleted lock file has to lock a new one
+			fileLock.getChannel().write(ByteBuffer.wrap(new byte[]{1}));
+			Files.deleteIfExists(this.directory.resolve(key + LOCK));
+			return true;
+		}
+	}
+
+	@Nullable
+	private FileLock lock(String key, long timeout, TimeUnit timeUnit) throws IOException {
+		Path lockFile = this.directory.resolve(key + LOCK);
+		while (true) {
+			FileLock fileLock = FileLock.of(lockFile);
+			try {
+				if (!fileLock.tryLock(timeout, timeUnit)) {
+					fileLock.close();
+					return null;
+				}
+				// a lock file marked by evict(Entry) has been deleted, whereas a new one could have been created
+				if (fileLock.getChannel().size() == 0) {
+					return fileLock;
+				}
+				if (Files.exists(lockFile) && Files.size(lockFile) > 0) {
+					// the evicting process has exited before the lock file was deleted
+					Files.delete(lockFile);
+				}
+				fileLock.close();
+			}
+			catch (IOException | RuntimeException ex) {
+				try {
+					fileLock.close();
+				}
+				catch (IOException swallow) {
+					ex.addSuppressed(swallow);
+				}
+				throw ex;
+			}
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target);
+		}
+	}
+
+	private static long size(Path directory) throws IOException {
+		long size = 0;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) stream::iterator) {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				if (attributes.isRegularFile()) {
+					size += attributes.size();
+				}
+			}
+		}
+		return size;
+	}
+
+	@Nullable
+	private static Properties readMetadata(Path file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file)) {
+			properties.load(is);
+			for (String name : new String[]{"size", "created", "last-access"}) {
+				if (Long.parseLong(properties.getProperty(name, "0")) < 0) {
+					return null;
+				}
+			}
+		}
+		catch (IllegalArgumentException ex) {
+			// NumberFormatException or a malformed Unicode escape
+			return null;
+		}
+		return properties;
+	}
+
+	private static void writeMetadata(Path file, Properties metadata) throws IOException {
+		Path tempFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+		try {
+			try (OutputStream os = Files.newOutputStream(tempFile)) {
+				metadata.store(os, null);
+			}
+			move(tempFile, file);
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Cache entry.
+	 */
+	public static final class Entry {
+
+		private final String sha512;
+
+		private final Path directory;
+
+		private final long size;
+
+		private final Instant created;
+
+		private final Instant lastAccess;
+
+		Entry(String sha512, Path directory, long size, Instant created, Instant lastAccess) {
+			this.sha512 = sha512;
+			this.directory = directory;
+			this.size = size;
+			this.created = created;
+			this.lastAccess = lastAccess;
+		}
+
+		/**
+		 * Returns the {@code SHA-512} checksum of an archive file.
+		 *
+		 * @return the checksum
+		 */
+		public String getSha512() {
+			return this.sha512;
+		}
+
+		/**
+		 * Returns the directory of this entry.
+		 *
+		 * @return the directory
+		 */
+		public Path getDirectory() {
+			return this.directory;
+		}
+
+		/**
+		 * Returns the size of this entry (in bytes).
+		 *
+		 * @return the size
+		 */
+		public long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Returns the creation time of this entry.
+		 *
+		 * @return the creation time
+		 */
+		public Instant getCreated() {
+			return this.created;
+		}
+
+		/**
+		 * Returns the last access time of this entry.
+		 *
+		 * @return the last access time
+		 */
+		public Instant getLastAccess() {
+			return this.lastAccess;
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", Entry.class.getSimpleName() + "[", "]")
+					.add("sha512='" + this.sha512 + "'")
+					.add("size=" + this.size)
+					.add("lastAccess=" + this.lastAccess)
+					.toString();
+		}
+
+	}
+
+}
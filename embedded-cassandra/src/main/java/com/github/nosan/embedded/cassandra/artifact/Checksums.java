@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+/**
+ * Utility methods for {@code SHA-512} checksums.
+ *
+ * @author Dmytro Nosan
+ */
+final class Checksums {
+
+	private static final int SHA512_LENGTH = 128;
+
+	private Checksums() {
+	}
+
+	/**
+	 * Calculates the {@code SHA-512} checksum of the given resource.
+	 *
+	 * @param resource the resource
+	 * @return the checksum (lower case hex)
+	 * @throws IOException if an I/O error occurs
+	 */
+	static String sha512(Resource resource) throws IOException {
+		MessageDigest digest = createDigest();
+		try (InputStream is = resource.getInputStream()) {
+			byte[] buffer = new byte[65536];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return toHex(digest);
+	}
+
+	/**
+	 * Creates a new {@code SHA-512} {@link MessageDigest}.
+	 *
+	 * @return the digest
+	 */
+	static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-512");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Completes the given digest and returns the checksum.
+	 *
+	 * @param digest the {@code SHA-512} digest
+	 * @return the checksum (lower case hex)
+	 */
+	static String toHex(MessageDigest digest) {
+		StringBuilder hex = new StringBuilder(SHA512_LENGTH);
+		for (byte b : digest.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Validates and normalizes the given {@code SHA-512} checksum.
+	 *
+	 * @param checksum the checksum
+	 * @return the checksum (lower case hex)
+	 */
+	static String normalize(String checksum) {
+		Objects.requireNonNull(checksum, "'checksum' must not be null");
+		String hex = checksum.trim().toLowerCase(Locale.ENGLISH);
+		if (hex.length() != SHA512_LENGTH || !hex.chars().allMatch(c -> Character.digit(c, 16) != -1)) {
+			throw new IllegalArgumentException("'" + checksum + "' is not a valid SHA-512 checksum");
+		}
+		return hex;
+	}
+
+	/**
+	 * Parses the content of the {@code .sha512} file. Supports {@code <hex>}, {@code <hex> <file>} and {@code <file>:
+	 * <HEX HEX ...>} (multi-line) formats.
+	 *
+	 * @param content the content of the {@code .sha512} file
+	 * @return the checksum (lower case hex)
+	 */
+	static String parse(String content) {
+		String text = content.trim();
+		int colon = text.indexOf(':');
+		if (colon != -1 && colon < text.length() - SHA512_LENGTH) {
+			text = text.substring(colon + 1);
+		}
+		StringBuilder hex = new StringBuilder(SHA512_LENGTH);
+		for (int i = 0; i < text.length() && hex.length() < SHA512_LENGTH; i++) {
+			char c = text.charAt(i);
+			if (Character.digit(c, 16) != -1) {
+				hex.append(c);
+			}
+			else if (!Character.isWhitespace(c)) {
+				break;
+			}
+		}
+		return normalize(hex.toString());
+	}
+
+}
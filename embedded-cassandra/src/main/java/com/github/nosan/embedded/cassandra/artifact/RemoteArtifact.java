@@ -16,6 +16,8 @@
 
 package com.github.nosan.embedded.cassandra.artifact;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -23,16 +25,37 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,6 +94,16 @@ public final class RemoteArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	private boolean streaming;
+
+	private int connections = 1;
+
+	@Nullable
+	private ArtifactCache cache;
+
+	@Nullable
+	private String checksum;
+
 	/**
 	 * Constructs a new {@link RemoteArtifact} with the specified version.
 	 *
@@ -202,8 +235,112 @@ public final class RemoteArtifact implements Artifact {
 		this.connectTimeout = Objects.requireNonNull(connectTimeout, "'connectTimeout' must not be null");
 	}
 
+	/**
+	 * Whether an archive file should be extracted while it is being downloaded, without a temporary file. Defaults
+	 * to {@code false}.
+	 *
+	 * @return {@code true} if an archive file is extracted while it is being downloaded
+	 * @since 3.1.0
+	 */
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	/**
+	 * Sets whether an archive file should be extracted while it is being downloaded, without a temporary file. Network
+	 * and disk I/O overlap and the archive file is never written to the disk.
+	 *
+	 * @param streaming {@code true} if an archive file should be extracted while it is being downloaded
+	 * @since 3.1.0
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Returns the number of concurrent connections used to download an archive file. Defaults to {@code 1}.
+	 *
+	 * @return the number of connections
+	 * @since 3.1.0
+	 */
+	public int getConnections() {
+		return this.connections;
+	}
+
+	/**
+	 * Sets the number of concurrent connections used to download an archive file. If more than one, an archive file
+	 * is split into chunks which are fetched concurrently via HTTP Range requests from all URLs (mirrors) that
+	 * support them and serve the same file (the same length and strong {@code ETag} or {@code Last-Modified}) as the
+	 * first one. A partially downloaded archive file is resumed by the next attempt, even across JVM runs.
+	 * Falls back to a single connection if none of the URLs support HTTP Range requests. Ignored in the {@link
+	 * #setStreaming(boolean) streaming} mode.
+	 *
+	 * @param connections the number of connections (must be positive)
+	 * @since 3.1.0
+	 */
+	public void setConnections(int connections) {
+		if (connections <= 0) {
+			throw new IllegalArgumentException("'connections' must be positive");
+		}
+		this.connections = connections;
+	}
+
+	/**
+	 * Returns the {@link ArtifactCache} used to store an extracted archive file.
+	 *
+	 * @return the cache (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public ArtifactCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Sets the {@link ArtifactCache} used to store an extracted archive file. If set, an archive file is verified
+	 * against the {@link #setChecksum(String) checksum} (or the {@code .sha512} file next to the archive file) and
+	 * extracted into the cache instead of the {@link #setDestination(Path) destination} directory. Falls back to the
+	 * {@code destination} directory if a read-only cache does not have an entry.
+	 *
+	 * @param cache the cache
+	 * @since 3.1.0
+	 */
+	public void setCache(@Nullable ArtifactCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the expected {@code SHA-512} checksum of an archive file.
+	 *
+	 * @return the checksum (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public String getChecksum() {
+		return this.checksum;
+	}
+
+	/**
+	 * Sets the expected {@code SHA-512} checksum of an archive file. A downloaded archive file is verified against
+	 * this checksum before extraction. In the {@link #setStreaming(boolean) streaming} mode the checksum is calculated
+	 * while the archive is being extracted, and the extracted files are deleted if it does not match.
+	 *
+	 * @param checksum the checksum (hex)
+	 * @since 3.1.0
+	 */
+	public void setChecksum(@Nullable String checksum) {
+		this.checksum = (checksum != null) ? Checksums.normalize(checksum) : null;
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
+		ArtifactCache cache = this.cache;
+		if (cache != null) {
+			Distribution distribution = getDistribution(cache);
+			if (distribution != null) {
+				return distribution;
+			}
+		}
 		Path destination = getRealDestination();
 		Artifact artifact = new DefaultArtifact(this.version, destination);
 		if (!Files.exists(destination.resolve(".extracted"))) {
@@ -216,10 +353,28 @@ public final class RemoteArtifact implements Artifact {
 				}
 				log.info("The lock to the file '{}' was acquired", lockFile);
 				if (!Files.exists(destination.resolve(".extracted"))) {
-					Resource resource = download();
-					log.info("Extracts '{}' into '{}' directory", resource, destination);
-					ArchiveResource archiveResource = new ArchiveResource(resource);
-					archiveResource.extract(destination);
+					if (isStreaming()) {
+						log.info("Downloads and extracts Apache Cassandra '{}' into '{}' directory", this.version,
+								destination);
+						ArchiveResource.ExtractStatistics statistics = download((downloader, url,
+								listener) -> downloader.extract(url, destination, this.checksum, listener));
+						log.info("Apache Cassandra '{}' has been extracted: {}", this.version, statistics);
+					}
+					else {
+						Path file = (getConnections() > 1) ? downloadRanges(destination) : null;
+						Resource resource = (file != null) ? new FileSystemResource(file)
+								: download(FileDownloader::download);
+						verify(resource);
+						log.info("Extracts '{}' into '{}' directory", resource, destination);
+						ArchiveResource archiveResource = new ArchiveResource(resource);
+						ArchiveResource.ExtractStatistics statistics = archiveResource.extract(destination,
+								Runtime.getRuntime().availableProcessors());
+						log.info("'{}' has been extracted: {}", resource, statistics);
+						if (file != null) {
+							Files.deleteIfExists(file);
+							Files.deleteIfExists(RangeDownloader.getProgressFile(file));
+						}
+					}
 					Distribution distribution = artifact.getDistribution();
 					FileUtils.createIfNotExists(destination.resolve(".extracted"));
 					return distribution;
@@ -229,6 +384,54 @@ public final class RemoteArtifact implements Artifact {
 		return artifact.getDistribution();
 	}
 
+	@Nullable
+	private Distribution getDistribution(ArtifactCache cache) throws IOException {
+		String checksum = (this.checksum != null) ? this.checksum : downloadChecksum();
+		Path entry = cache.get(checksum);
+		if (entry == null) {
+			if (cache.isReadOnly()) {
+				log.info("Apache Cassandra '{}' is not found in the read-only cache '{}'", this.version,
+						cache.getDirectory());
+				return null;
+			}
+			Resource resource = download(FileDownloader::download);
+			entry = cache.put(checksum, resource);
+		}
+		return new DefaultArtifact(this.version, entry).getDistribution();
+	}
+
+	private void verify(Resource resource) throws IOException {
+		String checksum = this.checksum;
+		if (checksum != null) {
+			String actual = Checksums.sha512(resource);
+			if (!actual.equals(checksum)) {
+				throw new IOException(String.format("SHA-512 checksum of '%s' is '%s', but expected '%s'", resource,
+						actual, checksum));
+			}
+		}
+	}
+
+	private String downloadChecksum() throws IOException {
+		List<Exception> exceptions = new ArrayList<>();
+		List<URL> urls = this.urlFactory.create(this.version);
+		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy);
+		for (URL url : urls) {
+			try {
+				byte[] content = downloader.getBytes(new URL(url.toString() + ".sha512"));
+				return Checksums.parse(new String(content, StandardCharsets.UTF_8));
+			}
+			catch (ClosedByInterruptException ex) {
+				throw ex;
+			}
+			catch (Exception ex) {
+				exceptions.add(ex);
+			}
+		}
+		IOException ex = new IOException("SHA-512 checksum of Apache Cassandra cannot be downloaded from " + urls);
+		exceptions.forEach(ex::addSuppressed);
+		throw ex;
+	}
+
 	private Path getRealDestination() {
 		Path destination = this.destination;
 		if (destination == null) {
@@ -240,13 +443,13 @@ public final class RemoteArtifact implements Artifact {
 		return destination.resolve(".embedded-cassandra/artifact/remote/" + this.version);
 	}
 
-	private Resource download() throws IOException {
+	private <T> T download(DownloadCallback<T> callback) throws IOException {
 		List<Exception> exceptions = new ArrayList<>();
 		List<URL> urls = this.urlFactory.create(this.version);
 		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy);
 		for (URL url : urls) {
 			try {
-				return downloader.download(url, new DefaultProgressListener(url, this.version));
+				return callback.download(downloader, url, new DefaultProgressListener(url, this.version));
 			}
 			catch (ClosedByInterruptException ex) {
 				throw ex;
@@ -260,6 +463,29 @@ public final class RemoteArtifact implements Artifact {
 		throw ex;
 	}
 
+	@Nullable
+	private Path downloadRanges(Path destination) throws IOException {
+		List<URL> urls = this.urlFactory.create(this.version);
+		if (urls.isEmpty()) {
+			return null;
+		}
+		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy);
+		RangeDownloader rangeDownloader = new RangeDownloader(downloader, this.connections);
+		Path file = rangeDownloader.download(urls, destination,
+				new DefaultProgressListener(urls.get(0), this.version));
+		if (file == null) {
+			log.info("HTTP Range requests are not supported by {}. A single connection is used", urls);
+		}
+		return file;
+	}
+
+	@FunctionalInterface
+	private interface DownloadCallback<T> {
+
+		T download(FileDownloader downloader, URL url, ProgressListener progressListener) throws IOException;
+
+	}
+
 	private interface ProgressListener {
 
 		void start();
@@ -346,11 +572,150 @@ public final class RemoteArtifact implements Artifact {
 			}
 		}
 
+		ArchiveResource.ExtractStatistics extract(URL url, Path destination, @Nullable String checksum,
+				ProgressListener progressListener) throws IOException {
+			String fileName = getFileName(url);
+			URLConnection connection = connect(url);
+			try (InputStream is = connection.getInputStream()) {
+				long totalSize = connection.getContentLengthLong();
+				progressListener.start();
+				DigestInputStream digestInputStream = new DigestInputStream(is, Checksums.createDigest());
+				// the archive is not necessarily read up to the end, hence the stream is drained after extraction
+				InputStream archive = new FilterInputStream(digestInputStream) {
+
+					@Override
+					public void close() {
+						// the connection is closed once the checksum is verified
+					}
+
+				};
+				ArchiveResource archiveResource = new ArchiveResource(new StreamResource(url, fileName,
+						new ProgressInputStream(archive, totalSize, progressListener)));
+				ArchiveResource.ExtractStatistics statistics = archiveResource.extract(destination,
+						Runtime.getRuntime().availableProcessors());
+				if (Thread.interrupted()) {
+					throw new ClosedByInterruptException();
+				}
+				if (checksum != null) {
+					byte[] buffer = new byte[8192];
+					while (digestInputStream.read(buffer) != -1) {
+						// drains the stream to calculate the checksum of the whole archive
+					}
+					String actual = Checksums.toHex(digestInputStream.getMessageDigest());
+					if (!actual.equals(checksum)) {
+						deleteExtracted(destination);
+						throw new IOException(String.format("SHA-512 checksum of '%s' is '%s', but expected '%s'",
+								url, actual, checksum));
+					}
+				}
+				progressListener.finish();
+				return statistics;
+			}
+		}
+
+		private static void deleteExtracted(Path destination) throws IOException {
+			try (Stream<Path> files = Files.list(destination)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					// the lock file is held by the caller
+					if (!file.getFileName().toString().equals(".lock")) {
+						FileUtils.delete(file);
+					}
+				}
+			}
+		}
+
+		byte[] getBytes(URL url) throws IOException {
+			URLConnection connection = connect(url);
+			try (InputStream is = connection.getInputStream()) {
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = is.read(buffer)) != -1) {
+					os.write(buffer, 0, read);
+				}
+				return os.toByteArray();
+			}
+		}
+
+		/**
+		 * Returns the length and the validator ({@code ETag} or {@code Last-Modified}) of the file if the given URL
+		 * supports HTTP Range requests.
+		 *
+		 * @param url the url
+		 * @return the remote file, or {@code null} if HTTP Range requests are not supported
+		 * @throws IOException if an I/O error occurs
+		 */
+		@Nullable
+		RemoteFile getRemoteFile(URL url) throws IOException {
+			URLConnection connection = connect(url, "bytes=0-0", null);
+			try (InputStream is = connection.getInputStream()) {
+				if (!isPartialContent(connection)) {
+					return null;
+				}
+				String contentRange = connection.getHeaderField("Content-Range");
+				int index = (contentRange != null) ? contentRange.lastIndexOf('/') : -1;
+				if (index == -1 || contentRange.endsWith("*")) {
+					return null;
+				}
+				long length = Long.parseLong(contentRange.substring(index + 1).trim());
+				String etag = connection.getHeaderField("ETag");
+				String lastModified = connection.getHeaderField("Last-Modified");
+				return new RemoteFile(url, length, StringUtils.hasText(etag) ? etag : null,
+						StringUtils.hasText(lastModified) ? lastModified : null);
+			}
+		}
+
+		/**
+		 * Downloads the given range ({@code [start, end]}) and writes it into the channel at the same position. The
+		 * range is requested only if the file still matches the validator ({@code If-Range}).
+		 *
+		 * @param file the remote file
+		 * @param start the first byte position
+		 * @param end the last byte position
+		 * @param channel the target channel
+		 * @throws IOException if an I/O error occurs
+		 */
+		void downloadRange(RemoteFile file, long start, long end, FileChannel channel) throws IOException {
+			URL url = file.url;
+			URLConnection connection = connect(url, "bytes=" + start + "-" + end, file.validator);
+			try (InputStream is = connection.getInputStream()) {
+				if (!isPartialContent(connection)) {
+					throw new IOException("HTTP Range requests are not supported by URL '" + url
+							+ "' or the file has been changed");
+				}
+				byte[] buffer = new byte[65536];
+				long position = start;
+				int read;
+				while ((read = is.read(buffer)) != -1) {
+					if (position + read > end + 1) {
+						throw new IOException("Range '" + start + "-" + end + "' of URL '" + url + "' is too long");
+					}
+					ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+					while (byteBuffer.hasRemaining()) {
+						position += channel.write(byteBuffer, position);
+					}
+				}
+				if (position != end + 1) {
+					throw new IOException("Range '" + start + "-" + end + "' of URL '" + url + "' is incomplete");
+				}
+			}
+		}
+
 		private URLConnection connect(URL url) throws IOException {
+			return connect(url, null, null);
+		}
+
+		private URLConnection connect(URL url, @Nullable String range, @Nullable String ifRange) throws IOException {
 			int maxRedirects = 10;
 			URL target = url;
 			for (; ; ) {
 				URLConnection connection = connect(target, this.readTimeout, this.connectTimeout, this.proxy);
+				if (range != null) {
+					connection.setRequestProperty("Range", range);
+				}
+				if (ifRange != null) {
+					connection.setRequestProperty("If-Range", ifRange);
+				}
 				if (connection instanceof HttpURLConnection) {
 					HttpURLConnection httpConnection = (HttpURLConnection) connection;
 					httpConnection.setInstanceFollowRedirects(false);
@@ -367,7 +732,8 @@ public final class RemoteArtifact implements Artifact {
 							continue;
 						}
 					}
-					if (status == HttpURLConnection.HTTP_OK) {
+					if (status == HttpURLConnection.HTTP_OK
+							|| (range != null && status == HttpURLConnection.HTTP_PARTIAL)) {
 						return connection;
 					}
 					throw new IOException("HTTP Status '" + status + "' is invalid for URL '" + url + "'");
@@ -377,6 +743,11 @@ public final class RemoteArtifact implements Artifact {
 
 		}
 
+		private static boolean isPartialContent(URLConnection connection) throws IOException {
+			return connection instanceof HttpURLConnection
+					&& ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_PARTIAL;
+		}
+
 		private static URLConnection connect(URL url, Duration readTimeout, Duration connectTimeout, Proxy proxy)
 				throws IOException {
 			URLConnection connection = url.openConnection(proxy);
@@ -386,14 +757,379 @@ public final class RemoteArtifact implements Artifact {
 		}
 
 		private static Path createTempFile(URL url) throws IOException {
+			Path tempFile = Files.createTempFile("", "-" + getFileName(url));
+			tempFile.toFile().deleteOnExit();
+			return tempFile;
+		}
+
+		static String getFileName(URL url) {
 			String fileName = new UrlResource(url).getFileName();
 			if (!StringUtils.hasText(fileName)) {
 				throw new IllegalArgumentException(
 						String.format("There is no way to determine a file name from a '%s'", url));
 			}
-			Path tempFile = Files.createTempFile("", "-" + fileName);
-			tempFile.toFile().deleteOnExit();
-			return tempFile;
+			return fileName;
+		}
+
+	}
+
+	/**
+	 * Downloads an archive file in chunks via HTTP Range requests. Chunks are fetched concurrently from all URLs
+	 * (mirrors) that support HTTP Range requests and serve the same file as the first one, i.e. the same length and
+	 * either the same strong {@code ETag} or the same {@code Last-Modified}. Chunks are written into a preallocated
+	 * file. Completed chunks are recorded
+	 * into a sidecar {@code .progress} file together with the validator ({@code ETag} or {@code Last-Modified}) of the
+	 * remote file, so that an interrupted download can be resumed as long as the remote file is unchanged.
+	 */
+	private static final class RangeDownloader {
+
+		private static final long CHUNK_SIZE = 2 * 1024 * 1024;
+
+		private static final AtomicLong THREAD_NUMBER = new AtomicLong();
+
+		private final FileDownloader downloader;
+
+		private final int connections;
+
+		RangeDownloader(FileDownloader downloader, int connections) {
+			this.downloader = downloader;
+			this.connections = connections;
+		}
+
+		static Path getProgressFile(Path file) {
+			return file.resolveSibling(file.getFileName() + ".progress");
+		}
+
+		@Nullable
+		Path download(List<URL> urls, Path directory, ProgressListener progressListener) throws IOException {
+			List<RemoteFile> mirrors = new ArrayList<>();
+			for (URL url : urls) {
+				try {
+					RemoteFile remoteFile = this.downloader.getRemoteFile(url);
+					if (remoteFile == null || remoteFile.length <= 0) {
+						continue;
+					}
+					if (mirrors.isEmpty() || remoteFile.isSameAs(mirrors.get(0))) {
+						mirrors.add(remoteFile);
+					}
+					else {
+						log.debug("URL '{}' is not used as a mirror of '{}', the file cannot be proven to be the same",
+								url, mirrors.get(0).url);
+					}
+				}
+				catch (ClosedByInterruptException ex) {
+					throw ex;
+				}
+				catch (Exception ex) {
+					log.debug("HTTP Range requests cannot be used for URL '{}'", url, ex);
+				}
+			}
+			if (mirrors.isEmpty()) {
+				return null;
+			}
+			RemoteFile remoteFile = mirrors.get(0);
+			long length = remoteFile.length;
+			Path file = directory.resolve(FileDownloader.getFileName(remoteFile.url));
+			Path progressFile = getProgressFile(file);
+			int chunks = Math.toIntExact((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+			Set<Integer> completed = ConcurrentHashMap.newKeySet();
+			if (Files.exists(file)) {
+				completed.addAll(readProgress(progressFile, remoteFile));
+			}
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				if (channel.size() != length || completed.isEmpty()) {
+					completed.clear();
+					Files.deleteIfExists(progressFile);
+					channel.truncate(0);
+					channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+				}
+				Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+				for (int chunk = 0; chunk < chunks; chunk++) {
+					if (!completed.contains(chunk)) {
+						pending.add(chunk);
+					}
+				}
+				AtomicLong readBytes = new AtomicLong(getSize(completed, length));
+				progressListener.start();
+				if (!completed.isEmpty()) {
+					log.info("Resumes downloading '{}' ({} of {} chunks are already downloaded)", file,
+							completed.size(), chunks);
+				}
+				int threads = Math.min(this.connections, Math.max(pending.size(), 1));
+				ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+					Thread thread = new Thread(runnable, "cassandra-download-" + THREAD_NUMBER.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+				try {
+					List<Future<?>> futures = new ArrayList<>();
+					long total = length;
+					for (int i = 0; i < threads; i++) {
+						futures.add(executor.submit(() -> {
+							Integer chunk;
+							while ((chunk = pending.poll()) != null) {
+								long start = chunk * CHUNK_SIZE;
+								long end = Math.min(start + CHUNK_SIZE, total) - 1;
+								downloadChunk(mirrors, chunk, start, end, channel);
+								channel.force(false);
+								completed.add(chunk);
+								writeProgress(progressFile, remoteFile, completed);
+								long current = readBytes.addAndGet(end - start + 1);
+								synchronized (progressListener) {
+									progressListener.update(current, total);
+								}
+							}
+							return null;
+						}));
+					}
+					for (Future<?> future : futures) {
+						get(future);
+					}
+				}
+				finally {
+					executor.shutdownNow();
+				}
+			}
+			progressListener.finish();
+			return file;
+		}
+
+		private void downloadChunk(List<RemoteFile> mirrors, int offset, long start, long end, FileChannel channel)
+				throws IOException {
+			IOException exception = null;
+			for (int attempt = 0; attempt <= mirrors.size(); attempt++) {
+				RemoteFile mirror = mirrors.get((offset + attempt) % mirrors.size());
+				try {
+					this.downloader.downloadRange(mirror, start, end, channel);
+					return;
+				}
+				catch (ClosedByInterruptException ex) {
+					throw ex;
+				}
+				catch (IOException ex) {
+					if (exception == null) {
+						exception = ex;
+					}
+					else {
+						exception.addSuppressed(ex);
+					}
+				}
+			}
+			throw exception;
+		}
+
+		private static long getSize(Set<Integer> chunks, long length) {
+			long size = 0;
+			for (int chunk : chunks) {
+				size += Math.min((chunk + 1) * CHUNK_SIZE, length) - chunk * CHUNK_SIZE;
+			}
+			return size;
+		}
+
+		private static Set<Integer> readProgress(Path progressFile, RemoteFile remoteFile) {
+			if (remoteFile.validator == null || !Files.exists(progressFile)) {
+				return Collections.emptySet();
+			}
+			Properties properties = new Properties();
+			try (InputStream is = Files.newInputStream(progressFile)) {
+				properties.load(is);
+			}
+			catch (IOException ex) {
+				log.debug("Progress file '{}' cannot be read", progressFile, ex);
+				return Collections.emptySet();
+			}
+			if (!String.valueOf(remoteFile.length).equals(properties.getProperty("length"))
+					|| !String.valueOf(CHUNK_SIZE).equals(properties.getProperty("chunk-size"))
+					|| !remoteFile.validator.equals(properties.getProperty("validator"))) {
+				log.info("Progress file '{}' does not match '{}'. The file is downloaded from the beginning",
+						progressFile, remoteFile.url);
+				return Collections.emptySet();
+			}
+			Set<Integer> chunks = new LinkedHashSet<>();
+			for (String chunk : properties.getProperty("chunks", "").split(",")) {
+				if (StringUtils.hasText(chunk)) {
+					int index;
+					try {
+						index = Integer.parseInt(chunk.trim());
+					}
+					catch (NumberFormatException ex) {
+						index = -1;
+					}
+					if (index < 0 || index * CHUNK_SIZE >= remoteFile.length) {
+						log.info("Progress file '{}' is corrupted. The file is downloaded from the beginning",
+								progressFile);
+						return Collections.emptySet();
+					}
+					chunks.add(index);
+				}
+			}
+			return chunks;
+		}
+
+		private static synchronized void writeProgress(Path progressFile, RemoteFile remoteFile, Set<Integer> chunks)
+				throws IOException {
+			Properties properties = new Properties();
+			properties.setProperty("length", String.valueOf(remoteFile.length));
+			properties.setProperty("chunk-size", String.valueOf(CHUNK_SIZE));
+			if (remoteFile.validator != null) {
+				properties.setProperty("validator", remoteFile.validator);
+			}
+			StringJoiner joiner = new StringJoiner(",");
+			new TreeSet<>(chunks).forEach(chunk -> joiner.add(String.valueOf(chunk)));
+			properties.setProperty("chunks", joiner.toString());
+			Path tempFile = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+			try (OutputStream os = Files.newOutputStream(tempFile)) {
+				properties.store(os, null);
+			}
+			Files.move(tempFile, progressFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		private static void get(Future<?> future) throws IOException {
+			try {
+				future.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ClosedByInterruptException();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+
+	}
+
+	/**
+	 * A file which can be downloaded via HTTP Range requests.
+	 */
+	private static final class RemoteFile {
+
+		private final URL url;
+
+		private final long length;
+
+		@Nullable
+		private final String etag;
+
+		@Nullable
+		private final String lastModified;
+
+		@Nullable
+		private final String validator;
+
+		RemoteFile(URL url, long length, @Nullable String etag, @Nullable String lastModified) {
+			this.url = url;
+			this.length = length;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.validator = (etag != null) ? etag : lastModified;
+		}
+
+		/**
+		 * Whether this file is the same as the given one. Weak {@code ETag}s are not comparable across servers.
+		 *
+		 * @param other the other file
+		 * @return {@code true} if both files have the same length and a matching strong {@code ETag} or {@code
+		 * Last-Modified}
+		 */
+		boolean isSameAs(RemoteFile other) {
+			if (this.length != other.length) {
+				return false;
+			}
+			if (this.etag != null && !this.etag.startsWith("W/") && this.etag.equals(other.etag)) {
+				return true;
+			}
+			return this.lastModified != null && this.lastModified.equals(other.lastModified);
+		}
+
+	}
+
+	private static final class ProgressInputStream extends FilterInputStream {
+
+		private final long totalSize;
+
+		private final ProgressListener progressListener;
+
+		private long readBytes;
+
+		ProgressInputStream(InputStream in, long totalSize, ProgressListener progressListener) {
+			super(in);
+			this.totalSize = totalSize;
+			this.progressListener = progressListener;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				update(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				update(read);
+			}
+			return read;
+		}
+
+		private void update(int read) {
+			this.readBytes += read;
+			if (this.totalSize > 0) {
+				this.progressListener.update(this.readBytes, this.totalSize);
+			}
+		}
+
+	}
+
+	/**
+	 * {@link Resource} which {@link #getInputStream() input stream} can be read only once.
+	 */
+	private static final class StreamResource implements Resource {
+
+		private final URL url;
+
+		private final String fileName;
+
+		private final InputStream inputStream;
+
+		StreamResource(URL url, String fileName, InputStream inputStream) {
+			this.url = url;
+			this.fileName = fileName;
+			this.inputStream = inputStream;
+		}
+
+		@Override
+		public String getFileName() {
+			return this.fileName;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public URL toURL() {
+			return this.url;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return this.inputStream;
+		}
+
+		@Override
+		public String toString() {
+			return this.url.toString();
 		}
 
 	}
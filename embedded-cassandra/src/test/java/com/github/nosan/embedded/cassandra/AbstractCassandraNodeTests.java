@@ -16,12 +16,15 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -31,6 +34,8 @@ import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.io.TempDir;
 import org.yaml.snakeyaml.Yaml;
 
@@ -121,6 +126,36 @@ class AbstractCassandraNodeTests {
 		start(process -> assertThat(process.getEnvironment()).containsEntry("KEY", "VALUE"));
 	}
 
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void followOutputFile() throws Exception {
+		Path outputFile = this.workingDirectory.resolve("output.log");
+		AbstractCassandraNode node = new AbstractCassandraNode(this.workingDirectory, this.properties, this.jvmOptions,
+				this.systemProperties, this.environmentVariables) {
+
+			@Override
+			Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException {
+				runProcess.setArguments("bash", "-c", "echo first; sleep 1; echo second");
+				return runProcess.start();
+			}
+
+			@Override
+			void doStop(Process process, long pid) {
+				process.destroy();
+			}
+
+		};
+		node.setOutputFile(outputFile);
+		node.start();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(node.getInputStream(), StandardCharsets.UTF_8))) {
+			assertThat(reader.lines()).containsExactly("first", "second");
+		}
+		assertThat(node.isAlive()).isFalse();
+		assertThat(Files.readAllLines(outputFile)).containsExactly("first", "second");
+		node.stop();
+	}
+
 	private void start(RunProcessConsumer consumer) throws IOException, InterruptedException {
 		MockProcess mockProcess = new MockProcess();
 		AbstractCassandraNode node = new AbstractCassandraNode(this.workingDirectory, this.properties, this.jvmOptions,
@@ -128,7 +163,7 @@ class AbstractCassandraNodeTests {
 				this.environmentVariables) {
 
 			@Override
-			protected Process doStart(RunProcess runProcess) throws IOException {
+			protected Process doStart(RunProcess runProcess, List<String> jvmOptions) throws IOException {
 				consumer.accept(runProcess);
 				return mockProcess;
 			}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassDataSharing}.
+ *
+ * @author Dmytro Nosan
+ */
+class ClassDataSharingTests {
+
+	@Test
+	void generateAndUseArchive(@TempDir Path temporaryFolder) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("apache-cassandra-4.0-beta1"));
+		Path javaHome = createJavaHome(temporaryFolder, "13.0.2");
+		ClassDataSharing classDataSharing = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(classDataSharing).isNotNull();
+		assertThat(classDataSharing.isDumping()).isTrue();
+		assertThat(classDataSharing.getArchive().getParent())
+				.isEqualTo(temporaryFolder.resolve("apache-cassandra-4.0-beta1-cds"));
+		assertThat(classDataSharing.getJvmOptions()).hasSize(2).contains("-Xlog:cds")
+				.anyMatch(option -> option.startsWith("-XX:ArchiveClassesAtExit="));
+		Path dump = temporaryFolder.resolve(classDataSharing.getJvmOptions().get(0).split("=", 2)[1]);
+		Files.write(dump, new byte[]{1, 2, 3});
+		classDataSharing.started(Duration.ofSeconds(10));
+		classDataSharing.stopped();
+		assertThat(dump).doesNotExist();
+		assertThat(classDataSharing.getArchive()).hasBinaryContent(new byte[]{1, 2, 3});
+		ClassDataSharing next = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(next).isNotNull();
+		assertThat(next.isDumping()).isFalse();
+		assertThat(next.getJvmOptions()).containsExactly("-Xshare:auto",
+				"-XX:SharedArchiveFile=" + classDataSharing.getArchive(), "-Xlog:cds");
+		next.accept("[0.003s][info][cds] Opened archive " + classDataSharing.getArchive() + ".");
+		next.accept("[0.012s][info][cds] Mapped dynamic region #0 at base 0x00007f3490bc6000");
+		next.started(Duration.ofSeconds(5));
+		next.stopped();
+		assertThat(next.isRejected()).isFalse();
+		assertThat(classDataSharing.getArchive()).exists();
+	}
+
+	@Test
+	void rejectedArchive(@TempDir Path temporaryFolder) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		Path javaHome = createJavaHome(temporaryFolder, "17");
+		ClassDataSharing classDataSharing = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(classDataSharing).isNotNull();
+		Files.write(classDataSharing.getArchive(), new byte[]{1, 2, 3});
+		ClassDataSharing next = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(next).isNotNull();
+		next.accept("[0.012s][info][cds] UseSharedSpaces: shared class paths mismatch");
+		next.accept("[0.012s][warning][cds,dynamic] Unable to use shared archive.");
+		assertThat(next.isRejected()).isTrue();
+		next.started(Duration.ofSeconds(10));
+		next.stopped();
+		assertThat(next.getArchive()).doesNotExist();
+		ClassDataSharing regenerate = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(regenerate).isNotNull();
+		assertThat(regenerate.isDumping()).isTrue();
+	}
+
+	@Test
+	void archiveNotDumped(@TempDir Path temporaryFolder) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		ClassDataSharing classDataSharing = ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "17"),
+				Collections.emptyList());
+		assertThat(classDataSharing).isNotNull();
+		classDataSharing.accept("[0.329s][error][cds] Error: non-empty directory 'conf'");
+		assertThat(classDataSharing.isRejected()).isFalse();
+		classDataSharing.stopped();
+		assertThat(classDataSharing.getArchive()).doesNotExist();
+	}
+
+	@Test
+	void unsupportedJdk(@TempDir Path temporaryFolder) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		assertThat(ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "1.8.0_242"),
+				Collections.emptyList())).isNull();
+		assertThat(ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "9.0.4"),
+				Collections.emptyList())).isNull();
+		assertThat(ClassDataSharing.of(directory, temporaryFolder.resolve("unknown"), Collections.emptyList()))
+				.isNull();
+	}
+
+	@Test
+	void staticArchiveOptions(@TempDir Path temporaryFolder) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		ClassDataSharing jdk11 = ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "11.0.6"),
+				Collections.emptyList());
+		assertThat(jdk11).isNotNull();
+		assertThat(jdk11.isDumping()).isTrue();
+		assertThat(jdk11.getJvmOptions()).hasSize(2).contains("-Xlog:cds")
+				.anyMatch(option -> option.startsWith("-XX:DumpLoadedClassList="));
+		ClassDataSharing jdk10 = ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "10.0.2"),
+				Collections.emptyList());
+		assertThat(jdk10).isNotNull();
+		assertThat(jdk10.getJvmOptions()).hasSize(3).startsWith("-XX:+UseAppCDS");
+		Files.write(jdk10.getArchive(), new byte[]{1, 2, 3});
+		ClassDataSharing share = ClassDataSharing.of(directory, createJavaHome(temporaryFolder, "10.0.2"),
+				Collections.emptyList());
+		assertThat(share).isNotNull();
+		assertThat(share.getJvmOptions()).containsExactly("-XX:+UseAppCDS", "-Xshare:auto",
+				"-XX:SharedArchiveFile=" + jdk10.getArchive(), "-Xlog:cds");
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void dumpAndMapStaticArchive(@TempDir Path temporaryFolder) throws Exception {
+		// static archives are used up to JDK 12, the current JDK dumps them as well
+		Path javaHome = createJavaHome(temporaryFolder, "11.0.6");
+		Files.createSymbolicLink(Files.createDirectories(javaHome.resolve("bin")).resolve("java"),
+				Paths.get(System.getProperty("java.home"), "bin", "java"));
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		Path jar = createJar(directory.resolve("main.jar"));
+		ClassDataSharing dump = ClassDataSharing.of(directory, javaHome, Collections.singletonList(jar));
+		assertThat(dump).isNotNull();
+		assertThat(dump.isDumping()).isTrue();
+		run(javaHome, dump, jar, temporaryFolder.resolve("work-1"));
+		dump.stopped();
+		assertThat(dump.getArchive()).exists();
+		assertThat(Files.list(dump.getArchive().getParent()))
+				.noneMatch(file -> file.getFileName().toString().endsWith(".classlist"));
+		ClassDataSharing share = ClassDataSharing.of(directory, javaHome, Collections.singletonList(jar));
+		assertThat(share).isNotNull();
+		assertThat(share.isDumping()).isFalse();
+		run(javaHome, share, jar, temporaryFolder.resolve("work-2"));
+		assertThat(share.isRejected()).isFalse();
+		ClassDataSharing mismatch = ClassDataSharing.of(directory, javaHome, Collections.singletonList(jar));
+		assertThat(mismatch).isNotNull();
+		Path otherJar = Files.copy(jar, temporaryFolder.resolve("main.jar"));
+		run(javaHome, mismatch, otherJar, temporaryFolder.resolve("work-3"));
+		assertThat(mismatch.isRejected()).isTrue();
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_13)
+	void dumpAndMapArchive(@TempDir Path temporaryFolder) throws Exception {
+		Path javaHome = Paths.get(System.getProperty("java.home"));
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		Path jar = createJar(directory.resolve("main.jar"));
+		ClassDataSharing dump = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(dump).isNotNull();
+		assertThat(dump.isDumping()).isTrue();
+		// a non-empty directory after the jars does not prevent the archive from being dumped
+		run(javaHome, dump, jar, temporaryFolder.resolve("work-1"));
+		dump.stopped();
+		assertThat(dump.getArchive()).exists();
+		ClassDataSharing share = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(share).isNotNull();
+		assertThat(share.isDumping()).isFalse();
+		run(javaHome, share, jar, temporaryFolder.resolve("work-2"));
+		assertThat(share.isRejected()).isFalse();
+		ClassDataSharing mismatch = ClassDataSharing.of(directory, javaHome, Collections.emptyList());
+		assertThat(mismatch).isNotNull();
+		Path otherJar = Files.copy(jar, temporaryFolder.resolve("main.jar"));
+		run(javaHome, mismatch, otherJar, temporaryFolder.resolve("work-3"));
+		assertThat(mismatch.isRejected()).isTrue();
+	}
+
+	private static void run(Path javaHome, ClassDataSharing classDataSharing, Path jar, Path workingDirectory)
+			throws IOException, InterruptedException {
+		Path conf = Files.createDirectories(workingDirectory.resolve("conf"));
+		Files.write(conf.resolve("logback.xml"), "<configuration/>".getBytes(StandardCharsets.UTF_8));
+		List<String> command = new ArrayList<>();
+		command.add(javaHome.resolve("bin/java").toString());
+		command.addAll(classDataSharing.getJvmOptions());
+		command.add("-cp");
+		command.add(jar + File.pathSeparator + conf);
+		command.add(Main.class.getName());
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			reader.lines().forEach(classDataSharing);
+		}
+		assertThat(process.waitFor()).isZero();
+	}
+
+	private static Path createJar(Path jar) throws IOException {
+		String name = Main.class.getName().replace('.', '/') + ".class";
+		try (JarOutputStream os = new JarOutputStream(Files.newOutputStream(jar))) {
+			os.putNextEntry(new JarEntry(name));
+			os.write(new ClassPathResource(name).getBytes());
+			os.closeEntry();
+		}
+		return jar;
+	}
+
+	private static Path createJavaHome(Path temporaryFolder, String version) throws IOException {
+		Path javaHome = Files.createDirectories(temporaryFolder.resolve("jdk-" + version));
+		Files.write(javaHome.resolve("release"), String.format("IMPLEMENTOR=\"Test\"%nJAVA_VERSION=\"%s\"%n", version)
+				.getBytes(StandardCharsets.UTF_8));
+		return javaHome;
+	}
+
+	public static final class Main {
+
+		public static void main(String[] args) {
+			System.out.println("Started");
+		}
+
+	}
+
+}
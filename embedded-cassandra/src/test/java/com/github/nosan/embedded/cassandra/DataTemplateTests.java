@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataTemplate}.
+ *
+ * @author Dmytro Nosan
+ */
+class DataTemplateTests {
+
+	private static final Resource CONFIG = new ClassPathResource("cassandra.yaml");
+
+	@Test
+	void captureAndRestore(@TempDir Path temporaryFolder) throws Exception {
+		Path data = temporaryFolder.resolve("data");
+		write(data.resolve("data/system_schema/tables-1/md-1-big-Data.db"), "tables");
+		write(data.resolve("data/system_schema/tables-1/md-2-big-Data.db"), "compacting");
+		write(data.resolve("data/system_schema/tables-1/snapshots/1/md-1-big-Data.db"), "snapshot");
+		write(data.resolve("commitlog/CommitLog-6-1.log"), "commitlog");
+		write(data.resolve("hints/1.hints"), "hints");
+		DataTemplate template = new DataTemplate(temporaryFolder.resolve("templates/test"));
+		assertThat(template.exists()).isFalse();
+		assertThat(template.restore(temporaryFolder.resolve("work"))).isFalse();
+		List<String> tags = new ArrayList<>();
+		DataTemplate.Snapshot snapshot = tag -> {
+			tags.add(tag);
+			Path directory = data.resolve("data/system_schema/tables-1/snapshots").resolve(tag);
+			write(directory.resolve("md-1-big-Data.db"), "tables");
+			write(directory.resolve(".tables_idx/md-1-big-Data.db"), "index");
+			write(directory.resolve("manifest.json"), "{}");
+			write(directory.resolve("schema.cql"), "CREATE TABLE");
+			write(data.resolve("data/system/local-2/snapshots").resolve(tag).resolve("md-1-big-Data.db"), "local");
+			write(data.resolve("data/system/peers_v2-3/snapshots").resolve(tag).resolve("md-1-big-Data.db"), "peers");
+		};
+		assertThat(template.capture(data, snapshot)).isTrue();
+		assertThat(tags).hasSize(1);
+		assertThat(template.exists()).isTrue();
+		assertThat(template.capture(data, snapshot)).isFalse();
+		assertThat(tags).hasSize(1);
+		Path work = temporaryFolder.resolve("work");
+		assertThat(template.restore(work)).isTrue();
+		assertThat(work.resolve("data/system_schema/tables-1/md-1-big-Data.db")).hasContent("tables");
+		assertThat(work.resolve("data/system_schema/tables-1/.tables_idx/md-1-big-Data.db")).hasContent("index");
+		assertThat(work.resolve("data/system_schema/tables-1/md-2-big-Data.db")).doesNotExist();
+		assertThat(work.resolve("data/system_schema/tables-1/manifest.json")).doesNotExist();
+		assertThat(work.resolve("data/system_schema/tables-1/schema.cql")).doesNotExist();
+		assertThat(work.resolve("data/system_schema/tables-1/snapshots")).doesNotExist();
+		assertThat(work.resolve("data/system/local-2")).doesNotExist();
+		assertThat(work.resolve("data/system/peers_v2-3")).doesNotExist();
+		assertThat(work.resolve("commitlog")).doesNotExist();
+		assertThat(work.resolve("hints")).doesNotExist();
+		assertThat(temporaryFolder.resolve("templates")).isDirectoryContaining(path -> path.equals(template
+				.getDirectory())).isDirectoryNotContaining(path -> path.getFileName().toString().startsWith("."));
+	}
+
+	@Test
+	void captureWithoutJmxLocalPort(@TempDir Path temporaryFolder) throws Exception {
+		DataTemplate template = new DataTemplate(temporaryFolder.resolve("templates/test"), temporaryFolder);
+		assertThat(template.capture(temporaryFolder, temporaryFolder.resolve("data"), -1)).isFalse();
+		assertThat(template.exists()).isFalse();
+	}
+
+	@Test
+	void keyDependsOnVersionAndConfiguration(@TempDir Path temporaryFolder) throws IOException {
+		Map<String, Object> properties = Collections.singletonMap("cluster_name", "test");
+		DataTemplate template = DataTemplate.of(temporaryFolder, Version.of("3.11.6"),
+				Collections.singletonList(CONFIG), Collections.singletonList(properties), null);
+		assertThat(template.getDirectory().getParent()).isEqualTo(temporaryFolder);
+		assertThat(template.getDirectory().getFileName().toString()).matches("3\\.11\\.6-[0-9a-f]{16}");
+		assertThat(DataTemplate.of(temporaryFolder, Version.of("3.11.6"), Collections.singletonList(CONFIG),
+				Collections.singletonList(properties), null).getDirectory()).isEqualTo(template.getDirectory());
+		assertThat(DataTemplate.of(temporaryFolder, Version.of("3.11.5"), Collections.singletonList(CONFIG),
+				Collections.singletonList(properties), null).getDirectory()).isNotEqualTo(template.getDirectory());
+		assertThat(DataTemplate.of(temporaryFolder, Version.of("3.11.6"), Collections.singletonList(CONFIG),
+				Collections.singletonList(Collections.singletonMap("cluster_name", "other")), null).getDirectory())
+				.isNotEqualTo(template.getDirectory());
+		assertThat(DataTemplate.of(temporaryFolder, Version.of("3.11.6"), Collections.emptyList(),
+				Collections.singletonList(properties), null).getDirectory()).isNotEqualTo(template.getDirectory());
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -68,6 +69,17 @@ class EmbeddedCassandraBuilderTests {
 		assertThat(database).hasFieldOrPropertyWithValue("workingDirectory", temporaryFolder);
 	}
 
+	@Test
+	void testTemplateDirectory(@TempDir Path temporaryFolder) {
+		this.builder.withTemplateDirectory(temporaryFolder);
+		Cassandra cassandra = this.builder.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		DataTemplate template = (DataTemplate) ReflectionTestUtils.getField(database, "template");
+		assertThat(template).isNotNull();
+		assertThat(template.getDirectory().getParent()).isEqualTo(temporaryFolder);
+		assertThat(template.getDirectory().getFileName().toString()).startsWith("3.11.6-");
+	}
+
 	@Test
 	void testArtifact(@TempDir Path temporaryFolder) {
 		final Version version = Version.of("3.11.6");
@@ -107,6 +119,14 @@ class EmbeddedCassandraBuilderTests {
 		assertThat(database).hasFieldOrPropertyWithValue("daemon", true);
 	}
 
+	@Test
+	void testExecutor() {
+		Executor executor = Runnable::run;
+		this.builder.withExecutor(executor);
+		Cassandra cassandra = this.builder.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("executor", executor);
+	}
+
 	@Test
 	@DisabledOnOs(OS.WINDOWS)
 	void testRootAllowed() {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCluster;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.artifact.DefaultDistribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link EmbeddedCassandraClusterFactory}.
+ *
+ * @author Dmytro Nosan
+ */
+@SuppressWarnings("unchecked")
+class EmbeddedCassandraClusterFactoryTests {
+
+	@Test
+	void createCluster(@TempDir Path temporaryFolder) {
+		EmbeddedCassandraClusterFactory cassandraFactory = new EmbeddedCassandraClusterFactory(() -> {
+			EmbeddedCassandraFactory factory = new EmbeddedCassandraFactory();
+			factory.setArtifact(() -> new DefaultDistribution(Version.of("3.11.6"), temporaryFolder));
+			factory.setPort(0);
+			return factory;
+		}, 3);
+		cassandraFactory.setName("test");
+		CassandraCluster cluster = cassandraFactory.create();
+		assertThat(cluster.getName()).isEqualTo("test");
+		List<Cassandra> nodes = cluster.getNodes();
+		assertThat(nodes).extracting(Cassandra::getName).containsExactly("test-1", "test-2", "test-3");
+		Object port = null;
+		for (int i = 0; i < nodes.size(); i++) {
+			Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(nodes.get(i), "database"), "node");
+			Map<String, Object> properties = (Map<String, Object>) ReflectionTestUtils.getField(node, "properties");
+			Map<String, Object> systemProperties = (Map<String, Object>) ReflectionTestUtils.getField(node,
+					"systemProperties");
+			assertThat(properties).containsEntry("cluster_name", "test")
+					.containsEntry("listen_address", "127.0.0." + (i + 1))
+					.containsEntry("rpc_address", "127.0.0." + (i + 1))
+					.containsKey("seed_provider");
+			assertThat(properties.get("seed_provider").toString()).contains("seeds=127.0.0.1");
+			assertThat(systemProperties).containsEntry("cassandra.jmx.local.port", 0);
+			if (i == 0) {
+				assertThat(properties).doesNotContainKey("auto_bootstrap");
+				assertThat(systemProperties).doesNotContainKey("cassandra.skip_wait_for_gossip_to_settle");
+				port = systemProperties.get("cassandra.native_transport_port");
+				assertThat(port).isNotEqualTo(0);
+			}
+			else {
+				assertThat(properties).containsEntry("auto_bootstrap", false);
+				assertThat(systemProperties).containsEntry("cassandra.skip_wait_for_gossip_to_settle", 0)
+						.containsEntry("cassandra.native_transport_port", port);
+			}
+		}
+	}
+
+	@Test
+	void invalidSize() {
+		assertThatThrownBy(() -> new EmbeddedCassandraClusterFactory(EmbeddedCassandraFactory::new, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
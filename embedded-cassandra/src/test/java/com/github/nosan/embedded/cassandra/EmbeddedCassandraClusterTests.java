@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link EmbeddedCassandraCluster}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraClusterTests {
+
+	private final List<String> events = new CopyOnWriteArrayList<>();
+
+	@Test
+	void startSeedFirst() {
+		TestCassandra seed = new TestCassandra("seed", false);
+		TestCassandra node1 = new TestCassandra("node1", false);
+		TestCassandra node2 = new TestCassandra("node2", false);
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster("cluster", Arrays.asList(seed, node1, node2));
+		cluster.start();
+		assertThat(this.events).hasSize(3).startsWith("start:seed").contains("start:node1", "start:node2");
+		assertThat(cluster.getNodes()).containsExactly(seed, node1, node2);
+		assertThat(cluster.getPort()).isEqualTo(9042);
+		assertThat(cluster.getVersion()).isEqualTo(Version.of("3.11.6"));
+		cluster.start();
+		assertThat(this.events).hasSize(3);
+		cluster.stop();
+		assertThat(this.events).hasSize(6).contains("stop:seed", "stop:node1", "stop:node2");
+		assertThat(cluster.getPort()).isEqualTo(-1);
+	}
+
+	@Test
+	void stopAllWhenNodeCannotBeStarted() {
+		TestCassandra seed = new TestCassandra("seed", false);
+		TestCassandra node1 = new TestCassandra("node1", true);
+		TestCassandra node2 = new TestCassandra("node2", false);
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster("cluster", Arrays.asList(seed, node1, node2));
+		assertThatThrownBy(cluster::start).isInstanceOf(CassandraException.class)
+				.hasStackTraceContaining("node1 cannot be started");
+		assertThat(seed.started).isFalse();
+		assertThat(node1.started).isFalse();
+		assertThat(node2.started).isFalse();
+	}
+
+	private final class TestCassandra implements Cassandra {
+
+		private final String name;
+
+		private final boolean fail;
+
+		private volatile boolean started;
+
+		TestCassandra(String name, boolean fail) {
+			this.name = name;
+			this.fail = fail;
+		}
+
+		@Override
+		public void start() throws CassandraException {
+			if (this.fail) {
+				throw new CassandraException(this.name + " cannot be started");
+			}
+			EmbeddedCassandraClusterTests.this.events.add("start:" + this.name);
+			this.started = true;
+		}
+
+		@Override
+		public void stop() throws CassandraException {
+			EmbeddedCassandraClusterTests.this.events.add("stop:" + this.name);
+			this.started = false;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("3.11.6");
+		}
+
+		@Override
+		public int getPort() {
+			return this.started ? 9042 : -1;
+		}
+
+	}
+
+}
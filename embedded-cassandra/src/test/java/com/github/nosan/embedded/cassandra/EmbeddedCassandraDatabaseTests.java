@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link EmbeddedCassandraDatabase}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraDatabaseTests {
+
+	private final TestCassandraNode node = new TestCassandraNode();
+
+	@Test
+	void startWhenTransportStarted(@TempDir Path temporaryFolder) throws Exception {
+		CassandraDatabase database = createDatabase(temporaryFolder, Duration.ofSeconds(10));
+		this.node.write("Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)");
+		this.node.write("Not starting RPC server as requested");
+		long start = System.nanoTime();
+		database.start();
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(database.getPort()).isEqualTo(9042);
+		assertThat(database.getRpcPort()).isEqualTo(-1);
+		assertThat(database.getAddress()).isEqualTo(InetAddress.getByName("127.0.0.1"));
+		assertThat(database.getStartupPhases()).containsOnlyKeys("initialize", "node", "readiness");
+	}
+
+	@Test
+	void startWhenNodeExited(@TempDir Path temporaryFolder) throws Exception {
+		CassandraDatabase database = createDatabase(temporaryFolder, Duration.ofMinutes(1));
+		this.node.write("Invalid yaml");
+		this.node.exit();
+		assertThatThrownBy(database::start).isInstanceOf(IOException.class).hasMessageContaining("is not alive")
+				.hasMessageContaining("Invalid yaml");
+	}
+
+	@Test
+	void startWhenTimeout(@TempDir Path temporaryFolder) throws Exception {
+		CassandraDatabase database = createDatabase(temporaryFolder, Duration.ofMillis(200));
+		assertThatThrownBy(database::start).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("couldn't be started within 200ms");
+	}
+
+	@Test
+	void startWithTemplate(@TempDir Path temporaryFolder) throws Exception {
+		DataTemplate template = new DataTemplate(temporaryFolder.resolve("templates/3.11.6"));
+		Path workingDirectory = temporaryFolder.resolve("work");
+		Files.createDirectories(workingDirectory.resolve("data/data/system"));
+		Files.createFile(workingDirectory.resolve("data/data/system/local.db"));
+		CassandraDatabase database = createDatabase(temporaryFolder, Duration.ofSeconds(10), template);
+		this.node.write("Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)");
+		this.node.write("Not starting RPC server as requested");
+		database.start();
+		// the node has no JMX local port, hence it cannot be snapshotted
+		assertThat(template.exists()).isFalse();
+		assertThat(database.getStartupPhases()).containsKeys("initialize", "readiness", "template");
+	}
+
+	@Test
+	void startWithStorageDirectory(@TempDir Path temporaryFolder) throws Exception {
+		Path storageDirectory = temporaryFolder.resolve("shm/storage");
+		DataTemplate template = new DataTemplate(temporaryFolder.resolve("templates/3.11.6"));
+		Files.createDirectories(template.getDirectory().resolve("data/system"));
+		Files.createFile(template.getDirectory().resolve("data/system/local.db"));
+		CassandraDatabase database = createDatabase(temporaryFolder, Duration.ofSeconds(10), template,
+				storageDirectory);
+		this.node.write("Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)");
+		this.node.write("Not starting RPC server as requested");
+		database.start();
+		assertThat(storageDirectory.resolve("data/system/local.db")).exists();
+		assertThat(temporaryFolder.resolve("work/data")).doesNotExist();
+		database.stop();
+		assertThat(storageDirectory).doesNotExist();
+		assertThat(temporaryFolder.resolve("work")).doesNotExist();
+	}
+
+	private CassandraDatabase createDatabase(Path temporaryFolder, Duration timeout) throws IOException {
+		return createDatabase(temporaryFolder, timeout, null);
+	}
+
+	private CassandraDatabase createDatabase(Path temporaryFolder, Duration timeout, @Nullable DataTemplate template)
+			throws IOException {
+		return createDatabase(temporaryFolder, timeout, template, null);
+	}
+
+	private CassandraDatabase createDatabase(Path temporaryFolder, Duration timeout, @Nullable DataTemplate template,
+			@Nullable Path storageDirectory) throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		Files.createDirectories(directory.resolve("conf"));
+		Files.createDirectories(directory.resolve("lib"));
+		return new EmbeddedCassandraDatabase("test", Version.of("3.11.6"), directory,
+				temporaryFolder.resolve("work"), true, LoggerFactory.getLogger(getClass()), timeout, null, null,
+				null, this.node, template, null, storageDirectory);
+	}
+
+	private static final class TestCassandraNode implements CassandraNode {
+
+		private final PipedOutputStream output = new PipedOutputStream();
+
+		private final PipedInputStream input;
+
+		private volatile boolean alive = true;
+
+		TestCassandraNode() {
+			try {
+				this.input = new PipedInputStream(this.output, 8192);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void stop() throws IOException {
+			exit();
+		}
+
+		@Override
+		public boolean isAlive() {
+			return this.alive;
+		}
+
+		@Override
+		public long getPid() {
+			return -1;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return this.input;
+		}
+
+		void write(String line) throws IOException {
+			this.output.write((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+			this.output.flush();
+		}
+
+		void exit() throws IOException {
+			this.alive = false;
+			this.output.close();
+		}
+
+	}
+
+}
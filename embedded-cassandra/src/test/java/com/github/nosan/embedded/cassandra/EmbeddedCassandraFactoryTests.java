@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -69,6 +70,17 @@ class EmbeddedCassandraFactoryTests {
 		assertThat(database).hasFieldOrPropertyWithValue("workingDirectory", temporaryFolder);
 	}
 
+	@Test
+	void testTemplateDirectory(@TempDir Path temporaryFolder) {
+		this.cassandraFactory.setTemplateDirectory(temporaryFolder);
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		DataTemplate template = (DataTemplate) ReflectionTestUtils.getField(database, "template");
+		assertThat(template).isNotNull();
+		assertThat(template.getDirectory().getParent()).isEqualTo(temporaryFolder);
+		assertThat(template.getDirectory().getFileName().toString()).startsWith("3.11.6-");
+	}
+
 	@Test
 	void testArtifact(@TempDir Path temporaryFolder) {
 		final Version version = Version.of("3.11.6");
@@ -109,6 +121,14 @@ class EmbeddedCassandraFactoryTests {
 		assertThat(database).hasFieldOrPropertyWithValue("daemon", true);
 	}
 
+	@Test
+	void testExecutor() {
+		Executor executor = Runnable::run;
+		this.cassandraFactory.setExecutor(executor);
+		Cassandra cassandra = this.cassandraFactory.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("executor", executor);
+	}
+
 	@Test
 	@DisabledOnOs(OS.WINDOWS)
 	void testRootAllowed() {
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.StartupReport;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.ClusterCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
@@ -82,6 +83,10 @@ class EmbeddedCassandraTests {
 			assertThat(cassandra.getPort()).isEqualTo(9042);
 			assertThat(cassandra.getRpcPort()).isEqualTo(-1);
 			assertThat(cassandra.getSslPort()).isEqualTo(-1);
+			StartupReport startupReport = cassandra.getStartupReport();
+			assertThat(startupReport).isNotNull();
+			assertThat(startupReport.getPhases()).containsKeys("distribution", "initialize", "configure", "spawn",
+					"readiness");
 		});
 	}
 
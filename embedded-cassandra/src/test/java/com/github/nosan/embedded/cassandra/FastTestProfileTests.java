@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.artifact.DefaultDistribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FastTestProfile}.
+ *
+ * @author Dmytro Nosan
+ */
+@SuppressWarnings("unchecked")
+class FastTestProfileTests {
+
+	@Test
+	void configProperties3x() {
+		Map<String, Object> properties = FastTestProfile.getConfigProperties(Version.of("3.11.6"));
+		assertThat(properties).containsEntry("num_tokens", 1).containsEntry("auto_snapshot", false)
+				.containsEntry("hinted_handoff_enabled", false).containsEntry("memtable_heap_space_in_mb", 64)
+				.containsEntry("key_cache_size_in_mb", 8).containsEntry("commitlog_sync", "periodic")
+				.containsEntry("commitlog_sync_period_in_ms", 60000).containsEntry("concurrent_compactors", 1)
+				.doesNotContainKeys("memtable_heap_space", "key_cache_size", "commitlog_sync_period",
+						"memtable_total_space_in_mb");
+	}
+
+	@Test
+	void configProperties2x() {
+		Map<String, Object> properties = FastTestProfile.getConfigProperties(Version.of("2.0.17"));
+		assertThat(properties).containsEntry("memtable_total_space_in_mb", 64)
+				.doesNotContainKeys("memtable_heap_space_in_mb", "memtable_heap_space");
+	}
+
+	@Test
+	void configProperties4x() {
+		assertThat(FastTestProfile.getConfigProperties(Version.of("4.0-beta1")))
+				.containsEntry("memtable_heap_space_in_mb", 64).containsEntry("commitlog_sync_period_in_ms", 60000);
+		assertThat(FastTestProfile.getConfigProperties(Version.of("4.1.0")))
+				.containsEntry("memtable_heap_space", "64MiB").containsEntry("key_cache_size", "8MiB")
+				.containsEntry("commitlog_sync_period", "60000ms")
+				.doesNotContainKeys("memtable_heap_space_in_mb", "key_cache_size_in_mb",
+						"commitlog_sync_period_in_ms");
+	}
+
+	@Test
+	void systemProperties() {
+		assertThat(FastTestProfile.getSystemProperties(Version.of("3.11.6")))
+				.containsEntry("cassandra.skip_wait_for_gossip_to_settle", 0);
+	}
+
+	@Test
+	void appliedByFactory(@TempDir Path temporaryFolder) {
+		EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+		cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("3.11.6"), temporaryFolder));
+		cassandraFactory.setFastTestProfile(true);
+		cassandraFactory.getConfigProperties().put("num_tokens", 4);
+		Cassandra cassandra = cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		Map<String, Object> properties = (Map<String, Object>) ReflectionTestUtils.getField(node, "properties");
+		Map<String, Object> systemProperties = (Map<String, Object>) ReflectionTestUtils.getField(node,
+				"systemProperties");
+		assertThat(properties).containsEntry("num_tokens", 4).containsEntry("auto_snapshot", false);
+		assertThat(systemProperties).containsEntry("cassandra.skip_wait_for_gossip_to_settle", 0);
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import javax.management.ObjectName;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.Context;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link InProcessCassandraNode}.
+ *
+ * @author Dmytro Nosan
+ */
+class InProcessCassandraNodeTests {
+
+	private static final String DAEMON = "package org.apache.cassandra.service;\n"
+			+ "public class CassandraDaemon {\n"
+			+ "  public static volatile String state = \"created\";\n"
+			+ "  public CassandraDaemon(boolean runManaged) {\n"
+			+ "  }\n"
+			+ "  public void activate() throws Exception {\n"
+			+ "    if (!\"yes\".equals(System.getProperty(\"cassandra-foreground\"))) {\n"
+			+ "      throw new IllegalStateException(\"not foreground\");\n"
+			+ "    }\n"
+			+ "    if (System.getProperty(\"cassandra.test.fail\") != null) {\n"
+			+ "      throw new IllegalStateException(\"failed\");\n"
+			+ "    }\n"
+			+ "    java.lang.management.ManagementFactory.getPlatformMBeanServer().registerMBean(\n"
+			+ "        new javax.management.timer.Timer(),\n"
+			+ "        new javax.management.ObjectName(\"org.apache.cassandra.db:type=StorageService\"));\n"
+			+ "    org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CassandraDaemon.class);\n"
+			+ "    logger.info(\"Not starting RPC server as requested\");\n"
+			+ "    logger.info(\"Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)...\");\n"
+			+ "    state = \"activated\";\n"
+			+ "  }\n"
+			+ "  public void stop() {\n"
+			+ "    state = \"stopped\";\n"
+			+ "  }\n"
+			+ "}\n";
+
+	private static final String STORAGE_SERVICE = "package org.apache.cassandra.service;\n"
+			+ "public class StorageService {\n"
+			+ "  public static final StorageService instance = new StorageService();\n"
+			+ "  public void drain() {\n"
+			+ "    CassandraDaemon.state = CassandraDaemon.state + \",drained\";\n"
+			+ "  }\n"
+			+ "}\n";
+
+	private Path workingDirectory;
+
+	@BeforeEach
+	void setUp(@TempDir Path temporaryFolder) throws Exception {
+		this.workingDirectory = temporaryFolder.resolve("cassandra");
+		Files.createDirectories(this.workingDirectory.resolve("conf"));
+		Files.createDirectories(this.workingDirectory.resolve("lib"));
+		Files.write(this.workingDirectory.resolve("conf/cassandra.yaml"),
+				"cluster_name: Test\n".getBytes(StandardCharsets.UTF_8));
+		Path sources = Files.createDirectories(temporaryFolder.resolve("src/org/apache/cassandra/service"));
+		Files.write(sources.resolve("CassandraDaemon.java"), DAEMON.getBytes(StandardCharsets.UTF_8));
+		Files.write(sources.resolve("StorageService.java"), STORAGE_SERVICE.getBytes(StandardCharsets.UTF_8));
+		Path slf4j = copyJar(LoggerFactory.class);
+		copyJar(LoggerContext.class);
+		copyJar(Context.class);
+		Path classes = Files.createDirectories(temporaryFolder.resolve("classes"));
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertThat(compiler.run(null, null, null, "-cp", slf4j.toString(), "-d", classes.toString(),
+				sources.resolve("CassandraDaemon.java").toString(),
+				sources.resolve("StorageService.java").toString())).isZero();
+		try (JarOutputStream jar = new JarOutputStream(
+				Files.newOutputStream(this.workingDirectory.resolve("lib/apache-cassandra.jar")));
+				Stream<Path> files = Files.walk(classes)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				jar.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+				Files.copy(file, jar);
+				jar.closeEntry();
+			}
+		}
+	}
+
+	@Test
+	void startAndStop() throws Exception {
+		String cassandraConfig = System.getProperty("cassandra.config");
+		InProcessCassandraNode node = new InProcessCassandraNode(Version.of("3.11.6"), this.workingDirectory,
+				Collections.singletonList("-Dcassandra.test=value"), Collections.emptyMap(), Collections.emptyMap(),
+				Collections.singletonMap("num_tokens", 1));
+		node.start();
+		assertThat(node.getPid()).isEqualTo(-1);
+		assertThat(System.getProperty("cassandra.test")).isEqualTo("value");
+		assertThat(System.getProperty("cassandra.config")).isNotNull().isNotEqualTo(cassandraConfig);
+		try (InputStream is = node.getInputStream()) {
+			assertThat(readUntil(is, "9042")).contains("Starting listening for CQL clients");
+			assertThat(node.isAlive()).isTrue();
+			node.stop();
+			assertThat(is.read(new byte[8192])).isEqualTo(-1);
+		}
+		assertThat(node.isAlive()).isFalse();
+		assertThat(System.getProperty("cassandra.test")).isNull();
+		assertThat(System.getProperty("cassandra.config")).isEqualTo(cassandraConfig);
+		assertThat(new String(Files.readAllBytes(this.workingDirectory.resolve("logs/system.log")),
+				StandardCharsets.UTF_8)).contains("Starting listening for CQL clients");
+	}
+
+	@Test
+	void startAndStopTwice() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			InProcessCassandraNode node = new InProcessCassandraNode(Version.of("3.11.6"), this.workingDirectory,
+					Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+			node.start();
+			try (InputStream is = node.getInputStream()) {
+				assertThat(readUntil(is, "9042")).contains("Starting listening for CQL clients");
+				assertThat(node.isAlive()).isTrue();
+			}
+			finally {
+				node.stop();
+			}
+			assertThat(ManagementFactory.getPlatformMBeanServer()
+					.queryNames(new ObjectName("org.apache.cassandra*:*"), null)).isEmpty();
+		}
+	}
+
+	@Test
+	void onlyOneNodeAtATime() throws Exception {
+		InProcessCassandraNode node = new InProcessCassandraNode(Version.of("3.11.6"), this.workingDirectory,
+				Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+		InProcessCassandraNode other = new InProcessCassandraNode(Version.of("3.11.6"), this.workingDirectory,
+				Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+		node.start();
+		try {
+			assertThatIllegalStateException().isThrownBy(other::start)
+					.withMessageContaining("Only one in-process Cassandra can run at a time");
+			assertThat(node.isAlive()).isTrue();
+		}
+		finally {
+			other.stop();
+			node.stop();
+		}
+	}
+
+	@Test
+	void startFailure() throws Exception {
+		InProcessCassandraNode node = new InProcessCassandraNode(Version.of("3.11.6"), this.workingDirectory,
+				Collections.singletonList("-Dcassandra.test.fail=true"), Collections.emptyMap(),
+				Collections.emptyMap(), Collections.emptyMap());
+		node.start();
+		try (InputStream is = node.getInputStream()) {
+			assertThat(is.read(new byte[8192])).isEqualTo(-1);
+			assertThat(node.isAlive()).isFalse();
+		}
+		finally {
+			node.stop();
+		}
+	}
+
+	private static String readUntil(InputStream is, String text) throws IOException {
+		byte[] buffer = new byte[8192];
+		StringBuilder output = new StringBuilder();
+		long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+		while (!output.toString().contains(text) && System.nanoTime() < deadline) {
+			int read = is.read(buffer);
+			assertThat(read).isNotEqualTo(-1);
+			output.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+		}
+		return output.toString();
+	}
+
+	private Path copyJar(Class<?> type) throws Exception {
+		Path jar = Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+		return Files.copy(jar, this.workingDirectory.resolve("lib").resolve(jar.getFileName()));
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JvmLaunchCommand} and {@link DirectCassandraNode}.
+ *
+ * @author Dmytro Nosan
+ */
+class JvmLaunchCommandTests {
+
+	private Path directory;
+
+	private Path javaHome;
+
+	@BeforeEach
+	void setUp(@TempDir Path temporaryFolder) throws IOException {
+		this.directory = Files.createDirectories(temporaryFolder.resolve("cassandra"));
+		Files.createDirectories(this.directory.resolve("conf"));
+		Files.createDirectories(this.directory.resolve("lib/jsr223/jython"));
+		Files.createFile(this.directory.resolve("lib/b.jar"));
+		Files.createFile(this.directory.resolve("lib/a.jar"));
+		Files.createFile(this.directory.resolve("lib/jamm-0.3.0.jar"));
+		Files.createFile(this.directory.resolve("lib/README.txt"));
+		Files.createFile(this.directory.resolve("lib/jsr223/jython/jython.jar"));
+		Files.write(this.directory.resolve("conf/cassandra.yaml"), "cluster_name: Test\n".getBytes(
+				StandardCharsets.UTF_8));
+		this.javaHome = Files.createDirectories(temporaryFolder.resolve("java"));
+		Files.createDirectories(this.javaHome.resolve("bin"));
+		Path java = Files.write(this.javaHome.resolve("bin/java"), "#!/bin/sh\necho \"$@\"\n".getBytes(
+				StandardCharsets.UTF_8));
+		assertThat(java.toFile().setExecutable(true)).isTrue();
+		Files.write(this.javaHome.resolve("release"), "JAVA_VERSION=\"11.0.7\"\n".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void jvmOptions() throws IOException {
+		write("jvm.options", "# comment", "-ea", "", "  -Xss256k  ", "#-Xmx4G", "-Xms1G", "-Xmx1G");
+		JvmLaunchCommand command = JvmLaunchCommand.of(this.directory, this.javaHome);
+		Path workingDirectory = this.directory.resolveSibling("work");
+		List<String> arguments = command.getArguments(workingDirectory, Collections.singletonList("-Dname=value"));
+		assertThat(arguments.get(0)).isEqualTo(this.javaHome.resolve("bin/java").toString());
+		assertThat(arguments).containsSubsequence("-ea", "-Xss256k", "-Xms1G", "-Xmx1G",
+				"-javaagent:" + this.directory.resolve("lib/jamm-0.3.0.jar"),
+				"-Dcassandra.logdir=" + workingDirectory.resolve("logs"),
+				"-Dcassandra.storagedir=" + workingDirectory.resolve("data"),
+				"-Dlogback.configurationFile=" + workingDirectory.resolve("conf/logback.xml"),
+				"-Dcassandra-foreground=yes", "-Dname=value", "-cp", "org.apache.cassandra.service.CassandraDaemon");
+		assertThat(arguments).doesNotContain("#-Xmx4G").noneMatch(argument -> argument.startsWith("-Xmn"));
+		// jars of the distribution and conf as the last entry keep the classpath stable for Class Data Sharing
+		assertThat(arguments.get(arguments.size() - 2).split(File.pathSeparator)).containsExactly(
+				this.directory.resolve("lib/a.jar").toString(), this.directory.resolve("lib/b.jar").toString(),
+				this.directory.resolve("lib/jamm-0.3.0.jar").toString(),
+				this.directory.resolve("lib/jsr223/jython/jython.jar").toString(),
+				workingDirectory.resolve("conf").toString());
+		assertThat(JvmLaunchCommand.of(this.directory, this.javaHome)).isSameAs(command);
+	}
+
+	@Test
+	void jvmServerOptions() throws IOException {
+		write("jvm-server.options", "-XX:+UseG1GC");
+		write("jvm8-server.options", "-XX:+UseParNewGC");
+		write("jvm11-server.options", "--add-exports java.base/jdk.internal.misc=ALL-UNNAMED");
+		write("jvm17-server.options", "-XX:+UseZGC");
+		List<String> arguments = JvmLaunchCommand.of(this.directory, this.javaHome)
+				.getArguments(this.directory, Collections.emptyList());
+		assertThat(arguments).contains("-XX:+UseG1GC", "--add-exports", "java.base/jdk.internal.misc=ALL-UNNAMED")
+				.doesNotContain("-XX:+UseParNewGC", "-XX:+UseZGC")
+				.anyMatch(argument -> argument.startsWith("-Xmx"))
+				.anyMatch(argument -> argument.startsWith("-Xms"))
+				.noneMatch(argument -> argument.startsWith("-Xmn"));
+	}
+
+	@Test
+	void toolArguments() throws IOException {
+		write("jvm-server.options", "-XX:+UseG1GC");
+		write("jvm-clients.options", "-Djava.net.preferIPv4Stack=true");
+		write("jvm11-clients.options", "-Djdk.attach.allowAttachSelf=true");
+		write("jvm11-server.options", "-XX:+UseZGC");
+		Path jar = this.directory.resolveSibling("tool.jar");
+		List<String> arguments = JvmLaunchCommand.of(this.directory, this.javaHome)
+				.getToolArguments(this.directory, Collections.singletonList(jar), "org.apache.cassandra.tools.NodeTool",
+						Arrays.asList("-p", "7199", "refresh"));
+		assertThat(arguments).containsSubsequence(this.javaHome.resolve("bin/java").toString(),
+				"-Djava.net.preferIPv4Stack=true", "-Djdk.attach.allowAttachSelf=true",
+				"-Dlogback.configurationFile=logback-tools.xml", "-cp", "org.apache.cassandra.tools.NodeTool", "-p",
+				"7199", "refresh");
+		assertThat(arguments).doesNotContain("-XX:+UseG1GC", "-XX:+UseZGC")
+				.noneMatch(argument -> argument.startsWith("-Xmx"));
+		String classpath = arguments.get(arguments.indexOf("-cp") + 1);
+		assertThat(classpath.split(File.pathSeparator)).startsWith(this.directory.resolve("conf").toString())
+				.endsWith(jar.toString());
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void startDirectNode() throws Exception {
+		write("jvm.options", "-ea");
+		DirectCassandraNode node = new DirectCassandraNode(this.directory, Collections.singletonList("-Xss512k"),
+				Collections.singletonMap("name", "value"), Collections.emptyMap(), Collections.emptyMap(),
+				JvmLaunchCommand.of(this.directory, this.javaHome));
+		node.start();
+		String output;
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(node.getInputStream(), StandardCharsets.UTF_8))) {
+			output = reader.lines().collect(Collectors.joining("\n"));
+		}
+		node.stop();
+		List<String> arguments = Arrays.asList(output.trim().split(" "));
+		assertThat(arguments).containsSubsequence("-ea", "-Xss512k", "-Dname=value", "-cp",
+				"org.apache.cassandra.service.CassandraDaemon");
+		assertThat(arguments).anyMatch(argument -> argument.startsWith("-Dcassandra.config="));
+	}
+
+	private void write(String name, String... lines) throws IOException {
+		Files.write(this.directory.resolve("conf").resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link PooledCassandraFactory}.
+ *
+ * @author Dmytro Nosan
+ */
+class PooledCassandraFactoryTests {
+
+	private final List<TestCassandra> instances = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger drops = new AtomicInteger();
+
+	private final PooledCassandraFactory cassandraFactory = new PooledCassandraFactory(() -> {
+		TestCassandra cassandra = new TestCassandra("cassandra-" + this.instances.size());
+		this.instances.add(cassandra);
+		return cassandra;
+	}, 2);
+
+	PooledCassandraFactoryTests() {
+		this.cassandraFactory.setConnectionFactory(cassandra -> new TestCassandraConnection());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.cassandraFactory.close();
+	}
+
+	@Test
+	void leaseStartedInstance() {
+		Cassandra cassandra = this.cassandraFactory.create();
+		assertThat(cassandra.getPort()).isEqualTo(-1);
+		cassandra.start();
+		assertThat(cassandra.getPort()).isEqualTo(9042);
+		assertThat(cassandra.getVersion()).isEqualTo(Version.of("3.11.6"));
+		assertThat(this.instances).hasSizeBetween(1, 2).allMatch(TestCassandra::isStarted);
+	}
+
+	@Test
+	void createDoesNotLease() {
+		PooledCassandraFactory cassandraFactory = new PooledCassandraFactory(() -> new TestCassandra("single"), 1);
+		try {
+			for (int i = 0; i < 10; i++) {
+				Cassandra cassandra = cassandraFactory.create();
+				assertThat(cassandra.getVersion()).isEqualTo(Version.of("3.11.6"));
+				assertThat(cassandra.getPort()).isEqualTo(-1);
+			}
+			Cassandra cassandra = cassandraFactory.create();
+			cassandra.start();
+			assertThat(cassandra.getName()).isEqualTo("single");
+			assertThat(cassandra.getPort()).isEqualTo(9042);
+		}
+		finally {
+			cassandraFactory.close();
+		}
+	}
+
+	@Test
+	void stopReturnsInstanceToPool() throws InterruptedException {
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		String name = cassandra.getName();
+		cassandra.stop();
+		assertThat(cassandra.getPort()).isEqualTo(-1);
+		awaitDrops(1);
+		for (int i = 0; i < 10; i++) {
+			Cassandra next = this.cassandraFactory.create();
+			next.start();
+			next.stop();
+		}
+		awaitDrops(11);
+		assertThat(this.instances).hasSizeBetween(1, 2).allMatch(TestCassandra::isStarted);
+		assertThat(this.instances).extracting(TestCassandra::getName).contains(name);
+	}
+
+	@Test
+	void closeStopsAllInstances() {
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		this.cassandraFactory.close();
+		assertThat(this.instances).hasSizeBetween(1, 2).noneMatch(TestCassandra::isStarted);
+		assertThatThrownBy(this.cassandraFactory::create).isInstanceOf(CassandraCreationException.class)
+				.hasStackTraceContaining("is closed");
+	}
+
+	@Test
+	void startFailure() {
+		PooledCassandraFactory cassandraFactory = new PooledCassandraFactory(() -> new TestCassandra("fail") {
+
+			@Override
+			public void start() throws CassandraException {
+				throw new CassandraException("Unable to start");
+			}
+
+		}, 1);
+		try {
+			Cassandra cassandra = cassandraFactory.create();
+			assertThatThrownBy(cassandra::start).isInstanceOf(CassandraException.class)
+					.hasStackTraceContaining("Unable to start");
+		}
+		finally {
+			cassandraFactory.close();
+		}
+	}
+
+	@Test
+	void versionIgnoresFailedStart() {
+		AtomicInteger number = new AtomicInteger();
+		PooledCassandraFactory cassandraFactory = new PooledCassandraFactory(() -> {
+			if (number.getAndIncrement() == 0) {
+				return new TestCassandra("fail") {
+
+					@Override
+					public void start() throws CassandraException {
+						throw new CassandraException("Unable to start");
+					}
+
+				};
+			}
+			return new TestCassandra("slow") {
+
+				@Override
+				public void start() throws CassandraException {
+					try {
+						Thread.sleep(200);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					super.start();
+				}
+
+			};
+		}, 2);
+		try {
+			assertThat(cassandraFactory.create().getVersion()).isEqualTo(Version.of("3.11.6"));
+		}
+		finally {
+			cassandraFactory.close();
+		}
+	}
+
+	@Test
+	void versionFailsIfNoInstanceStarts() {
+		PooledCassandraFactory cassandraFactory = new PooledCassandraFactory(() -> new TestCassandra("fail") {
+
+			@Override
+			public void start() throws CassandraException {
+				throw new CassandraException("Unable to start");
+			}
+
+		}, 2);
+		try {
+			assertThatThrownBy(cassandraFactory.create()::getVersion).isInstanceOf(IllegalStateException.class)
+					.hasStackTraceContaining("Unable to start");
+		}
+		finally {
+			cassandraFactory.close();
+		}
+	}
+
+	private void awaitDrops(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.drops.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(this.drops).hasValue(count);
+	}
+
+	private static class TestCassandra implements Cassandra {
+
+		private final String name;
+
+		private volatile boolean started;
+
+		TestCassandra(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void start() throws CassandraException {
+			this.started = true;
+		}
+
+		@Override
+		public void stop() throws CassandraException {
+			this.started = false;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("3.11.6");
+		}
+
+		@Override
+		public int getPort() {
+			return 9042;
+		}
+
+		boolean isStarted() {
+			return this.started;
+		}
+
+	}
+
+	private final class TestCassandraConnection implements CassandraConnection {
+
+		@Override
+		public Object execute(String query) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object execute(String query, Object... values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void dropKeyspaces() {
+			PooledCassandraFactoryTests.this.drops.incrementAndGet();
+		}
+
+		@Override
+		public Object getConnection() {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
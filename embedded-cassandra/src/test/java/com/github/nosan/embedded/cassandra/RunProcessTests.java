@@ -16,6 +16,8 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 
@@ -42,6 +44,18 @@ class RunProcessTests {
 		assertThat(exit).isEqualTo(0);
 	}
 
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void shouldRedirectOutputUnix(@TempDir Path temporaryFolder) throws Exception {
+		Path outputFile = temporaryFolder.resolve("output.log");
+		Files.write(outputFile, "previous".getBytes(StandardCharsets.UTF_8));
+		RunProcess runProcess = runProcess(temporaryFolder, "bash", "-c",
+				command("echo", "$RUN_PROCESS_TEST", ";", "echo", "ERROR", ">&2"));
+		runProcess.setOutputFile(outputFile);
+		assertThat(runProcess.start().waitFor()).isEqualTo(0);
+		assertThat(Files.readAllLines(outputFile)).containsExactly("TEST", "ERROR");
+	}
+
 	private RunProcess runProcess(Path temporaryFolder, String... arguments) {
 		RunProcess runProcess = new RunProcess(temporaryFolder);
 		runProcess.getArguments().addAll(Arrays.asList(arguments));
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SSTableDataSet}.
+ *
+ * @author Dmytro Nosan
+ */
+class SSTableDataSetTests {
+
+	@Test
+	void parseTableName() {
+		assertThat(SSTableDataSet.ofCsv("CREATE TABLE IF NOT EXISTS test.users (id int PRIMARY KEY)",
+				new ClassPathResource("users.csv"))).hasToString("SSTableDataSet[table='test.users']");
+		assertThat(SSTableDataSet.ofRows("create columnfamily \"Test\" . \"My\"\"Users\" (id int PRIMARY KEY)",
+				Collections.singletonList("id"), Collections.emptyList()))
+				.hasToString("SSTableDataSet[table='\"Test\".\"My\"\"Users\"']");
+		assertThat(SSTableDataSet.toInternal("\"My\"\"Users\"")).isEqualTo("My\"Users");
+		assertThat(SSTableDataSet.toInternal("Users")).isEqualTo("users");
+	}
+
+	@Test
+	void tableNameWithoutKeyspace() {
+		assertThatThrownBy(() -> SSTableDataSet.ofJsonLines("CREATE TABLE users (id int PRIMARY KEY)",
+				new ClassPathResource("users.json"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void cassandraIsNotSupported() {
+		SSTableDataSet dataSet = SSTableDataSet.ofRows("CREATE TABLE test.users (id int PRIMARY KEY)",
+				Collections.singletonList("id"), Collections.emptyList());
+		Cassandra cassandra = new Cassandra() {
+
+			@Override
+			public void start() {
+			}
+
+			@Override
+			public void stop() {
+			}
+
+			@Override
+			public String getName() {
+				return "remote";
+			}
+
+			@Override
+			public Version getVersion() {
+				return Version.of("4.0.0");
+			}
+
+		};
+		assertThatThrownBy(() -> dataSet.load(cassandra)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void fileIdentity(@TempDir Path temporaryFolder) throws IOException {
+		Path file = Files.write(temporaryFolder.resolve("users.csv"), "id\n1\n".getBytes(StandardCharsets.UTF_8));
+		String identity = SSTableDataSet.getIdentity(new FileSystemResource(file));
+		assertThat(identity).startsWith(file.toUri().toURL().toString());
+		assertThat(SSTableDataSet.getIdentity(new FileSystemResource(file))).isEqualTo(identity);
+		Files.write(file, "id\n1\n2\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(SSTableDataSet.getIdentity(new FileSystemResource(file))).isNotEqualTo(identity);
+	}
+
+	@Test
+	void jarEntryIdentity() {
+		ClassPathResource resource = new ClassPathResource("org/junit/jupiter/api/Test.class");
+		assertThat(SSTableDataSet.getIdentity(resource)).startsWith("jar:").matches(".*Test\\.class:\\d+:\\d+");
+	}
+
+	@Test
+	void unknownIdentity() throws IOException {
+		assertThat(SSTableDataSet.getIdentity(new UrlResource(new URL("http://localhost/users.csv")))).isNull();
+		assertThat(SSTableDataSet.getIdentity(new ClassPathResource("missing.csv"))).isNull();
+	}
+
+	@Test
+	void copyWithNewGenerations(@TempDir Path temporaryFolder) throws IOException {
+		Path source = Files.createDirectories(temporaryFolder.resolve("source"));
+		Path table = Files.createDirectories(temporaryFolder.resolve("users-1234"));
+		for (String name : Arrays.asList("mc-1-big-Data.db", "mc-1-big-Index.db", "mc-2-big-Data.db", "README")) {
+			Files.write(source.resolve(name), name.getBytes());
+		}
+		Files.createFile(table.resolve("mc-5-big-Data.db"));
+		Files.createFile(table.resolve("mc-3-big-Data.db"));
+		SSTableDataSet.copy(source, table);
+		assertThat(list(table)).containsExactly("mc-3-big-Data.db", "mc-5-big-Data.db", "mc-6-big-Data.db",
+				"mc-6-big-Index.db", "mc-7-big-Data.db");
+		assertThat(table.resolve("mc-6-big-Index.db")).hasContent("mc-1-big-Index.db");
+		assertThat(table.resolve("mc-7-big-Data.db")).hasContent("mc-2-big-Data.db");
+	}
+
+	private static List<String> list(Path directory) throws IOException {
+		try (Stream<Path> stream = Files.list(directory)) {
+			return stream.map(Path::getFileName).map(Path::toString).sorted().collect(Collectors.toList());
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SSTableRows} and the rows encoding of {@link SSTableWriterMain}.
+ *
+ * @author Dmytro Nosan
+ */
+class SSTableRowsTests {
+
+	@Test
+	void csv() throws IOException {
+		String csv = "id, name ,tags\r\n1,\"Smith, \"\"John\"\"\",\"a\nb\"\r\n\n2,,\"\"\n3,x,";
+		try (SSTableRows rows = SSTableRows.ofCsv(new StringReader(csv))) {
+			assertThat(rows.getColumns()).containsExactly("id", "name", "tags");
+			assertThat(readAll(rows)).containsExactly(Arrays.asList("1", "Smith, \"John\"", "a\nb"),
+					Arrays.asList("2", null, ""), Arrays.asList("3", "x", null));
+		}
+	}
+
+	@Test
+	void csvWithoutHeader() {
+		assertThatThrownBy(() -> SSTableRows.ofCsv(new StringReader(""))).isInstanceOf(
+				IllegalArgumentException.class).hasMessageContaining("header");
+	}
+
+	@Test
+	void csvNotClosedQuote() throws IOException {
+		try (SSTableRows rows = SSTableRows.ofCsv(new StringReader("id\n\"1"))) {
+			assertThatThrownBy(rows::read).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	void jsonLines() throws IOException {
+		String jsonLines = "{\"id\": 1, \"name\": \"it's\", \"tags\": [\"a\", \"b\"]}\n\n"
+				+ "{\"id\":2,\"props\":{\"k\":1}}\n";
+		assertThatThrownBy(() -> readAll(SSTableRows.ofJsonLines(new StringReader(jsonLines))))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("'props'");
+		String valid = "{\"id\": 1, \"name\": \"it's\", \"tags\": [\"a\", \"b\"]}\n\n{\"id\":2,\"tags\":null}\n";
+		try (SSTableRows rows = SSTableRows.ofJsonLines(new StringReader(valid))) {
+			assertThat(rows.getColumns()).containsExactly("id", "name", "tags");
+			assertThat(readAll(rows)).containsExactly(Arrays.asList("1", "it's", "['a', 'b']"),
+					Arrays.asList("2", null, null));
+		}
+	}
+
+	@Test
+	void emptyJsonLines() throws IOException {
+		try (SSTableRows rows = SSTableRows.ofJsonLines(new StringReader("\n"))) {
+			assertThat(rows.getColumns()).isEmpty();
+			assertThat(rows.read()).isNull();
+		}
+	}
+
+	@Test
+	void objects() throws IOException {
+		UUID uuid = UUID.randomUUID();
+		Map<String, Integer> map = new LinkedHashMap<>();
+		map.put("a", 1);
+		map.put("it's", 2);
+		List<Object[]> values = Collections.singletonList(new Object[]{uuid, "text", 42, null,
+				Instant.ofEpochMilli(1000), LocalDate.of(2020, 1, 1), new byte[]{0x0A, (byte) 0xFF},
+				InetAddress.getByName("127.0.0.1"), new LinkedHashSet<>(Arrays.asList(LocalDate.of(2020, 1, 1), uuid)),
+				map});
+		try (SSTableRows rows = SSTableRows.of(Arrays.asList("a", "b"), values)) {
+			assertThat(rows.getColumns()).containsExactly("a", "b");
+			assertThat(rows.read()).containsExactly(uuid.toString(), "text", "42", null, "1000", "2020-01-01",
+					"0x0aff", "127.0.0.1", "{'2020-01-01', " + uuid + "}", "{'a': 1, 'it''s': 2}");
+			assertThat(rows.read()).isNull();
+		}
+	}
+
+	@Test
+	void encodeRows() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream os = new DataOutputStream(bytes)) {
+			SSTableWriterMain.writeRow(os, Arrays.asList("1", null, "", "é"));
+			SSTableWriterMain.writeRow(os, Collections.emptyList());
+			SSTableWriterMain.writeRow(os, null);
+		}
+		try (DataInputStream is = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertThat(SSTableWriterMain.readRow(is)).containsExactly("1", null, "", "é");
+			assertThat(SSTableWriterMain.readRow(is)).isEmpty();
+			assertThat(SSTableWriterMain.readRow(is)).isNull();
+		}
+	}
+
+	private static List<List<String>> readAll(SSTableRows rows) throws IOException {
+		List<List<String>> result = new ArrayList<>();
+		List<String> row;
+		while ((row = rows.read()) != null) {
+			result.add(row);
+		}
+		return result;
+	}
+
+}
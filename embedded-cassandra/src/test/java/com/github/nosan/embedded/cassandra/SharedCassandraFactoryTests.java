@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SharedCassandraFactory}.
+ *
+ * @author Dmytro Nosan
+ */
+class SharedCassandraFactoryTests {
+
+	private final List<TestCassandra> instances = new CopyOnWriteArrayList<>();
+
+	private final SharedCassandraFactory cassandraFactory = new SharedCassandraFactory(() -> {
+		TestCassandra cassandra = new TestCassandra("cassandra-" + this.instances.size());
+		this.instances.add(cassandra);
+		return cassandra;
+	}, "test");
+
+	@BeforeEach
+	void setUp(@TempDir Path temporaryFolder) {
+		this.cassandraFactory.setDirectory(temporaryFolder);
+	}
+
+	@Test
+	void lastHolderStopsNode() {
+		Cassandra first = this.cassandraFactory.create();
+		Cassandra second = this.cassandraFactory.create();
+		assertThat(first.getPort()).isEqualTo(-1);
+		first.start();
+		second.start();
+		assertThat(this.instances).hasSize(1).allMatch(TestCassandra::isStarted);
+		assertThat(first.getPort()).isEqualTo(9042);
+		assertThat(second.getPort()).isEqualTo(9042);
+		assertThat(second.getVersion()).isEqualTo(Version.of("3.11.6"));
+		assertThat(second.getName()).isEqualTo("test");
+		assertThat(this.cassandraFactory.getDirectory().resolve("test/lease.properties")).exists();
+		first.stop();
+		assertThat(first.getPort()).isEqualTo(-1);
+		assertThat(this.instances.get(0).isStarted()).isTrue();
+		second.stop();
+		assertThat(this.instances.get(0).isStarted()).isFalse();
+		assertThat(this.cassandraFactory.getDirectory().resolve("test/lease.properties")).doesNotExist();
+		assertThat(this.cassandraFactory.getDirectory().resolve("test/holders")).isEmptyDirectory();
+	}
+
+	@Test
+	void restartAfterRelease() {
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		cassandra.stop();
+		cassandra.start();
+		assertThat(this.instances).hasSize(2);
+		assertThat(this.instances.get(1).isStarted()).isTrue();
+		cassandra.stop();
+		assertThat(this.instances).noneMatch(TestCassandra::isStarted);
+	}
+
+	@Test
+	void leaseFile() throws IOException {
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		Path lease = this.cassandraFactory.getDirectory().resolve("test/lease.properties");
+		String content = new String(Files.readAllBytes(lease), StandardCharsets.ISO_8859_1);
+		assertThat(content).contains("version=3.11.6").contains("port=9042").contains("name=cassandra-0");
+		cassandra.stop();
+	}
+
+	@Test
+	void replaceLeaseWithoutHolders() throws IOException {
+		Path directory = Files.createDirectories(this.cassandraFactory.getDirectory().resolve("test/holders"));
+		Files.createFile(directory.resolve("dead.lock"));
+		Files.write(directory.getParent().resolve("lease.properties"),
+				"version=3.11.5\nport=-1\n".getBytes(StandardCharsets.ISO_8859_1));
+		Cassandra cassandra = this.cassandraFactory.create();
+		cassandra.start();
+		assertThat(this.instances).hasSize(1);
+		assertThat(cassandra.getVersion()).isEqualTo(Version.of("3.11.6"));
+		assertThat(directory.resolve("dead.lock")).doesNotExist();
+		cassandra.stop();
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void replaceLeaseKillsNode() throws Exception {
+		Process process = new ProcessBuilder("sleep", "60").start();
+		try {
+			long pid = Pid.get(process);
+			writeStaleLease(pid, getStartTime(pid));
+			Cassandra cassandra = this.cassandraFactory.create();
+			cassandra.start();
+			assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+			cassandra.stop();
+		}
+		finally {
+			process.destroyForcibly();
+		}
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void replaceLeaseDoesNotKillReusedPid() throws Exception {
+		Process process = new ProcessBuilder("sleep", "60").start();
+		try {
+			long pid = Pid.get(process);
+			writeStaleLease(pid, "Thu Jan  1 00:00:00 1970");
+			Cassandra cassandra = this.cassandraFactory.create();
+			cassandra.start();
+			assertThat(process.isAlive()).isTrue();
+			cassandra.stop();
+		}
+		finally {
+			process.destroyForcibly();
+		}
+	}
+
+	@Test
+	void startFailure() {
+		SharedCassandraFactory cassandraFactory = new SharedCassandraFactory(() -> new TestCassandra("fail") {
+
+			@Override
+			public void start() throws CassandraException {
+				throw new CassandraException("Boom");
+			}
+
+		}, "fail");
+		cassandraFactory.setDirectory(this.cassandraFactory.getDirectory());
+		Cassandra cassandra = cassandraFactory.create();
+		assertThatThrownBy(cassandra::start).hasMessage("Boom");
+		assertThat(cassandra.getPort()).isEqualTo(-1);
+		assertThat(cassandraFactory.getDirectory().resolve("fail/lease.properties")).doesNotExist();
+	}
+
+	@Test
+	void namespace() {
+		assertThat(this.cassandraFactory.getNamespace()).matches("fork_\\d+");
+		assertThatThrownBy(() -> new SharedCassandraFactory(TestCassandra::new, "../test"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void writeStaleLease(long pid, String startTime) throws IOException {
+		Path directory = Files.createDirectories(this.cassandraFactory.getDirectory().resolve("test/holders"));
+		Files.write(directory.getParent().resolve("lease.properties"),
+				String.format("version=3.11.5%npid=%d%nstart-time=%s%n", pid, startTime)
+						.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	private static String getStartTime(long pid) throws Exception {
+		StringBuilder output = new StringBuilder();
+		new RunProcess("ps", "-o", "lstart=", "-p", pid).run(output::append);
+		return output.toString().trim();
+	}
+
+	private static class TestCassandra implements Cassandra {
+
+		private final String name;
+
+		private volatile boolean started;
+
+		TestCassandra() {
+			this("test");
+		}
+
+		TestCassandra(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void start() throws CassandraException {
+			this.started = true;
+		}
+
+		@Override
+		public void stop() throws CassandraException {
+			this.started = false;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("3.11.6");
+		}
+
+		@Override
+		public int getPort() {
+			return 9042;
+		}
+
+		boolean isStarted() {
+			return this.started;
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.StartupReport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupPhaseEvent}.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupPhaseEventTests {
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_11)
+	void commit(@TempDir Path temporaryFolder) throws Exception {
+		Map<String, Duration> phases = new LinkedHashMap<>();
+		phases.put("initialize", Duration.ofMillis(10));
+		phases.put("readiness", Duration.ofMillis(20));
+		// jdk.jfr is accessed through reflection, because the tests are compiled for Java 8 as well
+		Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+		Object recording = recordingClass.getConstructor().newInstance();
+		recordingClass.getMethod("enable", String.class).invoke(recording, StartupPhaseEvent.NAME);
+		recordingClass.getMethod("start").invoke(recording);
+		StartupPhaseEvent.commit("cassandra-0", new StartupReport(phases));
+		recordingClass.getMethod("stop").invoke(recording);
+		Path file = temporaryFolder.resolve("recording.jfr");
+		recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+		recordingClass.getMethod("close").invoke(recording);
+		List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+				.getMethod("readAllEvents", Path.class).invoke(null, file);
+		List<String> recorded = new ArrayList<>();
+		for (Object event : events) {
+			Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+			if (StartupPhaseEvent.NAME.equals(eventType.getClass().getMethod("getName").invoke(eventType))) {
+				Method getString = event.getClass().getMethod("getString", String.class);
+				Method getDuration = event.getClass().getMethod("getDuration", String.class);
+				recorded.add(getString.invoke(event, "cassandra") + ":" + getString.invoke(event, "phase") + ":"
+						+ getDuration.invoke(event, "phaseDuration"));
+			}
+		}
+		assertThat(recorded).containsExactly("cassandra-0:initialize:PT0.01S", "cassandra-0:readiness:PT0.02S");
+	}
+
+	@Test
+	void commitWithoutRecording() {
+		StartupPhaseEvent.commit("cassandra-0", new StartupReport(new LinkedHashMap<>()));
+		StartupPhaseEvent.commit("cassandra-0",
+				new StartupReport(Collections.singletonMap("node", Duration.ofSeconds(1))));
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TmpfsStorage}.
+ *
+ * @author Dmytro Nosan
+ */
+class TmpfsStorageTests {
+
+	@Test
+	void configProperties(@TempDir Path temporaryFolder) {
+		TmpfsStorage storage = TmpfsStorage.of(temporaryFolder, Version.of("3.11.6"), Long.MAX_VALUE);
+		assertThat(storage).isNotNull();
+		Path directory = storage.getDirectory();
+		assertThat(directory.getParent()).isEqualTo(temporaryFolder);
+		assertThat(directory).doesNotExist();
+		assertThat(storage.getConfigProperties())
+				.containsEntry("data_file_directories",
+						Collections.singletonList(directory.resolve("data").toString()))
+				.containsEntry("commitlog_directory", directory.resolve("commitlog").toString())
+				.containsEntry("saved_caches_directory", directory.resolve("saved_caches").toString())
+				.containsEntry("hints_directory", directory.resolve("hints").toString())
+				.containsEntry("cdc_raw_directory", directory.resolve("cdc_raw").toString());
+	}
+
+	@Test
+	void configPropertiesOldVersion(@TempDir Path temporaryFolder) {
+		TmpfsStorage storage = TmpfsStorage.of(temporaryFolder, Version.of("2.2.16"), Long.MAX_VALUE);
+		assertThat(storage).isNotNull();
+		assertThat(storage.getConfigProperties()).containsKeys("data_file_directories", "commitlog_directory",
+				"saved_caches_directory").doesNotContainKeys("hints_directory", "cdc_raw_directory");
+	}
+
+	@Test
+	void notEnoughMemory(@TempDir Path temporaryFolder) {
+		assertThat(TmpfsStorage.of(temporaryFolder, Version.of("3.11.6"), TmpfsStorage.MIN_FREE_BYTES - 1)).isNull();
+	}
+
+	@Test
+	void directoryDoesNotExist(@TempDir Path temporaryFolder) {
+		assertThat(TmpfsStorage.of(temporaryFolder.resolve("shm"), Version.of("3.11.6"), Long.MAX_VALUE)).isNull();
+	}
+
+}
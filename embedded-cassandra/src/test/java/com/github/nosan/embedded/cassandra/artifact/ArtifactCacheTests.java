@@ -0,0 +1,236 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ArtifactCache}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArtifactCacheTests {
+
+	private static final Version VERSION = Version.of("3.11.6");
+
+	@TempDir
+	Path temporaryFolder;
+
+	@Test
+	void putAndGet() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		String sha512 = Checksums.sha512(archive);
+		assertThat(cache.get(sha512)).isNull();
+		Path entry = cache.put(sha512, archive);
+		assertThat(entry).isEqualTo(cache.getDirectory().resolve(sha512));
+		assertThat(entry.resolve("apache-cassandra-3.11.6/conf/cassandra.yaml")).hasContent("first");
+		assertThat(cache.get(sha512.toUpperCase())).isEqualTo(entry);
+		List<ArtifactCache.Entry> entries = cache.getEntries();
+		assertThat(entries).hasSize(1);
+		assertThat(entries.get(0).getSha512()).isEqualTo(sha512);
+		assertThat(entries.get(0).getSize()).isEqualTo(5);
+		assertThat(entries.get(0).getLastAccess()).isAfterOrEqualTo(entries.get(0).getCreated());
+		assertThat(new DefaultArtifact(VERSION, entry).getDistribution().getDirectory())
+				.isEqualTo(entry.resolve("apache-cassandra-3.11.6"));
+	}
+
+	@Test
+	void putChecksumMismatch() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		String sha512 = Checksums.sha512(createArchive("second", "second.tar.gz"));
+		assertThatThrownBy(() -> cache.put(sha512, archive)).hasMessageContaining("SHA-512 checksum");
+		assertThat(cache.get(sha512)).isNull();
+		assertThat(cache.getEntries()).isEmpty();
+	}
+
+	@Test
+	void readOnly() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		String sha512 = Checksums.sha512(archive);
+		Path entry = cache.put(sha512, archive);
+		Path metadata = cache.getDirectory().resolve(sha512 + ".properties");
+		byte[] content = Files.readAllBytes(metadata);
+		cache.setReadOnly(true);
+		assertThat(cache.get(sha512)).isEqualTo(entry);
+		assertThat(metadata).hasBinaryContent(content);
+		assertThatThrownBy(() -> cache.put(sha512, archive)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() throws Exception {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		cache.setMaxSize(12);
+		cache.setMinIdleTime(Duration.ZERO);
+		Resource first = createArchive("first", "first.tar.gz");
+		Resource second = createArchive("second", "second.tar.gz");
+		Resource third = createArchive("third", "third.tar.gz");
+		String firstSha512 = Checksums.sha512(first);
+		String secondSha512 = Checksums.sha512(second);
+		String thirdSha512 = Checksums.sha512(third);
+		cache.put(firstSha512, first);
+		Thread.sleep(10);
+		cache.put(secondSha512, second);
+		Thread.sleep(10);
+		assertThat(cache.get(firstSha512)).isNotNull();
+		Thread.sleep(10);
+		cache.put(thirdSha512, third);
+		assertThat(cache.getEntries()).extracting(ArtifactCache.Entry::getSha512)
+				.containsExactly(firstSha512, thirdSha512);
+		assertThat(cache.getDirectory().resolve(secondSha512 + ".lock")).doesNotExist();
+		assertThat(cache.get(secondSha512)).isNull();
+		assertThat(cache.getDirectory().resolve(secondSha512)).doesNotExist();
+	}
+
+	@Test
+	void evictedLockFile() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "first.tar.gz");
+		String sha512 = Checksums.sha512(archive);
+		Path entry = cache.put(sha512, archive);
+		// the lock file has been marked as deleted, but the evicting process exited before deleting it
+		Files.write(cache.getDirectory().resolve(sha512 + ".lock"), new byte[]{1});
+		assertThat(cache.get(sha512)).isEqualTo(entry);
+		assertThat(cache.getDirectory().resolve(sha512 + ".lock")).hasBinaryContent(new byte[0]);
+	}
+
+	@Test
+	void corruptedMetadata() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "first.tar.gz");
+		String sha512 = Checksums.sha512(archive);
+		Path entry = cache.put(sha512, archive);
+		Files.write(cache.getDirectory().resolve(sha512 + ".properties"),
+				"size=corrupted\n".getBytes(StandardCharsets.ISO_8859_1));
+		assertThat(cache.getEntries()).isEmpty();
+		assertThat(cache.get(sha512)).isNull();
+		assertThat(entry).doesNotExist();
+		assertThat(cache.put(sha512, archive)).isEqualTo(entry);
+		assertThat(cache.getEntries()).hasSize(1);
+	}
+
+	@Test
+	void evictSkipsRecentlyUsedEntries() throws Exception {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		cache.setMaxSize(6);
+		Resource first = createArchive("first", "first.tar.gz");
+		Resource second = createArchive("second", "second.tar.gz");
+		String firstSha512 = Checksums.sha512(first);
+		String secondSha512 = Checksums.sha512(second);
+		cache.put(firstSha512, first);
+		cache.put(secondSha512, second);
+		assertThat(cache.getEntries()).extracting(ArtifactCache.Entry::getSha512)
+				.containsExactly(firstSha512, secondSha512);
+		assertThat(cache.get(firstSha512)).isNotNull();
+	}
+
+	@Test
+	void evictSkipsLockedEntries() throws Exception {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource first = createArchive("first", "first.tar.gz");
+		Resource second = createArchive("second", "second.tar.gz");
+		String firstSha512 = Checksums.sha512(first);
+		String secondSha512 = Checksums.sha512(second);
+		cache.put(firstSha512, first);
+		Thread.sleep(10);
+		cache.put(secondSha512, second);
+		cache.setMaxSize(6);
+		cache.setMinIdleTime(Duration.ZERO);
+		try (FileLock fileLock = FileLock.of(cache.getDirectory().resolve(firstSha512 + ".lock"))) {
+			assertThat(fileLock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+			cache.evict();
+		}
+		assertThat(cache.getEntries()).extracting(ArtifactCache.Entry::getSha512)
+				.containsExactly(firstSha512, secondSha512);
+		cache.evict();
+		assertThat(cache.getEntries()).extracting(ArtifactCache.Entry::getSha512).containsExactly(secondSha512);
+	}
+
+	@Test
+	void archiveArtifact() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, archive, this.temporaryFolder.resolve("local"));
+		artifact.setCache(cache);
+		Artifact.Distribution distribution = artifact.getDistribution();
+		assertThat(distribution.getDirectory())
+				.isEqualTo(cache.getDirectory().resolve(Checksums.sha512(archive)).resolve("apache-cassandra-3.11.6"));
+		assertThat(artifact.getDistribution().getDirectory()).isEqualTo(distribution.getDirectory());
+		assertThat(this.temporaryFolder.resolve("local")).doesNotExist();
+	}
+
+	@Test
+	void archiveArtifactReadOnlyCacheMiss() throws IOException {
+		ArtifactCache cache = new ArtifactCache(this.temporaryFolder.resolve("cache"));
+		cache.setReadOnly(true);
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, archive, this.temporaryFolder.resolve("local"));
+		artifact.setCache(cache);
+		assertThat(artifact.getDistribution().getDirectory()).startsWith(this.temporaryFolder.resolve("local"));
+		assertThat(cache.getDirectory()).doesNotExist();
+	}
+
+	@Test
+	void archiveArtifactChecksumMismatch() throws IOException {
+		Resource archive = createArchive("first", "apache-cassandra-3.11.6-bin.tar.gz");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, archive, this.temporaryFolder.resolve("local"));
+		artifact.setChecksum(Checksums.sha512(createArchive("second", "second.tar.gz")));
+		assertThatThrownBy(artifact::getDistribution).hasMessageContaining("SHA-512 checksum");
+	}
+
+	private Resource createArchive(String content, String name) throws IOException {
+		Path file = this.temporaryFolder.resolve(name);
+		try (OutputStream os = Files.newOutputStream(file);
+				TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(os))) {
+			for (String directory : new String[]{"bin/", "lib/", "conf/"}) {
+				tar.putArchiveEntry(new TarArchiveEntry("apache-cassandra-3.11.6/" + directory));
+				tar.closeArchiveEntry();
+			}
+			byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+			TarArchiveEntry entry = new TarArchiveEntry("apache-cassandra-3.11.6/conf/cassandra.yaml");
+			entry.setSize(bytes.length);
+			tar.putArchiveEntry(entry);
+			tar.write(bytes);
+			tar.closeArchiveEntry();
+		}
+		return new FileSystemResource(file);
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link Checksums}.
+ *
+ * @author Dmytro Nosan
+ */
+class ChecksumsTests {
+
+	private static final String SHA512 = "8a0fa7d1e0e6d5e1b1b2c1d9f5a3e2c4b6d8f0a1c3e5b7d9f1a3c5e7b9d1f3a5"
+			+ "c7e9b1d3f5a7c9e1b3d5f7a9c1e3b5d7f9a1c3e5b7d9f1a3c5e7b9d1f3a5c7e9";
+
+	@Test
+	void parseHex() {
+		assertThat(Checksums.parse(SHA512 + "\n")).isEqualTo(SHA512);
+	}
+
+	@Test
+	void parseHexAndFileName() {
+		assertThat(Checksums.parse(SHA512 + "  apache-cassandra-4.0-bin.tar.gz\n")).isEqualTo(SHA512);
+	}
+
+	@Test
+	void parseGpgFormat() {
+		StringBuilder content = new StringBuilder("apache-cassandra-3.11.6-bin.tar.gz: ");
+		String upper = SHA512.toUpperCase();
+		for (int i = 0; i < upper.length(); i += 8) {
+			content.append(upper, i, i + 8).append((i == 56) ? "\n                                    " : " ");
+		}
+		assertThat(Checksums.parse(content.toString())).isEqualTo(SHA512);
+	}
+
+	@Test
+	void parseInvalid() {
+		assertThatThrownBy(() -> Checksums.parse("not a checksum")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
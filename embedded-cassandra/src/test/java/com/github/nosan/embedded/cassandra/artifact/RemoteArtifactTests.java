@@ -27,9 +27,14 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import com.sun.net.httpserver.HttpServer;
 import org.apache.commons.compress.utils.IOUtils;
@@ -53,12 +58,20 @@ class RemoteArtifactTests {
 
 	private static final Version VERSION = Version.of("3.11.6");
 
+	private static final int CHUNK_SIZE = 2 * 1024 * 1024;
+
 	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
 
 	private final TeeOutputStream out = new TeeOutputStream(System.out, this.output);
 
 	private final HttpServer httpServer = createHttpServer();
 
+	private final AtomicInteger ranges = new AtomicInteger();
+
+	private final AtomicInteger mirrorRanges = new AtomicInteger();
+
+	private byte[] content;
+
 	@BeforeEach
 	void setUp() throws Exception {
 		System.setOut(new PrintStream(this.out));
@@ -68,11 +81,14 @@ class RemoteArtifactTests {
 		try (InputStream inputStream = new ClassPathResource("apache-cassandra-3.11.6-bin.tar.gz").getInputStream()) {
 			content = IOUtils.toByteArray(inputStream);
 		}
+		this.content = content;
 		this.httpServer.createContext("/apache-cassandra-3.11.6-bin.tar.gz", exchange -> {
 			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
 			exchange.getResponseBody().write(content);
 			exchange.close();
 		});
+		createRangeContext("/range/apache-cassandra-3.11.6-bin.tar.gz", this.ranges);
+		createRangeContext("/mirror/apache-cassandra-3.11.6-bin.tar.gz", this.mirrorRanges);
 		this.httpServer.createContext("/dist/apache-cassandra-3.11.6-bin.tar.gz", exchange -> {
 			exchange.getResponseHeaders().put("Location",
 					Collections.singletonList("/apache-cassandra-3.11.6-bin.tar.gz"));
@@ -111,6 +127,163 @@ class RemoteArtifactTests {
 		assertThat(this.output.toString()).contains("Downloaded");
 	}
 
+	@Test
+	void shouldDownloadArtifactStreaming(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setStreaming(true);
+		artifact.setUrlFactory(version -> Collections.singletonList(
+				new URL(String.format("http:/%s/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("Downloaded").contains("has been extracted");
+		this.output.reset();
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).doesNotContain("Downloaded");
+	}
+
+	@Test
+	void shouldDownloadArtifactStreamingChecksum(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setStreaming(true);
+		artifact.setChecksum(Checksums.sha512(new ClassPathResource("apache-cassandra-3.11.6-bin.tar.gz")));
+		artifact.setUrlFactory(version -> Collections.singletonList(
+				new URL(String.format("http:/%s/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+	}
+
+	@Test
+	void shouldNotDownloadArtifactStreamingChecksumMismatch(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setStreaming(true);
+		artifact.setChecksum(String.join("", Collections.nCopies(128, "a")));
+		artifact.setUrlFactory(version -> Collections.singletonList(
+				new URL(String.format("http:/%s/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertThatThrownBy(artifact::getDistribution).hasStackTraceContaining("SHA-512 checksum");
+		Path destination = temporaryFolder.resolve(".embedded-cassandra/artifact/remote/3.11.6");
+		try (Stream<Path> files = Files.list(destination)) {
+			assertThat(files).extracting(file -> file.getFileName().toString()).containsOnly(".lock");
+		}
+	}
+
+	@Test
+	void shouldDownloadArtifactRanges(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("Downloaded");
+		assertThat(getChunks()).isGreaterThan(1);
+		assertThat(this.ranges).hasValue(1 + getChunks());
+		assertThat(temporaryFolder.resolve(".embedded-cassandra/artifact/remote/3.11.6/"
+				+ "apache-cassandra-3.11.6-bin.tar.gz.progress")).doesNotExist();
+	}
+
+	@Test
+	void shouldDownloadArtifactRangesMirrors(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Arrays.asList(
+				new URL(String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz",
+						this.httpServer.getAddress())),
+				new URL(String.format("http:/%s/mirror/apache-cassandra-3.11.6-bin.tar.gz",
+						this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.ranges.get()).isGreaterThan(1);
+		assertThat(this.mirrorRanges.get()).isGreaterThan(1);
+		assertThat(this.ranges.get() + this.mirrorRanges.get()).isEqualTo(2 + getChunks());
+	}
+
+	@Test
+	void shouldNotDownloadArtifactRangesFromDifferentMirror(@TempDir Path temporaryFolder) throws Exception {
+		AtomicInteger otherRanges = new AtomicInteger();
+		createRangeContext("/other/apache-cassandra-3.11.6-bin.tar.gz", otherRanges, "\"v2\"");
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Arrays.asList(
+				new URL(String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz",
+						this.httpServer.getAddress())),
+				new URL(String.format("http:/%s/other/apache-cassandra-3.11.6-bin.tar.gz",
+						this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(otherRanges).hasValue(1);
+		assertThat(this.ranges).hasValue(1 + getChunks());
+	}
+
+	@Test
+	void shouldResumeDownloadArtifactRanges(@TempDir Path temporaryFolder) throws Exception {
+		Path file = writeProgress(temporaryFolder, this.content.length, "\"v1\"");
+		byte[] partial = new byte[this.content.length];
+		System.arraycopy(this.content, 0, partial, 0, 2 * CHUNK_SIZE);
+		Files.write(file, partial);
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("2 of " + getChunks() + " chunks are already downloaded");
+		assertThat(this.ranges).hasValue(1 + getChunks() - 2);
+	}
+
+	@Test
+	void shouldNotResumeDownloadArtifactRangesFileChanged(@TempDir Path temporaryFolder) throws Exception {
+		Path file = writeProgress(temporaryFolder, this.content.length, "\"v0\"");
+		Files.write(file, new byte[this.content.length]);
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("The file is downloaded from the beginning");
+		assertThat(this.ranges).hasValue(1 + getChunks());
+	}
+
+	@Test
+	void shouldNotResumeDownloadArtifactRangesCorruptedProgress(@TempDir Path temporaryFolder) throws Exception {
+		Path file = writeProgress(temporaryFolder, this.content.length, "\"v1\"", "0,x");
+		Files.write(file, new byte[this.content.length]);
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("is corrupted. The file is downloaded from the beginning");
+		assertThat(this.ranges).hasValue(1 + getChunks());
+	}
+
+	@Test
+	void shouldNotResumeDownloadArtifactRangesFileSizeMismatch(@TempDir Path temporaryFolder) throws Exception {
+		Path file = writeProgress(temporaryFolder, this.content.length, "\"v1\"");
+		Files.write(file, new byte[10]);
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/range/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).doesNotContain("chunks are already downloaded");
+		assertThat(this.ranges).hasValue(1 + getChunks());
+	}
+
+	@Test
+	void shouldDownloadArtifactRangesNotSupported(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setConnections(4);
+		artifact.setUrlFactory(version -> Collections.singletonList(
+				new URL(String.format("http:/%s/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("HTTP Range requests are not supported");
+	}
+
 	@Test
 	void shouldNotDownloadArtifactMaxRedirection(@TempDir Path temporaryFolder) throws Exception {
 		this.httpServer.createContext("/dist/apache-cassandra-3.11.6.zip", exchange -> {
@@ -178,6 +351,56 @@ class RemoteArtifactTests {
 		assertThatThrownBy(artifact::getDistribution).hasStackTraceContaining("Connection refused");
 	}
 
+	private int getChunks() {
+		return (this.content.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	private void createRangeContext(String path, AtomicInteger ranges) {
+		createRangeContext(path, ranges, "\"v1\"");
+	}
+
+	private void createRangeContext(String path, AtomicInteger ranges, String etag) {
+		byte[] content = this.content;
+		this.httpServer.createContext(path, exchange -> {
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			exchange.getResponseHeaders().put("ETag", Collections.singletonList(etag));
+			if (range == null) {
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
+				exchange.getResponseBody().write(content);
+			}
+			else {
+				String[] bounds = range.substring("bytes=".length()).split("-");
+				int start = Integer.parseInt(bounds[0]);
+				int end = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+				ranges.incrementAndGet();
+				exchange.getResponseHeaders().put("Content-Range",
+						Collections.singletonList(String.format("bytes %d-%d/%d", start, end, content.length)));
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_PARTIAL, end - start + 1);
+				exchange.getResponseBody().write(content, start, end - start + 1);
+			}
+			exchange.close();
+		});
+	}
+
+	private static Path writeProgress(Path temporaryFolder, long length, String validator) throws IOException {
+		return writeProgress(temporaryFolder, length, validator, "0,1");
+	}
+
+	private static Path writeProgress(Path temporaryFolder, long length, String validator, String chunks)
+			throws IOException {
+		Path directory = Files.createDirectories(temporaryFolder.resolve(".embedded-cassandra/artifact/remote/3.11.6"));
+		Properties properties = new Properties();
+		properties.setProperty("length", String.valueOf(length));
+		properties.setProperty("chunk-size", String.valueOf(CHUNK_SIZE));
+		properties.setProperty("chunks", chunks);
+		properties.setProperty("validator", validator);
+		try (OutputStream os = Files.newOutputStream(
+				directory.resolve("apache-cassandra-3.11.6-bin.tar.gz.progress"))) {
+			properties.store(os, null);
+		}
+		return directory.resolve("apache-cassandra-3.11.6-bin.tar.gz");
+	}
+
 	private void assertDistribution(Artifact.Distribution distribution) {
 		Path directory = distribution.getDirectory();
 		assertThat(distribution.getVersion()).isEqualTo(VERSION);